@@ -0,0 +1,39 @@
+package com.example.mediaverwaltung.benchmark;
+
+import com.example.mediaverwaltung.MediaVerwaltungApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Startet die Anwendung für Persistenz-Benchmarks
+ *
+ * Profil "test" (H2 In-Memory, create-drop), ohne Webserver und mit
+ * wenig Logging, damit nur Service, Hibernate und H2 gemessen werden.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(MediaVerwaltungApplication.class)
+                .web(WebApplicationType.NONE)
+                // als Argumente, damit sie spring.profiles.active=local-prod überstimmen
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.mediaverwaltung=WARN",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+    }
+
+    /**
+     * Leert media_item (samt Tag-Zuordnungen), Tags bleiben
+     */
+    public static void clear(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("DELETE FROM media_item_tag");
+        jdbc.update("DELETE FROM media_item");
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.mediaverwaltung.benchmark;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.service.MediaItemService;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import com.example.mediaverwaltung.service.importer.ImportSink;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Erzeugt reproduzierbare Testdaten für die Benchmarks
+ *
+ * Gleicher Seed, gleiche Daten: Ergebnisse verschiedener Läufe (vor/nach
+ * einer Änderung) sind vergleichbar. Etwa jede zehnte Beschreibung
+ * enthält Komma, Quote oder Zeilenumbruch, damit Quoting und Escaping
+ * mitgemessen werden.
+ */
+public final class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    private static final String[] TYPES = { "VIDEO", "AUDIO", "PODCAST", "ARTIKEL" };
+
+    private static final String[] TAGS = { "java", "spring", "jvm", "sql", "musik", "doku", "talk", "news" };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Items mit eindeutiger URL (Zeile i hat immer dieselben Werte)
+     */
+    public static List<MediaItem> items(int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<MediaItem> items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            MediaItem item = new MediaItem();
+            item.setUrl("https://www.youtube.com/watch?v=bench" + i + "&list=PL" + random.nextInt(1000));
+            item.setBeschreibung(random.nextInt(10) == 0
+                    ? "Folge " + i + ", Teil \"" + random.nextInt(100) + "\"\nmit Zeilenumbruch"
+                    : "Folge " + i + " der Benchmark-Reihe über Performance");
+            item.setChannel("Channel " + random.nextInt(200));
+            item.setDauer(random.nextInt(3) + ":" + String.format("%02d", random.nextInt(60)) + ":"
+                    + String.format("%02d", random.nextInt(60)));
+            item.setGesehen(random.nextBoolean());
+            item.setMediaType(TYPES[random.nextInt(TYPES.length)]);
+            item.setStichwort(TAGS[random.nextInt(TAGS.length)] + ", " + TAGS[random.nextInt(TAGS.length)]);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * CSV mit Header im Export-Format (MediaItemService.CSV_HEADER)
+     */
+    public static byte[] csv(int rows) {
+        StringBuilder csv = new StringBuilder(rows * 160);
+        csv.append(MediaItemService.CSV_HEADER).append('\n');
+        for (MediaItem item : items(rows)) {
+            csv.append(item.getUrl()).append(',')
+                .append(quote(item.getBeschreibung())).append(',')
+                .append(item.getChannel()).append(',')
+                .append(item.getDauer()).append(',')
+                .append(item.getGesehen()).append(',')
+                .append(item.getMediaType()).append(',')
+                .append(quote(item.getStichwort())).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * JSON-Array wie beim JSON-Import
+     */
+    public static byte[] json(int rows) {
+        StringBuilder json = new StringBuilder(rows * 220);
+        json.append('[');
+        for (MediaItem item : items(rows)) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"url\":\"").append(item.getUrl())
+                .append("\",\"beschreibung\":\"").append(item.getBeschreibung()
+                    .replace("\"", "\\\"").replace("\n", "\\n"))
+                .append("\",\"channel\":\"").append(item.getChannel())
+                .append("\",\"dauer\":\"").append(item.getDauer())
+                .append("\",\"gesehen\":").append(item.getGesehen())
+                .append(",\"mediaType\":\"").append(item.getMediaType())
+                .append("\",\"stichwort\":\"").append(item.getStichwort())
+                .append("\"}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Ziel ohne Datenbank: übergibt die Items an JMH (kein Dead-Code-Eliminieren)
+     */
+    public static final class BlackholeSink implements ImportSink {
+
+        private final Blackhole blackhole;
+        private final ImportResult result = new ImportResult();
+
+        public BlackholeSink(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            result.recordRead();
+            blackhole.consume(item);
+        }
+
+        @Override
+        public void recordFailure(long lineNumber, String message) {
+            result.recordRead();
+            result.recordFailure(lineNumber, message);
+        }
+
+        @Override
+        public ImportResult getResult() {
+            return result;
+        }
+
+        @Override
+        public ImportResult finish() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.benchmark.BenchmarkApplication;
+import com.example.mediaverwaltung.benchmark.BenchmarkData;
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch-Inserts gegen H2 (In-Memory) über MediaItemBatchWriter
+ *
+ * Jede Messung schreibt rows neue Items in eine leere Tabelle (Chunks
+ * nach mediaverwaltung.import.batch-size, inkl. Tags und Dublettenprüfung).
+ * Leeren und Erzeugen der Items liegen außerhalb der Messung. Einzelmessung
+ * (SingleShotTime), da ein Durchlauf bei 1M Zeilen Sekunden dauert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BatchInsertBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private MediaItemBatchWriter batchWriter;
+
+    private List<MediaItem> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        batchWriter = context.getBean(MediaItemBatchWriter.class);
+    }
+
+    /**
+     * Leere Tabelle und frische Items (der Writer setzt id und URL-Schlüssel)
+     */
+    @Setup(Level.Iteration)
+    public void prepare() {
+        BenchmarkApplication.clear(context);
+        items = BenchmarkData.items(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportResult insert() {
+        MediaItemBatchWriter.Session session = batchWriter.open();
+        for (int i = 0; i < items.size(); i++) {
+            session.add(items.get(i), i + 1);
+        }
+        return session.finish();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.benchmark.BenchmarkApplication;
+import com.example.mediaverwaltung.benchmark.BenchmarkData;
+import com.example.mediaverwaltung.model.MediaItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * CSV-Export: escapeCsv einzeln und exportAllToCSV über den Datenbank-Cursor
+ *
+ * Der Export schreibt in Writer.nullWriter(), gemessen werden also
+ * Cursor, Hibernate-Mapping und Escaping, nicht das Netz.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvExportBenchmark {
+
+    /**
+     * Werte wie im Export: meist ohne Sonderzeichen, einige mit Quote/Komma/Umbruch
+     */
+    @State(Scope.Benchmark)
+    public static class Values {
+
+        String[] values;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            values = BenchmarkData.items(1000).stream()
+                    .flatMap(item -> Stream.of(item.getUrl(), item.getBeschreibung(),
+                            item.getChannel(), item.getStichwort()))
+                    .toArray(String[]::new);
+        }
+    }
+
+    /**
+     * Datenbank mit rows Items (einmal pro Trial befüllt)
+     */
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        @Param({ "1000", "100000", "1000000" })
+        int rows;
+
+        ConfigurableApplicationContext context;
+
+        MediaItemService service;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start();
+            service = context.getBean(MediaItemService.class);
+            MediaItemBatchWriter.Session session = context.getBean(MediaItemBatchWriter.class).open();
+            List<MediaItem> items = BenchmarkData.items(rows);
+            for (int i = 0; i < items.size(); i++) {
+                session.add(items.get(i), i + 1);
+            }
+            session.finish();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public void escapeCsv(Values values, Blackhole blackhole) {
+        for (String value : values.values) {
+            blackhole.consume(MediaItemService.escapeCsv(value));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public long exportAllToCSV(Database database) throws IOException {
+        return database.service.exportAllToCSV(Writer.nullWriter());
+    }
+}
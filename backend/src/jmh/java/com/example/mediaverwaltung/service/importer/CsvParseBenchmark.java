@@ -0,0 +1,93 @@
+package com.example.mediaverwaltung.service.importer;
+
+import com.example.mediaverwaltung.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV-Parser ohne Datenbank: Tokenizer, Mapping, paralleler Import
+ *
+ * - tokenize: nur CsvRecordReader (Quotes, Zeilenumbrüche)
+ * - sequential: CsvRecordReader + MediaItemCsvMapper (ein Thread)
+ * - parallel: CsvImporter mit CsvChunker auf allen Kernen
+ *
+ * Ergebnis = Zeit für die ganze Datei; Zeilen/s = rows / Score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvParseBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private byte[] csv;
+
+    private CsvImporter sequentialImporter;
+
+    private CsvImporter parallelImporter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csv = BenchmarkData.csv(rows);
+        sequentialImporter = new CsvImporter(1, DataSize.ofMegabytes(4));
+        parallelImporter = new CsvImporter(0, DataSize.ofMegabytes(4));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sequentialImporter.destroy();
+        parallelImporter.destroy();
+    }
+
+    @Benchmark
+    public long tokenize(Blackhole blackhole) throws IOException {
+        long records = 0;
+        try (CsvRecordReader reader = new CsvRecordReader(
+                new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8))) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                blackhole.consume(record);
+                records++;
+            }
+        }
+        return records;
+    }
+
+    @Benchmark
+    public ImportResult sequential(Blackhole blackhole) throws IOException {
+        BenchmarkData.BlackholeSink sink = new BenchmarkData.BlackholeSink(blackhole);
+        sequentialImporter.importData(new ByteArrayInputStream(csv), sink);
+        return sink.finish();
+    }
+
+    @Benchmark
+    public ImportResult parallel(Blackhole blackhole) throws IOException {
+        BenchmarkData.BlackholeSink sink = new BenchmarkData.BlackholeSink(blackhole);
+        parallelImporter.importData(new ByteArrayInputStream(csv), sink);
+        return sink.finish();
+    }
+}
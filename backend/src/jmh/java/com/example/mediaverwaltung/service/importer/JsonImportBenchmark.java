@@ -0,0 +1,55 @@
+package com.example.mediaverwaltung.service.importer;
+
+import com.example.mediaverwaltung.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON-Import ohne Datenbank (JsonImporter, Element für Element gestreamt)
+ *
+ * ObjectMapper wie in der Anwendung (Jackson2ObjectMapperBuilder).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JsonImportBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private byte[] json;
+
+    private JsonImporter importer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        json = BenchmarkData.json(rows);
+        importer = new JsonImporter(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Benchmark
+    public ImportResult importData(Blackhole blackhole) throws IOException {
+        BenchmarkData.BlackholeSink sink = new BenchmarkData.BlackholeSink(blackhole);
+        importer.importData(new ByteArrayInputStream(json), sink);
+        return sink.finish();
+    }
+}
@@ -2,6 +2,8 @@ package com.example.mediaverwaltung;
 
 import com.example.mediaverwaltung.model.MediaItem;
 import com.example.mediaverwaltung.service.MediaItemService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -13,6 +15,8 @@ import java.util.List;
 @SpringBootApplication
 public class MediaVerwaltungApplication {
 
+    private static final Logger log = LoggerFactory.getLogger(MediaVerwaltungApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(MediaVerwaltungApplication.class, args);
     }
@@ -24,8 +28,7 @@ public class MediaVerwaltungApplication {
     	
     	
         return (args) -> {
-            System.out.println("✅ MediaVerwaltung gestartet!");
-            System.out.println("🌐 API: http://localhost:8080/api/media");
+            log.info("MediaVerwaltung gestartet, API: http://localhost:8080/api/media");
         };
     	
     	
@@ -0,0 +1,76 @@
+package com.example.mediaverwaltung.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache Configuration (Caffeine, In-Process)
+ *
+ * Abschaltbar mit: mediaverwaltung.cache.enabled=false
+ * Dann sind alle @Cacheable / @CacheEvict Annotationen wirkungslos.
+ *
+ * Alle Caches sind begrenzt (Größe + TTL) und zählen Treffer/Fehlschläge
+ * (GET /api/cache/stats). Schreib- und Evict-Operationen laufen erst nach
+ * dem Commit der Transaktion, damit kein Leser zwischen Evict und Commit
+ * den alten Stand wieder in den Cache legt.
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "mediaverwaltung.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    /**
+     * Cache für /api/media/stats (ein Eintrag, kurze TTL)
+     */
+    public static final String STATS_CACHE = "mediaStats";
+
+    /**
+     * Cache für einzelne MediaItems (Key: id)
+     */
+    public static final String ITEM_CACHE = "mediaItems";
+
+    /**
+     * Cache für häufige Listen-/Zähl-Abfragen (Seiten, count, Tag-Zählung, Dauer)
+     */
+    public static final String QUERY_CACHE = "mediaQueries";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${mediaverwaltung.cache.stats-ttl:5s}") Duration statsTtl,
+            @Value("${mediaverwaltung.cache.item-ttl:10m}") Duration itemTtl,
+            @Value("${mediaverwaltung.cache.item-max-size:10000}") long itemMaxSize,
+            @Value("${mediaverwaltung.cache.query-ttl:30s}") Duration queryTtl,
+            @Value("${mediaverwaltung.cache.query-max-size:1000}") long queryMaxSize) {
+
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+
+        manager.registerCustomCache(STATS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(statsTtl)
+                .maximumSize(1)
+                .recordStats()
+                .build());
+
+        manager.registerCustomCache(ITEM_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(itemTtl)
+                .maximumSize(itemMaxSize)
+                .recordStats()
+                .build());
+
+        manager.registerCustomCache(QUERY_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(queryTtl)
+                .maximumSize(queryMaxSize)
+                .recordStats()
+                .build());
+
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+}
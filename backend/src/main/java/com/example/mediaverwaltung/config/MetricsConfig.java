@@ -0,0 +1,66 @@
+package com.example.mediaverwaltung.config;
+
+import com.example.mediaverwaltung.service.job.ImportJobService;
+import com.example.mediaverwaltung.service.push.ChangeStream;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Eigene Micrometer-Kennzahlen (zusätzlich zu den Spring-Boot-Standards)
+ *
+ * Spring Boot liefert bereits HTTP-Timer pro Endpoint (http.server.requests),
+ * Hikari-Pool (hikaricp.*), Caffeine-Caches (cache.*), Hibernate (hibernate.*)
+ * und JVM. Hier kommen die Zustände der eigenen Komponenten dazu:
+ *
+ * - mediaverwaltung.push.subscribers / .dropped: SSE-Clients, verworfene Events
+ * - mediaverwaltung.import.jobs.running / .queued: Import-Jobs
+ * - mediaverwaltung.jdbc.limiter.active / .waiting: nur mit virtuellen Threads
+ * - mediaverwaltung.virtual-threads.pinned: nur mit Pinning-Monitor
+ *
+ * Import/Export-Zähler siehe ImportExportMetrics.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder mediaverwaltungMeters(ChangeStream changeStream,
+            ImportJobService importJobService,
+            DataSource dataSource,
+            ObjectProvider<PinnedThreadMonitor> pinnedThreadMonitor) {
+        return registry -> {
+            Gauge.builder("mediaverwaltung.push.subscribers", changeStream, ChangeStream::subscriberCount)
+                    .description("Verbundene SSE-Clients")
+                    .register(registry);
+            FunctionCounter.builder("mediaverwaltung.push.dropped", changeStream, ChangeStream::droppedCount)
+                    .description("Wegen vollem Puffer verworfene Events")
+                    .register(registry);
+
+            Gauge.builder("mediaverwaltung.import.jobs.running", importJobService, ImportJobService::getRunningCount)
+                    .description("Laufende Import-Jobs")
+                    .register(registry);
+            Gauge.builder("mediaverwaltung.import.jobs.queued", importJobService, ImportJobService::getQueuedCount)
+                    .description("Wartende Import-Jobs")
+                    .register(registry);
+
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("mediaverwaltung.jdbc.limiter.active", limited, ConcurrencyLimitedDataSource::getActiveCount)
+                        .description("Über den Limiter ausgeliehene Verbindungen")
+                        .register(registry);
+                Gauge.builder("mediaverwaltung.jdbc.limiter.waiting", limited, ConcurrencyLimitedDataSource::getWaitingCount)
+                        .description("Auf eine Verbindung wartende Threads")
+                        .register(registry);
+            }
+
+            pinnedThreadMonitor.ifAvailable(monitor ->
+                    FunctionCounter.builder("mediaverwaltung.virtual-threads.pinned", monitor, PinnedThreadMonitor::getPinnedCount)
+                            .description("Gemeldete Pinning-Ereignisse virtueller Threads")
+                            .register(registry));
+        };
+    }
+}
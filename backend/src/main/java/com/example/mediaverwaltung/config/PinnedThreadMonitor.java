@@ -0,0 +1,107 @@
+package com.example.mediaverwaltung.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Meldet virtuelle Threads, die ihren Träger-Thread blockieren (Pinning)
+ * 
+ * Liest das JFR-Event jdk.VirtualThreadPinned im laufenden Prozess mit
+ * und loggt den Stack (oberste Frames). Jede Stelle wird nur einmal pro
+ * log-interval geloggt, gezählt werden alle Vorkommen.
+ * 
+ * Aktivieren mit: mediaverwaltung.virtual-threads.pinning-monitor=true
+ */
+@Component
+@ConditionalOnProperty(name = "mediaverwaltung.virtual-threads.pinning-monitor", havingValue = "true")
+public class PinnedThreadMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int MAX_FRAMES = 8;
+
+    private final Duration threshold;
+
+    private final Duration logInterval;
+
+    private final AtomicLong pinnedCount = new AtomicLong();
+
+    /**
+     * Letzter Log-Zeitpunkt (nanoTime) je Stack-Signatur
+     * (nur vom Thread des RecordingStream benutzt)
+     */
+    private final Map<String, Long> lastLogged = new HashMap<>();
+
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(
+            @Value("${mediaverwaltung.virtual-threads.pinning-threshold:20ms}") Duration threshold,
+            @Value("${mediaverwaltung.virtual-threads.pinning-log-interval:1m}") Duration logInterval) {
+        this.threshold = threshold;
+        this.logInterval = logInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Pinning-Monitor aktiv (Schwelle {} ms)", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Anzahl gemeldeter Pinning-Ereignisse seit Start
+     */
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.incrementAndGet();
+        String stack = format(event.getStackTrace());
+        long now = System.nanoTime();
+        Long previous = lastLogged.get(stack);
+        if (previous != null && now - previous < logInterval.toNanos()) {
+            return;
+        }
+        lastLogged.put(stack, now);
+        log.warn("Virtueller Thread {} ms an Träger gebunden:\n{}", event.getDuration().toMillis(), stack);
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    (kein Stack)";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(MAX_FRAMES)
+                .map(frame -> "    at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.mediaverwaltung.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Aktiviert @Scheduled (z.B. TombstonePurge)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
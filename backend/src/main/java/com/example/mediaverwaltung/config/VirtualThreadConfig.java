@@ -0,0 +1,48 @@
+package com.example.mediaverwaltung.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration für den Betrieb mit virtuellen Threads (Profil "virtual")
+ * 
+ * spring.threads.virtual.enabled=true stellt Tomcat-Requests und
+ * Springs Task-Executor auf virtuelle Threads um. Diese Klasse begrenzt
+ * zusätzlich die gleichzeitigen JDBC-Verbindungen (siehe
+ * ConcurrencyLimitedDataSource), damit der Hikari-Pool nicht überrannt wird.
+ * 
+ * Aktiv, sobald mediaverwaltung.jdbc.max-concurrency gesetzt ist.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mediaverwaltung.jdbc.max-concurrency")
+public class VirtualThreadConfig {
+
+    /**
+     * Hüllt die DataSource in eine ConcurrencyLimitedDataSource
+     * 
+     * static: BeanPostProcessor müssen vor allen anderen Beans stehen.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        int maxConcurrency = environment.getRequiredProperty("mediaverwaltung.jdbc.max-concurrency", Integer.class);
+        Duration acquireTimeout = environment.getProperty(
+                "mediaverwaltung.jdbc.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+        
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)
+                        && maxConcurrency > 0) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.mediaverwaltung.controller;
+
+import com.example.mediaverwaltung.dto.CacheStatistics;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * REST Controller für Cache-Kennzahlen
+ * 
+ * Endpoints:
+ * GET    /api/cache/stats    → Treffer, Fehlschläge, Hit-Rate, Größe pro Cache
+ */
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+    
+    @Autowired
+    private ObjectProvider<CacheManager> cacheManager;
+    
+    /**
+     * GET /api/cache/stats
+     * Kennzahlen aller Caches (leer, wenn mediaverwaltung.cache.enabled=false)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, CacheStatistics>> getStats() {
+        Map<String, CacheStatistics> result = new TreeMap<>();
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager != null) {
+            for (String name : manager.getCacheNames()) {
+                Cache cache = manager.getCache(name);
+                if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                    cache = decorator.getTargetCache();
+                }
+                if (cache instanceof CaffeineCache caffeine) {
+                    CacheStats stats = caffeine.getNativeCache().stats();
+                    result.put(name, new CacheStatistics(
+                            caffeine.getNativeCache().estimatedSize(),
+                            stats.hitCount(),
+                            stats.missCount(),
+                            stats.hitRate(),
+                            stats.evictionCount()));
+                }
+            }
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.mediaverwaltung.controller;
+
+import com.example.mediaverwaltung.dto.ImportJobStatus;
+import com.example.mediaverwaltung.service.importer.ImportFormat;
+import com.example.mediaverwaltung.service.importer.ImportMode;
+import com.example.mediaverwaltung.service.job.ImportJob;
+import com.example.mediaverwaltung.service.job.ImportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * REST Controller für asynchrone Import-Jobs
+ * 
+ * Endpoints:
+ * POST   /api/import/jobs       → Import starten (202 + Job-Status, Location)
+ * POST   /api/import/jobs/files → Import aus dem Dateisystem (Datei, Verzeichnis, .gz, .zip)
+ * GET    /api/import/jobs       → Alle Jobs (neueste zuerst)
+ * GET    /api/import/jobs/{id}  → Fortschritt: gelesen/importiert/fehlerhaft, Durchsatz, ETA
+ * DELETE /api/import/jobs/{id}  → Job abbrechen
+ * 
+ * Parameter für POST: format=csv|json (Default: nach Content-Type bzw.
+ * Dateiname), mode=replace|append|merge (Default: replace wie /api/media/upload).
+ * 503, wenn bereits zu viele Jobs laufen oder warten (vor dem Spoolen geprüft),
+ * 500, wenn der Server die Daten nicht spoolen oder lesen kann.
+ */
+@RestController
+@RequestMapping("/api/import/jobs")
+@CrossOrigin(origins = "*")
+public class ImportJobController {
+    
+    @Autowired
+    private ImportJobService jobService;
+    
+    /**
+     * POST /api/import/jobs?format=csv&mode=replace
+     * Body: multipart/form-data mit Part "file"
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobStatus> submitFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "replace") String mode) {
+        String detected = format != null ? format
+                : file.getOriginalFilename() != null && file.getOriginalFilename().toLowerCase(Locale.ROOT).endsWith(".json") ? "json" : "csv";
+        try (InputStream inputStream = file.getInputStream()) {
+            return submit(detected, mode, inputStream);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * POST /api/import/jobs?format=csv&mode=replace
+     * Body: Raw CSV oder JSON (UTF-8)
+     */
+    @PostMapping(consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<ImportJobStatus> submitBody(
+            InputStream body,
+            @RequestHeader(value = "Content-Type", required = false) String contentType,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "replace") String mode) {
+        String detected = format != null ? format
+                : contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE) ? "json" : "csv";
+        return submit(detected, mode, body);
+    }
+    
+    /**
+     * POST /api/import/jobs/files?path=/data/dump&mode=append
+     * Liest Dateien direkt vom Server (z.B. gemountetes Volume), nur
+     * unterhalb von mediaverwaltung.import.files.roots: sonst 403,
+     * 404 wenn der Pfad fehlt, 400 ohne CSV-/JSON-Dateien, 500 bei Lesefehlern.
+     */
+    @PostMapping("/files")
+    public ResponseEntity<ImportJobStatus> submitPath(
+            @RequestParam String path,
+            @RequestParam(defaultValue = "replace") String mode) {
+        try {
+            ImportJob job = jobService.submitFiles(ImportMode.parse(mode), Path.of(path));
+            return accepted(job);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    /**
+     * GET /api/import/jobs
+     */
+    @GetMapping
+    public ResponseEntity<List<ImportJobStatus>> getJobs() {
+        return ResponseEntity.ok(jobService.findAll().stream().map(ImportJob::status).toList());
+    }
+    
+    /**
+     * GET /api/import/jobs/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobStatus> getJob(@PathVariable String id) {
+        return jobService.find(id)
+                .map(job -> ResponseEntity.ok(job.status()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * DELETE /api/import/jobs/{id}
+     * Wartende Jobs starten nicht mehr, laufende brechen beim nächsten
+     * Lesezugriff ab (REPLACE: Bestand bleibt; APPEND/MERGE: bereits
+     * geschriebene Chunks bleiben). 409, wenn der Job schon abgeschlossen war.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ImportJobStatus> cancelJob(@PathVariable String id) {
+        boolean running = jobService.find(id).map(job -> !job.getState().isFinished()).orElse(false);
+        return jobService.cancel(id)
+                .map(job -> ResponseEntity.status(running ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(job.status()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private ResponseEntity<ImportJobStatus> submit(String format, String mode, InputStream input) {
+        try {
+            ImportJob job = jobService.submit(ImportFormat.parse(format), ImportMode.parse(mode), input);
+            return accepted(job);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    private static ResponseEntity<ImportJobStatus> accepted(ImportJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/import/jobs/" + job.getId()))
+                .body(job.status());
+    }
+}
@@ -1,52 +1,342 @@
 
 package com.example.mediaverwaltung.controller;
 
+import com.example.mediaverwaltung.dto.BatchItemResult;
+import com.example.mediaverwaltung.dto.DurationStats;
+import com.example.mediaverwaltung.dto.MediaItemBatchPatch;
+import com.example.mediaverwaltung.dto.MediaItemChanges;
+import com.example.mediaverwaltung.dto.MediaItemFilter;
+import com.example.mediaverwaltung.dto.MediaItemPage;
+import com.example.mediaverwaltung.dto.MediaItemSort;
+import com.example.mediaverwaltung.dto.MediaItemVersion;
+import com.example.mediaverwaltung.dto.MediaItemView;
+import com.example.mediaverwaltung.dto.MediaSearchResult;
+import com.example.mediaverwaltung.dto.MediaStats;
+import com.example.mediaverwaltung.dto.TagMatch;
+import com.example.mediaverwaltung.dto.TagQueryResult;
+import com.example.mediaverwaltung.dto.UrlDuplicate;
 import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.service.ImportExportMetrics;
 import com.example.mediaverwaltung.service.MediaItemService;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import com.example.mediaverwaltung.service.push.ChangeStream;
+import com.example.mediaverwaltung.util.DurationParser;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST Controller für MediaItem CRUD Operations
  * 
  * Endpoints:
  * GET    /api/media          → Alle Items
+ * GET    /api/media/page     → Items seitenweise (Filter, Sortierung, Cursor)
+ * GET    /api/media/search   → Volltextsuche (Relevanz, Präfix, Seiten)
+ * GET    /api/media/changes  → Änderungen + Löschungen seit Token (Delta-Sync)
+ * GET    /api/media/events   → Push-Stream der Änderungen (Server-Sent Events)
+ * GET    /api/media/tags     → Anzahl Items pro Tag
+ * GET    /api/media/tags/query → Items nach Tags (UND/ODER) + Anzahl pro Tag
+ * GET    /api/media/duplicates → Dublettenprüfung für URLs (auch POST mit JSON-Array)
  * GET    /api/media/{id}     → Einzelnes Item
  * POST   /api/media          → Neues Item erstellen
  * PUT    /api/media/{id}     → Item updaten
+ * PATCH  /api/media/{id}     → Einzelne Felder ändern (JSON Merge Patch)
  * DELETE /api/media/{id}     → Item löschen
+ * POST   /api/media/batch    → Viele Items erstellen (Ergebnis pro Item)
+ * PATCH  /api/media/batch    → Felder vieler Items setzen (z.B. gesehen)
+ * DELETE /api/media/batch    → Viele Items löschen (IDs oder Filter)
+ * GET    /api/media/count    → Anzahl aller Items
+ * GET    /api/media/stats    → Aggregierte Statistiken
+ * GET    /api/media/duration → Dauer-Kennzahlen (gefiltert)
+ * 
+ * Liste, Seiten, Anzahl, Statistik und Einzel-Items setzen ETag und
+ * Last-Modified; bei passendem If-None-Match / If-Modified-Since → 304.
  */
 @RestController
 @RequestMapping("/api/media")
 @CrossOrigin(origins = "*") // Später für React Frontend
 public class MediaItemController {
     
+    /**
+     * Puffergröße für gestreamte Downloads
+     */
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    
     @Autowired
     private MediaItemService service;
     
+    @Autowired
+    private ChangeStream changeStream;
+    
+    @Autowired
+    private ImportExportMetrics metrics;
+    
     /**
      * GET /api/media
      * Gibt alle MediaItems zurück
+     * 
+     * Bedingt (If-None-Match / If-Modified-Since): unveränderter Bestand → 304
      */
     @GetMapping
-    public ResponseEntity<List<MediaItem>> getAllItems() {
+    public ResponseEntity<List<MediaItem>> getAllItems(WebRequest request) {
+        if (notModified(request, service.getVersion())) {
+            return null;
+        }
         List<MediaItem> items = service.findAll();
-        return ResponseEntity.ok(items);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(items);
+    }
+    
+    /**
+     * GET /api/media/page?size=50&sort=lastUpdatedAt,desc&mediaType=VIDEO&channel=...&gesehen=false&dauerMin=5:00&dauerMax=1:00:00&cursor=...
+     * Gibt eine Seite MediaItems zurück (Keyset-Pagination)
+     * 
+     * Für die nächste Seite den "nextCursor" der Antwort als cursor mitschicken.
+     * Sortierung: id | lastUpdatedAt, jeweils asc/desc
+     * dauerMin/dauerMax: Sekunden oder "MM:SS" / "HH:MM:SS" (inklusive)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<MediaItemPage> getPage(
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(required = false) String channel,
+            @RequestParam(required = false) Boolean gesehen,
+            @RequestParam(required = false) String dauerMin,
+            @RequestParam(required = false) String dauerMax,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        try {
+            MediaItemFilter filter = new MediaItemFilter(mediaType, channel, gesehen)
+                    .withDauer(parseDauer(dauerMin), parseDauer(dauerMax));
+            MediaItemSort itemSort = MediaItemSort.parse(sort);
+            if (notModified(request, service.getVersion())) {
+                return null;
+            }
+            MediaItemPage page = service.findPage(filter, itemSort, size, cursor);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * GET /api/media/search?q=spring boot&page=0&size=20
+     * Volltextsuche in Beschreibung, Channel und URL
+     * 
+     * Alle Begriffe müssen vorkommen, auch als Wortanfang ("spr" findet "Spring").
+     * Sortiert nach Relevanz.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<MediaSearchResult> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(service.search(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * GET /api/media/changes?since=<token|2025-10-10T12:00:00>&size=500
+     * Neue/geänderte Items und gelöschte IDs seit since (Delta-Sync)
+     * 
+     * Ohne since: alles von vorn. Für den nächsten Abruf den "nextToken"
+     * der Antwort als since mitschicken; hasMore=true → sofort weiterlesen.
+     * reset=true → lokale Kopie verwerfen (REPLACE-Import).
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<MediaItemChanges> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int size) {
+        try {
+            return ResponseEntity.ok(service.findChanges(since, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * GET /api/media/events
+     * Push-Stream (Server-Sent Events) mit Änderungen an Items
+     * 
+     * Event "changes": {"bulk":false,"saved":[..],"deleted":[..]}, Änderungen
+     * eines kurzen Zeitfensters zusammengefasst; bulk=true nach Imports.
+     * 503, wenn die maximale Anzahl Verbindungen erreicht ist.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        try {
+            return ResponseEntity.ok(changeStream.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    /**
+     * GET /api/media/tags?limit=100
+     * Anzahl Items pro Tag, häufigste zuerst
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<Map<String, Long>> getTagCounts(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(service.countTags(limit));
+    }
+    
+    /**
+     * GET /api/media/tags/query?tags=java,spring&match=all&size=50&sort=id,desc&cursor=...
+     * Items mit allen (match=all, Default) oder einem (match=any) der Tags
+     * 
+     * Liefert eine Seite Items (Cursor wie bei /page) und die Anzahl Items
+     * pro angefragtem Tag.
+     */
+    @GetMapping("/tags/query")
+    public ResponseEntity<TagQueryResult> queryByTags(
+            @RequestParam List<String> tags,
+            @RequestParam(required = false) String match,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor) {
+        try {
+            TagQueryResult result = service.findByTags(
+                    tags, TagMatch.parse(match), MediaItemSort.parse(sort), size, cursor);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * GET /api/media/duplicates?url=https://youtu.be/abc&url=...
+     * Prüft URLs vor dem Anlegen: kanonische Form + ID eines vorhandenen
+     * Items (null = neu). 400 ohne URL oder bei mehr als 1000 URLs.
+     */
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<UrlDuplicate>> checkDuplicates(@RequestParam("url") List<String> urls) {
+        try {
+            return ResponseEntity.ok(service.findDuplicates(urls));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * POST /api/media/duplicates
+     * Wie GET, für viele URLs (z.B. aus einem Feed)
+     * 
+     * Body: JSON-Array von URLs
+     */
+    @PostMapping("/duplicates")
+    public ResponseEntity<List<UrlDuplicate>> checkDuplicatesInBody(@RequestBody List<String> urls) {
+        return checkDuplicates(urls);
+    }
+    
+    /**
+     * POST /api/media/batch
+     * Erstellt viele MediaItems in einer Transaktion
+     * 
+     * Body: JSON-Array von MediaItems (höchstens 1000)
+     * Antwort: Index im Array → {status, id, error}; 201 = angelegt,
+     * 400 = ohne URL, 409 = URL vorhanden (id = vorhandenes Item) oder doppelt
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<Integer, BatchItemResult>> createItems(@RequestBody List<MediaItem> items) {
+        try {
+            return ResponseEntity.ok(service.createAll(items));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // parallel angelegte URL
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * PATCH /api/media/batch
+     * Setzt dieselben Felder für viele Items, z.B. alle als gesehen markieren
+     * 
+     * Body: {"ids":[1,2,3],"gesehen":true} – erlaubt: gesehen, mediaType,
+     * channel, stichwort (null = unverändert), höchstens 1000 IDs
+     * Antwort: ID → {status, id, error}; 200 = geändert, 404 = unbekannt
+     */
+    @PatchMapping("/batch")
+    public ResponseEntity<Map<Long, BatchItemResult>> patchItems(@RequestBody MediaItemBatchPatch patch) {
+        try {
+            return ResponseEntity.ok(service.patchAll(patch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * DELETE /api/media/batch?ids=1,2,3
+     * DELETE /api/media/batch?mediaType=VIDEO&channel=...&gesehen=true&dauerMin=...&dauerMax=...
+     * Löscht viele Items in einer Transaktion, per ID-Liste (höchstens 1000)
+     * oder alle zum Filter passenden (Filter wie bei /page, nicht leer)
+     * 
+     * Antwort: ID → {status, id, error}; 204 = gelöscht, 404 = unbekannt
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<Map<Long, BatchItemResult>> deleteItems(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(required = false) String channel,
+            @RequestParam(required = false) Boolean gesehen,
+            @RequestParam(required = false) String dauerMin,
+            @RequestParam(required = false) String dauerMax) {
+        try {
+            MediaItemFilter filter = new MediaItemFilter(mediaType, channel, gesehen)
+                    .withDauer(parseDauer(dauerMin), parseDauer(dauerMax));
+            if (ids != null && !MediaItemFilter.none().equals(filter)) {
+                return ResponseEntity.badRequest().build(); // entweder IDs oder Filter
+            }
+            return ResponseEntity.ok(ids != null ? service.deleteAll(ids) : service.deleteMatching(filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     /**
      * GET /api/media/{id}
      * Gibt einzelnes MediaItem zurück
+     * 
+     * Starker ETag aus id + lastUpdatedAt; unverändert → 304
      */
     @GetMapping("/{id}")
-    public ResponseEntity<MediaItem> getItemById(@PathVariable Long id) {
+    public ResponseEntity<MediaItemView> getItemById(@PathVariable Long id, WebRequest request) {
         try {
-            MediaItem item = service.findById(id);
-            return ResponseEntity.ok(item);
+            MediaItemView item = service.findViewById(id);
+            if (request.checkNotModified(itemETag(item), epochMillis(item.lastUpdatedAt()))) {
+                return null;
+            }
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(item);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -57,12 +347,15 @@ public class MediaItemController {
      * Erstellt neues MediaItem
      * 
      * Body: JSON mit MediaItem-Daten (ohne id)
+     * 409 + vorhandenes Item, wenn es die URL (kanonisch) schon gibt
      */
     @PostMapping
     public ResponseEntity<MediaItem> createItem(@RequestBody MediaItem item) {
         try {
             MediaItem saved = service.save(item);
             return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (DataIntegrityViolationException e) {
+            return conflict(item.getUrl());
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -72,21 +365,48 @@ public class MediaItemController {
      * PUT /api/media/{id}
      * Updated existierendes MediaItem
      * 
-     * Body: JSON mit geänderten MediaItem-Daten
+     * Body: JSON mit allen MediaItem-Daten (fehlende Felder werden geleert)
+     * 409 + vorhandenes Item, wenn die neue URL schon zu einem anderen Item gehört
+     * 409 ohne Body, wenn version mitgeschickt wird und nicht mehr aktuell ist
      */
     @PutMapping("/{id}")
     public ResponseEntity<MediaItem> updateItem(
             @PathVariable Long id, 
             @RequestBody MediaItem updatedItem) {
         try {
-            // Prüfen ob Item existiert
-            service.findById(id);
-            
-            // ID setzen (wichtig für Update!)
-            updatedItem.setId(id);
-            
-            MediaItem saved = service.save(updatedItem);
-            return ResponseEntity.ok(saved);
+            return ResponseEntity.ok(service.update(id, updatedItem));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (DataIntegrityViolationException e) {
+            return conflict(updatedItem.getUrl());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * PATCH /api/media/{id}
+     * Ändert nur die mitgeschickten Felder (JSON Merge Patch, RFC 7396)
+     * 
+     * Body: z.B. {"gesehen":true,"version":3} – fehlende Felder bleiben,
+     * null leert ein Feld; version (optional) = zuletzt gelesene Version.
+     * Ein UPDATE ohne vorheriges Lesen; Antwort 204, die Version ist danach +1.
+     * 409 bei veralteter version (ohne Body) oder vorhandener URL (mit Item),
+     * 400 bei unbekanntem Feld, 404 wenn es das Item nicht gibt
+     */
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<MediaItem> patchItem(@PathVariable Long id, @RequestBody Map<String, Object> patch) {
+        try {
+            service.patch(id, patch);
+            return ResponseEntity.noContent().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (DataIntegrityViolationException e) {
+            return conflict((String) patch.get("url"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -111,9 +431,92 @@ public class MediaItemController {
      * Anzahl aller Items
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> getCount() {
-        long count = service.findAll().size();
-        return ResponseEntity.ok(count);
+    public ResponseEntity<Long> getCount(WebRequest request) {
+        if (notModified(request, service.getVersion())) {
+            return null;
+        }
+        long count = service.count();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(count);
+    }
+    
+    /**
+     * GET /api/media/stats
+     * Aggregierte Statistiken (Anzahl pro Typ/Channel/gesehen, Gesamtdauer)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<MediaStats> getStats(WebRequest request) {
+        if (notModified(request, service.getVersion())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(service.getStats());
+    }
+    
+    /**
+     * GET /api/media/duration?mediaType=VIDEO&channel=...&gesehen=false&dauerMin=...&dauerMax=...
+     * Dauer-Kennzahlen (Summe, Durchschnitt, Min, Max) für die gefilterten Items
+     */
+    @GetMapping("/duration")
+    public ResponseEntity<DurationStats> getDurationStats(
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(required = false) String channel,
+            @RequestParam(required = false) Boolean gesehen,
+            @RequestParam(required = false) String dauerMin,
+            @RequestParam(required = false) String dauerMax) {
+        try {
+            MediaItemFilter filter = new MediaItemFilter(mediaType, channel, gesehen)
+                    .withDauer(parseDauer(dauerMin), parseDauer(dauerMax));
+            return ResponseEntity.ok(service.getDurationStats(filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Prüft If-None-Match / If-Modified-Since gegen den Versionsstand
+     * und setzt ETag + Last-Modified (bei 304 ohne Body, ohne Items zu laden)
+     * 
+     * Der ETag ist schwach: er gilt für jede Darstellung des Bestands
+     * (Liste, Seite, Anzahl, Statistik), nicht für genau diese Bytes.
+     */
+    private static boolean notModified(WebRequest request, MediaItemVersion version) {
+        String eTag = "W/\"" + version.count() + "-" + epochMicros(version.lastModified()) + "\"";
+        return request.checkNotModified(eTag, epochMillis(version.lastModified()));
+    }
+    
+    /**
+     * 409 mit dem Item, dem die URL schon gehört (ohne Body, falls es
+     * inzwischen gelöscht wurde)
+     */
+    private ResponseEntity<MediaItem> conflict(String url) {
+        return service.findByUrl(url)
+                .map(existing -> ResponseEntity.status(HttpStatus.CONFLICT).body(existing))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+    
+    private static String itemETag(MediaItemView item) {
+        return "\"" + item.id() + "-" + epochMicros(item.lastUpdatedAt()) + "\"";
+    }
+    
+    private static long epochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+    
+    private static long epochMicros(LocalDateTime time) {
+        return time != null ? ChronoUnit.MICROS.between(Instant.EPOCH, time.atZone(ZoneId.systemDefault())) : 0;
+    }
+    
+    /**
+     * Dauer-Parameter in Sekunden (leer = kein Filter)
+     */
+    private static Integer parseDauer(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Integer seconds = DurationParser.toSeconds(value);
+        if (seconds == null) {
+            throw new IllegalArgumentException("Ungültige Dauer: " + value);
+        }
+        return seconds;
     }
     
     
@@ -124,22 +527,37 @@ public class MediaItemController {
  // ========================================
 
  /**
-  * GET /api/media/download
+  * GET /api/media/download?gzip=false
   * Exportiert alle MediaItems als CSV-Datei
+  * 
+  * Die Datei wird direkt aus dem Datenbank-Cursor in die Response
+  * gestreamt (konstanter Speicherbedarf, auch bei sehr vielen Items).
+  * Mit gzip=true kommt sie komprimiert als .csv.gz.
+  * Zeilen, gesendete Bytes und Dauer gehen in die Metriken (mediaverwaltung.export.*).
   */
  @GetMapping("/download")
- public ResponseEntity<String> downloadCSV() {
-     try {
-         String csv = service.exportAllToCSV();
-         
-         return ResponseEntity.ok()
-                 .header("Content-Type", "text/csv; charset=UTF-8")
-                 .header("Content-Disposition", "attachment; filename=mediaitems_" + 
-                         java.time.LocalDate.now() + ".csv")
-                 .body(csv);
-     } catch (Exception e) {
-         return ResponseEntity.internalServerError().build();
-     }
+ public ResponseEntity<StreamingResponseBody> downloadCSV(
+         @RequestParam(defaultValue = "false") boolean gzip) {
+     
+     String filename = "mediaitems_" + java.time.LocalDate.now() + (gzip ? ".csv.gz" : ".csv");
+     
+     StreamingResponseBody body = outputStream -> {
+         Timer.Sample sample = metrics.start();
+         CountingOutputStream counted = new CountingOutputStream(outputStream);
+         OutputStream target = gzip ? new GZIPOutputStream(counted, STREAM_BUFFER_SIZE) : counted;
+         Writer writer = new BufferedWriter(
+                 new OutputStreamWriter(target, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+         long rows = service.exportAllToCSV(writer);
+         if (target instanceof GZIPOutputStream gzipStream) {
+             gzipStream.finish();
+         }
+         metrics.exportFinished(sample, gzip, rows, counted.count);
+     };
+     
+     return ResponseEntity.ok()
+             .header("Content-Type", gzip ? "application/gzip" : "text/csv; charset=UTF-8")
+             .header("Content-Disposition", "attachment; filename=" + filename)
+             .body(body);
  }
 
  /**
@@ -151,13 +569,79 @@ public class MediaItemController {
  @PostMapping("/upload")
  public ResponseEntity<String> uploadCSV(@RequestBody String csvContent) {
      try {
-         int count = service.importFromCSVReplace(csvContent);
-         return ResponseEntity.ok("✅ Import erfolgreich: " + count + " Items importiert");
+         ImportResult result = service.importFromCSVReplace(csvContent);
+         return ResponseEntity.ok(importMessage(result));
      } catch (Exception e) {
          return ResponseEntity.badRequest()
                  .body("❌ Import fehlgeschlagen: " + e.getMessage());
      }
  }
+
+ /**
+  * POST /api/media/upload/stream
+  * Importiert MediaItems aus CSV-Datei (REPLACE-Strategie), gestreamt
+  * 
+  * Body: multipart/form-data mit Part "file"
+  */
+ @PostMapping(value = "/upload/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+ public ResponseEntity<String> uploadCSVFile(@RequestParam("file") MultipartFile file) {
+     try (InputStream inputStream = file.getInputStream()) {
+         return uploadCSVStream(inputStream);
+     } catch (IOException e) {
+         return ResponseEntity.badRequest()
+                 .body("❌ Import fehlgeschlagen: " + e.getMessage());
+     }
+ }
+
+ /**
+  * POST /api/media/upload/stream
+  * Importiert MediaItems aus CSV (REPLACE-Strategie), gestreamt
+  * 
+  * Body: Raw CSV (text/csv, text/plain oder application/octet-stream, UTF-8)
+  * Der Body wird nicht als String gepuffert, sondern direkt geparst.
+  */
+ @PostMapping(value = "/upload/stream", consumes = {
+         "text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE })
+ public ResponseEntity<String> uploadCSVStream(InputStream body) {
+     try {
+         Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+         ImportResult result = service.importFromCSVReplace(reader);
+         return ResponseEntity.ok(importMessage(result));
+     } catch (Exception e) {
+         return ResponseEntity.badRequest()
+                 .body("❌ Import fehlgeschlagen: " + e.getMessage());
+     }
+ }
+
+ /**
+  * Zählt die geschriebenen Bytes (für mediaverwaltung.export.bytes)
+  */
+ private static final class CountingOutputStream extends FilterOutputStream {
+     
+     private long count;
+     
+     CountingOutputStream(OutputStream out) {
+         super(out);
+     }
+     
+     @Override
+     public void write(int b) throws IOException {
+         out.write(b);
+         count++;
+     }
+     
+     @Override
+     public void write(byte[] b, int off, int len) throws IOException {
+         out.write(b, off, len);
+         count += len;
+     }
+ }
+
+ private static String importMessage(ImportResult result) {
+     return "✅ Import erfolgreich: " + result.getInserted() + " Items importiert"
+             + (result.getUpdated() > 0 ? ", " + result.getUpdated() + " doppelte URLs zusammengeführt" : "")
+             + (result.getFailed() > 0 ? ", " + result.getFailed() + " fehlerhafte Zeilen übersprungen" : "");
+ }
     
     
 }
\ No newline at end of file
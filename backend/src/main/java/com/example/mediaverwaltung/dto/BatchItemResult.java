@@ -0,0 +1,38 @@
+package com.example.mediaverwaltung.dto;
+
+/**
+ * Ergebnis für ein Item eines Batch-Requests (/api/media/batch)
+ * 
+ * Die Batch-Endpoints antworten mit einer Map Index bzw. ID → Ergebnis,
+ * status entspricht dem Status des jeweiligen Einzel-Endpoints.
+ * 
+ * @param status HTTP-Status für dieses Item (201, 200, 204, 400, 404, 409)
+ * @param id     ID des Items (bei 409 die des vorhandenen Items), sonst null
+ * @param error  Fehlermeldung, null bei Erfolg
+ */
+public record BatchItemResult(int status, Long id, String error) {
+
+    public static BatchItemResult created(Long id) {
+        return new BatchItemResult(201, id, null);
+    }
+
+    public static BatchItemResult updated(Long id) {
+        return new BatchItemResult(200, id, null);
+    }
+
+    public static BatchItemResult deleted(Long id) {
+        return new BatchItemResult(204, id, null);
+    }
+
+    public static BatchItemResult invalid(String error) {
+        return new BatchItemResult(400, null, error);
+    }
+
+    public static BatchItemResult notFound(Long id) {
+        return new BatchItemResult(404, id, "MediaItem nicht gefunden");
+    }
+
+    public static BatchItemResult conflict(Long existingId, String error) {
+        return new BatchItemResult(409, existingId, error);
+    }
+}
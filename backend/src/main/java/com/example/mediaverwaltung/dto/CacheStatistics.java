@@ -0,0 +1,13 @@
+package com.example.mediaverwaltung.dto;
+
+/**
+ * Kennzahlen eines Caches seit Start (zum Dimensionieren von Größe/TTL)
+ * 
+ * @param size          aktuelle Anzahl Einträge (geschätzt)
+ * @param hitCount      Treffer
+ * @param missCount     Fehlschläge (Datenbank-Abfrage nötig)
+ * @param hitRate       hitCount / (hitCount + missCount), 1.0 ohne Anfragen
+ * @param evictionCount wegen Größe oder TTL entfernte Einträge
+ */
+public record CacheStatistics(long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+}
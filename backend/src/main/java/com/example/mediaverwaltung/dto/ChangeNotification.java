@@ -0,0 +1,22 @@
+package com.example.mediaverwaltung.dto;
+
+import java.util.List;
+
+/**
+ * Push-Nachricht an Clients (SSE-Event "changes")
+ * 
+ * Fasst alle Änderungen eines kurzen Zeitfensters zusammen. Bei bulk=true
+ * (Import, oder zu viele Einzeländerungen für einen langsamen Client) sind
+ * saved/deleted leer: der Client lädt die Liste neu bzw. synchronisiert
+ * über /api/media/changes.
+ * 
+ * @param bulk    true: beliebig viele Items geändert
+ * @param saved   IDs neuer oder geänderter Items
+ * @param deleted IDs gelöschter Items
+ */
+public record ChangeNotification(boolean bulk, List<Long> saved, List<Long> deleted) {
+
+    public static ChangeNotification bulkChange() {
+        return new ChangeNotification(true, List.of(), List.of());
+    }
+}
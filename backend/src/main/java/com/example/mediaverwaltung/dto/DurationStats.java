@@ -0,0 +1,15 @@
+package com.example.mediaverwaltung.dto;
+
+/**
+ * Dauer-Kennzahlen einer Item-Menge (per SQL-Aggregat berechnet)
+ * 
+ * Items ohne parsebare Dauer zählen nicht mit.
+ * 
+ * @param count        Anzahl Items mit Dauer
+ * @param totalSeconds Summe in Sekunden
+ * @param avgSeconds   Durchschnitt in Sekunden (null, wenn count = 0)
+ * @param minSeconds   kürzeste Dauer (null, wenn count = 0)
+ * @param maxSeconds   längste Dauer (null, wenn count = 0)
+ */
+public record DurationStats(long count, long totalSeconds, Double avgSeconds, Integer minSeconds, Integer maxSeconds) {
+}
@@ -0,0 +1,39 @@
+package com.example.mediaverwaltung.dto;
+
+import com.example.mediaverwaltung.service.importer.ImportFormat;
+import com.example.mediaverwaltung.service.importer.ImportMode;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import com.example.mediaverwaltung.service.job.ImportJob;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stand eines Import-Jobs (GET /api/import/jobs/{id})
+ * 
+ * @param id            Job-ID
+ * @param format        CSV / JSON (null bei Dateien aus dem Dateisystem, Format je Datei)
+ * @param mode          REPLACE / APPEND / MERGE
+ * @param source        importierter Pfad im Dateisystem, null bei Uploads
+ * @param state         QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+ * @param read          gelesene Datensätze
+ * @param inserted      geschriebene Items (REPLACE: bis zum Tausch in der Staging-Tabelle)
+ * @param updated       aktualisierte Items (MERGE: gleiche URL, geänderte Daten)
+ * @param unchanged     unveränderte Items (MERGE: gleiche URL, gleiche Daten)
+ * @param failed        fehlerhafte Datensätze
+ * @param bytesRead     gelesene Bytes der Datei(en), bei .gz/.zip gepackt
+ * @param totalBytes    Größe der Datei(en)
+ * @param rowsPerSecond gelesene Datensätze pro Sekunde seit Start
+ * @param etaSeconds    geschätzte Restdauer (nach Bytes), null solange unbekannt
+ * @param submittedAt   Zeitpunkt der Annahme
+ * @param startedAt     Start der Verarbeitung, null solange in der Warteschlange
+ * @param finishedAt    Ende, null solange nicht abgeschlossen
+ * @param error         Fehlermeldung bei FAILED
+ * @param errors        fehlerhafte Datensätze im Detail (erst nach Abschluss, max. 100)
+ */
+public record ImportJobStatus(String id, ImportFormat format, ImportMode mode, String source, ImportJob.State state,
+        long read, long inserted, long updated, long unchanged, long failed, long bytesRead, long totalBytes,
+        double rowsPerSecond, Long etaSeconds,
+        Instant submittedAt, Instant startedAt, Instant finishedAt,
+        String error, List<ImportResult.ImportError> errors) {
+}
@@ -0,0 +1,25 @@
+package com.example.mediaverwaltung.dto;
+
+import java.util.List;
+
+/**
+ * Body für PATCH /api/media/batch: dieselben Felder für viele Items setzen
+ * 
+ * Felder mit null bleiben unverändert; mindestens eines muss gesetzt sein.
+ * 
+ * @param ids       betroffene Items
+ * @param gesehen   z.B. true = alle als gesehen markieren
+ * @param mediaType Media-Typ (VIDEO, AUDIO, TEXT)
+ * @param channel   Channel / Creator Name
+ * @param stichwort Stichwörter (Tags werden daraus neu abgeleitet)
+ */
+public record MediaItemBatchPatch(List<Long> ids, Boolean gesehen, String mediaType, String channel,
+        String stichwort) {
+
+    /**
+     * true, wenn mindestens ein Feld gesetzt ist
+     */
+    public boolean hasChanges() {
+        return gesehen != null || mediaType != null || channel != null || stichwort != null;
+    }
+}
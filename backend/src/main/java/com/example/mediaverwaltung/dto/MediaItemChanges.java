@@ -0,0 +1,23 @@
+package com.example.mediaverwaltung.dto;
+
+import com.example.mediaverwaltung.model.MediaItem;
+
+import java.util.List;
+
+/**
+ * Änderungen seit einem Token/Zeitpunkt (Delta-Sync)
+ * 
+ * Der Client wendet erst items (neu/geändert, ersetzen per id), dann
+ * deleted an und merkt sich nextToken für den nächsten Abruf.
+ * 
+ * @param items     neue oder geänderte Items (nach lastUpdatedAt, id)
+ * @param deleted   IDs gelöschter Items
+ * @param reset     true: der Bestand wurde komplett ersetzt (REPLACE-Import)
+ *                  oder der Token ist älter als die Tombstone-Aufbewahrung,
+ *                  lokale Kopie verwerfen – items beginnen wieder von vorn
+ * @param hasMore   true: sofort mit nextToken weiterlesen
+ * @param nextToken Token für den nächsten Abruf (immer gesetzt)
+ */
+public record MediaItemChanges(List<MediaItem> items, List<Long> deleted, boolean reset, boolean hasMore,
+        String nextToken) {
+}
@@ -0,0 +1,48 @@
+package com.example.mediaverwaltung.dto;
+
+import java.util.List;
+
+/**
+ * Filter-Kriterien für die seitenweise Abfrage von MediaItems
+ * 
+ * Alle Felder sind optional: null (bzw. leere Liste) = Filter nicht aktiv
+ * 
+ * @param mediaType Media-Typ (VIDEO, AUDIO, TEXT)
+ * @param channel   Channel / Creator Name (exakter Treffer)
+ * @param gesehen   nur gesehene (true) bzw. ungesehene (false) Items
+ * @param tags      normalisierte Tag-Namen
+ * @param tagMatch  alle (ALL) oder mindestens einer (ANY) der Tags
+ * @param dauerMin  Mindestdauer in Sekunden (inklusive)
+ * @param dauerMax  Höchstdauer in Sekunden (inklusive)
+ */
+public record MediaItemFilter(String mediaType, String channel, Boolean gesehen,
+        List<String> tags, TagMatch tagMatch, Integer dauerMin, Integer dauerMax) {
+
+    /**
+     * Filter ohne Tags und Dauer
+     */
+    public MediaItemFilter(String mediaType, String channel, Boolean gesehen) {
+        this(mediaType, channel, gesehen, List.of(), TagMatch.ALL, null, null);
+    }
+
+    /**
+     * Filter ohne Einschränkungen
+     */
+    public static MediaItemFilter none() {
+        return new MediaItemFilter(null, null, null);
+    }
+
+    /**
+     * Filter nur nach Tags
+     */
+    public static MediaItemFilter tagged(List<String> tags, TagMatch tagMatch) {
+        return new MediaItemFilter(null, null, null, tags, tagMatch, null, null);
+    }
+
+    /**
+     * Kopie mit Dauer-Bereich (Sekunden, null = offen)
+     */
+    public MediaItemFilter withDauer(Integer min, Integer max) {
+        return new MediaItemFilter(mediaType, channel, gesehen, tags, tagMatch, min, max);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.mediaverwaltung.dto;
+
+import java.util.List;
+
+/**
+ * Eine Seite MediaItems (Keyset-Pagination)
+ * 
+ * Statt Seitennummer + OFFSET liefert jede Seite einen Cursor auf das
+ * letzte Item. Die nächste Seite setzt per WHERE-Bedingung genau dort
+ * an – die Datenbank muss keine übersprungenen Zeilen mehr zählen.
+ * 
+ * Liegt im Query-Cache, deshalb unveränderlich: MediaItemViews statt
+ * Entities, die Liste selbst nicht änderbar.
+ * 
+ * @param items      Items dieser Seite
+ * @param size       angeforderte Seitengröße
+ * @param hasNext    true, wenn weitere Items folgen
+ * @param nextCursor Cursor für die nächste Seite (null, wenn keine folgt)
+ */
+public record MediaItemPage(List<MediaItemView> items, int size, boolean hasNext, String nextCursor) {
+
+    public MediaItemPage {
+        items = List.copyOf(items);
+    }
+}
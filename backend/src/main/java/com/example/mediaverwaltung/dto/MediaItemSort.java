@@ -0,0 +1,71 @@
+package com.example.mediaverwaltung.dto;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Erlaubte Sortierungen für die Keyset-Pagination
+ * 
+ * Nur Spalten mit eindeutiger Reihenfolge (id als Tie-Breaker) und
+ * passendem Index sind zugelassen, damit jede Seite per Index-Seek
+ * statt per Sortierung der ganzen Tabelle gelesen wird.
+ */
+public enum MediaItemSort {
+
+    ID_ASC("id", Sort.Direction.ASC),
+    ID_DESC("id", Sort.Direction.DESC),
+    LAST_UPDATED_ASC("lastUpdatedAt", Sort.Direction.ASC),
+    LAST_UPDATED_DESC("lastUpdatedAt", Sort.Direction.DESC);
+
+    private final String property;
+    private final Sort.Direction direction;
+
+    MediaItemSort(String property, Sort.Direction direction) {
+        this.property = property;
+        this.direction = direction;
+    }
+
+    /**
+     * true, wenn nach lastUpdatedAt (+ id) sortiert wird
+     */
+    public boolean byLastUpdated() {
+        return "lastUpdatedAt".equals(property);
+    }
+
+    /**
+     * Spring Data Sort inkl. id als eindeutigem Tie-Breaker
+     */
+    public Sort toSort() {
+        if (byLastUpdated()) {
+            return Sort.by(direction, "lastUpdatedAt").and(Sort.by(direction, "id"));
+        }
+        return Sort.by(direction, "id");
+    }
+
+    /**
+     * Parst den Request-Parameter im Spring-Format "property,direction"
+     * 
+     * Beispiele: "id", "id,desc", "lastUpdatedAt,desc"
+     * 
+     * @param value Request-Parameter (null/leer = id aufsteigend)
+     * @return passende Sortierung
+     * @throws IllegalArgumentException bei unbekannter Spalte oder Richtung
+     */
+    public static MediaItemSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ID_ASC;
+        }
+
+        String[] parts = value.split(",", 2);
+        String property = parts[0].trim();
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromString(parts[1].trim())
+                : Sort.Direction.ASC;
+
+        for (MediaItemSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(property) && sort.direction == direction) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Sortierung nicht unterstützt: " + value);
+    }
+}
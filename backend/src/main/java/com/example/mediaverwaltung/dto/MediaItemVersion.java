@@ -0,0 +1,28 @@
+package com.example.mediaverwaltung.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versionsstand des gesamten Bestands (Basis für ETag / Last-Modified)
+ * 
+ * Jede Änderung über die API ändert mindestens einen der beiden Werte:
+ * INSERT/UPDATE setzen lastUpdatedAt neu, DELETE verringert count und
+ * legt einen Tombstone an. lastModified ist deshalb der spätere von
+ * max(last_updated_at) und max(deleted_at) – sonst bliebe Last-Modified
+ * nach dem Löschen eines älteren Items gleich.
+ * 
+ * @param count        Anzahl Items
+ * @param lastModified jüngste Änderung oder Löschung (null, wenn es keine gibt)
+ */
+public record MediaItemVersion(long count, LocalDateTime lastModified) {
+
+    /**
+     * Gleicher Stand, lastModified mindestens changedAt
+     */
+    public MediaItemVersion changedAt(LocalDateTime changedAt) {
+        if (changedAt == null || (lastModified != null && !changedAt.isAfter(lastModified))) {
+            return this;
+        }
+        return new MediaItemVersion(count, changedAt);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.mediaverwaltung.dto;
+
+import com.example.mediaverwaltung.model.MediaItem;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unveränderliche Sicht auf ein MediaItem (Inhalt des Item-Caches)
+ * 
+ * Gleiche JSON-Felder wie MediaItem, aber ohne Entity-Zustand: keine
+ * LAZY-Tags, die nach der Transaktion nicht mehr ladbar sind, und nichts,
+ * was ein Aufrufer am gecachten Objekt ändern könnte.
+ */
+public record MediaItemView(
+        Long id,
+        LocalDateTime lastUpdatedAt,
+        Long version,
+        String url,
+        String beschreibung,
+        String channel,
+        String dauer,
+        Integer durationSeconds,
+        Boolean gesehen,
+        String stichwort,
+        String mediaType) {
+
+    public static MediaItemView of(MediaItem item) {
+        return new MediaItemView(item.getId(), item.getLastUpdatedAt(), item.getVersion(), item.getUrl(),
+                item.getBeschreibung(), item.getChannel(), item.getDauer(), item.getDurationSeconds(),
+                item.getGesehen(), item.getStichwort(), item.getMediaType());
+    }
+}
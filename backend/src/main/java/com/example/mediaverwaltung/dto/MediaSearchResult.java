@@ -0,0 +1,19 @@
+package com.example.mediaverwaltung.dto;
+
+import com.example.mediaverwaltung.model.MediaItem;
+
+import java.util.List;
+
+/**
+ * Eine Seite Suchtreffer (nach Relevanz sortiert)
+ * 
+ * Suchtreffer haben keine stabile Sortier-Spalte, daher Seitennummern
+ * statt Cursor; die Tiefe ist begrenzt (MediaItemService.MAX_SEARCH_RESULTS).
+ * 
+ * @param items   Treffer dieser Seite
+ * @param page    Seitennummer (ab 0)
+ * @param size    angeforderte Seitengröße
+ * @param hasNext true, wenn weitere Treffer folgen
+ */
+public record MediaSearchResult(List<MediaItem> items, int page, int size, boolean hasNext) {
+}
@@ -0,0 +1,29 @@
+package com.example.mediaverwaltung.dto;
+
+import java.util.Map;
+
+/**
+ * Aggregierte Statistiken über alle MediaItems
+ * 
+ * Wird komplett per SQL-Aggregaten (COUNT / GROUP BY) berechnet,
+ * ohne einzelne Entities zu laden.
+ * 
+ * @param total                Anzahl aller Items
+ * @param gesehen              Anzahl gesehener Items
+ * @param ungesehen            Anzahl ungesehener Items
+ * @param distinctChannels     Anzahl verschiedener Channels
+ * @param byMediaType          Anzahl pro Media-Typ
+ * @param byChannel            Anzahl pro Channel (nur die größten Channels)
+ * @param totalDurationSeconds Summe aller parsebaren Dauer-Angaben in Sekunden
+ * @param avgDurationSeconds   Durchschnitt über Items mit Dauer (null, wenn keins)
+ */
+public record MediaStats(
+        long total,
+        long gesehen,
+        long ungesehen,
+        long distinctChannels,
+        Map<String, Long> byMediaType,
+        Map<String, Long> byChannel,
+        long totalDurationSeconds,
+        Double avgDurationSeconds) {
+}
@@ -0,0 +1,29 @@
+package com.example.mediaverwaltung.dto;
+
+/**
+ * Verknüpfung mehrerer Tags in einer Tag-Abfrage
+ */
+public enum TagMatch {
+
+    /** Item muss ALLE Tags haben (UND) */
+    ALL,
+
+    /** Item muss mindestens EINEN der Tags haben (ODER) */
+    ANY;
+
+    /**
+     * Parst "all"/"any" (Groß-/Kleinschreibung egal, null = ALL)
+     * 
+     * @throws IllegalArgumentException bei unbekanntem Wert
+     */
+    public static TagMatch parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "all", "and" -> ALL;
+            case "any", "or" -> ANY;
+            default -> throw new IllegalArgumentException("Unbekannte Tag-Verknüpfung: " + value);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.mediaverwaltung.dto;
+
+import java.util.Map;
+
+/**
+ * Ergebnis einer Tag-Abfrage
+ * 
+ * @param page      Seite passender Items (Keyset-Pagination wie /page)
+ * @param tagCounts Anzahl Items pro angefragtem Tag (0 = unbekannter Tag)
+ */
+public record TagQueryResult(MediaItemPage page, Map<String, Long> tagCounts) {
+}
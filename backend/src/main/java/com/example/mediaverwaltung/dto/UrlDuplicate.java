@@ -0,0 +1,11 @@
+package com.example.mediaverwaltung.dto;
+
+/**
+ * Ergebnis der Dublettenprüfung für eine URL (/api/media/duplicates)
+ * 
+ * @param url          angefragte URL
+ * @param canonicalUrl kanonische Form (siehe UrlNormalizer)
+ * @param existingId   ID des vorhandenen Items, null wenn die URL neu ist
+ */
+public record UrlDuplicate(String url, String canonicalUrl, Long existingId) {
+}
@@ -1,27 +1,58 @@
 package com.example.mediaverwaltung.model;
 
+import com.example.mediaverwaltung.util.DurationParser;
+import com.example.mediaverwaltung.util.UrlNormalizer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Entity für MediaItem
  * 
  * Speichert Medien-Links (Videos, Audio, Text)
  * 
+ * Mit @DynamicUpdate enthält ein UPDATE nur die geänderten Spalten
+ * (weniger Bytes, keine Index-Pflege für unveränderte Spalten wie url_hash).
+ * 
  * @author Sven
  * @version 2.0 (2025-10-10)
  */
 @Entity
-@Table(name = "media_item")
+@Table(name = "media_item", indexes = {
+        @Index(name = "idx_media_type", columnList = "media_type"),
+        @Index(name = "idx_channel", columnList = "channel"),
+        @Index(name = "idx_last_updated_at_id", columnList = "last_updated_at, id"),
+        @Index(name = "idx_duration_seconds", columnList = "duration_seconds")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_media_item_url_hash", columnNames = "url_hash"))
+@DynamicUpdate
 @Data
 public class MediaItem {
     
     /**
-     * Primary Key (auto-increment)
+     * Name der ID-Sequence und Anzahl IDs pro Sequence-Aufruf
+     * (auch für Imports per JDBC, siehe MediaItemIdAllocator)
+     */
+    public static final String ID_SEQUENCE = "media_item_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    /**
+     * Primary Key (Sequence media_item_seq, Schrittweite 50)
+     * 
+     * Hibernate reserviert pro Sequence-Aufruf 50 IDs (pooled optimizer).
+     * Anders als IDENTITY erlaubt das JDBC-Batching beim Insert.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     /**
@@ -31,12 +62,39 @@ public class MediaItem {
     @Column(name = "last_updated_at")
     private LocalDateTime lastUpdatedAt;
     
+    /**
+     * Versionszähler für Optimistic Locking (+1 bei jedem UPDATE)
+     * 
+     * Clients schicken die gelesene Version bei PUT/PATCH mit; hat ein
+     * anderer das Item inzwischen geändert, gibt es 409 statt stillem
+     * Überschreiben. Imports per JDBC starten mit dem Default 0.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+    
     /**
      * URL zur Medien-Quelle (required!)
      */
     @Column(nullable = false, length = 1000)
     private String url;
     
+    /**
+     * Kanonische URL (siehe UrlNormalizer)
+     * Wird beim Speichern aus url abgeleitet, nicht über die API gesetzt.
+     */
+    @Column(name = "url_key", length = 1000)
+    @JsonIgnore
+    private String urlKey;
+    
+    /**
+     * SHA-256 von urlKey (eindeutig, Index für Dublettenprüfung und MERGE)
+     */
+    @Column(name = "url_hash", length = 64)
+    @JsonIgnore
+    private String urlHash;
+    
     /**
      * Beschreibung / Titel
      */
@@ -55,16 +113,41 @@ public class MediaItem {
     @Column(length = 255)
     private String dauer;
     
+    /**
+     * Dauer in Sekunden (aus dauer abgeleitet, null wenn nicht parsebar)
+     * Für Bereichsfilter und SUM/AVG in der Datenbank; nur lesbar über die API.
+     */
+    @Column(name = "duration_seconds")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer durationSeconds;
+    
     
     @Column(name = "gesehen", nullable = false)
     private Boolean gesehen = false;
     
     /**
-     * Stichwörter / Tags (komma-separiert)
+     * Stichwörter / Tags (komma-separiert, wie eingegeben)
+     * Quelle für tags; bleibt für API und CSV unverändert erhalten.
      */
     @Column(length = 255)
     private String stichwort;
     
+    /**
+     * Normalisierte Tags aus stichwort (für indizierte Tag-Abfragen)
+     * 
+     * Wird beim Speichern aus stichwort abgeleitet (TagResolver),
+     * nicht direkt über die API gesetzt.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "media_item_tag",
+            joinColumns = @JoinColumn(name = "media_item_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_media_item_tag_tag", columnList = "tag_id, media_item_id"))
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Tag> tags = new HashSet<>();
+    
     /**
      * Media-Typ: VIDEO, AUDIO, TEXT
      */
@@ -73,19 +156,25 @@ public class MediaItem {
     
     /**
      * Lifecycle-Hook: Wird vor INSERT aufgerufen
-     * Setzt lastUpdatedAt auf aktuelle Zeit
+     * Setzt lastUpdatedAt auf aktuelle Zeit, durationSeconds aus dauer, urlKey/urlHash aus url
      */
     @PrePersist
     protected void onCreate() {
         lastUpdatedAt = LocalDateTime.now();
+        durationSeconds = DurationParser.toSeconds(dauer);
+        urlKey = UrlNormalizer.normalize(url);
+        urlHash = UrlNormalizer.hash(urlKey);
     }
     
     /**
      * Lifecycle-Hook: Wird vor UPDATE aufgerufen
-     * Aktualisiert lastUpdatedAt auf aktuelle Zeit
+     * Aktualisiert lastUpdatedAt auf aktuelle Zeit, durationSeconds aus dauer, urlKey/urlHash aus url
      */
     @PreUpdate
     protected void onUpdate() {
         lastUpdatedAt = LocalDateTime.now();
+        durationSeconds = DurationParser.toSeconds(dauer);
+        urlKey = UrlNormalizer.normalize(url);
+        urlHash = UrlNormalizer.hash(urlKey);
     }
 }
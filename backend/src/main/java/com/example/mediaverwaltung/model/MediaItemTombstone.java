@@ -0,0 +1,42 @@
+package com.example.mediaverwaltung.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity für gelöschte MediaItems (Tombstone)
+ * 
+ * Wird beim Löschen angelegt, damit /api/media/changes Löschungen
+ * melden kann. IDs kommen aus media_item_seq und werden nie wieder
+ * vergeben – ein Tombstone ist daher endgültig.
+ * Ein REPLACE-Import leert die Tabelle (Clients synchronisieren dann neu).
+ */
+@Entity
+@Table(name = "media_item_tombstone", indexes = {
+        @Index(name = "idx_tombstone_deleted_at_id", columnList = "deleted_at, media_item_id")
+})
+@Data
+@NoArgsConstructor
+public class MediaItemTombstone {
+    
+    /**
+     * ID des gelöschten MediaItems
+     */
+    @Id
+    @Column(name = "media_item_id")
+    private Long id;
+    
+    /**
+     * Lösch-Zeitpunkt
+     */
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    public MediaItemTombstone(Long id, LocalDateTime deletedAt) {
+        this.id = id;
+        this.deletedAt = deletedAt;
+    }
+}
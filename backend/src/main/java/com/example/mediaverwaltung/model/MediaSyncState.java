@@ -0,0 +1,36 @@
+package com.example.mediaverwaltung.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity für den Sync-Stand (genau eine Zeile, id = 1)
+ * 
+ * generation wird bei jedem REPLACE-Import erhöht. Change-Tokens aus
+ * einer älteren Generation sind ungültig: der Client muss neu laden.
+ * Dasselbe gilt für Tokens vor tombstonesPurgedBefore (TombstonePurge).
+ */
+@Entity
+@Table(name = "media_sync_state")
+@Data
+public class MediaSyncState {
+    
+    /**
+     * ID der einzigen Zeile
+     */
+    public static final long SINGLETON_ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private long generation;
+    
+    /**
+     * Tombstones vor diesem Zeitpunkt sind gelöscht (null = noch keine)
+     */
+    @Column(name = "tombstones_purged_before")
+    private LocalDateTime tombstonesPurgedBefore;
+}
@@ -0,0 +1,32 @@
+package com.example.mediaverwaltung.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity für Tag (normalisiertes Stichwort)
+ * 
+ * Namen sind getrimmt und klein geschrieben (siehe TagParser) und
+ * eindeutig. Zuordnung zu MediaItems über die Tabelle media_item_tag.
+ */
+@Entity
+@Table(name = "tag", uniqueConstraints = @UniqueConstraint(name = "uk_tag_name", columnNames = "name"))
+@Data
+@NoArgsConstructor
+public class Tag {
+    
+    /**
+     * Primary Key (IDENTITY: wenige Tags, kein Batching nötig)
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 255)
+    private String name;
+    
+    public Tag(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.mediaverwaltung.repository;
+
+/**
+ * Projektion für GROUP BY-Abfragen: Gruppenwert + Anzahl
+ */
+public interface GroupCount {
+
+    String getGroupKey();
+
+    long getItemCount();
+}
@@ -1,11 +1,174 @@
 package com.example.mediaverwaltung.repository;
 
+import com.example.mediaverwaltung.dto.MediaItemVersion;
 import com.example.mediaverwaltung.model.MediaItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface MediaItemRepository extends JpaRepository<MediaItem, Long> {
+public interface MediaItemRepository extends JpaRepository<MediaItem, Long>, JpaSpecificationExecutor<MediaItem>,
+        MediaItemRepositoryCustom {
     // Spring generiert automatisch alle CRUD-Methoden!
     // findAll(), findById(), save(), delete() etc.
-}
\ No newline at end of file
+    // Dynamische Filter + Keyset-Scrolling über findBy(Specification, ...)
+    // Streaming-Export über streamAll() (siehe MediaItemRepositoryImpl)
+    
+    // ========================================
+    // SYNC (/api/media/changes)
+    // ========================================
+    
+    /**
+     * Items nach der Position (lastUpdatedAt, id), höchstens bis until
+     * (Index-Seek über idx_last_updated_at_id)
+     */
+    @Query("""
+            select m from MediaItem m
+            where (m.lastUpdatedAt > :since or (m.lastUpdatedAt = :since and m.id > :afterId))
+              and m.lastUpdatedAt <= :until
+            order by m.lastUpdatedAt, m.id
+            """)
+    List<MediaItem> findChangedAfter(@Param("since") LocalDateTime since, @Param("afterId") long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
+    
+    // ========================================
+    // DUBLETTEN (über uk_media_item_url_hash)
+    // ========================================
+    
+    /**
+     * Vorhandene Items zu den Hashes (ein Index-Lookup pro Hash)
+     * 
+     * @param urlHashes Ergebnisse von UrlNormalizer.hashOf()
+     */
+    @Query("select m.urlHash as urlHash, m.id as id from MediaItem m where m.urlHash in :urlHashes")
+    List<UrlMatch> findByUrlHashes(@Param("urlHashes") Collection<String> urlHashes);
+    
+    /**
+     * Item mit derselben kanonischen URL
+     */
+    Optional<MediaItem> findByUrlHash(String urlHash);
+    
+    // ========================================
+    // BATCH (/api/media/batch, je eine Anweisung für alle IDs)
+    // ========================================
+    
+    /**
+     * Welche der IDs es gibt (Index-Lookup über den Primärschlüssel)
+     */
+    @Query("select m.id from MediaItem m where m.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Entfernt alle Tag-Zuordnungen der Items
+     */
+    @Modifying
+    @Query(value = "delete from media_item_tag where media_item_id in (:ids)", nativeQuery = true)
+    int deleteTagLinks(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Ordnet allen Items alle Tags zu (ein INSERT ... SELECT)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into media_item_tag (media_item_id, tag_id)
+            select m.id, t.id from media_item m cross join tag t
+            where m.id in (:ids) and t.id in (:tagIds)
+            """, nativeQuery = true)
+    int insertTagLinks(@Param("ids") Collection<Long> ids, @Param("tagIds") Collection<Long> tagIds);
+    
+    /**
+     * Legt Tombstones für die Items an (vor dem Löschen aufrufen)
+     */
+    @Modifying
+    @Query(value = """
+            insert into media_item_tombstone (media_item_id, deleted_at)
+            select id, :deletedAt from media_item where id in (:ids)
+            """, nativeQuery = true)
+    int insertTombstones(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    /**
+     * Löscht die Items (Tag-Zuordnungen vorher mit deleteTagLinks entfernen)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from MediaItem m where m.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+    
+    // ========================================
+    // STATISTIKEN (SQL-Aggregate)
+    // ========================================
+    
+    /**
+     * Gesamtanzahl, gesehene Items, verschiedene Channels und Dauer
+     * (Summe/Durchschnitt) in einer Abfrage
+     */
+    @Query("""
+            select count(m) as total,
+                   sum(case when m.gesehen = true then 1 else 0 end) as gesehen,
+                   count(distinct m.channel) as distinctChannels,
+                   sum(m.durationSeconds) as totalDurationSeconds,
+                   avg(m.durationSeconds) as avgDurationSeconds
+            from MediaItem m
+            """)
+    MediaItemTotals aggregateTotals();
+    
+    /**
+     * Anzahl und jüngstes last_updated_at (für ETags, ohne Entities zu laden)
+     * max() liest nur das Ende von idx_last_updated_at_id.
+     */
+    @Query("select new com.example.mediaverwaltung.dto.MediaItemVersion(count(m), max(m.lastUpdatedAt)) from MediaItem m")
+    MediaItemVersion findVersion();
+    
+    /**
+     * Anzahl pro Media-Typ
+     */
+    @Query("select m.mediaType as groupKey, count(m) as itemCount from MediaItem m group by m.mediaType")
+    List<GroupCount> countByMediaType();
+    
+    /**
+     * Anzahl pro Channel, größte Channels zuerst
+     */
+    @Query("""
+            select m.channel as groupKey, count(m) as itemCount
+            from MediaItem m
+            where m.channel is not null
+            group by m.channel
+            order by count(m) desc
+            """)
+    List<GroupCount> countByChannel(Limit limit);
+    
+    // ========================================
+    // TAGS (über media_item_tag, ohne media_item zu lesen)
+    // ========================================
+    
+    /**
+     * Anzahl Items pro Tag, häufigste Tags zuerst
+     */
+    @Query(value = """
+            select t.name as groupKey, count(*) as itemCount
+            from tag t join media_item_tag mt on mt.tag_id = t.id
+            group by t.name
+            order by count(*) desc, t.name
+            limit :limit
+            """, nativeQuery = true)
+    List<GroupCount> countByTag(@Param("limit") int limit);
+    
+    /**
+     * Anzahl Items für die angegebenen Tags (Index-Lookup pro Tag)
+     */
+    @Query(value = """
+            select t.name as groupKey, count(*) as itemCount
+            from tag t join media_item_tag mt on mt.tag_id = t.id
+            where t.name in (:names)
+            group by t.name
+            """, nativeQuery = true)
+    List<GroupCount> countByTagNames(@Param("names") Collection<String> names);
+}
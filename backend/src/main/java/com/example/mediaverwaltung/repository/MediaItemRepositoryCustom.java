@@ -0,0 +1,70 @@
+package com.example.mediaverwaltung.repository;
+
+import com.example.mediaverwaltung.dto.DurationStats;
+import com.example.mediaverwaltung.dto.MediaItemBatchPatch;
+import com.example.mediaverwaltung.model.MediaItem;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Eigene Repository-Methoden, die sich nicht per @Query abbilden lassen
+ * (Implementierung: MediaItemRepositoryImpl)
+ */
+public interface MediaItemRepositoryCustom {
+
+    /**
+     * Liest alle Items als Stream über einen Forward-Only Cursor
+     * 
+     * Die Items werden nach dem Lesen sofort aus dem Persistence Context
+     * entfernt, der Speicherbedarf bleibt daher unabhängig von der Zeilenzahl.
+     * Muss innerhalb einer Transaktion konsumiert und geschlossen werden.
+     * 
+     * @param fetchSize Anzahl Zeilen pro Roundtrip zur Datenbank
+     * @return Stream aller Items, sortiert nach id
+     */
+    Stream<MediaItem> streamAll(int fetchSize);
+
+    /**
+     * COUNT/SUM/AVG/MIN/MAX über duration_seconds für alle passenden Items
+     * 
+     * @param spec Filter (z.B. MediaItemSpecifications.matching(...))
+     */
+    DurationStats aggregateDuration(Specification<MediaItem> spec);
+
+    /**
+     * IDs der ersten passenden Items, nach id sortiert (ohne Entities zu laden)
+     * 
+     * @param spec  Filter (z.B. MediaItemSpecifications.matching(...))
+     * @param limit maximale Anzahl IDs
+     */
+    List<Long> findIds(Specification<MediaItem> spec, int limit);
+
+    /**
+     * Setzt die Felder des Patches (ohne null-Felder), lastUpdatedAt und
+     * version + 1 für alle Items in einem UPDATE ... WHERE id IN (...)
+     * 
+     * Läuft an den Entity-Callbacks vorbei; der Patch enthält daher nur
+     * Felder ohne abgeleitete Spalten (keine url/dauer).
+     * 
+     * @return Anzahl geänderter Zeilen
+     */
+    int patchAll(Collection<Long> ids, MediaItemBatchPatch patch, LocalDateTime now);
+
+    /**
+     * Setzt genau die übergebenen Attribute eines Items, dazu lastUpdatedAt
+     * und version + 1 – ein UPDATE ohne vorheriges SELECT
+     * 
+     * Wie patchAll() an den Entity-Callbacks vorbei: abgeleitete Spalten
+     * (urlKey/urlHash, durationSeconds) muss values selbst enthalten.
+     * 
+     * @param values          Attributname → Wert
+     * @param expectedVersion gelesene Version (null = ohne Prüfung)
+     * @return 1, oder 0 wenn es das Item nicht (mehr in dieser Version) gibt
+     */
+    int patchColumns(Long id, Long expectedVersion, Map<String, Object> values, LocalDateTime now);
+}
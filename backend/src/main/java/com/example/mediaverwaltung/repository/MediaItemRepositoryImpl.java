@@ -0,0 +1,130 @@
+package com.example.mediaverwaltung.repository;
+
+import com.example.mediaverwaltung.dto.DurationStats;
+import com.example.mediaverwaltung.dto.MediaItemBatchPatch;
+import com.example.mediaverwaltung.model.MediaItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Implementierung von MediaItemRepositoryCustom
+ * (Spring Data findet sie automatisch über das Suffix "Impl")
+ */
+class MediaItemRepositoryImpl implements MediaItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<MediaItem> streamAll(int fetchSize) {
+        return entityManager.createQuery("select m from MediaItem m order by m.id", MediaItem.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(item -> {
+                    entityManager.detach(item);
+                    return item;
+                });
+    }
+
+    @Override
+    public DurationStats aggregateDuration(Specification<MediaItem> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<MediaItem> root = query.from(MediaItem.class);
+        Expression<Integer> seconds = root.get("durationSeconds");
+        
+        query.multiselect(cb.count(seconds), cb.sum(seconds), cb.avg(seconds), cb.min(seconds), cb.max(seconds));
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        Number total = row.get(1, Number.class);
+        return new DurationStats(
+                row.get(0, Long.class),
+                total != null ? total.longValue() : 0,
+                row.get(2, Double.class),
+                row.get(3, Integer.class),
+                row.get(4, Integer.class));
+    }
+
+    @Override
+    public List<Long> findIds(Specification<MediaItem> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<MediaItem> root = query.from(MediaItem.class);
+        
+        query.select(root.get("id")).orderBy(cb.asc(root.get("id")));
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public int patchAll(Collection<Long> ids, MediaItemBatchPatch patch, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<MediaItem> update = cb.createCriteriaUpdate(MediaItem.class);
+        Root<MediaItem> root = update.from(MediaItem.class);
+        
+        if (patch.gesehen() != null) {
+            update.set(root.<Boolean>get("gesehen"), patch.gesehen());
+        }
+        if (patch.mediaType() != null) {
+            update.set(root.<String>get("mediaType"), patch.mediaType());
+        }
+        if (patch.channel() != null) {
+            update.set(root.<String>get("channel"), patch.channel());
+        }
+        if (patch.stichwort() != null) {
+            update.set(root.<String>get("stichwort"), patch.stichwort());
+        }
+        update.where(root.get("id").in(ids));
+        return execute(update, root, now);
+    }
+
+    @Override
+    public int patchColumns(Long id, Long expectedVersion, Map<String, Object> values, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<MediaItem> update = cb.createCriteriaUpdate(MediaItem.class);
+        Root<MediaItem> root = update.from(MediaItem.class);
+        
+        values.forEach((attribute, value) -> update.set(root.get(attribute), value));
+        Predicate byId = cb.equal(root.get("id"), id);
+        update.where(expectedVersion == null ? byId : cb.and(byId, cb.equal(root.get("version"), expectedVersion)));
+        return execute(update, root, now);
+    }
+
+    /**
+     * Ergänzt lastUpdatedAt und version + 1 und führt das UPDATE aus
+     */
+    private int execute(CriteriaUpdate<MediaItem> update, Root<MediaItem> root, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        update.set(root.<LocalDateTime>get("lastUpdatedAt"), now);
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        
+        // Geänderte Entities vorher schreiben, danach veraltete verwerfen
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
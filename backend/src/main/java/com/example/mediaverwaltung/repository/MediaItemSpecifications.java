@@ -0,0 +1,90 @@
+package com.example.mediaverwaltung.repository;
+
+import com.example.mediaverwaltung.dto.MediaItemFilter;
+import com.example.mediaverwaltung.dto.TagMatch;
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.model.Tag;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * JPA Specifications (dynamische WHERE-Bedingungen) für MediaItem
+ */
+public final class MediaItemSpecifications {
+
+    private MediaItemSpecifications() {
+    }
+
+    /**
+     * Kombiniert alle gesetzten Filter per AND
+     * 
+     * @param filter Filter-Kriterien (null-Felder werden ignoriert)
+     * @return Specification für findBy / scroll
+     */
+    public static Specification<MediaItem> matching(MediaItemFilter filter) {
+        return Specification.allOf(
+                hasMediaType(filter.mediaType()),
+                hasChannel(filter.channel()),
+                hasGesehen(filter.gesehen()),
+                hasTags(filter.tags(), filter.tagMatch()),
+                hasDurationBetween(filter.dauerMin(), filter.dauerMax()));
+    }
+
+    public static Specification<MediaItem> hasMediaType(String mediaType) {
+        return (root, query, cb) -> mediaType == null ? null : cb.equal(root.get("mediaType"), mediaType);
+    }
+
+    public static Specification<MediaItem> hasChannel(String channel) {
+        return (root, query, cb) -> channel == null ? null : cb.equal(root.get("channel"), channel);
+    }
+
+    public static Specification<MediaItem> hasGesehen(Boolean gesehen) {
+        return (root, query, cb) -> gesehen == null ? null : cb.equal(root.get("gesehen"), gesehen);
+    }
+
+    /**
+     * Dauer im Bereich [min, max] Sekunden (Index idx_duration_seconds)
+     * Items ohne parsebare Dauer fallen bei aktivem Filter heraus.
+     */
+    public static Specification<MediaItem> hasDurationBetween(Integer min, Integer max) {
+        return (root, query, cb) -> {
+            if (min == null && max == null) {
+                return null;
+            }
+            Path<Integer> seconds = root.get("durationSeconds");
+            if (min == null) return cb.le(seconds, max);
+            if (max == null) return cb.ge(seconds, min);
+            return cb.between(seconds, min, max);
+        };
+    }
+
+    /**
+     * Items mit allen (ALL) bzw. mindestens einem (ANY) der Tags
+     * 
+     * Als IN-Subquery über media_item_tag: die Datenbank startet beim
+     * Tag-Namen (uk_tag_name) und liest die Items über idx_media_item_tag_tag,
+     * statt stichwort per LIKE zu durchsuchen.
+     * 
+     * @param tags normalisierte Tag-Namen
+     */
+    public static Specification<MediaItem> hasTags(List<String> tags, TagMatch match) {
+        return (root, query, cb) -> {
+            if (tags == null || tags.isEmpty()) {
+                return null;
+            }
+            Subquery<Long> tagged = query.subquery(Long.class);
+            Root<MediaItem> item = tagged.from(MediaItem.class);
+            Join<MediaItem, Tag> tag = item.join("tags");
+            tagged.select(item.get("id")).where(tag.get("name").in(tags));
+            if (match != TagMatch.ANY) {
+                tagged.groupBy(item.get("id")).having(cb.equal(cb.count(tag), (long) tags.size()));
+            }
+            return root.get("id").in(tagged);
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.mediaverwaltung.repository;
+
+import com.example.mediaverwaltung.model.MediaItemTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MediaItemTombstoneRepository extends JpaRepository<MediaItemTombstone, Long> {
+
+    /**
+     * Tombstones nach der Position (deletedAt, id), höchstens bis until
+     * (Index-Seek über idx_tombstone_deleted_at_id)
+     */
+    @Query("""
+            select t from MediaItemTombstone t
+            where (t.deletedAt > :since or (t.deletedAt = :since and t.id > :afterId))
+              and t.deletedAt <= :until
+            order by t.deletedAt, t.id
+            """)
+    List<MediaItemTombstone> findDeletedAfter(@Param("since") LocalDateTime since, @Param("afterId") long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
+
+    /**
+     * Jüngster Lösch-Zeitpunkt (Ende von idx_tombstone_deleted_at_id), null ohne Tombstones
+     */
+    @Query("select max(t.deletedAt) from MediaItemTombstone t")
+    LocalDateTime findLastDeletedAt();
+
+    /**
+     * Löscht Tombstones vor before (Aufbewahrung, siehe TombstonePurge)
+     */
+    @Modifying
+    @Query("delete from MediaItemTombstone t where t.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") LocalDateTime before);
+}
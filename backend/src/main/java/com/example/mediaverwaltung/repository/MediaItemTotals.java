@@ -0,0 +1,19 @@
+package com.example.mediaverwaltung.repository;
+
+/**
+ * Projektion für die Gesamt-Kennzahlen (eine Zeile, ein Table-Scan)
+ */
+public interface MediaItemTotals {
+
+    long getTotal();
+
+    Long getGesehen();
+
+    long getDistinctChannels();
+
+    /** Summe duration_seconds (null, wenn kein Item eine Dauer hat) */
+    Long getTotalDurationSeconds();
+
+    /** Durchschnitt duration_seconds über Items mit Dauer */
+    Double getAvgDurationSeconds();
+}
@@ -0,0 +1,25 @@
+package com.example.mediaverwaltung.repository;
+
+import com.example.mediaverwaltung.model.MediaSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface MediaSyncStateRepository extends JpaRepository<MediaSyncState, Long> {
+
+    /**
+     * Aktuelle Sync-Generation (leer, solange es keinen REPLACE-Import gab)
+     */
+    @Query("select s.generation from MediaSyncState s where s.id = " + MediaSyncState.SINGLETON_ID)
+    Optional<Long> findGeneration();
+
+    /**
+     * Grenze der gelöschten Tombstones (leer, solange nichts gelöscht wurde)
+     */
+    @Query("select s.tombstonesPurgedBefore from MediaSyncState s where s.id = " + MediaSyncState.SINGLETON_ID)
+    Optional<LocalDateTime> findTombstonesPurgedBefore();
+}
@@ -0,0 +1,17 @@
+package com.example.mediaverwaltung.repository;
+
+import com.example.mediaverwaltung.model.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    /**
+     * Tags zu den Namen (Index-Lookup über uk_tag_name)
+     */
+    List<Tag> findByNameIn(Collection<String> names);
+}
@@ -0,0 +1,11 @@
+package com.example.mediaverwaltung.repository;
+
+/**
+ * Projektion für Dublettenprüfungen: url_hash + ID des vorhandenen Items
+ */
+public interface UrlMatch {
+
+    String getUrlHash();
+
+    long getId();
+}
@@ -0,0 +1,85 @@
+package com.example.mediaverwaltung.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position im Änderungs-Feed (/api/media/changes)
+ * 
+ * Zwei Keyset-Positionen: letzte gelieferte Änderung (lastUpdatedAt, id)
+ * und letzter gelieferter Tombstone (deletedAt, id), dazu die
+ * Sync-Generation. Für den Client ein undurchsichtiger Base64-String.
+ * 
+ * Format (vor Base64): "generation|itemsAt|itemId|deletedAt|deletedId"
+ */
+record ChangeToken(long generation, LocalDateTime itemsAt, long itemId, LocalDateTime deletedAt, long deletedId) {
+
+    /**
+     * Anfang des Feeds (vor allen Änderungen)
+     */
+    static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Alles von vorn (erster Abruf oder nach einem Reset)
+     */
+    static ChangeToken start(long generation) {
+        return new ChangeToken(generation, ORIGIN, 0, ORIGIN, 0);
+    }
+
+    /**
+     * Liest since aus dem Request: Token einer früheren Antwort oder
+     * Zeitpunkt (ISO-8601, z.B. "2025-10-10T12:00:00" oder mit Offset/Z)
+     * 
+     * Ein Zeitpunkt gilt für die aktuelle Generation.
+     * 
+     * @throws IllegalArgumentException bei ungültigem Wert
+     */
+    static ChangeToken parse(String since, long currentGeneration) {
+        if (since == null || since.isBlank()) {
+            return start(currentGeneration);
+        }
+        LocalDateTime time = parseTime(since.trim());
+        if (time != null) {
+            return new ChangeToken(currentGeneration, time, 0, time, 0);
+        }
+        try {
+            String[] parts = new String(DECODER.decode(since.trim()), StandardCharsets.UTF_8).split("\\|");
+            return new ChangeToken(
+                    Long.parseLong(parts[0]),
+                    LocalDateTime.parse(parts[1]),
+                    Long.parseLong(parts[2]),
+                    LocalDateTime.parse(parts[3]),
+                    Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Ungültiger Change-Token: " + since, e);
+        }
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            // kein lokaler Zeitpunkt
+        }
+        try {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Kodiert den Token für die Response
+     */
+    String encode() {
+        String raw = generation + "|" + itemsAt + "|" + itemId + "|" + deletedAt + "|" + deletedId;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
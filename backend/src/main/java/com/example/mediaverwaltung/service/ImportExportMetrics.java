@@ -0,0 +1,113 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.service.importer.ImportMode;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Micrometer-Kennzahlen für Import und Export
+ *
+ * - mediaverwaltung.import.rows{mode, result}: Zeilen pro Ergebnis
+ *   (inserted, updated, unchanged, failed)
+ * - mediaverwaltung.import.duration{mode, outcome}: Dauer pro Import
+ *   (success, error), als Histogramm
+ * - mediaverwaltung.import.bytes: von Import-Jobs gelesene Bytes
+ * - mediaverwaltung.export.rows / .bytes / .duration{gzip}: CSV-Download
+ *
+ * Zeilen pro Sekunde ergeben sich in Prometheus aus den Zählern,
+ * z.B. rate(mediaverwaltung_import_rows_total[1m]).
+ */
+@Component
+public class ImportExportMetrics {
+
+    private final MeterRegistry registry;
+
+    public ImportExportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Startet die Zeitmessung für einen Import oder Export
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Import erfolgreich abgeschlossen (auch mit fehlerhaften Zeilen)
+     */
+    public void importFinished(Timer.Sample sample, ImportMode mode, ImportResult result) {
+        rows(mode, "inserted").increment(result.getInserted());
+        rows(mode, "updated").increment(result.getUpdated());
+        rows(mode, "unchanged").increment(result.getUnchanged());
+        rows(mode, "failed").increment(result.getFailed());
+        sample.stop(importTimer(mode, "success"));
+    }
+
+    /**
+     * Import abgebrochen oder mit Exception gescheitert
+     */
+    public void importFailed(Timer.Sample sample, ImportMode mode) {
+        sample.stop(importTimer(mode, "error"));
+    }
+
+    /**
+     * Gelesene Bytes eines Import-Jobs (vor dem Entpacken)
+     */
+    public void importBytes(long bytes) {
+        Counter.builder("mediaverwaltung.import.bytes")
+                .baseUnit("bytes")
+                .description("Von Import-Jobs gelesene Bytes")
+                .register(registry)
+                .increment(bytes);
+    }
+
+    /**
+     * CSV-Export abgeschlossen
+     *
+     * @param bytes gesendete Bytes (bei gzip komprimiert)
+     */
+    public void exportFinished(Timer.Sample sample, boolean gzip, long rows, long bytes) {
+        Counter.builder("mediaverwaltung.export.rows")
+                .description("Exportierte Items")
+                .register(registry)
+                .increment(rows);
+        Counter.builder("mediaverwaltung.export.bytes")
+                .baseUnit("bytes")
+                .tag("gzip", String.valueOf(gzip))
+                .description("Gesendete Bytes beim CSV-Export")
+                .register(registry)
+                .increment(bytes);
+        sample.stop(Timer.builder("mediaverwaltung.export.duration")
+                .tag("gzip", String.valueOf(gzip))
+                .description("Dauer eines CSV-Exports")
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Counter rows(ImportMode mode, String result) {
+        return Counter.builder("mediaverwaltung.import.rows")
+                .tag("mode", tag(mode))
+                .tag("result", result)
+                .description("Importierte Zeilen nach Ergebnis")
+                .register(registry);
+    }
+
+    private Timer importTimer(ImportMode mode, String outcome) {
+        return Timer.builder("mediaverwaltung.import.duration")
+                .tag("mode", tag(mode))
+                .tag("outcome", outcome)
+                .description("Dauer eines Imports")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String tag(ImportMode mode) {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.repository.MediaItemRepository;
+import com.example.mediaverwaltung.repository.UrlMatch;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import com.example.mediaverwaltung.service.importer.ImportSink;
+import com.example.mediaverwaltung.util.UrlNormalizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schreibt MediaItems in Chunks per JDBC-Batching in die Datenbank
+ * 
+ * Ablauf pro Chunk: vorhandene URLs aussortieren → Tags auflösen →
+ * persist() für alle Items → flush() (ein JDBC-Batch) → clear()
+ * (Persistence Context leeren, Heap bleibt klein).
+ * 
+ * Dubletten: URLs, die es (kanonisch, siehe UrlNormalizer) schon gibt
+ * oder die im selben Chunk doppelt vorkommen, werden vorab per EINER
+ * IN-Abfrage über den Unique-Index auf url_hash erkannt und als
+ * fehlerhafte Zeile gemeldet. Sonst würde jede Dublette den ganzen Chunk
+ * in die langsame Einzelwiederholung schicken. Abgleichen statt ablehnen:
+ * MERGE-Import (MediaItemMergeWriter).
+ * 
+ * Transaktionen:
+ * - Ohne laufende Transaktion wird jeder Chunk einzeln committet.
+ *   Scheitert ein Chunk, wird er Zeile für Zeile wiederholt, damit nur
+ *   die fehlerhaften Zeilen verloren gehen (mit Zeilennummer im Ergebnis).
+ * - Läuft bereits eine Transaktion (z.B. REPLACE-Import), schließen sich
+ *   alle Chunks ihr an und der Import ist atomar.
+ */
+@Component
+public class MediaItemBatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TagResolver tagResolver;
+
+    private final MediaItemRepository repository;
+
+    private final int batchSize;
+
+    public MediaItemBatchWriter(PlatformTransactionManager transactionManager,
+            TagResolver tagResolver,
+            MediaItemRepository repository,
+            @Value("${mediaverwaltung.import.batch-size:1000}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tagResolver = tagResolver;
+        this.repository = repository;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Startet einen neuen Import-Lauf
+     * 
+     * @return Session, an die Items einzeln übergeben werden
+     */
+    public Session open() {
+        return new Session();
+    }
+
+    /**
+     * Ein Import-Lauf: sammelt Items bis zur Chunk-Größe und schreibt sie dann
+     */
+    public class Session implements ImportSink {
+
+        private final ImportResult result = new ImportResult();
+        private final List<MediaItem> chunk = new ArrayList<>(batchSize);
+        private final List<Long> lineNumbers = new ArrayList<>(batchSize);
+
+        private Session() {
+        }
+
+        /**
+         * Übergibt ein Item; schreibt automatisch, sobald ein Chunk voll ist
+         */
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            result.recordRead();
+            
+            if (item.getUrl() == null || item.getUrl().isBlank()) {
+                result.recordFailure(lineNumber, "URL ist Pflichtfeld!");
+                return;
+            }
+            
+            item.setId(null);
+            chunk.add(item);
+            lineNumbers.add(lineNumber);
+            
+            if (chunk.size() >= batchSize) {
+                flushChunk();
+            }
+        }
+
+        @Override
+        public void recordFailure(long lineNumber, String message) {
+            result.recordRead();
+            result.recordFailure(lineNumber, message);
+        }
+
+        @Override
+        public ImportResult getResult() {
+            return result;
+        }
+
+        /**
+         * Schreibt den letzten (unvollständigen) Chunk
+         * Bereits committete Chunks bleiben auch bei Abbruch erhalten.
+         */
+        @Override
+        public ImportResult finish() {
+            if (!chunk.isEmpty()) {
+                flushChunk();
+            }
+            return result;
+        }
+
+        private void flushChunk() {
+            boolean joinsOuterTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+            
+            try {
+                rejectDuplicates();
+                transactionTemplate.executeWithoutResult(status -> persistAll(chunk));
+                result.recordInserted(chunk.size());
+            } catch (RuntimeException e) {
+                if (joinsOuterTransaction) {
+                    throw e; // Äußere Transaktion ist verloren → ganzer Import scheitert
+                }
+                retryOneByOne();
+            } finally {
+                chunk.clear();
+                lineNumbers.clear();
+            }
+        }
+
+        /**
+         * Entfernt vorhandene und im Chunk doppelte URLs aus dem Chunk
+         */
+        private void rejectDuplicates() {
+            List<String> hashes = new ArrayList<>(chunk.size());
+            for (MediaItem item : chunk) {
+                hashes.add(UrlNormalizer.hashOf(item.getUrl()));
+            }
+            Map<String, Long> existingIds = new HashMap<>();
+            for (UrlMatch match : repository.findByUrlHashes(hashes)) {
+                existingIds.put(match.getUrlHash(), match.getId());
+            }
+            
+            Map<String, Long> firstLines = new HashMap<>();
+            int kept = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                String hash = hashes.get(i);
+                Long lineNumber = lineNumbers.get(i);
+                Long existingId = existingIds.get(hash);
+                Long firstLine = firstLines.putIfAbsent(hash, lineNumber);
+                if (existingId != null) {
+                    result.recordFailure(lineNumber, "URL existiert bereits (ID " + existingId + ")");
+                } else if (firstLine != null) {
+                    result.recordFailure(lineNumber, "URL doppelt (wie Zeile " + firstLine + ")");
+                } else {
+                    chunk.set(kept, chunk.get(i));
+                    lineNumbers.set(kept, lineNumber);
+                    kept++;
+                }
+            }
+            chunk.subList(kept, chunk.size()).clear();
+            lineNumbers.subList(kept, lineNumbers.size()).clear();
+        }
+
+        private void retryOneByOne() {
+            for (int i = 0; i < chunk.size(); i++) {
+                MediaItem item = chunk.get(i);
+                item.setId(null); // id aus dem zurückgerollten Versuch verwerfen
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persistAll(List.of(item)));
+                    result.recordInserted(1);
+                } catch (RuntimeException e) {
+                    result.recordFailure(lineNumbers.get(i), rootMessage(e));
+                }
+            }
+        }
+
+        private void persistAll(List<MediaItem> items) {
+            tagResolver.applyTags(items); // eine Tag-Abfrage pro Chunk
+            for (MediaItem item : items) {
+                entityManager.persist(item);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Vergibt MediaItem-IDs für Inserts per JDBC (ohne Hibernate)
+ * 
+ * Nutzt dieselbe Sequence und dasselbe Schema wie Hibernates pooled
+ * optimizer: ein Sequence-Wert v reserviert die IDs (v-49 .. v).
+ * Dadurch kollidieren JDBC-Imports nie mit IDs, die Hibernate vergibt.
+ */
+@Component
+public class MediaItemIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String nextValueSql;
+
+    public MediaItemIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        this.nextValueSql = dialect.getSequenceSupport().getSequenceNextValString(MediaItem.ID_SEQUENCE);
+    }
+
+    /**
+     * Neue ID-Quelle für einen Import (nicht thread-safe)
+     * 
+     * Holt bei Bedarf den nächsten Block von 50 IDs aus der Sequence.
+     */
+    public LongSupplier newIdSource() {
+        return new LongSupplier() {
+            private long next = 1;
+            private long hi = 0;
+
+            @Override
+            public long getAsLong() {
+                if (next > hi) {
+                    hi = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                    next = Math.max(1, hi - MediaItem.ID_ALLOCATION_SIZE + 1);
+                }
+                return next++;
+            }
+        };
+    }
+}
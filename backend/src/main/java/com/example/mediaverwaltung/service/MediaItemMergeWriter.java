@@ -0,0 +1,298 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import com.example.mediaverwaltung.service.importer.ImportSink;
+import com.example.mediaverwaltung.util.TagParser;
+import com.example.mediaverwaltung.util.UrlNormalizer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * MERGE-Import: gleicht Items über die kanonische URL (url_hash) ab
+ *
+ * Pro Chunk (eine Transaktion):
+ * 1. Items per JDBC-Batch in die Staging-Tabellen schreiben (wie beim
+ *    MediaItemReplaceWriter)
+ * 2. EIN mengenbasiertes Statement gegen media_item:
+ *    PostgreSQL: INSERT ... SELECT ... ON CONFLICT (url_hash) DO UPDATE ... WHERE
+ *    H2:         MERGE INTO ... USING ... WHEN MATCHED AND ... / WHEN NOT MATCHED
+ *    Aktualisiert wird nur, wenn sich mindestens eine Spalte ändert;
+ *    unveränderte Zeilen behalten last_updated_at (Delta-Sync bleibt ruhig).
+ * 3. Tag-Zuordnungen der eingefügten/aktualisierten Items neu setzen,
+ *    Staging-Tabellen leeren
+ *
+ * Abgleich pro Spalte:
+ * - Leere Felder (null) in der Quelle überschreiben nichts, ein Re-Import
+ *   eines älteren Exports mit weniger Spalten löscht also keine Daten.
+ * - gesehen wird nie zurückgesetzt (Nutzerzustand): true gewinnt.
+ *
+ * Der Import ist idempotent: derselbe Import ein zweites Mal ergibt nur
+ * unveränderte Zeilen. Kommt eine URL im Import mehrfach vor, gewinnt wie
+ * bei sequentiellen Updates die letzte Zeile.
+ */
+@Component
+public class MediaItemMergeWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MediaItemIdAllocator idAllocator;
+
+    private final TagResolver tagResolver;
+
+    private final boolean postgres;
+
+    private final int batchSize;
+
+    public MediaItemMergeWriter(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MediaItemIdAllocator idAllocator,
+            TagResolver tagResolver,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${mediaverwaltung.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idAllocator = idAllocator;
+        this.tagResolver = tagResolver;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        this.postgres = dialect instanceof PostgreSQLDialect;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Startet einen MERGE-Import (legt die Staging-Tabellen an)
+     */
+    public Session open() {
+        String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        Session session = new Session("media_item_stage_" + suffix, "media_item_tag_stage_" + suffix);
+        try {
+            jdbcTemplate.execute("CREATE TABLE " + session.stagingTable
+                    + " AS SELECT " + MediaItemReplaceWriter.COLUMNS + " FROM media_item WHERE 1 = 0");
+            jdbcTemplate.execute("CREATE TABLE " + session.tagStagingTable
+                    + " (media_item_id BIGINT NOT NULL, name VARCHAR(255) NOT NULL)");
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+        return session;
+    }
+
+    /**
+     * Statement für Schritt 2, s = Quelle (Staging-Zeile), m = Bestand
+     */
+    private String mergeSql(String stagingTable) {
+        if (postgres) {
+            return "INSERT INTO media_item AS m (" + MediaItemReplaceWriter.COLUMNS + ")"
+                    + " SELECT " + MediaItemReplaceWriter.COLUMNS + " FROM " + stagingTable
+                    + " ON CONFLICT (url_hash) DO UPDATE SET " + assignments("EXCLUDED")
+                    + " WHERE " + changed("EXCLUDED");
+        }
+        return "MERGE INTO media_item m USING " + stagingTable + " s ON m.url_hash = s.url_hash"
+                + " WHEN MATCHED AND (" + changed("s") + ") THEN UPDATE SET " + assignments("s")
+                + " WHEN NOT MATCHED THEN INSERT (" + MediaItemReplaceWriter.COLUMNS + ") VALUES ("
+                + MediaItemReplaceWriter.COLUMNS.replaceAll("(\\w+)", "s.$1") + ")";
+    }
+
+    /**
+     * Unterscheidet sich die Quelle s vom Bestand m? (null in s zählt nicht)
+     */
+    private static String changed(String s) {
+        StringBuilder sql = new StringBuilder(s + ".url <> m.url");
+        for (String column : List.of("beschreibung", "channel", "dauer", "stichwort", "media_type")) {
+            sql.append(" OR (").append(s).append('.').append(column).append(" IS NOT NULL AND ")
+                    .append(s).append('.').append(column).append(" IS DISTINCT FROM m.").append(column).append(')');
+        }
+        return sql.append(" OR (").append(s).append(".gesehen AND NOT m.gesehen)").toString();
+    }
+
+    private static String assignments(String s) {
+        StringBuilder sql = new StringBuilder("url = " + s + ".url");
+        for (String column : List.of("beschreibung", "channel", "dauer", "stichwort", "media_type")) {
+            sql.append(", ").append(column).append(" = COALESCE(").append(s).append('.').append(column)
+                    .append(", m.").append(column).append(')');
+        }
+        return sql.append(", duration_seconds = CASE WHEN ").append(s).append(".dauer IS NULL")
+                .append(" THEN m.duration_seconds ELSE ").append(s).append(".duration_seconds END")
+                .append(", gesehen = (m.gesehen OR ").append(s).append(".gesehen)")
+                .append(", last_updated_at = ").append(s).append(".last_updated_at")
+                .append(", version = m.version + 1")
+                .toString();
+    }
+
+    /**
+     * Ein MERGE-Import-Lauf
+     */
+    public class Session implements ImportSink {
+
+        private final String stagingTable;
+        private final String tagStagingTable;
+        private final String insertSql;
+        private final String insertTagSql;
+        private final String mergeSql;
+        private final LongSupplier ids = idAllocator.newIdSource();
+        private final ImportResult result = new ImportResult();
+        private final List<MediaItem> chunk = new ArrayList<>(batchSize);
+        private final List<Long> lineNumbers = new ArrayList<>(batchSize);
+        private final Set<String> chunkKeys = new HashSet<>();
+        private boolean closed;
+
+        private Session(String stagingTable, String tagStagingTable) {
+            this.stagingTable = stagingTable;
+            this.tagStagingTable = tagStagingTable;
+            this.insertSql = "INSERT INTO " + stagingTable + " (" + MediaItemReplaceWriter.COLUMNS
+                    + ") VALUES (" + MediaItemReplaceWriter.PLACEHOLDERS + ")";
+            this.insertTagSql = "INSERT INTO " + tagStagingTable + " (media_item_id, name) VALUES (?, ?)";
+            this.mergeSql = mergeSql(stagingTable);
+        }
+
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            result.recordRead();
+
+            if (item.getUrl() == null || item.getUrl().isBlank()) {
+                result.recordFailure(lineNumber, "URL ist Pflichtfeld!");
+                return;
+            }
+
+            // Gleiche URL zweimal in einem Chunk: erst den Chunk schreiben,
+            // damit die spätere Zeile die frühere aktualisiert
+            if (!chunkKeys.add(UrlNormalizer.hashOf(item.getUrl()))) {
+                flushChunk();
+                chunkKeys.add(UrlNormalizer.hashOf(item.getUrl()));
+            }
+
+            item.setId(ids.getAsLong());
+            chunk.add(item);
+            lineNumbers.add(lineNumber);
+
+            if (chunk.size() >= batchSize) {
+                flushChunk();
+            }
+        }
+
+        @Override
+        public void recordFailure(long lineNumber, String message) {
+            result.recordRead();
+            result.recordFailure(lineNumber, message);
+        }
+
+        @Override
+        public ImportResult getResult() {
+            return result;
+        }
+
+        /**
+         * Schreibt den letzten Chunk und löscht Tags ohne Items
+         * Bereits committete Chunks bleiben auch bei Abbruch erhalten.
+         */
+        @Override
+        public ImportResult finish() {
+            try {
+                if (!chunk.isEmpty()) {
+                    flushChunk();
+                }
+                jdbcTemplate.update("DELETE FROM tag WHERE NOT EXISTS"
+                        + " (SELECT 1 FROM media_item_tag mt WHERE mt.tag_id = tag.id)");
+                return result;
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Löscht die Staging-Tabellen
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + stagingTable);
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + tagStagingTable);
+            }
+        }
+
+        private void flushChunk() {
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeAll(chunk));
+            } catch (RuntimeException e) {
+                retryOneByOne();
+            } finally {
+                chunk.clear();
+                lineNumbers.clear();
+                chunkKeys.clear();
+            }
+        }
+
+        private void retryOneByOne() {
+            for (int i = 0; i < chunk.size(); i++) {
+                MediaItem item = chunk.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> mergeAll(List.of(item)));
+                } catch (RuntimeException e) {
+                    result.recordFailure(lineNumbers.get(i), MediaItemReplaceWriter.rootMessage(e));
+                }
+            }
+        }
+
+        /**
+         * Schritte 1-3 für einen Chunk; zählt erst nach erfolgreichem
+         * Statement (bei Rollback zählt der Einzelversuch)
+         */
+        private void mergeAll(List<MediaItem> items) {
+            // Ein Zeitstempel pro Chunk: markiert die Zeilen, die das MERGE
+            // eingefügt oder aktualisiert hat
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> tagRows = new ArrayList<>();
+            for (MediaItem item : items) {
+                item.setLastUpdatedAt(now);
+                for (String name : TagParser.parse(item.getStichwort())) {
+                    tagRows.add(new Object[] { item.getId(), name });
+                }
+            }
+            jdbcTemplate.batchUpdate(insertSql, items, items.size(), MediaItemReplaceWriter::bind);
+            if (!tagRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(insertTagSql, tagRows);
+            }
+
+            int affected = jdbcTemplate.update(mergeSql);
+            Long inserted = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM media_item m JOIN "
+                    + stagingTable + " s ON m.id = s.id", Long.class);
+
+            // Tags nur für eingefügte/aktualisierte Items mit stichwort in der Quelle
+            String touched = "SELECT m.id FROM media_item m JOIN " + stagingTable + " s"
+                    + " ON m.url_hash = s.url_hash AND m.last_updated_at = s.last_updated_at"
+                    + " WHERE s.stichwort IS NOT NULL";
+            tagResolver.insertMissing("SELECT name FROM " + tagStagingTable);
+            jdbcTemplate.update("DELETE FROM media_item_tag WHERE media_item_id IN (" + touched + ")");
+            jdbcTemplate.update("INSERT INTO media_item_tag (media_item_id, tag_id) SELECT DISTINCT m.id, t.id FROM "
+                    + tagStagingTable + " ts JOIN " + stagingTable + " s ON s.id = ts.media_item_id"
+                    + " JOIN media_item m ON m.url_hash = s.url_hash AND m.last_updated_at = s.last_updated_at"
+                    + " JOIN tag t ON t.name = ts.name");
+
+            jdbcTemplate.update("DELETE FROM " + tagStagingTable);
+            jdbcTemplate.update("DELETE FROM " + stagingTable);
+
+            result.recordInserted(inserted);
+            result.recordUpdated(affected - inserted);
+            result.recordUnchanged(items.size() - affected);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.model.MediaSyncState;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import com.example.mediaverwaltung.service.importer.ImportSink;
+import com.example.mediaverwaltung.util.DurationParser;
+import com.example.mediaverwaltung.util.TagParser;
+import com.example.mediaverwaltung.util.UrlNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * REPLACE-Import über eine Staging-Tabelle
+ * 
+ * 1. open():   leere Staging-Tabellen media_item_stage_xxx (Items) und
+ *              media_item_tag_stage_xxx (Item-ID + Tag-Name) anlegen
+ * 2. add():    Items chunkweise per JDBC-Batch in die Staging-Tabellen schreiben
+ *              (media_item bleibt unberührt und voll lesbar)
+ * 3. finish(): doppelte URLs (gleicher url_hash) in der Staging-Tabelle
+ *              entfernen (die letzte Zeile gewinnt), dann in einer Transaktion media_item
+ *              (+ Tag-Zuordnungen) leeren und per INSERT ... SELECT aus den Staging-Tabellen
+ *              befüllen; neue Tags anlegen, verwaiste Tags löschen;
+ *              neue Sync-Generation (Delta-Sync-Clients laden neu)
+ * 4. Staging-Tabellen löschen
+ * 
+ * Leser sehen bis zum Commit den alten, danach den neuen Stand – nie
+ * eine leere oder halb gefüllte Tabelle. Scheitert der Import vor dem
+ * Tausch, bleibt media_item unverändert.
+ * 
+ * Der Tausch ist kein Umbenennen: er löscht alle Zeilen und kopiert den
+ * neuen Bestand zurück. Seine Dauer (und damit die Sperren auf media_item,
+ * media_item_tag und tag) wächst mit der Tabellengröße; Schreiber warten
+ * so lange, und im Transaktionslog stehen ein komplettes DELETE und ein
+ * komplettes INSERT. Nur der Aufbau der Staging-Tabellen läuft ohne Sperren.
+ */
+@Component
+public class MediaItemReplaceWriter {
+
+    /**
+     * Spalten, die beim Import geschrieben werden
+     */
+    static final String COLUMNS = "id, last_updated_at, url, url_key, url_hash, beschreibung, channel, dauer, gesehen, stichwort, media_type, duration_seconds";
+
+    static final String PLACEHOLDERS = "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MediaItemIdAllocator idAllocator;
+
+    private final TagResolver tagResolver;
+
+    private final int batchSize;
+
+    public MediaItemReplaceWriter(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MediaItemIdAllocator idAllocator,
+            TagResolver tagResolver,
+            @Value("${mediaverwaltung.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idAllocator = idAllocator;
+        this.tagResolver = tagResolver;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Startet einen REPLACE-Import (legt die Staging-Tabelle an)
+     */
+    public Session open() {
+        String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        Session session = new Session("media_item_stage_" + suffix, "media_item_tag_stage_" + suffix);
+        try {
+            jdbcTemplate.execute("CREATE TABLE " + session.stagingTable
+                    + " AS SELECT " + COLUMNS + " FROM media_item WHERE 1 = 0");
+            jdbcTemplate.execute("CREATE TABLE " + session.tagStagingTable
+                    + " (media_item_id BIGINT NOT NULL, name VARCHAR(255) NOT NULL)");
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+        return session;
+    }
+
+    /**
+     * Ein REPLACE-Import-Lauf
+     */
+    public class Session implements ImportSink {
+
+        private final String stagingTable;
+        private final String tagStagingTable;
+        private final String insertSql;
+        private final String insertTagSql;
+        private final LongSupplier ids = idAllocator.newIdSource();
+        private final ImportResult result = new ImportResult();
+        private final List<MediaItem> chunk = new ArrayList<>(batchSize);
+        private final List<Long> lineNumbers = new ArrayList<>(batchSize);
+        private boolean closed;
+
+        private Session(String stagingTable, String tagStagingTable) {
+            this.stagingTable = stagingTable;
+            this.tagStagingTable = tagStagingTable;
+            this.insertSql = "INSERT INTO " + stagingTable + " (" + COLUMNS + ") VALUES (" + PLACEHOLDERS + ")";
+            this.insertTagSql = "INSERT INTO " + tagStagingTable + " (media_item_id, name) VALUES (?, ?)";
+        }
+
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            result.recordRead();
+            
+            if (item.getUrl() == null || item.getUrl().isBlank()) {
+                result.recordFailure(lineNumber, "URL ist Pflichtfeld!");
+                return;
+            }
+            
+            item.setId(ids.getAsLong());
+            item.setLastUpdatedAt(LocalDateTime.now());
+            chunk.add(item);
+            lineNumbers.add(lineNumber);
+            
+            if (chunk.size() >= batchSize) {
+                flushChunk();
+            }
+        }
+
+        @Override
+        public void recordFailure(long lineNumber, String message) {
+            result.recordRead();
+            result.recordFailure(lineNumber, message);
+        }
+
+        /**
+         * Zwischenstand; inserted zählt bis zum Tausch die Zeilen in der
+         * Staging-Tabelle
+         */
+        @Override
+        public ImportResult getResult() {
+            return result;
+        }
+
+        /**
+         * Schreibt den Rest in die Staging-Tabelle und tauscht den Inhalt
+         * von media_item in einer Transaktion aus (Dauer proportional zur
+         * Anzahl Items, siehe Klassenkommentar)
+         */
+        @Override
+        public ImportResult finish() {
+            try {
+                if (!chunk.isEmpty()) {
+                    flushChunk();
+                }
+                removeDuplicateUrls();
+                
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("DELETE FROM media_item_tag");
+                    jdbcTemplate.update("DELETE FROM media_item");
+                    jdbcTemplate.update("INSERT INTO media_item (" + COLUMNS + ") SELECT " + COLUMNS + " FROM " + stagingTable);
+                    tagResolver.insertMissing("SELECT name FROM " + tagStagingTable);
+                    jdbcTemplate.update("INSERT INTO media_item_tag (media_item_id, tag_id) SELECT s.media_item_id, t.id FROM "
+                            + tagStagingTable + " s JOIN tag t ON t.name = s.name");
+                    jdbcTemplate.update("DELETE FROM tag WHERE NOT EXISTS"
+                            + " (SELECT 1 FROM media_item_tag mt WHERE mt.tag_id = tag.id)");
+                    startNewSyncGeneration();
+                });
+                return result;
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Mehrfach vorkommende URLs (gleicher url_hash): nur die letzte Zeile
+         * bleibt, wie bei sequentiellen Updates; die früheren zählen als
+         * aktualisiert statt eingefügt
+         * 
+         * Ohne Dubletten bleibt es bei einem Durchlauf (COUNT DISTINCT);
+         * sonst wird die Staging-Tabelle erst indiziert, damit das Löschen
+         * per Index-Lookup statt per Self-Join über alle Zeilen läuft.
+         */
+        private void removeDuplicateUrls() {
+            Long duplicates = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) - COUNT(DISTINCT url_hash) FROM " + stagingTable, Long.class);
+            if (duplicates == null || duplicates == 0) {
+                return;
+            }
+            
+            jdbcTemplate.execute("CREATE INDEX " + stagingTable + "_hash ON " + stagingTable + " (url_hash, id)");
+            String earlier = "SELECT s.id FROM " + stagingTable + " s WHERE EXISTS (SELECT 1 FROM " + stagingTable
+                    + " later WHERE later.url_hash = s.url_hash AND later.id > s.id)";
+            jdbcTemplate.update("DELETE FROM " + tagStagingTable + " WHERE media_item_id IN (" + earlier + ")");
+            int removed = jdbcTemplate.update("DELETE FROM " + stagingTable + " WHERE id IN (" + earlier + ")");
+            if (removed > 0) {
+                result.recordInserted(-removed);
+                result.recordUpdated(removed);
+            }
+        }
+
+        /**
+         * Neue Sync-Generation: alte Change-Tokens und Tombstones sind
+         * ungültig, Clients laden nach dem Tausch komplett neu
+         */
+        private void startNewSyncGeneration() {
+            jdbcTemplate.update("DELETE FROM media_item_tombstone");
+            int updated = jdbcTemplate.update("UPDATE media_sync_state SET generation = generation + 1 WHERE id = ?",
+                    MediaSyncState.SINGLETON_ID);
+            if (updated == 0) {
+                jdbcTemplate.update("INSERT INTO media_sync_state (id, generation) VALUES (?, 1)",
+                        MediaSyncState.SINGLETON_ID);
+            }
+        }
+
+        /**
+         * Löscht die Staging-Tabellen (media_item bleibt unverändert, falls
+         * finish() nicht erfolgreich war)
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + stagingTable);
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + tagStagingTable);
+            }
+        }
+
+        private void flushChunk() {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertAll(chunk));
+                result.recordInserted(chunk.size());
+            } catch (RuntimeException e) {
+                retryOneByOne();
+            } finally {
+                chunk.clear();
+                lineNumbers.clear();
+            }
+        }
+
+        private void retryOneByOne() {
+            for (int i = 0; i < chunk.size(); i++) {
+                MediaItem item = chunk.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertAll(List.of(item)));
+                    result.recordInserted(1);
+                } catch (RuntimeException e) {
+                    result.recordFailure(lineNumbers.get(i), rootMessage(e));
+                }
+            }
+        }
+
+        private void insertAll(List<MediaItem> items) {
+            jdbcTemplate.batchUpdate(insertSql, items, items.size(), MediaItemReplaceWriter::bind);
+            
+            List<Object[]> tagRows = new ArrayList<>();
+            for (MediaItem item : items) {
+                for (String name : TagParser.parse(item.getStichwort())) {
+                    tagRows.add(new Object[] { item.getId(), name });
+                }
+            }
+            if (!tagRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(insertTagSql, tagRows);
+            }
+        }
+    }
+
+    /**
+     * Bindet ein Item an die Platzhalter in COLUMNS-Reihenfolge
+     */
+    static void bind(PreparedStatement ps, MediaItem item) throws SQLException {
+        ps.setLong(1, item.getId());
+        ps.setTimestamp(2, Timestamp.valueOf(item.getLastUpdatedAt()));
+        ps.setString(3, item.getUrl());
+        String urlKey = UrlNormalizer.normalize(item.getUrl());
+        ps.setString(4, urlKey);
+        ps.setString(5, UrlNormalizer.hash(urlKey));
+        ps.setString(6, item.getBeschreibung());
+        ps.setString(7, item.getChannel());
+        ps.setString(8, item.getDauer());
+        ps.setBoolean(9, item.getGesehen() != null && item.getGesehen());
+        ps.setString(10, item.getStichwort());
+        ps.setString(11, item.getMediaType());
+        Integer durationSeconds = DurationParser.toSeconds(item.getDauer());
+        if (durationSeconds != null) {
+            ps.setInt(12, durationSeconds);
+        } else {
+            ps.setNull(12, Types.INTEGER);
+        }
+    }
+
+    static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
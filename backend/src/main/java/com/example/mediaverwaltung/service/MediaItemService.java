@@ -1,15 +1,83 @@
 package com.example.mediaverwaltung.service;
 
+import com.example.mediaverwaltung.config.CacheConfig;
+import com.example.mediaverwaltung.dto.BatchItemResult;
+import com.example.mediaverwaltung.dto.DurationStats;
+import com.example.mediaverwaltung.dto.MediaItemBatchPatch;
+import com.example.mediaverwaltung.dto.MediaItemChanges;
+import com.example.mediaverwaltung.dto.MediaItemFilter;
+import com.example.mediaverwaltung.dto.MediaItemPage;
+import com.example.mediaverwaltung.dto.MediaItemSort;
+import com.example.mediaverwaltung.dto.MediaItemVersion;
+import com.example.mediaverwaltung.dto.MediaItemView;
+import com.example.mediaverwaltung.dto.MediaSearchResult;
+import com.example.mediaverwaltung.dto.MediaStats;
+import com.example.mediaverwaltung.dto.TagMatch;
+import com.example.mediaverwaltung.dto.TagQueryResult;
+import com.example.mediaverwaltung.dto.UrlDuplicate;
 import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.model.MediaItemTombstone;
+import com.example.mediaverwaltung.model.Tag;
+import com.example.mediaverwaltung.repository.GroupCount;
 import com.example.mediaverwaltung.repository.MediaItemRepository;
+import com.example.mediaverwaltung.repository.MediaItemSpecifications;
+import com.example.mediaverwaltung.repository.MediaItemTombstoneRepository;
+import com.example.mediaverwaltung.repository.MediaSyncStateRepository;
+import com.example.mediaverwaltung.repository.MediaItemTotals;
+import com.example.mediaverwaltung.repository.UrlMatch;
+import com.example.mediaverwaltung.service.importer.CsvImporter;
 import com.example.mediaverwaltung.service.importer.DataImporter;
+import com.example.mediaverwaltung.service.importer.ImportFiles;
+import com.example.mediaverwaltung.service.importer.ImportFormat;
+import com.example.mediaverwaltung.service.importer.ImportMode;
+import com.example.mediaverwaltung.service.importer.ImportProgressReporter;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import com.example.mediaverwaltung.service.importer.ImportSink;
 import com.example.mediaverwaltung.service.importer.JsonImporter;
+import com.example.mediaverwaltung.service.search.MediaItemSearch;
+import com.example.mediaverwaltung.service.search.SearchQuery;
+import com.example.mediaverwaltung.util.DurationParser;
+import com.example.mediaverwaltung.util.TagParser;
+import com.example.mediaverwaltung.util.UrlNormalizer;
 
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 /**
  * Service für MediaItem Business-Logik
@@ -19,15 +87,86 @@ import java.util.List;
 @Transactional
 public class MediaItemService {
     
+    /**
+     * Obergrenze für die Seitengröße (schützt vor "size=1000000")
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    /**
+     * Wie tief in die Suchtreffer geblättert werden kann (page * size)
+     */
+    public static final int MAX_SEARCH_RESULTS = 10_000;
+    
+    /**
+     * Höchstens so viele URLs pro Dublettenprüfung
+     */
+    public static final int MAX_DUPLICATE_CHECK = 1000;
+    
+    /**
+     * Höchstens so viele Items bzw. IDs pro Batch-Request
+     * (und pro DELETE-Anweisung beim Löschen per Filter)
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+    
     @Autowired
     private MediaItemRepository repository;
     
     @Autowired
-    private DataImporter csvImporter; // Spring injiziert CsvImporter automatisch!
+    private CsvImporter csvImporter;
     
     @Autowired
     private JsonImporter jsonImporter; // Neben csvImporter!
     
+    @Autowired
+    private MediaItemBatchWriter batchWriter;
+    
+    @Autowired
+    private MediaItemReplaceWriter replaceWriter;
+    
+    @Autowired
+    private MediaItemMergeWriter mergeWriter;
+    
+    @Autowired
+    private MediaItemSearch search;
+    
+    @Autowired
+    private TagResolver tagResolver;
+    
+    @Autowired
+    private ApplicationEventPublisher events;
+    
+    @Autowired
+    private MediaItemTombstoneRepository tombstoneRepository;
+    
+    @Autowired
+    private MediaSyncStateRepository syncStateRepository;
+    
+    @Autowired
+    private ImportExportMetrics metrics;
+    
+    @Autowired
+    private ImportProgressReporter progressReporter;
+    
+    /**
+     * Wie viele Channels /api/media/stats einzeln aufführt
+     */
+    @Value("${mediaverwaltung.stats.top-channels:20}")
+    private int topChannels = 20;
+    
+    /**
+     * Zeilen pro Datenbank-Roundtrip beim CSV-Export
+     */
+    @Value("${mediaverwaltung.export.fetch-size:1000}")
+    private int exportFetchSize = 1000;
+    
+    /**
+     * Wie lange eine Änderung alt sein muss, bevor /changes sie liefert
+     * (größer als die längste Schreib-Transaktion, sonst kann ein später
+     * Commit hinter dem Token des Clients landen)
+     */
+    @Value("${mediaverwaltung.sync.settle-time:2s}")
+    private Duration syncSettleTime = Duration.ofSeconds(2);
+    
     /**
      * Gibt alle MediaItems zurück
      */
@@ -35,86 +174,670 @@ public class MediaItemService {
         return repository.findAll();
     }
     
+    /**
+     * Gibt eine Seite MediaItems zurück (Keyset-Pagination)
+     * 
+     * Jede Seite wird per Index-Seek ab dem Cursor gelesen
+     * (WHERE (last_updated_at, id) > (?, ?) ... LIMIT n), daher bleibt
+     * die Latenz auch bei tiefen Seiten konstant.
+     * 
+     * @param filter Filter (mediaType, channel, gesehen)
+     * @param sort   Sortierung
+     * @param size   Seitengröße (wird auf 1..MAX_PAGE_SIZE begrenzt)
+     * @param cursor Cursor der vorherigen Seite (null = erste Seite)
+     * @return Seite inkl. Cursor für die nächste Seite
+     * @throws IllegalArgumentException bei ungültigem Cursor
+     */
+    @Cacheable(cacheNames = CacheConfig.QUERY_CACHE, key = "{#root.methodName, #filter, #sort, #size, #cursor}")
+    @Transactional(readOnly = true)
+    public MediaItemPage findPage(MediaItemFilter filter, MediaItemSort sort, int size, String cursor) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ScrollPosition position = (cursor == null || cursor.isBlank())
+                ? ScrollPosition.keyset()
+                : PageCursor.decode(cursor, sort).toScrollPosition();
+        
+        Window<MediaItem> window = repository.findBy(
+                MediaItemSpecifications.matching(filter),
+                query -> query.sortBy(sort.toSort()).limit(pageSize).scroll(position));
+        
+        List<MediaItem> items = window.getContent();
+        String nextCursor = window.hasNext() && !items.isEmpty()
+                ? PageCursor.of(items.get(items.size() - 1), sort).encode()
+                : null;
+        
+        // Views statt Entities in den Query-Cache (siehe findViewById)
+        return new MediaItemPage(items.stream().map(MediaItemView::of).toList(), pageSize,
+                window.hasNext(), nextCursor);
+    }
+    
+    /**
+     * Änderungen seit since, für Clients mit lokaler Kopie (Delta-Sync)
+     * 
+     * Liefert neue/geänderte Items (Keyset über idx_last_updated_at_id)
+     * und gelöschte IDs (Tombstones) nach der Position im Token, plus den
+     * Token für den nächsten Abruf. Der Aufwand hängt nur von der Anzahl
+     * Änderungen ab, nicht von der Tabellengröße.
+     * 
+     * Nach einem REPLACE-Import (neue Generation) kommt reset=true und
+     * der Feed beginnt von vorn. Ebenso, wenn der Token vor der Grenze der
+     * bereits gelöschten Tombstones liegt (TombstonePurge): der Client
+     * könnte Löschungen verpasst haben und muss komplett neu laden.
+     * Sind alle Tombstones bis until geliefert, rückt die Tombstone-Position
+     * auf until vor, damit regelmäßig abrufende Clients nie hinter die
+     * Grenze fallen.
+     * 
+     * @param since Token einer früheren Antwort, ISO-Zeitpunkt oder null (alles)
+     * @param size  maximale Anzahl Items bzw. Löschungen (1..MAX_PAGE_SIZE)
+     * @throws IllegalArgumentException bei ungültigem since
+     */
+    @Transactional(readOnly = true)
+    public MediaItemChanges findChanges(String since, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long generation = syncStateRepository.findGeneration().orElse(0L);
+        ChangeToken requested = ChangeToken.parse(since, generation);
+        boolean reset = requested.generation() != generation || isBehindPurgedTombstones(requested, generation);
+        ChangeToken token = reset ? ChangeToken.start(generation) : requested;
+        LocalDateTime until = LocalDateTime.now().minus(syncSettleTime);
+        
+        // Je ein Treffer mehr als nötig: zeigt, ob noch mehr folgt
+        List<MediaItem> items = repository.findChangedAfter(
+                token.itemsAt(), token.itemId(), until, Limit.of(limit + 1));
+        List<MediaItemTombstone> tombstones = tombstoneRepository.findDeletedAfter(
+                token.deletedAt(), token.deletedId(), until, Limit.of(limit + 1));
+        boolean hasMore = items.size() > limit || tombstones.size() > limit;
+        boolean tombstonesComplete = tombstones.size() <= limit;
+        items = items.subList(0, Math.min(items.size(), limit));
+        tombstones = tombstones.subList(0, Math.min(tombstones.size(), limit));
+        
+        ChangeToken next = token;
+        if (!items.isEmpty()) {
+            MediaItem last = items.get(items.size() - 1);
+            next = new ChangeToken(generation, last.getLastUpdatedAt(), last.getId(), next.deletedAt(), next.deletedId());
+        }
+        if (!tombstones.isEmpty()) {
+            MediaItemTombstone last = tombstones.get(tombstones.size() - 1);
+            next = new ChangeToken(generation, next.itemsAt(), next.itemId(), last.getDeletedAt(), last.getId());
+        }
+        if (tombstonesComplete && next.deletedAt().isBefore(until)) {
+            next = new ChangeToken(generation, next.itemsAt(), next.itemId(), until, Long.MAX_VALUE);
+        }
+        
+        List<Long> deleted = tombstones.stream().map(MediaItemTombstone::getId).toList();
+        return new MediaItemChanges(items, deleted, reset, hasMore, next.encode());
+    }
+    
+    /**
+     * true, wenn nach der Tombstone-Position des Tokens schon Tombstones
+     * gelöscht wurden (nicht für den Anfang des Feeds: ohne lokale Kopie
+     * fehlt dem Client nichts)
+     */
+    private boolean isBehindPurgedTombstones(ChangeToken token, long generation) {
+        if (token.equals(ChangeToken.start(generation))) {
+            return false;
+        }
+        return syncStateRepository.findTombstonesPurgedBefore()
+                .map(purgedBefore -> token.deletedAt().isBefore(purgedBefore))
+                .orElse(false);
+    }
+    
+    /**
+     * Items mit allen (ALL) oder einem der (ANY) Tags, seitenweise
+     * 
+     * Tag-Filter laufen über media_item_tag (Index-Lookups), siehe
+     * MediaItemSpecifications.hasTags(). Zusätzlich die Anzahl Items
+     * pro angefragtem Tag.
+     * 
+     * @param tags Tag-Namen (werden normalisiert)
+     * @throws IllegalArgumentException ohne Tag oder bei ungültigem Cursor
+     */
+    @Transactional(readOnly = true)
+    public TagQueryResult findByTags(List<String> tags, TagMatch match, MediaItemSort sort, int size, String cursor) {
+        List<String> names = TagParser.normalize(tags);
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens ein Tag angeben");
+        }
+        
+        MediaItemPage page = findPage(MediaItemFilter.tagged(names, match), sort, size, cursor);
+        
+        Map<String, Long> tagCounts = new LinkedHashMap<>();
+        names.forEach(name -> tagCounts.put(name, 0L));
+        for (GroupCount count : repository.countByTagNames(names)) {
+            tagCounts.put(count.getGroupKey(), count.getItemCount());
+        }
+        return new TagQueryResult(page, tagCounts);
+    }
+    
+    /**
+     * Anzahl Items pro Tag, häufigste zuerst
+     * 
+     * @param limit maximale Anzahl Tags (wird auf 1..MAX_PAGE_SIZE begrenzt)
+     */
+    @Cacheable(cacheNames = CacheConfig.QUERY_CACHE, key = "{#root.methodName, #limit}")
+    @Transactional(readOnly = true)
+    public Map<String, Long> countTags(int limit) {
+        return toMap(repository.countByTag(Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+    
+    /**
+     * Volltextsuche in beschreibung, channel und url
+     * 
+     * Alle Begriffe müssen vorkommen (auch als Wortanfang),
+     * Treffer in der Beschreibung zählen am meisten.
+     * 
+     * @param query Sucheingabe
+     * @param page  Seitennummer (ab 0)
+     * @param size  Seitengröße (wird auf 1..MAX_PAGE_SIZE begrenzt)
+     * @throws IllegalArgumentException ohne Suchbegriff oder bei zu tiefer Seite
+     */
+    @Transactional(readOnly = true)
+    public MediaSearchResult search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (page < 0 || (long) page * pageSize >= MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Seite außerhalb der Suchtreffer: " + page);
+        }
+        
+        // Ein Treffer mehr als nötig: zeigt, ob eine weitere Seite folgt
+        List<MediaItem> items = search.search(SearchQuery.parse(query), page * pageSize, pageSize + 1);
+        boolean hasNext = items.size() > pageSize;
+        return new MediaSearchResult(hasNext ? items.subList(0, pageSize) : items, page, pageSize, hasNext);
+    }
+    
+    /**
+     * Anzahl aller Items (SELECT COUNT, ohne Entities zu laden)
+     */
+    @Cacheable(cacheNames = CacheConfig.QUERY_CACHE, key = "#root.methodName")
+    @Transactional(readOnly = true)
+    public long count() {
+        return repository.count();
+    }
+    
+    /**
+     * Versionsstand des Bestands (Anzahl + jüngste Änderung oder Löschung)
+     * 
+     * Grundlage der ETags für Listen und Statistiken: ändert sich der
+     * Stand nicht, antwortet der Controller mit 304 ohne Items zu laden.
+     * Zwei max()-Abfragen, jeweils nur das Ende eines Index.
+     */
+    @Cacheable(cacheNames = CacheConfig.QUERY_CACHE, key = "#root.methodName")
+    @Transactional(readOnly = true)
+    public MediaItemVersion getVersion() {
+        return repository.findVersion().changedAt(tombstoneRepository.findLastDeletedAt());
+    }
+    
+    /**
+     * Aggregierte Statistiken für das Dashboard
+     * 
+     * Drei Aggregat-Abfragen statt Laden der ganzen Tabelle
+     * (Dauer über die Spalte duration_seconds).
+     * Ergebnis wird kurz gecacht (mediaverwaltung.cache.stats-ttl)
+     * und bei jeder Änderung verworfen.
+     */
+    @Cacheable(CacheConfig.STATS_CACHE)
+    @Transactional(readOnly = true)
+    public MediaStats getStats() {
+        MediaItemTotals totals = repository.aggregateTotals();
+        long gesehen = totals.getGesehen() != null ? totals.getGesehen() : 0;
+        
+        return new MediaStats(
+                totals.getTotal(),
+                gesehen,
+                totals.getTotal() - gesehen,
+                totals.getDistinctChannels(),
+                toMap(repository.countByMediaType()),
+                toMap(repository.countByChannel(Limit.of(Math.max(1, topChannels)))),
+                totals.getTotalDurationSeconds() != null ? totals.getTotalDurationSeconds() : 0,
+                totals.getAvgDurationSeconds());
+    }
+    
+    /**
+     * Dauer-Kennzahlen (Anzahl, Summe, Durchschnitt, Min, Max) für alle
+     * Items, die zum Filter passen – eine Aggregat-Abfrage in der Datenbank
+     * 
+     * Beispiel: verbleibende Watch-Time = Filter gesehen=false
+     */
+    @Cacheable(cacheNames = CacheConfig.QUERY_CACHE, key = "{#root.methodName, #filter}")
+    @Transactional(readOnly = true)
+    public DurationStats getDurationStats(MediaItemFilter filter) {
+        return repository.aggregateDuration(MediaItemSpecifications.matching(filter));
+    }
+    
+    private static Map<String, Long> toMap(List<GroupCount> groups) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (GroupCount group : groups) {
+            map.put(group.getGroupKey() != null ? group.getGroupKey() : "UNBEKANNT", group.getItemCount());
+        }
+        return map;
+    }
+    
     /**
      * Findet MediaItem by ID
      */
+    @Transactional(readOnly = true)
     public MediaItem findById(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("MediaItem nicht gefunden: " + id));
     }
     
+    /**
+     * Findet MediaItem by ID als unveränderliche Sicht (für GET /api/media/{id})
+     * 
+     * Gecacht (mediaverwaltung.cache.item-*), bei save/delete/Import verworfen.
+     * Im Cache liegt die MediaItemView, nicht die Entity: die ist veränderbar
+     * und ihre LAZY-Tags wären außerhalb der Transaktion nicht mehr ladbar.
+     */
+    @Cacheable(CacheConfig.ITEM_CACHE)
+    @Transactional(readOnly = true)
+    public MediaItemView findViewById(Long id) {
+        return MediaItemView.of(findById(id));
+    }
+    
+    /**
+     * Item mit derselben kanonischen URL (Index-Lookup über url_hash)
+     */
+    @Transactional(readOnly = true)
+    public Optional<MediaItem> findByUrl(String url) {
+        return repository.findByUrlHash(UrlNormalizer.hashOf(url));
+    }
+    
+    /**
+     * Prüft URLs auf vorhandene Items (eine IN-Abfrage über url_hash)
+     * 
+     * @param urls höchstens MAX_DUPLICATE_CHECK URLs
+     * @return pro URL (in Reihenfolge) kanonische Form + vorhandene ID
+     * @throws IllegalArgumentException ohne URL oder bei zu vielen URLs
+     */
+    @Transactional(readOnly = true)
+    public List<UrlDuplicate> findDuplicates(List<String> urls) {
+        if (urls == null || urls.isEmpty() || urls.size() > MAX_DUPLICATE_CHECK) {
+            throw new IllegalArgumentException("1 bis " + MAX_DUPLICATE_CHECK + " URLs erwartet");
+        }
+        
+        List<String> canonical = urls.stream().map(UrlNormalizer::normalize).toList();
+        Map<String, Long> existing = new HashMap<>();
+        for (UrlMatch match : repository.findByUrlHashes(canonical.stream().map(UrlNormalizer::hash).toList())) {
+            existing.put(match.getUrlHash(), match.getId());
+        }
+        
+        List<UrlDuplicate> result = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            result.add(new UrlDuplicate(urls.get(i), canonical.get(i), existing.get(UrlNormalizer.hash(canonical.get(i)))));
+        }
+        return result;
+    }
+    
     /**
      * Speichert einzelnes MediaItem (CREATE oder UPDATE)
+     * 
+     * @throws org.springframework.dao.DataIntegrityViolationException wenn
+     *         es die URL (kanonisch) schon bei einem anderen Item gibt
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ITEM_CACHE, key = "#item.id", condition = "#item.id != null"),
+            @CacheEvict(cacheNames = { CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true) })
     public MediaItem save(MediaItem item) {
-        return repository.save(item);
+        tagResolver.applyTags(List.of(item));
+        MediaItem saved = repository.save(item);
+        events.publishEvent(MediaItemsChangedEvent.saved(saved.getId()));
+        return saved;
+    }
+    
+    /**
+     * Ersetzt alle änderbaren Felder eines Items (PUT)
+     * 
+     * Ein SELECT für das Item, dann schreibt Hibernate beim Commit nur die
+     * tatsächlich geänderten Spalten (@DynamicUpdate); Tags werden nur neu
+     * zugeordnet, wenn sich stichwort ändert.
+     * 
+     * @param changes neue Werte; version (falls gesetzt) muss aktuell sein
+     * @return das geänderte Item (version/lastUpdatedAt nach dem Commit aktuell)
+     * @throws IllegalArgumentException ohne URL
+     * @throws ObjectOptimisticLockingFailureException bei veralteter version
+     * @throws RuntimeException wenn es das Item nicht gibt
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ITEM_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = { CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true) })
+    public MediaItem update(Long id, MediaItem changes) {
+        if (changes.getUrl() == null || changes.getUrl().isBlank()) {
+            throw new IllegalArgumentException("URL ist Pflichtfeld!");
+        }
+        MediaItem item = repository.findById(id)
+                .orElseThrow(() -> new RuntimeException("MediaItem nicht gefunden: " + id));
+        if (changes.getVersion() != null && !changes.getVersion().equals(item.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(MediaItem.class, id);
+        }
+        
+        boolean stichwortChanged = !Objects.equals(item.getStichwort(), changes.getStichwort());
+        item.setUrl(changes.getUrl());
+        item.setBeschreibung(changes.getBeschreibung());
+        item.setChannel(changes.getChannel());
+        item.setDauer(changes.getDauer());
+        item.setGesehen(changes.getGesehen() != null ? changes.getGesehen() : false);
+        item.setMediaType(changes.getMediaType());
+        item.setStichwort(changes.getStichwort());
+        if (stichwortChanged) {
+            tagResolver.applyTags(List.of(item));
+        }
+        events.publishEvent(MediaItemsChangedEvent.saved(id));
+        return item;
+    }
+    
+    /**
+     * Ändert nur die übergebenen Felder eines Items (JSON Merge Patch, RFC 7396)
+     * 
+     * Ein UPDATE ... WHERE id = ? [AND version = ?] ohne vorheriges SELECT:
+     * fehlende Felder bleiben unverändert, null löscht den Wert (gesehen
+     * wird false). Abgeleitete Spalten (url_key/url_hash, duration_seconds,
+     * Tags) werden mitgesetzt; version steigt um 1.
+     * 
+     * @param patch Feldname → neuer Wert (url, beschreibung, channel, dauer,
+     *              gesehen, mediaType, stichwort); "version" = gelesene
+     *              Version, optional
+     * @throws IllegalArgumentException bei unbekanntem Feld, falschem Typ,
+     *         leerer URL oder ohne Feld
+     * @throws ObjectOptimisticLockingFailureException bei veralteter version
+     * @throws RuntimeException wenn es das Item nicht gibt
+     * @throws org.springframework.dao.DataIntegrityViolationException wenn
+     *         die URL (kanonisch) schon einem anderen Item gehört
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ITEM_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = { CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true) })
+    public void patch(Long id, Map<String, Object> patch) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        Long expectedVersion = null;
+        for (Map.Entry<String, Object> field : patch.entrySet()) {
+            Object value = field.getValue();
+            switch (field.getKey()) {
+                case "version" -> {
+                    if (value != null && !(value instanceof Number)) {
+                        throw new IllegalArgumentException("version muss eine Zahl sein");
+                    }
+                    expectedVersion = value != null ? ((Number) value).longValue() : null;
+                }
+                case "url" -> {
+                    String url = text(field);
+                    if (url == null || url.isBlank()) {
+                        throw new IllegalArgumentException("URL ist Pflichtfeld!");
+                    }
+                    String urlKey = UrlNormalizer.normalize(url);
+                    columns.put("url", url);
+                    columns.put("urlKey", urlKey);
+                    columns.put("urlHash", UrlNormalizer.hash(urlKey));
+                }
+                case "dauer" -> {
+                    String dauer = text(field);
+                    columns.put("dauer", dauer);
+                    columns.put("durationSeconds", DurationParser.toSeconds(dauer));
+                }
+                case "gesehen" -> {
+                    if (value != null && !(value instanceof Boolean)) {
+                        throw new IllegalArgumentException("gesehen muss true oder false sein");
+                    }
+                    columns.put("gesehen", value != null ? value : false);
+                }
+                case "beschreibung", "channel", "mediaType", "stichwort" -> columns.put(field.getKey(), text(field));
+                default -> throw new IllegalArgumentException("Feld nicht änderbar: " + field.getKey());
+            }
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens ein Feld angeben");
+        }
+        
+        if (repository.patchColumns(id, expectedVersion, columns, LocalDateTime.now()) == 0) {
+            if (repository.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(MediaItem.class, id);
+            }
+            throw new RuntimeException("MediaItem nicht gefunden: " + id);
+        }
+        if (columns.containsKey("stichwort")) {
+            replaceTags(List.of(id), (String) columns.get("stichwort"));
+        }
+        events.publishEvent(MediaItemsChangedEvent.saved(id));
+    }
+    
+    private static String text(Map.Entry<String, Object> field) {
+        if (field.getValue() != null && !(field.getValue() instanceof String)) {
+            throw new IllegalArgumentException(field.getKey() + " muss ein Text sein");
+        }
+        return (String) field.getValue();
     }
     
     /**
      * Löscht MediaItem by ID
+     * 
+     * Legt einen Tombstone an, damit /changes die Löschung meldet.
+     * Unbekannte IDs → RuntimeException (404), ohne Tombstone und Event.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ITEM_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = { CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true) })
     public void deleteById(Long id) {
-        repository.deleteById(id);
+        MediaItem item = repository.findById(id)
+                .orElseThrow(() -> new RuntimeException("MediaItem nicht gefunden: " + id));
+        repository.delete(item);
+        tombstoneRepository.save(new MediaItemTombstone(id, LocalDateTime.now()));
+        events.publishEvent(MediaItemsChangedEvent.deleted(id));
     }
     
+    // ========================================
+    // BATCH (/api/media/batch)
+    // ========================================
+    
     /**
-     * Importiert MediaItems aus CSV-Datei
+     * Legt viele Items in einer Transaktion an
      * 
-     * @param filepath Pfad zur CSV (relativ zu resources/)
-     * @return Anzahl importierter Items
+     * Die URLs werden vorab geprüft (eine IN-Abfrage über url_hash):
+     * fehlende URL → 400, vorhandene oder im Request doppelte URL → 409.
+     * Die übrigen Items werden gemeinsam geschrieben (JDBC-Batching).
+     * 
+     * @param items höchstens MAX_BATCH_SIZE Items (id wird ignoriert)
+     * @return Ergebnis pro Index in items (201 mit neuer ID, 400, 409)
+     * @throws IllegalArgumentException ohne Item oder bei zu vielen Items
      */
-    public int importFromCsv(String filepath) throws Exception {
-        System.out.println("📥 Starte CSV-Import: " + filepath);
+    @CacheEvict(cacheNames = { CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+    public Map<Integer, BatchItemResult> createAll(List<MediaItem> items) {
+        checkBatchSize(items);
         
-        // 1. CSV einlesen
-        List<MediaItem> items = csvImporter.importData(filepath);
+        List<String> hashes = items.stream()
+                .map(item -> item.getUrl() == null || item.getUrl().isBlank() ? null : UrlNormalizer.hashOf(item.getUrl()))
+                .toList();
+        Map<String, Long> existing = new HashMap<>();
+        for (UrlMatch match : repository.findByUrlHashes(hashes.stream().filter(hash -> hash != null).toList())) {
+            existing.put(match.getUrlHash(), match.getId());
+        }
         
-        System.out.println("✅ " + items.size() + " Items aus CSV gelesen");
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        Map<String, Integer> firstIndex = new HashMap<>();
+        List<MediaItem> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            String hash = hashes.get(i);
+            if (hash == null) {
+                results[i] = BatchItemResult.invalid("URL ist Pflichtfeld!");
+            } else if (existing.containsKey(hash)) {
+                results[i] = BatchItemResult.conflict(existing.get(hash), "URL existiert bereits");
+            } else if (firstIndex.containsKey(hash)) {
+                results[i] = BatchItemResult.conflict(null, "URL doppelt (wie Index " + firstIndex.get(hash) + ")");
+            } else {
+                firstIndex.put(hash, i);
+                MediaItem item = items.get(i);
+                item.setId(null);
+                valid.add(item);
+                validIndexes.add(i);
+            }
+        }
         
-        // 2. In Datenbank speichern
-        int count = 0;
-        for (MediaItem item : items) {
-            try {
-                repository.save(item);
-                count++;
-                System.out.println("  ✓ Gespeichert: " + item.getBeschreibung());
-            } catch (Exception e) {
-                System.err.println("  ✗ Fehler beim Speichern: " + item.getBeschreibung());
-                System.err.println("    Grund: " + e.getMessage());
+        if (!valid.isEmpty()) {
+            tagResolver.applyTags(valid);
+            List<MediaItem> saved = repository.saveAll(valid);
+            for (int i = 0; i < saved.size(); i++) {
+                results[validIndexes.get(i)] = BatchItemResult.created(saved.get(i).getId());
             }
+            events.publishEvent(MediaItemsChangedEvent.saved(saved.stream().map(MediaItem::getId).toList()));
         }
         
-        System.out.println("✅ Import abgeschlossen: " + count + "/" + items.size() + " erfolgreich");
+        Map<Integer, BatchItemResult> byIndex = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            byIndex.put(i, results[i]);
+        }
+        return byIndex;
+    }
+    
+    /**
+     * Setzt dieselben Felder für viele Items (z.B. "als gesehen markieren")
+     * 
+     * Ein UPDATE ... WHERE id IN (...) für alle vorhandenen IDs; bei
+     * stichwort werden auch die Tag-Zuordnungen per SQL ersetzt.
+     * 
+     * @param patch höchstens MAX_BATCH_SIZE IDs, mindestens ein Feld
+     * @return Ergebnis pro ID (200 oder 404)
+     * @throws IllegalArgumentException ohne ID, bei zu vielen IDs oder ohne Feld
+     */
+    @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+    public Map<Long, BatchItemResult> patchAll(MediaItemBatchPatch patch) {
+        checkBatchSize(patch.ids());
+        if (!patch.hasChanges()) {
+            throw new IllegalArgumentException("Mindestens ein Feld angeben");
+        }
         
-        return count;
+        List<Long> ids = patch.ids().stream().distinct().toList();
+        Set<Long> found = new HashSet<>(repository.findExistingIds(ids));
+        List<Long> existing = ids.stream().filter(found::contains).toList();
+        if (!existing.isEmpty()) {
+            repository.patchAll(existing, patch, LocalDateTime.now());
+            if (patch.stichwort() != null) {
+                replaceTags(existing, patch.stichwort());
+            }
+            events.publishEvent(MediaItemsChangedEvent.saved(existing));
+        }
+        
+        Map<Long, BatchItemResult> results = new LinkedHashMap<>();
+        for (Long id : ids) {
+            results.put(id, found.contains(id) ? BatchItemResult.updated(id) : BatchItemResult.notFound(id));
+        }
+        return results;
     }
     
     /**
-     * Importiert MediaItems aus JSON-Datei
+     * Löscht viele Items per ID in einer Transaktion (mit Tombstones)
+     * 
+     * @param ids höchstens MAX_BATCH_SIZE IDs
+     * @return Ergebnis pro ID (204 oder 404)
+     * @throws IllegalArgumentException ohne ID oder bei zu vielen IDs
      */
-    public int importFromJson(String filepath) throws Exception {
-        System.out.println("📥 Starte JSON-Import: " + filepath);
+    @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+    public Map<Long, BatchItemResult> deleteAll(List<Long> ids) {
+        checkBatchSize(ids);
+        
+        List<Long> distinct = ids.stream().distinct().toList();
+        Set<Long> found = new HashSet<>(repository.findExistingIds(distinct));
+        List<Long> existing = distinct.stream().filter(found::contains).toList();
+        if (!existing.isEmpty()) {
+            deleteExisting(existing, LocalDateTime.now());
+            events.publishEvent(MediaItemsChangedEvent.deleted(existing));
+        }
         
-        // 1. JSON einlesen
-        List<MediaItem> items = jsonImporter.importData(filepath);
+        Map<Long, BatchItemResult> results = new LinkedHashMap<>();
+        for (Long id : distinct) {
+            results.put(id, found.contains(id) ? BatchItemResult.deleted(id) : BatchItemResult.notFound(id));
+        }
+        return results;
+    }
+    
+    /**
+     * Löscht alle Items, die zum Filter passen, in einer Transaktion
+     * 
+     * Blockweise je MAX_BATCH_SIZE IDs (IN-Listen bleiben begrenzt).
+     * 
+     * @param filter mindestens ein Kriterium (schützt vor "alles löschen")
+     * @return Ergebnis pro gelöschter ID (204)
+     * @throws IllegalArgumentException bei leerem Filter
+     */
+    @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+    public Map<Long, BatchItemResult> deleteMatching(MediaItemFilter filter) {
+        if (MediaItemFilter.none().equals(filter)) {
+            throw new IllegalArgumentException("Mindestens ein Filter-Kriterium angeben");
+        }
         
-        System.out.println("✅ " + items.size() + " Items aus JSON gelesen");
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> deleted = new ArrayList<>();
+        List<Long> ids;
+        while (!(ids = repository.findIds(MediaItemSpecifications.matching(filter), MAX_BATCH_SIZE)).isEmpty()) {
+            deleteExisting(ids, now);
+            deleted.addAll(ids);
+        }
+        if (!deleted.isEmpty()) {
+            events.publishEvent(MediaItemsChangedEvent.deleted(deleted));
+        }
         
-        // 2. In Datenbank speichern
-        int count = 0;
-        for (MediaItem item : items) {
-            try {
-                repository.save(item);
-                count++;
-                System.out.println("  ✓ Gespeichert: " + item.getBeschreibung());
-            } catch (Exception e) {
-                System.err.println("  ✗ Fehler: " + item.getBeschreibung());
-            }
+        Map<Long, BatchItemResult> results = new LinkedHashMap<>();
+        deleted.forEach(id -> results.put(id, BatchItemResult.deleted(id)));
+        return results;
+    }
+    
+    /**
+     * Ersetzt die Tag-Zuordnungen der Items durch die Tags aus stichwort
+     * (DELETE + INSERT ... SELECT, ohne die Items zu laden)
+     */
+    private void replaceTags(List<Long> ids, String stichwort) {
+        repository.deleteTagLinks(ids);
+        List<Long> tagIds = tagResolver.resolveTags(stichwort).stream().map(Tag::getId).toList();
+        if (!tagIds.isEmpty()) {
+            repository.insertTagLinks(ids, tagIds);
+        }
+    }
+    
+    /**
+     * Tag-Zuordnungen, Tombstones, Items – je eine Anweisung
+     */
+    private void deleteExisting(List<Long> ids, LocalDateTime deletedAt) {
+        repository.deleteTagLinks(ids);
+        repository.insertTombstones(ids, deletedAt);
+        repository.deleteAllByIds(ids);
+    }
+    
+    private static void checkBatchSize(List<?> entries) {
+        if (entries == null || entries.isEmpty() || entries.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("1 bis " + MAX_BATCH_SIZE + " Einträge erwartet");
         }
+    }
+    
+    /**
+     * Importiert MediaItems aus CSV-Datei
+     * 
+     * Läuft ohne umschließende Transaktion: geparst wird parallel
+     * (CsvImporter), der MediaItemBatchWriter committet jeden Chunk
+     * einzeln (JDBC-Batching, Fehler pro Zeile).
+     * 
+     * @param filepath Pfad zur CSV (Dateisystem oder relativ zu resources/, auch .gz)
+     * @return Ergebnis (gelesen / importiert / fehlerhaft)
+     */
+    @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResult importFromCsv(String filepath) throws Exception {
+        InputStream input = ImportFiles.openFileOrResource(filepath);
         
-        System.out.println("✅ JSON-Import abgeschlossen: " + count + "/" + items.size());
+        // Einlesen und chunkweise speichern in einem Durchgang
+        return runImport(ImportMode.APPEND, filepath, sink -> csvImporter.importData(input, sink));
+    }
+    
+    /**
+     * Importiert MediaItems aus JSON-Datei
+     * 
+     * Das Array wird gestreamt (JsonImporter) und chunkweise geschrieben,
+     * der Heap-Bedarf hängt nicht von der Dateigröße ab.
+     * 
+     * @param filepath Pfad zur JSON (Dateisystem oder relativ zu resources/, auch .gz)
+     * @return Ergebnis (gelesen / importiert / fehlerhaft)
+     */
+    @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResult importFromJson(String filepath) throws Exception {
+        InputStream input = ImportFiles.openFileOrResource(filepath);
         
-        return count;
+        // Einlesen und chunkweise speichern in einem Durchgang
+        return runImport(ImportMode.APPEND, filepath, sink -> jsonImporter.importData(input, sink));
     }
     
     
@@ -123,102 +846,213 @@ public class MediaItemService {
  // ========================================
 
  /**
-  * Exportiert alle MediaItems als CSV-String
+  * CSV-Header für Export (und REPLACE-Import)
+  */
+ public static final String CSV_HEADER = "url,beschreibung,channel,dauer,gesehen,mediaType,stichwort";
+
+ /**
+  * Exportiert alle MediaItems als CSV in einen Writer
   * Format: url,beschreibung,channel,dauer,gesehen,mediaType,stichwort
   * 
-  * @return CSV-String mit allen Items
+  * Die Zeilen werden per Datenbank-Cursor gelesen und direkt geschrieben,
+  * der Speicherbedarf bleibt unabhängig von der Anzahl Items konstant.
+  * 
+  * @param writer Ziel (z.B. Response-Stream), wird geflusht aber nicht geschlossen
+  * @return Anzahl exportierter Items
   */
- public String exportAllToCSV() {
-     List<MediaItem> items = repository.findAll();
+ @Transactional(readOnly = true)
+ public long exportAllToCSV(Writer writer) throws IOException {
+     writer.write(CSV_HEADER);
+     writer.write('\n');
      
-     StringBuilder csv = new StringBuilder();
-     
-     // Header
-     csv.append("url,beschreibung,channel,dauer,gesehen,mediaType,stichwort\n");
-     
-     // Daten
-     for (MediaItem item : items) {
-         csv.append(escapeCsv(item.getUrl())).append(",");
-         csv.append(escapeCsv(item.getBeschreibung())).append(",");
-         csv.append(escapeCsv(item.getChannel())).append(",");
-         csv.append(escapeCsv(item.getDauer())).append(",");
-         csv.append(item.getGesehen() != null ? item.getGesehen() : false).append(",");
-         csv.append(escapeCsv(item.getMediaType())).append(",");
-         csv.append(escapeCsv(item.getStichwort())).append("\n");
+     long count = 0;
+     try (Stream<MediaItem> items = repository.streamAll(exportFetchSize)) {
+         Iterator<MediaItem> iterator = items.iterator();
+         while (iterator.hasNext()) {
+             MediaItem item = iterator.next();
+             writer.write(escapeCsv(item.getUrl()));
+             writer.write(',');
+             writer.write(escapeCsv(item.getBeschreibung()));
+             writer.write(',');
+             writer.write(escapeCsv(item.getChannel()));
+             writer.write(',');
+             writer.write(escapeCsv(item.getDauer()));
+             writer.write(',');
+             writer.write(String.valueOf(item.getGesehen() != null ? item.getGesehen() : false));
+             writer.write(',');
+             writer.write(escapeCsv(item.getMediaType()));
+             writer.write(',');
+             writer.write(escapeCsv(item.getStichwort()));
+             writer.write('\n');
+             count++;
+         }
      }
      
-     return csv.toString();
+     writer.flush();
+     return count;
  }
 
  /**
   * Importiert MediaItems aus CSV-String
   * STRATEGIE: REPLACE (Tabelle leeren + neu einfügen)
   * 
+  * Ohne umgebende Transaktion wie die Reader-Variante (der Aufruf über
+  * this läuft nicht durch den Proxy, deren Annotation greift hier nicht).
+  * 
   * @param csvContent CSV-String (mit Header!)
-  * @return Anzahl importierter Items
+  * @return Ergebnis (gelesen / importiert / fehlerhaft)
   */
- public int importFromCSVReplace(String csvContent) throws Exception {
-     System.out.println("📥 Starte CSV-Upload (REPLACE-Strategie)");
-     
-     // 1. Tabelle leeren
-     repository.deleteAll();
-     System.out.println("🗑️  Alle bestehenden Items gelöscht");
-     
-     // 2. CSV parsen
-     String[] lines = csvContent.split("\n");
-     int count = 0;
-     
-     // Header überspringen (erste Zeile)
-     for (int i = 1; i < lines.length; i++) {
-         String line = lines[i].trim();
-         if (line.isEmpty()) continue;
-         
-         try {
-             String[] fields = parseCsvLine(line);
-             
-             if (fields.length >= 7) {
-                 MediaItem item = new MediaItem();
-                 item.setUrl(fields[0]);
-                 item.setBeschreibung(fields[1]);
-                 item.setChannel(fields[2]);
-                 item.setDauer(fields[3]);
-                 item.setGesehen(Boolean.parseBoolean(fields[4]));
-                 item.setMediaType(fields[5]);
-                 item.setStichwort(fields[6]);
-                 
-                 repository.save(item);
-                 count++;
-                 System.out.println("  ✓ Importiert: " + item.getBeschreibung());
-             }
-         } catch (Exception e) {
-             System.err.println("  ✗ Fehler in Zeile " + (i+1) + ": " + e.getMessage());
+ @Transactional(propagation = Propagation.NOT_SUPPORTED)
+ @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+ public ImportResult importFromCSVReplace(String csvContent) throws IOException {
+     return importFromCSVReplace(new StringReader(csvContent));
+ }
+
+ /**
+  * Importiert MediaItems aus einem CSV-Stream
+  * STRATEGIE: REPLACE (Tabelle komplett ersetzen)
+  * 
+  * Die CSV wird Datensatz für Datensatz gelesen (RFC 4180, auch
+  * Zeilenumbrüche in Quotes) und chunkweise in eine Staging-Tabelle
+  * geschrieben; im Speicher liegt nie mehr als ein Chunk. Die Spalten
+  * werden über den Header zugeordnet (Export-Format und altes Import-Format).
+  * 
+  * Erst am Ende wird media_item in einer Transaktion ausgetauscht
+  * (DELETE + INSERT ... SELECT, Sperrdauer wächst mit der Tabellengröße,
+  * siehe MediaItemReplaceWriter). Bis dahin sehen Leser den alten
+  * Bestand; schlägt der Import fehl, bleibt er unverändert.
+  * 
+  * @param csv CSV-Daten (mit Header!), wird geschlossen
+  * @return Ergebnis (gelesen / importiert / fehlerhaft)
+  * @throws IllegalArgumentException bei leerer Datei, fehlender URL-Spalte
+  *         oder nicht geschlossenem Quote
+  */
+ @Transactional(propagation = Propagation.NOT_SUPPORTED)
+ @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+ public ImportResult importFromCSVReplace(Reader csv) throws IOException {
+     return runImport(ImportMode.REPLACE, "csv-upload", sink -> csvImporter.importData(csv, sink));
+ }
+
+ /**
+  * Importiert MediaItems aus einem Stream (CSV oder JSON)
+  * 
+  * Für Import-Jobs (siehe ImportJobService): der Zwischenstand wird vor
+  * dem ersten Datensatz an progress übergeben und kann danach laufend
+  * gelesen werden.
+  * 
+  * REPLACE: atomarer Tausch am Ende, bei Fehler/Abbruch bleibt der Bestand.
+  * APPEND:  chunkweise committet, bei Fehler/Abbruch bleiben die bereits
+  *          geschriebenen Chunks (danach invalidateAfterPartialImport()).
+  * MERGE:   Abgleich über die URL, chunkweise committet wie APPEND;
+  *          Ergebnis zählt zusätzlich aktualisierte/unveränderte Items.
+  * 
+  * @param input Daten (UTF-8), wird geschlossen
+  * @return Ergebnis (gelesen / importiert / fehlerhaft)
+  */
+ @Transactional(propagation = Propagation.NOT_SUPPORTED)
+ @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+ public ImportResult importData(ImportFormat format, ImportMode mode, InputStream input,
+         Consumer<ImportResult> progress) throws IOException {
+     DataImporter importer = importerFor(format);
+     return runImport(mode, format.name().toLowerCase(Locale.ROOT) + "-stream", sink -> {
+         progress.accept(sink.getResult());
+         importer.importData(input, sink);
+     });
+ }
+
+ /**
+  * Importiert Dateien aus dem Dateisystem (.csv, .json, auch .gz und .zip)
+  * 
+  * Alle Dateien gehen in denselben Import: REPLACE tauscht den Bestand
+  * also einmal gegen den Inhalt aller Dateien. Fortschritt und Abbruch
+  * wie bei importData(); rawStream umschließt die Rohdaten jeder Datei
+  * (vor dem Entpacken, Fortschritt also in Bytes auf der Platte).
+  * 
+  * @param files     Dateien (siehe ImportFiles.list())
+  * @param rawStream z.B. Byte-Zähler, sonst UnaryOperator.identity()
+  * @return Ergebnis (gelesen / importiert / fehlerhaft)
+  */
+ @Transactional(propagation = Propagation.NOT_SUPPORTED)
+ @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+ public ImportResult importFiles(ImportMode mode, List<Path> files, UnaryOperator<InputStream> rawStream,
+         Consumer<ImportResult> progress) throws IOException {
+     String source = files.size() == 1 ? files.get(0).toString() : files.size() + " Dateien";
+     return runImport(mode, source, sink -> {
+         progress.accept(sink.getResult());
+         for (Path file : files) {
+             ImportFiles.read(file.getFileName().toString(), rawStream.apply(Files.newInputStream(file)),
+                     (name, format, data) -> importerFor(format).importData(data, sink));
          }
+     });
+ }
+
+ /**
+  * Liest in ein neues Ziel für mode und schließt den Import ab
+  * 
+  * Zählt Zeilen und Dauer (ImportExportMetrics), loggt Fortschritt
+  * (ImportProgressReporter) und meldet den geänderten Bestand
+  * (Caches, Suchindex, Push).
+  * 
+  * @param source Herkunft für das Log (Datei, Format, ...)
+  */
+ private ImportResult runImport(ImportMode mode, String source, ImportBody body) throws IOException {
+     Timer.Sample sample = metrics.start();
+     ImportResult result;
+     try (ImportSink sink = progressReporter.wrap(openSink(mode), mode, source)) {
+         body.readInto(sink);
+         result = sink.finish();
+     } catch (IOException | RuntimeException e) {
+         metrics.importFailed(sample, mode);
+         throw e;
      }
-     
-     System.out.println("✅ Import abgeschlossen: " + count + " Items");
-     return count;
+     metrics.importFinished(sample, mode, result);
+     events.publishEvent(MediaItemsChangedEvent.bulk());
+     return result;
+ }
+
+ /**
+  * Liest die Daten eines Imports in das Ziel
+  */
+ @FunctionalInterface
+ private interface ImportBody {
+     void readInto(ImportSink sink) throws IOException;
+ }
+
+ private DataImporter importerFor(ImportFormat format) {
+     return format == ImportFormat.JSON ? jsonImporter : csvImporter;
+ }
+
+ private ImportSink openSink(ImportMode mode) {
+     return switch (mode) {
+         case REPLACE -> replaceWriter.open();
+         case MERGE -> mergeWriter.open();
+         case APPEND -> batchWriter.open();
+     };
+ }
+
+ /**
+  * Verwirft Caches und Suchindex nach einem abgebrochenen APPEND-Import
+  * (bereits committete Chunks sind sonst bis zum Ablauf der TTL unsichtbar)
+  */
+ @Transactional(propagation = Propagation.NOT_SUPPORTED)
+ @CacheEvict(cacheNames = { CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE }, allEntries = true)
+ public void invalidateAfterPartialImport() {
+     events.publishEvent(MediaItemsChangedEvent.bulk());
  }
 
  /**
   * Escapet CSV-Werte (Kommas, Quotes)
   */
- private String escapeCsv(String value) {
+ static String escapeCsv(String value) {
      if (value == null) return "";
      
      // Wenn Komma oder Quote enthalten: In Quotes wrappen und Quotes verdoppeln
-     if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+     if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
          return "\"" + value.replace("\"", "\"\"") + "\"";
      }
      return value;
  }
- 
 
- /**
-  * Parst eine CSV-Zeile (berücksichtigt Quotes)
-  */
- private String[] parseCsvLine(String line) {
-     return line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
- }
     
     
     
@@ -0,0 +1,51 @@
+package com.example.mediaverwaltung.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring-Event: MediaItems wurden geändert
+ * 
+ * Wird vom MediaItemService veröffentlicht (innerhalb der Transaktion,
+ * Listener mit @TransactionalEventListener sehen es erst nach dem Commit).
+ * 
+ * @param type Art der Änderung
+ * @param ids  betroffene IDs (leer bei BULK)
+ */
+public record MediaItemsChangedEvent(Type type, Collection<Long> ids) {
+
+    public enum Type {
+        /** Items neu angelegt oder geändert */
+        SAVED,
+        /** Items gelöscht */
+        DELETED,
+        /** Import: beliebig viele Items geändert, Bestand neu lesen */
+        BULK
+    }
+
+    public static MediaItemsChangedEvent saved(Long id) {
+        return new MediaItemsChangedEvent(Type.SAVED, List.of(id));
+    }
+
+    public static MediaItemsChangedEvent deleted(Long id) {
+        return new MediaItemsChangedEvent(Type.DELETED, List.of(id));
+    }
+
+    /**
+     * Mehrere Items angelegt oder geändert (Batch-Endpoints)
+     */
+    public static MediaItemsChangedEvent saved(Collection<Long> ids) {
+        return new MediaItemsChangedEvent(Type.SAVED, List.copyOf(ids));
+    }
+
+    /**
+     * Mehrere Items gelöscht (Batch-Endpoints)
+     */
+    public static MediaItemsChangedEvent deleted(Collection<Long> ids) {
+        return new MediaItemsChangedEvent(Type.DELETED, List.copyOf(ids));
+    }
+
+    public static MediaItemsChangedEvent bulk() {
+        return new MediaItemsChangedEvent(Type.BULK, List.of());
+    }
+}
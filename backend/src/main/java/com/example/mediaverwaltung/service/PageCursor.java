@@ -0,0 +1,73 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.dto.MediaItemSort;
+import com.example.mediaverwaltung.model.MediaItem;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cursor für die Keyset-Pagination
+ * 
+ * Enthält die Sortierschlüssel des letzten Items einer Seite.
+ * Für den Client ist der Cursor ein undurchsichtiger Base64-String.
+ * 
+ * Format (vor Base64): "id" bzw. "lastUpdatedAt|id"
+ */
+record PageCursor(LocalDateTime lastUpdatedAt, Long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Cursor auf ein Item (Schlüssel passend zur Sortierung)
+     */
+    static PageCursor of(MediaItem item, MediaItemSort sort) {
+        return new PageCursor(sort.byLastUpdated() ? item.getLastUpdatedAt() : null, item.getId());
+    }
+
+    /**
+     * Liest einen Cursor aus dem Request
+     * 
+     * @throws IllegalArgumentException bei ungültigem Cursor
+     */
+    static PageCursor decode(String cursor, MediaItemSort sort) {
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            if (sort.byLastUpdated()) {
+                int separator = raw.indexOf('|');
+                return new PageCursor(
+                        LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            }
+            return new PageCursor(null, Long.parseLong(raw));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Ungültiger Cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Kodiert den Cursor für die Response
+     */
+    String encode() {
+        String raw = lastUpdatedAt != null ? lastUpdatedAt + "|" + id : String.valueOf(id);
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Keyset-Position für Spring Data ("ab diesem Item weiterlesen")
+     */
+    ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (lastUpdatedAt != null) {
+            keys.put("lastUpdatedAt", lastUpdatedAt);
+        }
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
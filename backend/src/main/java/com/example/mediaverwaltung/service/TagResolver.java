@@ -0,0 +1,141 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.model.Tag;
+import com.example.mediaverwaltung.repository.TagRepository;
+import com.example.mediaverwaltung.util.TagParser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Leitet die Tags eines MediaItems aus seinem stichwort ab
+ * 
+ * Vorhandene Tags werden per IN-Abfrage geladen (eine Abfrage pro
+ * 500 Namen, nicht pro Item), fehlende angelegt. Muss innerhalb einer
+ * Transaktion laufen (Service bzw. Chunk des MediaItemBatchWriter).
+ * 
+ * Legen zwei Transaktionen gleichzeitig denselben neuen Tag an, darf
+ * die zweite nicht an uk_tag_name scheitern (sonst wäre ihr ganzer Chunk
+ * verloren): PostgreSQL legt per ON CONFLICT DO NOTHING an, H2 fängt die
+ * Verletzung ab (dort bricht ein fehlgeschlagenes Statement die
+ * Transaktion nicht ab) und versucht es einmal erneut. Danach wird der
+ * Tag in beiden Fällen neu gelesen.
+ */
+@Component
+public class TagResolver {
+
+    /**
+     * Maximale Anzahl Namen pro IN-Liste
+     */
+    private static final int LOOKUP_CHUNK = 500;
+
+    private final TagRepository tagRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean postgres;
+
+    public TagResolver(TagRepository tagRepository, JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory) {
+        this.tagRepository = tagRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    /**
+     * Setzt tags aller Items passend zu ihrem stichwort
+     */
+    public void applyTags(Collection<MediaItem> items) {
+        Set<String> names = new LinkedHashSet<>();
+        for (MediaItem item : items) {
+            names.addAll(TagParser.parse(item.getStichwort()));
+        }
+        Map<String, Tag> tagsByName = resolve(names);
+        
+        for (MediaItem item : items) {
+            Set<Tag> tags = new HashSet<>();
+            for (String name : TagParser.parse(item.getStichwort())) {
+                tags.add(tagsByName.get(name));
+            }
+            item.setTags(tags);
+        }
+    }
+
+    /**
+     * Tags zu einem stichwort (fehlende werden angelegt), z.B. für
+     * Batch-Updates, die media_item_tag per SQL setzen
+     */
+    public Collection<Tag> resolveTags(String stichwort) {
+        return resolve(new LinkedHashSet<>(TagParser.parse(stichwort))).values();
+    }
+
+    /**
+     * Legt alle Tags aus namesQuery (SELECT mit einer Spalte name) an,
+     * die es noch nicht gibt, z.B. aus den Staging-Tabellen der Importe
+     */
+    public void insertMissing(String namesQuery) {
+        String select = "SELECT DISTINCT n.name FROM (" + namesQuery + ") n";
+        if (postgres) {
+            jdbcTemplate.update("INSERT INTO tag (name) " + select + " ON CONFLICT (name) DO NOTHING");
+            return;
+        }
+        String sql = "INSERT INTO tag (name) " + select
+                + " WHERE NOT EXISTS (SELECT 1 FROM tag t WHERE t.name = n.name)";
+        try {
+            jdbcTemplate.update(sql);
+        } catch (DuplicateKeyException e) {
+            // gleichzeitig von einer anderen Transaktion angelegt
+            jdbcTemplate.update(sql);
+        }
+    }
+
+    private Map<String, Tag> resolve(Set<String> names) {
+        Map<String, Tag> tagsByName = find(names);
+        
+        List<String> missing = names.stream().filter(name -> !tagsByName.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            insertMissing(missing);
+            tagsByName.putAll(find(missing));
+        }
+        return tagsByName;
+    }
+
+    private Map<String, Tag> find(Collection<String> names) {
+        Map<String, Tag> tagsByName = new HashMap<>();
+        List<String> lookup = new ArrayList<>(names);
+        for (int from = 0; from < lookup.size(); from += LOOKUP_CHUNK) {
+            List<String> part = lookup.subList(from, Math.min(from + LOOKUP_CHUNK, lookup.size()));
+            for (Tag tag : tagRepository.findByNameIn(part)) {
+                tagsByName.put(tag.getName(), tag);
+            }
+        }
+        return tagsByName;
+    }
+
+    private void insertMissing(List<String> names) {
+        String sql = postgres
+                ? "INSERT INTO tag (name) VALUES (?) ON CONFLICT (name) DO NOTHING"
+                : "INSERT INTO tag (name) VALUES (?)";
+        for (String name : names) {
+            try {
+                jdbcTemplate.update(sql, name);
+            } catch (DuplicateKeyException e) {
+                // gleichzeitig von einer anderen Transaktion angelegt, wird unten neu gelesen
+            }
+        }
+    }
+}
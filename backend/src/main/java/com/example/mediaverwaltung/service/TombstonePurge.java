@@ -0,0 +1,70 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaSyncState;
+import com.example.mediaverwaltung.repository.MediaItemTombstoneRepository;
+import com.example.mediaverwaltung.repository.MediaSyncStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Löscht alte Tombstones (mediaverwaltung.sync.tombstone-retention)
+ *
+ * Ohne Aufräumen wächst media_item_tombstone mit jeder Löschung. Die
+ * Grenze wird in media_sync_state.tombstones_purged_before festgehalten:
+ * Change-Tokens davor könnten gelöschte IDs verpasst haben und bekommen
+ * von /api/media/changes reset=true (Client lädt komplett neu).
+ */
+@Component
+public class TombstonePurge {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstonePurge.class);
+
+    private final MediaItemTombstoneRepository tombstoneRepository;
+
+    private final MediaSyncStateRepository syncStateRepository;
+
+    private final Duration retention;
+
+    public TombstonePurge(MediaItemTombstoneRepository tombstoneRepository,
+            MediaSyncStateRepository syncStateRepository,
+            @Value("${mediaverwaltung.sync.tombstone-retention:30d}") Duration retention) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.retention = retention;
+    }
+
+    /**
+     * Erst die Grenze setzen, dann löschen (eine Transaktion): kein Leser
+     * sieht fehlende Tombstones ohne die neue Grenze
+     *
+     * @return Anzahl gelöschter Tombstones
+     */
+    @Scheduled(initialDelayString = "${mediaverwaltung.sync.tombstone-purge-interval:1h}",
+            fixedDelayString = "${mediaverwaltung.sync.tombstone-purge-interval:1h}")
+    @Transactional
+    public int purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        MediaSyncState state = syncStateRepository.findById(MediaSyncState.SINGLETON_ID).orElseGet(() -> {
+            MediaSyncState initial = new MediaSyncState();
+            initial.setId(MediaSyncState.SINGLETON_ID);
+            return initial;
+        });
+        if (state.getTombstonesPurgedBefore() == null || state.getTombstonesPurgedBefore().isBefore(before)) {
+            state.setTombstonesPurgedBefore(before);
+            syncStateRepository.save(state);
+        }
+
+        int purged = tombstoneRepository.deleteDeletedBefore(before);
+        if (purged > 0) {
+            log.info("Tombstones gelöscht: count={} before={}", purged, before);
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.util.UrlNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Setzt url_key/url_hash für Items, die noch keinen Hash haben
+ *
+ * Nach Migration 008_url_hash.sql sind alle Hashes leer: die kanonische
+ * Form (YouTube-Varianten, Tracking-Parameter, ...) lässt sich nicht
+ * sinnvoll in SQL nachbauen, deshalb rechnet die Anwendung sie beim Start
+ * mit UrlNormalizer nach – blockweise nach ID, ohne last_updated_at zu
+ * ändern (Delta-Sync-Clients laden nichts neu).
+ *
+ * Ergibt eine URL denselben Hash wie ein vorhandenes Item, bleibt der
+ * Hash leer (der Unique-Constraint bleibt gültig, das ältere Item behält
+ * ihn) und die ID wird mit der des vorhandenen Items geloggt (Dublette,
+ * von Hand zusammenführen). Andere Fehler brechen den Lauf ab.
+ * Ohne leere Hashes kostet der Lauf eine Index-Abfrage.
+ */
+@Component
+public class UrlHashBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(UrlHashBackfill.class);
+
+    private static final int BLOCK_SIZE = 1000;
+
+    private static final String UPDATE_SQL = "UPDATE media_item SET url_key = ?, url_hash = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public UrlHashBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        backfill();
+    }
+
+    /**
+     * @return Anzahl Items, deren URL als Dublette ohne Hash bleibt
+     */
+    public int backfill() {
+        long afterId = Long.MIN_VALUE;
+        int updated = 0;
+        Map<Long, Long> duplicates = new LinkedHashMap<>();
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, url FROM media_item WHERE url_hash IS NULL AND id > ? ORDER BY id FETCH FIRST "
+                            + BLOCK_SIZE + " ROWS ONLY",
+                    (rs, rowNum) -> {
+                        String key = UrlNormalizer.normalize(rs.getString("url"));
+                        return new Object[] { key, UrlNormalizer.hash(key), rs.getLong("id") };
+                    },
+                    afterId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[2];
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, rows));
+                updated += rows.size();
+            } catch (DuplicateKeyException e) {
+                // Mindestens eine Dublette im Block: einzeln, Dubletten überspringen
+                for (Object[] row : rows) {
+                    try {
+                        jdbcTemplate.update(UPDATE_SQL, row);
+                        updated++;
+                    } catch (DuplicateKeyException duplicate) {
+                        duplicates.put((Long) row[2], jdbcTemplate.queryForList(
+                                "SELECT id FROM media_item WHERE url_hash = ?", Long.class, row[1])
+                                .stream().findFirst().orElse(null));
+                    }
+                }
+            }
+        }
+
+        if (updated > 0) {
+            log.info("URL-Hashes für {} Items gesetzt", updated);
+        }
+        if (!duplicates.isEmpty()) {
+            log.warn("{} Items mit doppelter URL ohne url_hash (bitte zusammenführen), ID=vorhandene ID: {}",
+                    duplicates.size(), duplicates.size() > 100
+                            ? duplicates.entrySet().stream().limit(100).toList() + " ..."
+                            : duplicates.entrySet());
+        }
+        return duplicates.size();
+    }
+}
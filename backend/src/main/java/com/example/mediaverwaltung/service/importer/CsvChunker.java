@@ -0,0 +1,258 @@
+package com.example.mediaverwaltung.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Zerlegt einen CSV-Bytestrom in Stücke, die an Datensatzgrenzen enden
+ *
+ * Die Stücke können danach unabhängig voneinander (parallel) mit
+ * CsvRecordReader geparst werden. Dazu läuft ein kleiner Automat über
+ * die Bytes, der genau die Quote-Regeln von CsvRecordReader nachbildet:
+ * - Quote öffnet nur am Feldanfang, "" im Quote ist ein Escape
+ * - Zeilenumbrüche in Quotes beenden keinen Datensatz
+ * - LF, CRLF und CR beenden einen Datensatz
+ * Zeilen werden wie in CsvRecordReader gezählt, jedes Stück kennt
+ * seine erste Zeile (für Fehlermeldungen mit Zeilennummer).
+ *
+ * Byteweise ist das für UTF-8 korrekt: Quote, Komma, CR und LF kommen
+ * in Mehrbyte-Zeichen nicht vor.
+ */
+public class CsvChunker {
+
+    /**
+     * Ein Stück aus ganzen Datensätzen
+     *
+     * @param data      Bytes (UTF-8), gültig von 0 bis length
+     * @param length    Anzahl gültiger Bytes
+     * @param firstLine Zeile (1-basiert), in der das Stück beginnt
+     */
+    public record Chunk(byte[] data, int length, long firstLine) {
+    }
+
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTED_QUOTE = 3;
+
+    private final InputStream in;
+    private final int chunkSize;
+
+    private byte[] buffer;
+    /** noch nicht ausgegebene Bytes: [start, end) */
+    private int start;
+    private int end;
+    /** bis hier hat der Automat gelesen */
+    private int scanned;
+    private boolean eof;
+    private boolean bomChecked;
+
+    private int state = FIELD_START;
+    /** CR außerhalb von Quotes gelesen, Datensatzende hängt vom nächsten Byte ab */
+    private boolean pendingCr;
+    /** CR in Quotes gelesen, Zeilenzählung hängt vom nächsten Byte ab */
+    private boolean pendingQuotedCr;
+
+    /** Zeile an Position scanned */
+    private long line = 1;
+    /** Zeile an Position start */
+    private long startLine = 1;
+    /** letzte gefundene Datensatzgrenze (-1 = keine) und Zeile dort */
+    private int boundary = -1;
+    private long boundaryLine;
+
+    /**
+     * @param in        CSV-Daten (UTF-8), wird nicht geschlossen
+     * @param chunkSize Zielgröße eines Stücks in Bytes (längere Datensätze
+     *                  ergeben größere Stücke)
+     */
+    public CsvChunker(InputStream in, int chunkSize) {
+        this.in = in;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.buffer = new byte[this.chunkSize];
+    }
+
+    /**
+     * Liefert nur den ersten Datensatz (Header)
+     *
+     * @return Stück mit genau einem Datensatz oder null bei leerer Datei
+     */
+    public Chunk nextRecord() throws IOException {
+        return next(true);
+    }
+
+    /**
+     * Liefert das nächste Stück (etwa chunkSize Bytes, ganze Datensätze)
+     *
+     * @return Stück oder null am Dateiende
+     */
+    public Chunk next() throws IOException {
+        return next(false);
+    }
+
+    private Chunk next(boolean firstRecordOnly) throws IOException {
+        while (true) {
+            boolean full = end - start >= chunkSize;
+            if (!full && !eof) {
+                fill();
+                continue;
+            }
+
+            scan(firstRecordOnly);
+            if (boundary > start) {
+                return emit(boundary, boundaryLine);
+            }
+            if (eof) {
+                // Rest ohne abschließenden Zeilenumbruch (oder mit offenem Quote)
+                return end > start ? emit(end, line) : null;
+            }
+            // Datensatz länger als chunkSize: weiterlesen
+            fill();
+        }
+    }
+
+    private Chunk emit(int until, long lineAfter) {
+        Chunk chunk = new Chunk(Arrays.copyOfRange(buffer, start, until), until - start, startLine);
+        start = until;
+        startLine = lineAfter;
+        boundary = -1;
+        if (scanned < start) {
+            scanned = start;
+        }
+        return chunk;
+    }
+
+    /**
+     * Liest weitere Bytes; verschiebt bzw. vergrößert den Puffer bei Bedarf
+     */
+    private void fill() throws IOException {
+        if (start > 0) {
+            int remaining = end - start;
+            System.arraycopy(buffer, start, buffer, 0, remaining);
+            scanned -= start;
+            if (boundary >= 0) {
+                boundary -= start;
+            }
+            start = 0;
+            end = remaining;
+        }
+        if (end == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        int n = in.read(buffer, end, buffer.length - end);
+        if (n < 0) {
+            eof = true;
+            return;
+        }
+        end += n;
+
+        if (!bomChecked && (end >= 3 || eof)) {
+            bomChecked = true;
+            if (end >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF) {
+                start = 3;
+                scanned = 3;
+            }
+        }
+    }
+
+    /**
+     * Lässt den Automaten bis end laufen und merkt sich die letzte
+     * Datensatzgrenze (bzw. die erste, wenn firstRecordOnly)
+     */
+    private void scan(boolean firstRecordOnly) {
+        for (int i = scanned; i < end; i++) {
+            byte b = buffer[i];
+
+            if (pendingCr) {
+                pendingCr = false;
+                line++;
+                if (b == '\n') {
+                    markBoundary(i + 1);
+                    if (firstRecordOnly) {
+                        scanned = i + 1;
+                        return;
+                    }
+                    continue;
+                }
+                markBoundary(i);
+                if (firstRecordOnly) {
+                    scanned = i;
+                    return;
+                }
+            }
+            if (pendingQuotedCr) {
+                pendingQuotedCr = false;
+                if (b != '\n') {
+                    line++;
+                }
+            }
+
+            switch (state) {
+                case FIELD_START, UNQUOTED -> {
+                    if (b == '"' && state == FIELD_START) {
+                        state = QUOTED;
+                    } else if (b == ',') {
+                        state = FIELD_START;
+                    } else if (b == '\n') {
+                        line++;
+                        state = FIELD_START;
+                        markBoundary(i + 1);
+                        if (firstRecordOnly) {
+                            scanned = i + 1;
+                            return;
+                        }
+                    } else if (b == '\r') {
+                        state = FIELD_START;
+                        pendingCr = true;
+                    } else {
+                        state = UNQUOTED;
+                    }
+                }
+                case QUOTED -> {
+                    if (b == '"') {
+                        state = QUOTED_QUOTE;
+                    } else if (b == '\n') {
+                        line++;
+                    } else if (b == '\r') {
+                        pendingQuotedCr = true;
+                    }
+                }
+                default -> { // QUOTED_QUOTE: Escape ("") oder Ende des Quotes
+                    if (b == '"') {
+                        state = QUOTED;
+                    } else if (b == ',') {
+                        state = FIELD_START;
+                    } else if (b == '\n') {
+                        line++;
+                        state = FIELD_START;
+                        markBoundary(i + 1);
+                        if (firstRecordOnly) {
+                            scanned = i + 1;
+                            return;
+                        }
+                    } else if (b == '\r') {
+                        state = FIELD_START;
+                        pendingCr = true;
+                    } else {
+                        state = UNQUOTED;
+                    }
+                }
+            }
+        }
+        scanned = end;
+
+        if (eof && pendingCr) {
+            // CR als letztes Byte der Datei
+            pendingCr = false;
+            line++;
+            markBoundary(end);
+        }
+    }
+
+    private void markBoundary(int position) {
+        boundary = position;
+        boundaryLine = line;
+    }
+}
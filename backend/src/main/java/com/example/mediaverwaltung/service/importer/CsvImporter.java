@@ -1,115 +1,258 @@
 package com.example.mediaverwaltung.service.importer;
 
 import com.example.mediaverwaltung.model.MediaItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * CSV Importer für MediaItems
  * Liest CSV-Dateien und konvertiert zu MediaItem-Objekten
- * 
+ *
  * CSV-Format (neue Version):
  * URL,BESCHREIBUNG,CHANNEL,DAUER,STICHWORT,MEDIA_TYPE
- * 
+ *
+ * Streams werden parallel geparst: CsvChunker schneidet sie an
+ * Datensatzgrenzen in Stücke, die Stücke laufen auf einem eigenen
+ * ForkJoinPool durch CsvRecordReader + MediaItemCsvMapper. Die
+ * Ergebnisse gehen in Dateireihenfolge an das Ziel, Fehler tragen
+ * also dieselben Zeilennummern wie beim sequentiellen Lesen.
+ *
  * @author Sven
- * @version 2.0 (2025-10-10)
+ * @version 3.0
  */
 @Component
-public class CsvImporter implements DataImporter {
-    
+public class CsvImporter implements DataImporter, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvImporter.class);
+
+    /**
+     * Fehlerhafte Zeilen, die importData(String) einzeln loggt (Rest nur gezählt)
+     */
+    private static final int MAX_LOGGED_ERRORS = 20;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Stücke, die gleichzeitig geparst werden bzw. auf das Ziel warten
+     * (begrenzt den Speicher, wenn das Schreiben langsamer ist)
+     */
+    private final int maxInFlight;
+
+    /**
+     * @param parallelism Parser-Threads (0 = Anzahl CPU-Kerne)
+     * @param chunkSize   Zielgröße eines Stücks
+     */
+    public CsvImporter(
+            @Value("${mediaverwaltung.import.csv.parallelism:0}") int parallelism,
+            @Value("${mediaverwaltung.import.csv.chunk-size:4MB}") DataSize chunkSize) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.chunkSize = (int) Math.min(Integer.MAX_VALUE / 2, chunkSize.toBytes());
+        this.maxInFlight = threads * 2;
+    }
+
     @Override
     public List<MediaItem> importData(String filepath) throws Exception {
+        // CSV aus Dateisystem oder Resources laden
+        InputStream inputStream = ImportFiles.openFileOrResource(filepath);
+
         List<MediaItem> items = new ArrayList<>();
-        
-        // CSV aus Resources laden
-        InputStream inputStream = getClass().getClassLoader()
-                .getResourceAsStream(filepath);
-        
-        if (inputStream == null) {
-            throw new IllegalArgumentException("Datei nicht gefunden: " + filepath);
-        }
-        
-        try (BufferedReader reader = new BufferedReader(
+        int skipped = 0;
+        try (CsvRecordReader reader = new CsvRecordReader(
                 new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            
-            // Erste Zeile (Header) überspringen
-            String headerLine = reader.readLine();
-            if (headerLine == null) {
+
+            List<String> header = reader.readRecord();
+            if (header == null) {
                 throw new IllegalArgumentException("CSV-Datei ist leer");
             }
-            
-            // Datenzeilen verarbeiten
-            String line;
-            int lineNumber = 2; // Start bei 2 (Header = 1)
-            
-            while ((line = reader.readLine()) != null) {
+            MediaItemCsvMapper mapper = new MediaItemCsvMapper(header);
+
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (MediaItemCsvMapper.isBlank(record)) continue;
+
                 try {
-                    MediaItem item = parseCsvLine(line);
-                    items.add(item);
-                } catch (Exception e) {
-                    System.err.println("⚠️ Fehler in Zeile " + lineNumber + ": " + e.getMessage());
+                    items.add(mapper.toItem(record));
+                } catch (IllegalArgumentException e) {
                     // Zeile überspringen, weitermachen
+                    if (++skipped <= MAX_LOGGED_ERRORS) {
+                        log.warn("CSV Zeile übersprungen: file={} line={} error={}",
+                                filepath, reader.getRecordLine(), e.getMessage());
+                    }
                 }
-                lineNumber++;
             }
         }
-        
+        if (skipped > MAX_LOGGED_ERRORS) {
+            log.warn("CSV Zeilen übersprungen: file={} skipped={}", filepath, skipped);
+        }
+
         return items;
     }
-    
+
     /**
-     * Parst eine CSV-Zeile zu einem MediaItem
-     * 
-     * Format: URL,BESCHREIBUNG,CHANNEL,DAUER,STICHWORT,MEDIA_TYPE
-     * 
-     * @param line CSV-Zeile
-     * @return MediaItem-Objekt
+     * Liest eine CSV (mit Header) parallel in das Ziel
+     *
+     * Das Ziel wird nur vom aufrufenden Thread bedient, in Dateireihenfolge.
+     * Wirft der Stream CancellationException (Job abgebrochen), endet der
+     * Import nach dem aktuellen Stück; ausstehende Stücke werden verworfen.
+     * Mit nur einem Parser-Thread wird direkt sequentiell gelesen (das
+     * Zerlegen würde dort nur Zeit kosten).
+     *
+     * @param input CSV-Daten (UTF-8, mit Header!), wird geschlossen
+     * @throws IllegalArgumentException bei leerer Datei, fehlender URL-Spalte
+     *         oder nicht geschlossenem Quote
      */
-    private MediaItem parseCsvLine(String line) {
-        // CSV-Splitting (einfache Version)
-        // Für komplexere CSVs (mit Kommas in Daten): Apache Commons CSV nutzen
-        String[] columns = line.split(",", -1); // -1 = keep empty strings
-        
-        MediaItem item = new MediaItem();
-        
-        // URL (required)
-        if (columns.length > 0 && !columns[0].isEmpty()) {
-            item.setUrl(columns[0].trim());
-        } else {
-            throw new IllegalArgumentException("URL ist Pflichtfeld!");
+    @Override
+    public void importData(InputStream input, ImportSink sink) throws IOException {
+        if (pool.getParallelism() == 1) {
+            importData(new InputStreamReader(input, StandardCharsets.UTF_8), sink);
+            return;
         }
-        
-        // BESCHREIBUNG
-        if (columns.length > 1 && !columns[1].isEmpty()) {
-            item.setBeschreibung(columns[1].trim());
+        try (input) {
+            CsvChunker chunker = new CsvChunker(input, chunkSize);
+
+            CsvChunker.Chunk headerChunk = chunker.nextRecord();
+            List<String> header = null;
+            if (headerChunk != null) {
+                try (CsvRecordReader reader = parse(headerChunk)) {
+                    header = reader.readRecord();
+                }
+            }
+            if (header == null) {
+                throw new IllegalArgumentException("CSV-Datei ist leer");
+            }
+            MediaItemCsvMapper mapper = new MediaItemCsvMapper(header);
+
+            Deque<ForkJoinTask<ParsedChunk>> inFlight = new ArrayDeque<>();
+            try {
+                CsvChunker.Chunk chunk;
+                while ((chunk = chunker.next()) != null) {
+                    CsvChunker.Chunk current = chunk;
+                    inFlight.add(pool.submit(() -> parseChunk(current, mapper)));
+                    if (inFlight.size() >= maxInFlight) {
+                        drain(inFlight.poll().join(), sink);
+                    }
+                }
+                while (!inFlight.isEmpty()) {
+                    drain(inFlight.poll().join(), sink);
+                }
+            } finally {
+                inFlight.forEach(task -> task.cancel(true));
+            }
         }
-        
-        // CHANNEL
-        if (columns.length > 2 && !columns[2].isEmpty()) {
-            item.setChannel(columns[2].trim());
+    }
+
+    /**
+     * Liest alle Datensätze einer CSV (mit Header) in das Ziel
+     *
+     * RFC 4180 (auch Zeilenumbrüche in Quotes), Spalten werden über den
+     * Header zugeordnet (Export-Format und altes Import-Format).
+     * Fehlerhafte Datensätze werden als Fehler gezählt, nicht geschrieben.
+     * Sequentiell, für Reader-Quellen (Upload-Endpunkte).
+     *
+     * @param csv CSV-Daten (mit Header!), wird geschlossen
+     * @throws IllegalArgumentException bei leerer Datei, fehlender URL-Spalte
+     *         oder nicht geschlossenem Quote
+     */
+    public void importData(Reader csv, ImportSink sink) throws IOException {
+        try (CsvRecordReader reader = new CsvRecordReader(csv)) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV-Datei ist leer");
+            }
+            MediaItemCsvMapper mapper = new MediaItemCsvMapper(header);
+
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (MediaItemCsvMapper.isBlank(record)) continue;
+
+                try {
+                    sink.add(mapper.toItem(record), reader.getRecordLine());
+                } catch (IllegalArgumentException e) {
+                    sink.recordFailure(reader.getRecordLine(), e.getMessage());
+                }
+            }
         }
-        
-        // DAUER
-        if (columns.length > 3 && !columns[3].isEmpty()) {
-            item.setDauer(columns[3].trim());
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Ergebnis eines Datensatzes: Item oder Fehlermeldung
+     */
+    private record ParsedRecord(long line, MediaItem item, String error) {
+    }
+
+    /**
+     * Ergebnis eines Stücks; failure bricht den Import ab, nachdem die
+     * Datensätze davor übergeben wurden (wie beim sequentiellen Lesen)
+     */
+    private record ParsedChunk(List<ParsedRecord> records, Exception failure) {
+    }
+
+    /**
+     * Läuft im ForkJoinPool; MediaItemCsvMapper ist unveränderlich
+     */
+    private static ParsedChunk parseChunk(CsvChunker.Chunk chunk, MediaItemCsvMapper mapper) {
+        List<ParsedRecord> parsed = new ArrayList<>();
+        try (CsvRecordReader reader = parse(chunk)) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (MediaItemCsvMapper.isBlank(record)) continue;
+
+                try {
+                    parsed.add(new ParsedRecord(reader.getRecordLine(), mapper.toItem(record), null));
+                } catch (IllegalArgumentException e) {
+                    parsed.add(new ParsedRecord(reader.getRecordLine(), null, e.getMessage()));
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // z.B. nicht geschlossener Quote am Dateiende
+            return new ParsedChunk(parsed, e);
+        }
+        return new ParsedChunk(parsed, null);
+    }
+
+    private static CsvRecordReader parse(CsvChunker.Chunk chunk) {
+        Reader reader = new InputStreamReader(
+                new ByteArrayInputStream(chunk.data(), 0, chunk.length()), StandardCharsets.UTF_8);
+        return new CsvRecordReader(reader, chunk.firstLine());
+    }
+
+    private static void drain(ParsedChunk parsed, ImportSink sink) throws IOException {
+        for (ParsedRecord record : parsed.records()) {
+            if (record.error() != null) {
+                sink.recordFailure(record.line(), record.error());
+            } else {
+                sink.add(record.item(), record.line());
+            }
         }
-        
-        // STICHWORT
-        if (columns.length > 4 && !columns[4].isEmpty()) {
-            item.setStichwort(columns[4].trim());
+        if (parsed.failure() instanceof IOException e) {
+            throw e;
         }
-        
-        // MEDIA_TYPE
-        if (columns.length > 5 && !columns[5].isEmpty()) {
-            item.setMediaType(columns[5].trim());
+        if (parsed.failure() instanceof IllegalArgumentException e) {
+            throw e;
         }
-        
-        return item;
     }
 }
@@ -0,0 +1,174 @@
+package com.example.mediaverwaltung.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming CSV-Tokenizer nach RFC 4180
+ * 
+ * Liest Datensatz für Datensatz direkt aus einem Reader, in einem
+ * einzigen Durchlauf und ohne Regex. Unterstützt:
+ * - Felder in Quotes mit Kommas und Zeilenumbrüchen
+ * - verdoppelte Quotes ("") als Escape
+ * - Zeilenenden LF, CRLF und CR
+ * - UTF-8 BOM am Dateianfang
+ * 
+ * Speicherbedarf: nur der aktuelle Datensatz + Lesepuffer.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private final StringBuilder field = new StringBuilder();
+
+    /**
+     * Aktuelle physische Zeile (1-basiert)
+     */
+    private long line = 1;
+
+    /**
+     * Zeile, in der der zuletzt gelesene Datensatz beginnt
+     */
+    private long recordLine;
+
+    private boolean firstChar = true;
+
+    public CsvRecordReader(Reader reader) {
+        this(reader, 1);
+    }
+
+    /**
+     * Für Ausschnitte einer Datei (siehe CsvChunker): Zeilennummern
+     * beginnen bei firstLine statt bei 1
+     */
+    public CsvRecordReader(Reader reader, long firstLine) {
+        this.reader = reader;
+        this.line = firstLine;
+    }
+
+    /**
+     * Liest den nächsten Datensatz
+     * 
+     * @return Felder des Datensatzes oder null am Dateiende
+     * @throws IOException bei Lesefehlern
+     * @throws IllegalArgumentException bei nicht geschlossenem Quote am Dateiende
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == EOF) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+
+        while (true) {
+            if (c == '"' && field.isEmpty()) {
+                readQuoted();
+                c = read();
+                // Zeichen nach dem schließenden Quote bis zum Trenner übernehmen (tolerant)
+                while (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+
+            if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == EOF) {
+                record.add(field.toString());
+                if (c == '\r') {
+                    skipLineFeed();
+                }
+                if (c != EOF) {
+                    line++;
+                }
+                return record;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Zeile (1-basiert), in der der zuletzt gelesene Datensatz beginnt
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw new IllegalArgumentException("Quote ab Zeile " + recordLine + " wird nicht geschlossen");
+            }
+            if (c == '"') {
+                if (peek() == '"') {
+                    read();
+                    field.append('"');
+                    continue;
+                }
+                return;
+            }
+            if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                line++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    private void skipLineFeed() throws IOException {
+        if (peek() == '\n') {
+            read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return EOF;
+        }
+        char c = buffer[position++];
+        if (firstChar) {
+            firstChar = false;
+            if (c == '\uFEFF') {
+                return read();
+            }
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = reader.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
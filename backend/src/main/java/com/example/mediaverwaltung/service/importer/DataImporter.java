@@ -1,6 +1,10 @@
 package com.example.mediaverwaltung.service.importer;
 
 import com.example.mediaverwaltung.model.MediaItem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -12,9 +16,35 @@ public interface DataImporter {
     /**
      * Importiert MediaItems aus einer Datei
      * 
-     * @param filepath Pfad zur Import-Datei
+     * @param filepath Pfad im Dateisystem oder relativ zu resources/ (.gz wird entpackt)
      * @return Liste von importierten MediaItems
      * @throws Exception bei Fehlern beim Import
      */
     List<MediaItem> importData(String filepath) throws Exception;
+    
+    /**
+     * Liest MediaItems aus einem Stream und übergibt sie einzeln an das Ziel
+     * 
+     * Fehlerhafte Datensätze gehen als recordFailure() an das Ziel, der
+     * Import läuft weiter. finish() ruft der Aufrufer auf.
+     * 
+     * @param input Daten (UTF-8), wird geschlossen
+     * @param sink  Ziel (z.B. MediaItemBatchWriter.Session)
+     * @throws IOException bei Lesefehlern
+     * @throws IllegalArgumentException wenn die Daten als Ganzes unbrauchbar sind
+     */
+    void importData(InputStream input, ImportSink sink) throws IOException;
+    
+    /**
+     * Liest MediaItems aus einer Datei im Dateisystem (.gz wird beim Lesen entpackt)
+     * 
+     * Für Verzeichnisse und .zip mit mehreren Dateien siehe ImportFiles.
+     * 
+     * @param file Import-Datei
+     * @param sink Ziel (z.B. MediaItemBatchWriter.Session)
+     * @throws IOException bei Lesefehlern
+     */
+    default void importData(Path file, ImportSink sink) throws IOException {
+        importData(ImportFiles.open(file), sink);
+    }
 }
\ No newline at end of file
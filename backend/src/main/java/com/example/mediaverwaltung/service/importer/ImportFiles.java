@@ -0,0 +1,193 @@
+package com.example.mediaverwaltung.service.importer;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Import-Dateien im Dateisystem: Dateien, Verzeichnisse, .gz und .zip
+ *
+ * Gelesen wird über NIO-Channels (Files.newInputStream) mit großen
+ * Puffern, entpackt wird beim Lesen (GZIP/ZIP als Stream). Damit lässt
+ * sich z.B. ein mehrere GB großer Dump auf einem gemounteten Volume
+ * importieren, ohne ihn ins Image oder in den Speicher zu kopieren.
+ *
+ * Das Format ergibt sich aus der Endung: .csv / .json, jeweils auch
+ * als .gz; ein .zip darf beliebig viele solche Einträge enthalten.
+ */
+public final class ImportFiles {
+
+    /**
+     * Lesepuffer (und Puffer des Inflaters)
+     */
+    public static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Verarbeitet einen Eintrag (Datei bzw. Eintrag im ZIP)
+     */
+    @FunctionalInterface
+    public interface EntryHandler {
+
+        /**
+         * @param name   Dateiname bzw. Name im ZIP
+         * @param format Format nach Endung
+         * @param data   entpackte Daten; darf geschlossen werden
+         */
+        void accept(String name, ImportFormat format, InputStream data) throws IOException;
+    }
+
+    private ImportFiles() {
+    }
+
+    /**
+     * Importierbare Dateien unter path
+     *
+     * Eine Datei wird unverändert zurückgegeben, ein Verzeichnis rekursiv
+     * nach Namen sortiert durchsucht (versteckte Dateien und unbekannte
+     * Endungen werden übersprungen).
+     *
+     * @throws NoSuchFileException wenn path nicht existiert
+     * @throws IllegalArgumentException wenn nichts Importierbares gefunden wird
+     */
+    public static List<Path> list(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+        if (!Files.isDirectory(path)) {
+            if (!isSupported(path.getFileName().toString())) {
+                throw new IllegalArgumentException("Unbekanntes Dateiformat: " + path.getFileName());
+            }
+            return List.of(path);
+        }
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(path)) {
+            files = walk
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith("."))
+                    .filter(file -> isSupported(file.getFileName().toString()))
+                    .sorted()
+                    .toList();
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("Keine CSV-/JSON-Dateien in " + path);
+        }
+        return files;
+    }
+
+    /**
+     * Öffnet eine einzelne Datei (.gz wird beim Lesen entpackt)
+     */
+    public static InputStream open(Path file) throws IOException {
+        InputStream raw = Files.newInputStream(file);
+        try {
+            return decompress(file.getFileName().toString(), raw);
+        } catch (IOException | RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Öffnet eine Datei aus dem Dateisystem oder, falls es dort keine
+     * gibt, aus dem Classpath (bisheriges Verhalten)
+     *
+     * @throws IllegalArgumentException wenn die Datei nirgends gefunden wird
+     */
+    public static InputStream openFileOrResource(String filepath) throws IOException {
+        Path file = Path.of(filepath);
+        if (Files.isRegularFile(file)) {
+            return open(file);
+        }
+
+        InputStream resource = ImportFiles.class.getClassLoader().getResourceAsStream(filepath);
+        if (resource == null) {
+            throw new IllegalArgumentException("Datei nicht gefunden: " + filepath);
+        }
+        return decompress(filepath, resource);
+    }
+
+    /**
+     * Liest alle Einträge einer Datei und übergibt sie an handler
+     *
+     * @param name Dateiname (bestimmt Format und Kompression)
+     * @param raw  Rohdaten der Datei, wird geschlossen
+     * @throws IllegalArgumentException bei unbekannter Endung
+     */
+    public static void read(String name, InputStream raw, EntryHandler handler) throws IOException {
+        try (raw) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".zip")) {
+                readZip(raw, handler);
+                return;
+            }
+            ImportFormat format = formatOf(name);
+            if (format == null) {
+                throw new IllegalArgumentException("Unbekanntes Dateiformat: " + name);
+            }
+            handler.accept(name, format, decompress(name, raw));
+        }
+    }
+
+    /**
+     * Format nach Endung (.csv, .json, auch mit .gz), sonst null
+     */
+    public static ImportFormat formatOf(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".gz")) {
+            lower = lower.substring(0, lower.length() - 3);
+        }
+        if (lower.endsWith(".csv")) {
+            return ImportFormat.CSV;
+        }
+        if (lower.endsWith(".json")) {
+            return ImportFormat.JSON;
+        }
+        return null;
+    }
+
+    private static boolean isSupported(String name) {
+        return formatOf(name) != null || name.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    private static InputStream decompress(String name, InputStream raw) throws IOException {
+        if (name.toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            return new BufferedInputStream(new GZIPInputStream(raw, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return new BufferedInputStream(raw, BUFFER_SIZE);
+    }
+
+    /**
+     * Einträge in Dateireihenfolge; Verzeichnisse, versteckte Dateien
+     * und unbekannte Endungen werden übersprungen
+     */
+    private static void readZip(InputStream raw, EntryHandler handler) throws IOException {
+        ZipInputStream zip = new ZipInputStream(new BufferedInputStream(raw, BUFFER_SIZE));
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String entryName = entry.getName();
+            String fileName = entryName.substring(entryName.lastIndexOf('/') + 1);
+            ImportFormat format = formatOf(entryName);
+            if (entry.isDirectory() || fileName.startsWith(".") || format == null) {
+                continue;
+            }
+            // Importer schließen ihren Stream; das darf das ZIP nicht schließen
+            InputStream entryData = new FilterInputStream(zip) {
+                @Override
+                public void close() {
+                }
+            };
+            handler.accept(entryName, format, decompress(entryName, entryData));
+        }
+    }
+}
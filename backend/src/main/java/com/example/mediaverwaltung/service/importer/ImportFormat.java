@@ -0,0 +1,27 @@
+package com.example.mediaverwaltung.service.importer;
+
+import java.util.Locale;
+
+/**
+ * Format einer Import-Datei
+ */
+public enum ImportFormat {
+    
+    /** CSV mit Header (Export-Format oder altes Import-Format) */
+    CSV,
+    
+    /** JSON-Array von MediaItems */
+    JSON;
+    
+    /**
+     * @param value "csv" / "json" (Groß-/Kleinschreibung egal)
+     * @throws IllegalArgumentException bei unbekanntem Format
+     */
+    public static ImportFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unbekanntes Import-Format: " + value);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.mediaverwaltung.service.importer;
+
+import java.util.Locale;
+
+/**
+ * Strategie eines Imports
+ */
+public enum ImportMode {
+    
+    /** Bestand komplett ersetzen (atomar, siehe MediaItemReplaceWriter) */
+    REPLACE,
+    
+    /** Items anhängen, chunkweise committet (siehe MediaItemBatchWriter) */
+    APPEND,
+    
+    /** Items per URL abgleichen: neue einfügen, geänderte aktualisieren (siehe MediaItemMergeWriter) */
+    MERGE;
+    
+    /**
+     * @param value "replace" / "append" / "merge" (Groß-/Kleinschreibung egal)
+     * @throws IllegalArgumentException bei unbekannter Strategie
+     */
+    public static ImportMode parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unbekannte Import-Strategie: " + value);
+        }
+    }
+}
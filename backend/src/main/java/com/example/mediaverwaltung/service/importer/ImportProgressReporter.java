@@ -0,0 +1,165 @@
+package com.example.mediaverwaltung.service.importer;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Log-Ausgabe für Importe (SLF4J, key=value)
+ *
+ * Umhüllt ein ImportSink und schreibt statt einer Zeile pro Datensatz:
+ * - INFO beim Start und am Ende (Zähler, Dauer, Zeilen/s)
+ * - INFO alle interval eine Zwischenstand-Zeile
+ * - WARN für fehlerhafte Zeilen, höchstens row-messages pro interval;
+ *   der Rest wird nur gezählt und mit dem nächsten Zwischenstand gemeldet
+ *   (die End-Zeile nennt die Summe über den ganzen Import)
+ * - DEBUG jede sample-every-te Zeile als Stichprobe (0 = aus)
+ *
+ * Die Uhr wird nur alle CHECK_EVERY Datensätze gelesen, pro Zeile
+ * kostet das Logging also nur einen Zähler.
+ */
+@Component
+public class ImportProgressReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportProgressReporter.class);
+
+    private static final int CHECK_EVERY = 1024;
+
+    private final long intervalNanos;
+
+    private final int maxRowMessages;
+
+    private final long sampleEvery;
+
+    public ImportProgressReporter(
+            @Value("${mediaverwaltung.import.log.interval:10s}") Duration interval,
+            @Value("${mediaverwaltung.import.log.row-messages:20}") int maxRowMessages,
+            @Value("${mediaverwaltung.import.log.sample-every:0}") long sampleEvery) {
+        this.intervalNanos = interval.toNanos();
+        this.maxRowMessages = maxRowMessages;
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Startet die Ausgabe für einen Import
+     *
+     * @param source Herkunft für die Log-Zeilen (Datei, Format, ...)
+     */
+    public ImportSink wrap(ImportSink sink, ImportMode mode, String source) {
+        log.info("Import gestartet: mode={} source={}", tag(mode), source);
+        return new LoggingSink(sink, tag(mode), source);
+    }
+
+    private static String tag(ImportMode mode) {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Nur vom importierenden Thread benutzt (wie das Ziel selbst)
+     */
+    private final class LoggingSink implements ImportSink {
+
+        private final ImportSink target;
+        private final String mode;
+        private final String source;
+        private final long started = System.nanoTime();
+
+        private long records;
+        private long windowStart = started;
+        private int rowMessages;
+        private long suppressed;
+        private long suppressedTotal;
+        private boolean finished;
+
+        LoggingSink(ImportSink target, String mode, String source) {
+            this.target = target;
+            this.mode = mode;
+            this.source = source;
+        }
+
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            target.add(item, lineNumber);
+            if (sampleEvery > 0 && records % sampleEvery == 0 && log.isDebugEnabled()) {
+                log.debug("Import Stichprobe: mode={} line={} url={}", mode, lineNumber, item.getUrl());
+            }
+            tick();
+        }
+
+        @Override
+        public void recordFailure(long lineNumber, String message) {
+            target.recordFailure(lineNumber, message);
+            if (allowRowMessage()) {
+                log.warn("Import Zeile übersprungen: mode={} line={} error={}", mode, lineNumber, message);
+            } else {
+                suppressed++;
+                suppressedTotal++;
+            }
+            tick();
+        }
+
+        @Override
+        public ImportResult getResult() {
+            return target.getResult();
+        }
+
+        @Override
+        public ImportResult finish() {
+            ImportResult result = target.finish();
+            finished = true;
+            long elapsed = System.nanoTime() - started;
+            log.info("Import fertig: mode={} source={} read={} inserted={} updated={} unchanged={} failed={} "
+                    + "suppressedWarnings={} durationMs={} rowsPerSec={}", mode, source, result.getRead(),
+                    result.getInserted(), result.getUpdated(), result.getUnchanged(), result.getFailed(),
+                    suppressedTotal, elapsed / 1_000_000, rate(result.getRead(), elapsed));
+            return result;
+        }
+
+        @Override
+        public void close() {
+            try {
+                target.close();
+            } finally {
+                if (!finished) {
+                    ImportResult result = target.getResult();
+                    log.warn("Import abgebrochen: mode={} source={} read={} inserted={} failed={}",
+                            mode, source, result.getRead(), result.getInserted(), result.getFailed());
+                }
+            }
+        }
+
+        private void tick() {
+            if (++records % CHECK_EVERY != 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (now - windowStart < intervalNanos) {
+                return;
+            }
+            ImportResult result = target.getResult();
+            log.info("Import läuft: mode={} source={} read={} inserted={} failed={} suppressedWarnings={} rowsPerSec={}",
+                    mode, source, result.getRead(), result.getInserted(), result.getFailed(), suppressed,
+                    rate(result.getRead(), now - started));
+            windowStart = now;
+            rowMessages = 0;
+            suppressed = 0;
+        }
+
+        private boolean allowRowMessage() {
+            if (rowMessages >= maxRowMessages || !log.isWarnEnabled()) {
+                return false;
+            }
+            rowMessages++;
+            return true;
+        }
+
+        private static long rate(long rows, long nanos) {
+            return nanos > 0 ? rows * 1_000_000_000L / nanos : 0;
+        }
+    }
+}
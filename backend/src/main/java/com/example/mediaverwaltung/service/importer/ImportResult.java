@@ -0,0 +1,73 @@
+package com.example.mediaverwaltung.service.importer;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ergebnis eines Imports: Zähler + Fehler mit Zeilennummer
+ * 
+ * updated/unchanged gibt es nur beim MERGE-Import (bzw. für doppelte
+ * URLs innerhalb eines REPLACE-Imports).
+ * 
+ * Es werden höchstens MAX_ERRORS Fehler im Detail gespeichert,
+ * damit ein Import mit Millionen kaputter Zeilen nicht den Heap füllt.
+ * 
+ * Geschrieben wird nur vom importierenden Thread; die Zähler sind
+ * volatile, damit andere Threads den Fortschritt lesen können.
+ */
+@Getter
+public class ImportResult {
+
+    /**
+     * Maximale Anzahl gespeicherter Fehlerdetails
+     */
+    public static final int MAX_ERRORS = 100;
+
+    /**
+     * Ein fehlgeschlagener Datensatz
+     * 
+     * @param lineNumber Zeile (CSV) bzw. Position (JSON) in der Quelle
+     * @param message    Fehlerbeschreibung
+     */
+    public record ImportError(long lineNumber, String message) {
+    }
+
+    private volatile long read;
+    private volatile long inserted;
+    private volatile long updated;
+    private volatile long unchanged;
+    private volatile long failed;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final List<ImportError> errors = new ArrayList<>();
+
+    public void recordRead() {
+        read++;
+    }
+
+    public void recordInserted(long count) {
+        inserted += count;
+    }
+
+    public void recordUpdated(long count) {
+        updated += count;
+    }
+
+    public void recordUnchanged(long count) {
+        unchanged += count;
+    }
+
+    public void recordFailure(long lineNumber, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ImportError(lineNumber, message));
+        }
+    }
+
+    public List<ImportError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+}
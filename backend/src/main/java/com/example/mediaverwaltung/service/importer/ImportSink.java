@@ -0,0 +1,50 @@
+package com.example.mediaverwaltung.service.importer;
+
+import com.example.mediaverwaltung.model.MediaItem;
+
+/**
+ * Ziel eines Imports: nimmt geparste Items einzeln entgegen
+ * 
+ * Implementierungen schreiben chunkweise in die Datenbank
+ * (z.B. MediaItemBatchWriter, MediaItemReplaceWriter).
+ * Parser müssen so nie die ganze Datei im Speicher halten.
+ * 
+ * Ablauf: add() / recordFailure() für jeden Datensatz, dann finish().
+ * close() ohne finish() bricht den Import ab.
+ */
+public interface ImportSink extends AutoCloseable {
+
+    /**
+     * Übergibt ein geparstes Item
+     * 
+     * @param item       neues Item (id wird ignoriert)
+     * @param lineNumber Position in der Quelle (für Fehlermeldungen)
+     */
+    void add(MediaItem item, long lineNumber);
+
+    /**
+     * Meldet einen Datensatz, der schon beim Parsen gescheitert ist
+     */
+    void recordFailure(long lineNumber, String message);
+
+    /**
+     * Zwischenstand des laufenden Imports
+     * 
+     * Die Zähler dürfen von anderen Threads gelesen werden (Fortschritt).
+     */
+    ImportResult getResult();
+
+    /**
+     * Schreibt alle noch offenen Items und schließt den Import ab
+     * 
+     * @return Ergebnis des gesamten Imports
+     */
+    ImportResult finish();
+
+    /**
+     * Bricht den Import ab, falls finish() nicht erreicht wurde
+     */
+    @Override
+    default void close() {
+    }
+}
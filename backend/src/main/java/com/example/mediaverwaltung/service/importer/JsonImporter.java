@@ -1,37 +1,108 @@
 package com.example.mediaverwaltung.service.importer;
 
 import com.example.mediaverwaltung.model.MediaItem;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DatabindException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.stereotype.Component;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
 /**
- * JSON Importer für MediaItems
+ * JSON Importer für MediaItems (Streaming)
+ *
+ * Läuft mit dem JsonParser Element für Element durch das Array und
+ * übergibt jedes Item sofort an das Ziel. Im Speicher liegt nur das
+ * aktuelle Element, auch bei mehreren GB großen Dateien.
+ *
+ * Der ObjectReader wird einmal aus dem ObjectMapper der Anwendung
+ * erzeugt (Java-Time-Modul, unbekannte Felder werden ignoriert) und
+ * von allen Imports geteilt; ObjectReader ist thread-safe.
  */
 @Component
 public class JsonImporter implements DataImporter {
-    
+
+    private final ObjectReader itemReader;
+
+    public JsonImporter(ObjectMapper objectMapper) {
+        this.itemReader = objectMapper.readerFor(MediaItem.class);
+    }
+
     @Override
     public List<MediaItem> importData(String filepath) throws Exception {
-        
-        InputStream inputStream = getClass().getClassLoader()
-                .getResourceAsStream(filepath);
-        
-        if (inputStream == null) {
-            throw new IllegalArgumentException("Datei nicht gefunden: " + filepath);
+
+        MediaItem[] itemsArray;
+        try (InputStream inputStream = ImportFiles.openFileOrResource(filepath)) {
+            itemsArray = itemReader.forType(MediaItem[].class).readValue(inputStream);
         }
-        
-        // Jackson ObjectMapper für JSON
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule()); // Für LocalDate Support
-        
-        // JSON Array zu MediaItem List
-        MediaItem[] itemsArray = mapper.readValue(inputStream, MediaItem[].class);
-        
+
         return Arrays.asList(itemsArray);
     }
-}
\ No newline at end of file
+
+    /**
+     * Liest ein JSON-Array von MediaItems Element für Element
+     *
+     * Position = Index im Array (1-basiert). Ein Element, das nicht zu
+     * MediaItem passt, wird als Fehler gezählt und übersprungen;
+     * syntaktisch kaputtes JSON beendet den Import.
+     *
+     * @throws IllegalArgumentException wenn die Daten kein JSON-Array sind
+     */
+    @Override
+    public void importData(InputStream input, ImportSink sink) throws IOException {
+        try (JsonParser parser = itemReader.createParser(input)) {
+            readArray(parser, sink);
+        }
+    }
+
+    private void readArray(JsonParser parser, ImportSink sink) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("JSON-Array erwartet");
+        }
+        JsonStreamContext array = parser.getParsingContext();
+
+        long position = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == null) {
+                throw new EOFException("JSON-Array nicht abgeschlossen");
+            }
+            position++;
+
+            MediaItem item;
+            try {
+                item = itemReader.readValue(parser);
+            } catch (DatabindException e) {
+                skipToArray(parser, array);
+                sink.recordFailure(position, e.getOriginalMessage());
+                continue;
+            }
+            if (item == null) {
+                sink.recordFailure(position, "Element ist null");
+                continue;
+            }
+            sink.add(item, position);
+        }
+    }
+
+    /**
+     * Überspringt den Rest eines fehlerhaften Elements
+     *
+     * Der Deserializer kann mitten im Element (auch in verschachtelten
+     * Objekten) abbrechen; gelesen wird bis zum Ende des Elements, also
+     * bis der Parser wieder direkt im Array steht.
+     */
+    private static void skipToArray(JsonParser parser, JsonStreamContext array) throws IOException {
+        while (parser.getParsingContext() != array) {
+            if (parser.nextToken() == null) {
+                throw new EOFException("JSON-Array nicht abgeschlossen");
+            }
+        }
+    }
+}
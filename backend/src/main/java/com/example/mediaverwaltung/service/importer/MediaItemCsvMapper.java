@@ -0,0 +1,94 @@
+package com.example.mediaverwaltung.service.importer;
+
+import com.example.mediaverwaltung.model.MediaItem;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Wandelt CSV-Datensätze anhand der Header-Zeile in MediaItems um
+ * 
+ * Die Spalten werden über ihren Namen gefunden, nicht über die Position.
+ * Damit funktionieren sowohl das Export-Format
+ *   url,beschreibung,channel,dauer,gesehen,mediaType,stichwort
+ * als auch das alte Import-Format
+ *   URL,BESCHREIBUNG,CHANNEL,DAUER,STICHWORT,MEDIA_TYPE
+ */
+public class MediaItemCsvMapper {
+
+    private final int url;
+    private final int beschreibung;
+    private final int channel;
+    private final int dauer;
+    private final int gesehen;
+    private final int mediaType;
+    private final int stichwort;
+
+    /**
+     * @param header Felder der Header-Zeile
+     * @throws IllegalArgumentException wenn keine URL-Spalte vorhanden ist
+     */
+    public MediaItemCsvMapper(List<String> header) {
+        this.url = indexOf(header, "url");
+        this.beschreibung = indexOf(header, "beschreibung");
+        this.channel = indexOf(header, "channel");
+        this.dauer = indexOf(header, "dauer");
+        this.gesehen = indexOf(header, "gesehen");
+        this.mediaType = indexOf(header, "mediatype");
+        this.stichwort = indexOf(header, "stichwort");
+
+        if (url < 0) {
+            throw new IllegalArgumentException("CSV-Header ohne URL-Spalte: " + header);
+        }
+    }
+
+    /**
+     * Erzeugt ein MediaItem aus einem Datensatz
+     * 
+     * Werte werden getrimmt, leere Werte werden zu null.
+     * 
+     * @param record Felder eines Datensatzes
+     * @return neues (nicht gespeichertes) MediaItem
+     * @throws IllegalArgumentException wenn die URL fehlt
+     */
+    public MediaItem toItem(List<String> record) {
+        MediaItem item = new MediaItem();
+        item.setUrl(value(record, url));
+        item.setBeschreibung(value(record, beschreibung));
+        item.setChannel(value(record, channel));
+        item.setDauer(value(record, dauer));
+        item.setGesehen(Boolean.parseBoolean(value(record, gesehen)));
+        item.setMediaType(value(record, mediaType));
+        item.setStichwort(value(record, stichwort));
+
+        if (item.getUrl() == null) {
+            throw new IllegalArgumentException("URL ist Pflichtfeld!");
+        }
+        return item;
+    }
+
+    /**
+     * true für leere Zeilen (ein einziges, leeres Feld)
+     */
+    public static boolean isBlank(List<String> record) {
+        return record.size() == 1 && record.get(0).isBlank();
+    }
+
+    private static String value(List<String> record, int index) {
+        if (index < 0 || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int indexOf(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            if (column.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.mediaverwaltung.service.job;
+
+import com.example.mediaverwaltung.dto.ImportJobStatus;
+import com.example.mediaverwaltung.service.importer.ImportFormat;
+import com.example.mediaverwaltung.service.importer.ImportMode;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ein asynchroner Import: ein Upload (Datei liegt bis zum Ende im
+ * Spool-Verzeichnis) oder Dateien aus dem Dateisystem (source)
+ * 
+ * Zustände: QUEUED → RUNNING → SUCCEEDED | FAILED | CANCELLED
+ * (QUEUED → CANCELLED, wenn vor dem Start abgebrochen).
+ * 
+ * Geschrieben wird nur vom Worker-Thread bzw. unter dem Monitor dieses
+ * Objekts (Zustandswechsel); status() darf jederzeit gelesen werden.
+ */
+public class ImportJob {
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final ImportFormat format;
+    private final ImportMode mode;
+    private final List<Path> files;
+    /** Pfad im Dateisystem, null bei Uploads */
+    private final Path source;
+    private final long totalBytes;
+    private final Instant submittedAt = Instant.now();
+
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    private volatile State state = State.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile ImportResult result;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    /** gesetzt direkt nach submit, vor dem ersten Abbruchwunsch */
+    private volatile Future<?> future;
+
+    ImportJob(String id, ImportFormat format, ImportMode mode, List<Path> files, Path source, long totalBytes) {
+        this.id = id;
+        this.format = format;
+        this.mode = mode;
+        this.files = files;
+        this.source = source;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ImportMode getMode() {
+        return mode;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    List<Path> getFiles() {
+        return files;
+    }
+
+    /**
+     * true für Uploads: die Spool-Datei gehört dem Job und wird danach gelöscht
+     */
+    boolean isSpooled() {
+        return source == null;
+    }
+
+    AtomicLong bytesRead() {
+        return bytesRead;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void track(ImportResult progress) {
+        this.result = progress;
+    }
+
+    /**
+     * QUEUED → RUNNING
+     * 
+     * @return false, wenn der Job schon vorher abgebrochen wurde
+     */
+    synchronized boolean start() {
+        if (state != State.QUEUED) {
+            return false;
+        }
+        state = State.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void finish(State finalState, ImportResult finalResult, String message) {
+        if (finalResult != null) {
+            result = finalResult;
+        }
+        error = message;
+        finishedAt = Instant.now();
+        state = finalState;
+    }
+
+    /**
+     * Abbruchwunsch: ein wartender Job startet nicht mehr, ein laufender
+     * bricht beim nächsten Lesezugriff ab
+     * 
+     * @return true, wenn der Job noch nicht abgeschlossen war
+     */
+    synchronized boolean cancel() {
+        if (state.isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        if (state == State.QUEUED) {
+            if (future != null) {
+                future.cancel(false);
+            }
+            finish(State.CANCELLED, null, null);
+        }
+        return true;
+    }
+
+    /**
+     * Momentaufnahme für die API
+     * 
+     * Durchsatz nach gelesenen Datensätzen, Restdauer nach gelesenen Bytes
+     * (Datensätze sind unterschiedlich lang, die Dateigröße ist bekannt).
+     */
+    public ImportJobStatus status() {
+        State currentState = state;
+        ImportResult current = result;
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        long bytes = bytesRead.get();
+        long read = current != null ? current.getRead() : 0;
+        
+        double rowsPerSecond = 0;
+        Long etaSeconds = null;
+        if (started != null) {
+            Duration elapsed = Duration.between(started, finished != null ? finished : Instant.now());
+            double seconds = elapsed.toMillis() / 1000.0;
+            if (seconds > 0) {
+                rowsPerSecond = read / seconds;
+            }
+            if (finished != null) {
+                etaSeconds = 0L;
+            } else if (bytes > 0 && totalBytes > 0) {
+                etaSeconds = Math.round(seconds * (totalBytes - Math.min(bytes, totalBytes)) / bytes);
+            }
+        }
+        
+        List<ImportResult.ImportError> errors = currentState.isFinished() && current != null
+                ? List.copyOf(current.getErrors())
+                : List.of();
+        
+        return new ImportJobStatus(id, format, mode, source != null ? source.toString() : null, currentState,
+                read, current != null ? current.getInserted() : 0, current != null ? current.getUpdated() : 0,
+                current != null ? current.getUnchanged() : 0, current != null ? current.getFailed() : 0,
+                bytes, totalBytes, rowsPerSecond, etaSeconds,
+                submittedAt, started, finished, error, errors);
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.mediaverwaltung.service.job;
+
+import com.example.mediaverwaltung.service.ImportExportMetrics;
+import com.example.mediaverwaltung.service.MediaItemService;
+import com.example.mediaverwaltung.service.importer.ImportFiles;
+import com.example.mediaverwaltung.service.importer.ImportFormat;
+import com.example.mediaverwaltung.service.importer.ImportMode;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchrone Import-Jobs (CSV/JSON, REPLACE/APPEND/MERGE)
+ * 
+ * Der Upload wird zuerst in eine Spool-Datei geschrieben, der Request
+ * endet sofort mit der Job-ID. Ein begrenzter Executor arbeitet die Jobs
+ * ab: höchstens max-concurrent gleichzeitig, höchstens queue-capacity
+ * wartend; darüber wird abgelehnt. Abgeschlossene Jobs bleiben für
+ * retention abrufbar.
+ * 
+ * Die eigentliche Arbeit macht MediaItemService.importData() mit den
+ * vorhandenen DataImportern und Import-Writern.
+ * 
+ * Statt eines Uploads kann ein Job auch Dateien aus dem Dateisystem
+ * lesen (Datei, Verzeichnis, .gz, .zip), aber nur unterhalb der
+ * konfigurierten Wurzelverzeichnisse (mediaverwaltung.import.files.roots).
+ */
+@Service
+public class ImportJobService implements DisposableBean {
+
+    private static final String BUSY = "Zu viele Import-Jobs, bitte später erneut versuchen";
+
+    private final MediaItemService mediaItemService;
+
+    private final ImportExportMetrics metrics;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    private final Path spoolDir;
+
+    private final Duration retention;
+
+    private final List<Path> fileRoots;
+
+    public ImportJobService(MediaItemService mediaItemService, ImportExportMetrics metrics,
+            @Value("${mediaverwaltung.import.jobs.max-concurrent:2}") int maxConcurrent,
+            @Value("${mediaverwaltung.import.jobs.queue-capacity:10}") int queueCapacity,
+            @Value("${mediaverwaltung.import.jobs.retention:1h}") Duration retention,
+            @Value("${mediaverwaltung.import.jobs.spool-dir:${java.io.tmpdir}}") Path spoolDir,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${mediaverwaltung.import.files.roots:}") List<String> fileRoots) {
+        this.mediaItemService = mediaItemService;
+        this.metrics = metrics;
+        this.retention = retention;
+        this.spoolDir = spoolDir;
+        this.fileRoots = fileRoots.stream()
+                .filter(root -> !root.isBlank())
+                .map(root -> Path.of(root.trim()).toAbsolutePath().normalize())
+                .toList();
+        
+        ThreadFactory threads = virtualThreads
+                ? Thread.ofVirtual().name("import-", 0).factory()
+                : Thread.ofPlatform().name("import-", 0).daemon(true).factory();
+        int workers = Math.max(1, maxConcurrent);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threads);
+    }
+
+    /**
+     * Nimmt einen Import an (Daten werden sofort in eine Spool-Datei kopiert)
+     * 
+     * Ist der Executor schon voll, wird abgelehnt, bevor der Upload gelesen
+     * wird – sonst läge ein großer Upload erst auf der Platte und würde dann
+     * verworfen. Die Prüfung ist nicht atomar; wer das Rennen verliert,
+     * wird in enqueue() abgelehnt.
+     * 
+     * @param input Upload-Daten, wird nicht geschlossen
+     * @return der angelegte Job (QUEUED)
+     * @throws IllegalStateException wenn bereits zu viele Jobs laufen oder warten
+     */
+    public ImportJob submit(ImportFormat format, ImportMode mode, InputStream input) throws IOException {
+        if (executor.getQueue().remainingCapacity() == 0 && executor.getActiveCount() >= executor.getMaximumPoolSize()) {
+            throw new IllegalStateException(BUSY);
+        }
+        Path file = Files.createTempFile(spoolDir, "import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return submit(format, mode, file);
+    }
+
+    /**
+     * Nimmt einen Import einer bereits gespoolten Datei an (wird danach gelöscht)
+     * 
+     * @throws IllegalStateException wenn bereits zu viele Jobs laufen oder warten
+     */
+    public ImportJob submit(ImportFormat format, ImportMode mode, Path file) throws IOException {
+        return enqueue(new ImportJob(UUID.randomUUID().toString(), format, mode, List.of(file), null, Files.size(file)));
+    }
+
+    /**
+     * Nimmt einen Import von Dateien aus dem Dateisystem an (werden nicht verändert)
+     * 
+     * @param path Datei oder Verzeichnis (.csv, .json, auch .gz und .zip);
+     *             relative Pfade gelten ab dem ersten Wurzelverzeichnis
+     * @throws AccessDeniedException wenn path außerhalb der Wurzelverzeichnisse liegt
+     *         (oder keine konfiguriert sind)
+     * @throws java.nio.file.NoSuchFileException wenn path nicht existiert
+     * @throws IllegalArgumentException wenn dort nichts Importierbares liegt
+     * @throws IllegalStateException wenn bereits zu viele Jobs laufen oder warten
+     */
+    public ImportJob submitFiles(ImportMode mode, Path path) throws IOException {
+        Path source = resolveAllowed(path);
+        List<Path> files = ImportFiles.list(source);
+        
+        long totalBytes = 0;
+        for (Path file : files) {
+            totalBytes += Files.size(file);
+        }
+        Set<ImportFormat> formats = new HashSet<>();
+        files.forEach(file -> formats.add(ImportFiles.formatOf(file.getFileName().toString())));
+        ImportFormat format = formats.size() == 1 ? formats.iterator().next() : null;
+        
+        return enqueue(new ImportJob(UUID.randomUUID().toString(), format, mode, files, source, totalBytes));
+    }
+
+    private ImportJob enqueue(ImportJob job) throws IOException {
+        purgeExpired();
+        
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            if (job.isSpooled()) {
+                Files.deleteIfExists(job.getFiles().get(0));
+            }
+            throw new IllegalStateException(BUSY);
+        }
+        return job;
+    }
+
+    /**
+     * Erst lexikalisch prüfen (verrät nichts über Dateien außerhalb),
+     * dann nach Auflösen symbolischer Links noch einmal
+     */
+    private Path resolveAllowed(Path path) throws IOException {
+        if (fileRoots.isEmpty()) {
+            throw new AccessDeniedException(path.toString(), null, "Datei-Import ist nicht konfiguriert");
+        }
+        Path absolute = (path.isAbsolute() ? path : fileRoots.get(0).resolve(path)).normalize();
+        if (fileRoots.stream().noneMatch(absolute::startsWith)) {
+            throw new AccessDeniedException(path.toString(), null, "Pfad liegt außerhalb der Import-Verzeichnisse");
+        }
+        Path real = absolute.toRealPath();
+        for (Path root : fileRoots) {
+            if (Files.exists(root) && real.startsWith(root.toRealPath())) {
+                return real;
+            }
+        }
+        throw new AccessDeniedException(path.toString(), null, "Pfad liegt außerhalb der Import-Verzeichnisse");
+    }
+
+    public Optional<ImportJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Alle bekannten Jobs, neueste zuerst
+     */
+    public List<ImportJob> findAll() {
+        purgeExpired();
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ImportJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Bricht einen Job ab
+     * 
+     * @return der Job, leer wenn unbekannt
+     */
+    public Optional<ImportJob> cancel(String id) {
+        ImportJob job = jobs.get(id);
+        if (job != null && job.cancel()) {
+            executor.purge(); // abgebrochene Jobs aus der Warteschlange entfernen
+            if (job.getState() == ImportJob.State.CANCELLED && job.isSpooled()) {
+                deleteQuietly(job.getFiles().get(0));
+            }
+        }
+        return Optional.ofNullable(job);
+    }
+
+    /**
+     * Anzahl gerade laufender Jobs
+     */
+    public int getRunningCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Anzahl wartender Jobs
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private void run(ImportJob job) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            ImportResult result = job.isSpooled() ? importUpload(job) : importFiles(job);
+            job.finish(ImportJob.State.SUCCEEDED, result, null);
+        } catch (CancellationException e) {
+            afterAbort(job);
+            job.finish(ImportJob.State.CANCELLED, null, null);
+        } catch (IOException | RuntimeException e) {
+            afterAbort(job);
+            job.finish(ImportJob.State.FAILED, null, e.getMessage());
+        } finally {
+            metrics.importBytes(job.bytesRead().get());
+            if (job.isSpooled()) {
+                deleteQuietly(job.getFiles().get(0));
+            }
+        }
+    }
+
+    private ImportResult importUpload(ImportJob job) throws IOException {
+        try (InputStream input = progress(job, Files.newInputStream(job.getFiles().get(0)))) {
+            return mediaItemService.importData(job.getFormat(), job.getMode(), input, job::track);
+        }
+    }
+
+    private ImportResult importFiles(ImportJob job) throws IOException {
+        return mediaItemService.importFiles(job.getMode(), job.getFiles(), raw -> progress(job, raw), job::track);
+    }
+
+    private static InputStream progress(ImportJob job, InputStream raw) {
+        return new ProgressInputStream(raw, job.bytesRead(), job::isCancelRequested);
+    }
+
+    /**
+     * APPEND und MERGE haben vor dem Abbruch evtl. schon Chunks committet
+     */
+    private void afterAbort(ImportJob job) {
+        if (job.getMode() != ImportMode.REPLACE) {
+            mediaItemService.invalidateAfterPartialImport();
+        }
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Spool-Datei bleibt liegen, wird mit tmp aufgeräumt
+        }
+    }
+
+    @Override
+    public void destroy() {
+        jobs.values().forEach(ImportJob::cancel);
+        executor.shutdown();
+    }
+}
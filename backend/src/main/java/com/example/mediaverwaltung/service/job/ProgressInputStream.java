@@ -0,0 +1,66 @@
+package com.example.mediaverwaltung.service.job;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Zählt gelesene Bytes (Fortschritt) und bricht bei Abbruchwunsch ab
+ * 
+ * Der Abbruch wirkt beim nächsten Lesezugriff des Parsers: read()
+ * wirft CancellationException, der Import endet ohne finish().
+ */
+class ProgressInputStream extends FilterInputStream {
+
+    private final AtomicLong bytesRead;
+
+    private final BooleanSupplier cancelled;
+
+    ProgressInputStream(InputStream in, AtomicLong bytesRead, BooleanSupplier cancelled) {
+        super(in);
+        this.bytesRead = bytesRead;
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkCancelled();
+        int b = super.read();
+        if (b >= 0) {
+            bytesRead.incrementAndGet();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkCancelled();
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            bytesRead.addAndGet(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        checkCancelled();
+        long skipped = super.skip(n);
+        bytesRead.addAndGet(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void checkCancelled() {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Import abgebrochen");
+        }
+    }
+}
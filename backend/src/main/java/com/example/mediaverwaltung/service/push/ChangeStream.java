@@ -0,0 +1,160 @@
+package com.example.mediaverwaltung.service.push;
+
+import com.example.mediaverwaltung.service.MediaItemsChangedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Push-Stream für Änderungen an MediaItems (Server-Sent Events)
+ * 
+ * Hört auf MediaItemsChangedEvent (nach dem Commit) und verteilt die
+ * Änderungen an alle verbundenen Clients. Jeder Client hat einen eigenen
+ * begrenzten Puffer und einen eigenen virtuellen Sende-Thread (siehe
+ * ChangeSubscriber): ein langsamer Client bremst weder Schreiber noch
+ * andere Clients, und tausende wartende Verbindungen kosten kaum Speicher.
+ */
+@Component
+public class ChangeStream implements DisposableBean {
+
+    private final Set<ChangeSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Belegte Plätze (reserviert vor dem Anlegen, frei beim Entfernen)
+     */
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final AtomicLong droppedIds = new AtomicLong();
+
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-", 0).factory());
+
+    private final int maxSubscribers;
+
+    private final int maxPendingIds;
+
+    private final Duration coalesceWindow;
+
+    private final Duration heartbeat;
+
+    private final Duration timeout;
+
+    public ChangeStream(
+            @Value("${mediaverwaltung.push.max-subscribers:10000}") int maxSubscribers,
+            @Value("${mediaverwaltung.push.max-pending-ids:500}") int maxPendingIds,
+            @Value("${mediaverwaltung.push.coalesce-window:200ms}") Duration coalesceWindow,
+            @Value("${mediaverwaltung.push.heartbeat:30s}") Duration heartbeat,
+            @Value("${mediaverwaltung.push.timeout:30m}") Duration timeout) {
+        this.maxSubscribers = maxSubscribers;
+        this.maxPendingIds = Math.max(1, maxPendingIds);
+        this.coalesceWindow = coalesceWindow;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Meldet einen neuen Client an
+     * 
+     * Nach timeout schließt der Server die Verbindung; EventSource
+     * verbindet sich im Browser automatisch neu.
+     * 
+     * Der Platz wird atomar reserviert (gleichzeitige Anmeldungen
+     * überschreiten maxSubscribers nicht), und der Client ist angemeldet,
+     * bevor "connected" rausgeht: Änderungen ab dann landen in seinem
+     * Puffer und gehen nicht verloren.
+     * 
+     * @throws IllegalStateException wenn bereits maxSubscribers verbunden sind
+     */
+    public SseEmitter subscribe() {
+        if (connections.incrementAndGet() > maxSubscribers) {
+            connections.decrementAndGet();
+            throw new IllegalStateException("Zu viele Push-Verbindungen: " + maxSubscribers);
+        }
+        
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        ChangeSubscriber subscriber = new ChangeSubscriber(emitter, maxPendingIds);
+        subscribers.add(subscriber);
+        Runnable remove = () -> {
+            subscriber.close();
+            release(subscriber);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        
+        try {
+            // Sofort etwas senden, damit Header und Verbindung stehen
+            emitter.send(SseEmitter.event().comment("connected"));
+            senders.execute(() -> {
+                try {
+                    subscriber.run(coalesceWindow, heartbeat);
+                } finally {
+                    release(subscriber);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            remove.run();
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Gibt den Platz frei (nur beim ersten Aufruf pro Client)
+     */
+    private void release(ChangeSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            connections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Verteilt eine Änderung an alle Clients (nur Puffern, kein I/O)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MediaItemsChangedEvent event) {
+        for (ChangeSubscriber subscriber : subscribers) {
+            int dropped = subscriber.offer(event);
+            if (dropped > 0) {
+                droppedIds.addAndGet(dropped);
+            }
+        }
+    }
+
+    /**
+     * Anzahl verbundener Clients
+     */
+    public int subscriberCount() {
+        return connections.get();
+    }
+
+    /**
+     * Anzahl Einzeländerungen, die wegen vollem Puffer durch "bulk" ersetzt wurden
+     */
+    public long droppedCount() {
+        return droppedIds.get();
+    }
+
+    /**
+     * Schließt alle Verbindungen beim Herunterfahren
+     */
+    @Override
+    public void destroy() {
+        for (ChangeSubscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter().complete();
+        }
+        senders.shutdownNow();
+    }
+}
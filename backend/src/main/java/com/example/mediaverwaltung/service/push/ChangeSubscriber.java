@@ -0,0 +1,190 @@
+package com.example.mediaverwaltung.service.push;
+
+import com.example.mediaverwaltung.dto.ChangeNotification;
+import com.example.mediaverwaltung.service.MediaItemsChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ein SSE-Client mit eigenem, begrenztem Puffer
+ * 
+ * offer() läuft im Thread des Schreibers (nach dem Commit) und blockiert
+ * nie: Änderungen werden nur im Puffer zusammengefasst. Ein eigener
+ * (virtueller) Thread pro Client wartet auf Änderungen, sammelt sie ein
+ * Zeitfenster lang und schickt sie als EIN Event. Läuft der Puffer über
+ * (Client zu langsam oder sehr viele Änderungen), werden die einzelnen IDs
+ * verworfen und durch ein "bulk"-Event ersetzt.
+ * 
+ * ReentrantLock statt synchronized: ein wartender virtueller Thread
+ * blockiert so keinen Träger-Thread.
+ */
+class ChangeSubscriber {
+
+    private final SseEmitter emitter;
+
+    private final int maxPendingIds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition changed = lock.newCondition();
+
+    /** guarded by lock */
+    private final Set<Long> saved = new LinkedHashSet<>();
+
+    /** guarded by lock */
+    private final Set<Long> deleted = new LinkedHashSet<>();
+
+    /** guarded by lock */
+    private boolean bulk;
+
+    /** guarded by lock */
+    private boolean closed;
+
+    ChangeSubscriber(SseEmitter emitter, int maxPendingIds) {
+        this.emitter = emitter;
+        this.maxPendingIds = maxPendingIds;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Nimmt eine Änderung in den Puffer auf (blockiert nicht)
+     * 
+     * @return Anzahl verworfener Einzeländerungen (Pufferüberlauf → bulk)
+     */
+    int offer(MediaItemsChangedEvent event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return 0;
+            }
+            int dropped = 0;
+            if (!bulk) {
+                switch (event.type()) {
+                    case BULK -> markBulk();
+                    case SAVED -> saved.addAll(event.ids());
+                    case DELETED -> {
+                        saved.removeAll(event.ids());
+                        deleted.addAll(event.ids());
+                    }
+                }
+                if (saved.size() + deleted.size() > maxPendingIds) {
+                    dropped = saved.size() + deleted.size();
+                    markBulk();
+                }
+            }
+            changed.signal();
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markBulk() {
+        bulk = true;
+        saved.clear();
+        deleted.clear();
+    }
+
+    /**
+     * Beendet den Sende-Thread
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sende-Schleife (läuft in einem eigenen virtuellen Thread)
+     * 
+     * Ohne Änderungen geht alle heartbeat ein SSE-Kommentar raus, damit
+     * Proxies die Verbindung offen halten und tote Clients auffallen.
+     */
+    void run(Duration coalesceWindow, Duration heartbeat) {
+        try {
+            while (awaitChange(heartbeat)) {
+                ChangeNotification notification = null;
+                if (hasPending()) {
+                    // Burst abwarten, dann alles auf einmal schicken
+                    Thread.sleep(coalesceWindow);
+                    notification = drain();
+                }
+                if (notification == null) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .name("changes")
+                            .data(notification));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client weg oder Emitter abgeschlossen
+            emitter.completeWithError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Wartet auf eine Änderung oder bis zum nächsten Heartbeat
+     * 
+     * @return false, wenn der Client geschlossen wurde
+     */
+    private boolean awaitChange(Duration heartbeat) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = heartbeat.toNanos();
+            while (!closed && !hasPendingLocked() && nanos > 0) {
+                nanos = changed.awaitNanos(nanos);
+            }
+            return !closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasPending() {
+        lock.lock();
+        try {
+            return hasPendingLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasPendingLocked() {
+        return bulk || !saved.isEmpty() || !deleted.isEmpty();
+    }
+
+    private ChangeNotification drain() {
+        lock.lock();
+        try {
+            ChangeNotification notification = bulk
+                    ? ChangeNotification.bulkChange()
+                    : new ChangeNotification(false, new ArrayList<>(saved), new ArrayList<>(deleted));
+            bulk = false;
+            saved.clear();
+            deleted.clear();
+            return notification;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.mediaverwaltung.service.search;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.repository.MediaItemRepository;
+import com.example.mediaverwaltung.service.MediaItemsChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Volltextsuche ohne Datenbank-Unterstützung (H2: dev/test)
+ * 
+ * Hält einen invertierten Index im Speicher. Aufbau beim Start aus der
+ * Datenbank, danach inkrementell über MediaItemsChangedEvent (nach dem
+ * Commit). Nach Imports (BULK) oder vielen Änderungen wird der Index
+ * komplett neu aufgebaut; Suchen laufen währenddessen auf dem alten Index.
+ * 
+ * Der Index liefert nur IDs, die Items selbst kommen per findAllById
+ * aus der Datenbank.
+ */
+@Component
+@ConditionalOnProperty(name = "mediaverwaltung.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryMediaItemSearch implements MediaItemSearch {
+
+    private final MediaItemRepository repository;
+
+    private final TransactionTemplate readTransaction;
+
+    /**
+     * Liest geänderte Items über die Verbindung der auslösenden Transaktion
+     * 
+     * Nach dem Commit hält der Schreiber seine Verbindung noch. Eine eigene
+     * Transaktion (REQUIRES_NEW) bräuchte eine zweite: bei mehr gleichzeitigen
+     * Schreibern als Pool-Verbindungen warten dann alle aufeinander.
+     */
+    private final TransactionTemplate changeTransaction;
+
+    private final int fetchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Nur ein Schreiber (Änderung oder Neuaufbau) zur Zeit
+     * 
+     * ReentrantLock statt synchronized: der Schreiber liest per JDBC aus
+     * der Datenbank, ein virtueller Thread würde sonst seinen Träger-Thread
+     * für die ganze Abfrage blockieren (Pinning).
+     */
+    private final ReentrantLock writerLock = new ReentrantLock();
+
+    /** guarded by lock */
+    private InvertedIndex index = new InvertedIndex();
+
+    public InMemoryMediaItemSearch(MediaItemRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${mediaverwaltung.export.fetch-size:1000}") int fetchSize) {
+        this.repository = repository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.changeTransaction = new TransactionTemplate(transactionManager);
+        this.changeTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public List<MediaItem> search(SearchQuery query, int offset, int limit) {
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = index.search(query.terms(), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        // Reihenfolge des Index beibehalten (inzwischen gelöschte fallen raus)
+        Map<Long, MediaItem> byId = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(MediaItem::getId, Function.identity()));
+        List<MediaItem> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            MediaItem item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Baut den Index beim Start auf
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * Übernimmt Änderungen nach dem Commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MediaItemsChangedEvent event) {
+        writerLock.lock();
+        try {
+            switch (event.type()) {
+                case BULK -> rebuild();
+                case SAVED -> {
+                    List<MediaItem> items = changeTransaction.execute(status -> repository.findAllById(event.ids()));
+                    update(current -> items.forEach(current::put));
+                }
+                case DELETED -> update(current -> event.ids().forEach(current::remove));
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Baut den Index komplett neu aus der Datenbank auf (per Cursor)
+     */
+    public void rebuild() {
+        writerLock.lock();
+        try {
+            InvertedIndex fresh = new InvertedIndex();
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<MediaItem> items = repository.streamAll(fetchSize)) {
+                    items.forEach(fresh::put);
+                }
+            });
+            
+            lock.writeLock().lock();
+            try {
+                index = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private void update(Consumer<InvertedIndex> change) {
+        boolean rebuild;
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            rebuild = index.needsRebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (rebuild) {
+            rebuild();
+        }
+    }
+}
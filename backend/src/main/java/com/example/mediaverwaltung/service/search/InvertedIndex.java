@@ -0,0 +1,293 @@
+package com.example.mediaverwaltung.service.search;
+
+import com.example.mediaverwaltung.model.MediaItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Invertierter Index: Begriff → Dokumente (nicht thread-safe)
+ * 
+ * Jedes Dokument bekommt einen Slot (fortlaufende int-Nummer), Postings
+ * speichern nur Slot + Gewicht in primitiven Arrays. Geänderte oder
+ * gelöschte Dokumente werden nur als tot markiert; ihre Postings bleiben
+ * liegen, bis der Index neu aufgebaut wird (siehe needsRebuild()).
+ * 
+ * Begriffe liegen sortiert (TreeMap), Präfix-Suche ist daher ein
+ * Bereichs-Scan [prefix, prefix + Character.MAX_VALUE).
+ */
+final class InvertedIndex {
+
+    static final byte WEIGHT_BESCHREIBUNG = 3;
+    static final byte WEIGHT_CHANNEL = 2;
+    static final byte WEIGHT_URL = 1;
+
+    /**
+     * Präfix-Treffer zählen halb so viel wie exakte Treffer
+     */
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    private static final long DEAD = 0;
+
+    /**
+     * Geschätzte Kosten einer Binärsuche (Vergleiche) für probe() vs. Merge
+     */
+    private static final int PROBE_COST = 20;
+
+    private static final Comparator<Hit> BY_RANK =
+            Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id);
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    /** Slot → MediaItem-ID (DEAD = gelöscht/überschrieben) */
+    private long[] idBySlot = new long[1024];
+
+    private int slotCount;
+
+    private int deadSlots;
+
+    /**
+     * Nimmt ein Item auf (ersetzt eine vorhandene Version)
+     */
+    void put(MediaItem item) {
+        remove(item.getId());
+        
+        Map<String, Byte> weights = new HashMap<>();
+        addField(weights, item.getBeschreibung(), WEIGHT_BESCHREIBUNG);
+        addField(weights, item.getChannel(), WEIGHT_CHANNEL);
+        addField(weights, item.getUrl(), WEIGHT_URL);
+        if (weights.isEmpty()) {
+            return;
+        }
+        
+        int slot = newSlot(item.getId());
+        weights.forEach((term, weight) -> terms.computeIfAbsent(term, t -> new Postings()).add(slot, weight));
+    }
+
+    void remove(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            idBySlot[slot] = DEAD;
+            deadSlots++;
+        }
+    }
+
+    int size() {
+        return slotById.size();
+    }
+
+    /**
+     * Mehr tote als lebende Slots: Neuaufbau lohnt sich
+     */
+    boolean needsRebuild() {
+        return deadSlots > Math.max(10_000, slotById.size());
+    }
+
+    /**
+     * Sucht Dokumente, die ALLE Begriffe (exakt oder als Präfix) enthalten
+     * 
+     * Postings sind nach Slot sortiert (Slots werden aufsteigend vergeben).
+     * Der seltenste Begriff liefert die Kandidaten, jeder weitere Begriff
+     * filtert sie – per Binärsuche, solange es wenige Kandidaten sind,
+     * sonst per linearem Merge.
+     * 
+     * @return IDs in Relevanz-Reihenfolge (Score absteigend, dann id)
+     */
+    List<Long> search(List<String> queryTerms, int offset, int limit) {
+        List<String> ordered = new ArrayList<>(queryTerms);
+        ordered.sort(Comparator.comparingLong(term -> postingCount(matching(term))));
+        
+        long[] hits = null;
+        for (String term : ordered) {
+            SortedMap<String, Postings> tokens = matching(term);
+            if (hits == null) {
+                hits = collect(term, tokens);
+            } else if ((long) hits.length * tokens.size() * PROBE_COST < postingCount(tokens)) {
+                hits = probe(hits, term, tokens);
+            } else {
+                hits = intersect(hits, collect(term, tokens));
+            }
+            if (hits.length == 0) {
+                return List.of();
+            }
+        }
+        
+        return top(hits, offset, limit);
+    }
+
+    private SortedMap<String, Postings> matching(String term) {
+        return terms.subMap(term, term + Character.MAX_VALUE);
+    }
+
+    /**
+     * Alle lebenden Treffer eines Begriffs, nach Slot sortiert
+     * (bei mehreren passenden Index-Begriffen zählt der beste)
+     */
+    private long[] collect(String term, SortedMap<String, Postings> tokens) {
+        long[] hits = new long[(int) postingCount(tokens)];
+        int count = 0;
+        for (Map.Entry<String, Postings> entry : tokens.entrySet()) {
+            float factor = entry.getKey().equals(term) ? 1f : PREFIX_FACTOR;
+            Postings postings = entry.getValue();
+            for (int i = 0; i < postings.size; i++) {
+                int slot = postings.slots[i];
+                if (idBySlot[slot] != DEAD) {
+                    hits[count++] = hit(slot, postings.weights[i] * factor);
+                }
+            }
+        }
+        if (tokens.size() > 1) {
+            // gleicher Slot aus mehreren Begriffen: nach Sortierung steht der beste Score zuletzt
+            Arrays.sort(hits, 0, count);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (i + 1 < count && slot(hits[i]) == slot(hits[i + 1])) {
+                    continue;
+                }
+                hits[unique++] = hits[i];
+            }
+            count = unique;
+        }
+        return Arrays.copyOf(hits, count);
+    }
+
+    /**
+     * Behält Kandidaten, die der Begriff enthält (Binärsuche in den Postings)
+     */
+    private long[] probe(long[] hits, String term, SortedMap<String, Postings> tokens) {
+        float[] best = new float[hits.length];
+        for (Map.Entry<String, Postings> entry : tokens.entrySet()) {
+            float factor = entry.getKey().equals(term) ? 1f : PREFIX_FACTOR;
+            Postings postings = entry.getValue();
+            for (int c = 0; c < hits.length; c++) {
+                int index = Arrays.binarySearch(postings.slots, 0, postings.size, slot(hits[c]));
+                if (index >= 0) {
+                    best[c] = Math.max(best[c], postings.weights[index] * factor);
+                }
+            }
+        }
+        
+        int count = 0;
+        for (int c = 0; c < hits.length; c++) {
+            if (best[c] > 0) {
+                hits[count++] = hit(slot(hits[c]), score(hits[c]) + best[c]);
+            }
+        }
+        return Arrays.copyOf(hits, count);
+    }
+
+    /**
+     * Schnittmenge zweier nach Slot sortierter Treffer-Listen (Scores addiert)
+     */
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            int slotA = slot(a[i]);
+            int slotB = slot(b[j]);
+            if (slotA < slotB) {
+                i++;
+            } else if (slotA > slotB) {
+                j++;
+            } else {
+                result[count++] = hit(slotA, score(a[i++]) + score(b[j++]));
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private List<Long> top(long[] hits, int offset, int limit) {
+        int wanted = offset + limit;
+        PriorityQueue<Hit> best = new PriorityQueue<>(BY_RANK.reversed());
+        for (long packed : hits) {
+            long id = idBySlot[slot(packed)];
+            float score = score(packed);
+            if (best.size() == wanted) {
+                Hit worst = best.peek();
+                if (score < worst.score() || (score == worst.score() && id > worst.id())) {
+                    continue;
+                }
+                best.poll();
+            }
+            best.add(new Hit(id, score));
+        }
+        
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(BY_RANK);
+        return ranked.subList(Math.min(offset, ranked.size()), ranked.size()).stream().map(Hit::id).toList();
+    }
+
+    private static long postingCount(SortedMap<String, Postings> tokens) {
+        long count = 0;
+        for (Postings postings : tokens.values()) {
+            count += postings.size;
+        }
+        return count;
+    }
+
+    /**
+     * Treffer als long: Slot in den oberen, Score (float-Bits) in den
+     * unteren 32 Bit. Positive floats sortieren wie ihre Bits, daher
+     * sortiert ein long[] nach Slot und dann nach Score.
+     */
+    private static long hit(int slot, float score) {
+        return ((long) slot << 32) | (Float.floatToRawIntBits(score) & 0xFFFFFFFFL);
+    }
+
+    private static int slot(long hit) {
+        return (int) (hit >>> 32);
+    }
+
+    private static float score(long hit) {
+        return Float.intBitsToFloat((int) hit);
+    }
+
+    private static void addField(Map<String, Byte> weights, String text, byte weight) {
+        for (String term : SearchQuery.tokenize(text)) {
+            weights.merge(term, weight, (a, b) -> a >= b ? a : b);
+        }
+    }
+
+    private int newSlot(long id) {
+        if (slotCount == idBySlot.length) {
+            idBySlot = Arrays.copyOf(idBySlot, slotCount + (slotCount >> 1));
+        }
+        int slot = slotCount++;
+        idBySlot[slot] = id;
+        slotById.put(id, slot);
+        return slot;
+    }
+
+    private record Hit(long id, float score) {
+    }
+
+    /**
+     * Postings eines Begriffs (Slot + Gewicht)
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private byte[] weights = new byte[4];
+        private int size;
+
+        void add(int slot, byte weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.mediaverwaltung.service.search;
+
+import com.example.mediaverwaltung.model.MediaItem;
+
+import java.util.List;
+
+/**
+ * Volltextsuche über beschreibung, channel und url
+ * 
+ * Implementierung je nach Datenbank (mediaverwaltung.search.engine):
+ * postgres → PostgresMediaItemSearch (tsvector + GIN-Index)
+ * memory   → InMemoryMediaItemSearch (invertierter Index im Prozess, für H2)
+ * 
+ * Treffer sind nach Relevanz sortiert (beschreibung vor channel vor url),
+ * bei gleicher Relevanz nach id.
+ */
+public interface MediaItemSearch {
+
+    /**
+     * @param query  Suchbegriffe
+     * @param offset Anzahl zu überspringender Treffer
+     * @param limit  maximale Anzahl Treffer
+     * @return Treffer in Relevanz-Reihenfolge
+     */
+    List<MediaItem> search(SearchQuery query, int offset, int limit);
+}
@@ -0,0 +1,42 @@
+package com.example.mediaverwaltung.service.search;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Volltextsuche per PostgreSQL (tsvector + GIN-Index)
+ * 
+ * Nutzt die generierte Spalte media_item.search_vector
+ * (siehe postgresql-schema.sql bzw. Migration 003_search_vector.sql):
+ * beschreibung (Gewicht A), channel (B), url (C), Konfiguration 'simple'.
+ * Der GIN-Index liefert die Treffer, ts_rank die Reihenfolge.
+ */
+@Component
+@ConditionalOnProperty(name = "mediaverwaltung.search.engine", havingValue = "postgres")
+public class PostgresMediaItemSearch implements MediaItemSearch {
+
+    private static final String SEARCH_SQL = """
+            SELECT m.* FROM media_item m, to_tsquery('simple', :query) q
+            WHERE m.search_vector @@ q
+            ORDER BY ts_rank(m.search_vector, q) DESC, m.id
+            LIMIT :limit OFFSET :offset
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<MediaItem> search(SearchQuery query, int offset, int limit) {
+        return entityManager.createNativeQuery(SEARCH_SQL, MediaItem.class)
+                .setParameter("query", query.toTsQuery())
+                .setParameter("limit", limit)
+                .setParameter("offset", offset)
+                .getResultList();
+    }
+}
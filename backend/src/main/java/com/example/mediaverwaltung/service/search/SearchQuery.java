@@ -0,0 +1,64 @@
+package com.example.mediaverwaltung.service.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Suchbegriffe einer Volltextsuche
+ * 
+ * Die Eingabe wird wie der Index zerlegt: klein geschrieben, getrennt an
+ * allem außer Buchstaben und Ziffern. Alle Begriffe müssen passen (UND),
+ * jeder Begriff passt auch als Präfix ("prog" findet "programmieren").
+ * 
+ * @param terms Begriffe (nur Buchstaben/Ziffern, ohne Duplikate)
+ */
+public record SearchQuery(List<String> terms) {
+
+    /**
+     * Maximale Anzahl Begriffe pro Suche
+     */
+    public static final int MAX_TERMS = 10;
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Zerlegt die Sucheingabe
+     * 
+     * @throws IllegalArgumentException wenn kein Suchbegriff übrig bleibt
+     */
+    public static SearchQuery parse(String input) {
+        List<String> terms = tokenize(input);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Suchbegriff fehlt");
+        }
+        return new SearchQuery(terms.subList(0, Math.min(terms.size(), MAX_TERMS)));
+    }
+
+    /**
+     * Zerlegt einen Text in Begriffe (auch für den Index)
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Als PostgreSQL tsquery: alle Begriffe als Präfix, UND-verknüpft
+     * (z.B. "java:* & spring:*")
+     */
+    public String toTsQuery() {
+        return String.join(" & ", terms.stream().map(term -> term + ":*").toList());
+    }
+}
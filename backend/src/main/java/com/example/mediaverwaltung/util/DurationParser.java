@@ -0,0 +1,44 @@
+package com.example.mediaverwaltung.util;
+
+/**
+ * Parser für das Dauer-Format von MediaItem
+ * 
+ * Unterstützt "HH:MM:SS", "MM:SS" und reine Sekunden ("SS").
+ */
+public final class DurationParser {
+
+    private DurationParser() {
+    }
+
+    /**
+     * Wandelt eine Dauer in Sekunden um
+     * 
+     * @param dauer z.B. "00:03:33", "45:30" oder "90"
+     * @return Sekunden oder null, wenn leer, nicht parsebar oder größer als Integer.MAX_VALUE
+     */
+    public static Integer toSeconds(String dauer) {
+        if (dauer == null || dauer.isBlank()) {
+            return null;
+        }
+
+        String[] parts = dauer.trim().split(":");
+        if (parts.length > 3) {
+            return null;
+        }
+
+        try {
+            long seconds = 0;
+            for (String part : parts) {
+                long value = Long.parseLong(part.trim());
+                if (value < 0) {
+                    return null;
+                }
+                seconds = Math.addExact(Math.multiplyExact(seconds, 60), value);
+            }
+            return Math.toIntExact(seconds);
+        } catch (NumberFormatException | ArithmeticException e) {
+            // ArithmeticException: mehr als Integer.MAX_VALUE Sekunden (Spalte ist INTEGER)
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.mediaverwaltung.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Zerlegt das Stichwort-Feld von MediaItem in Tag-Namen
+ * 
+ * "Music, 80s,music" → [music, 80s]: am Komma getrennt, getrimmt,
+ * klein geschrieben, ohne leere Einträge und Duplikate.
+ */
+public final class TagParser {
+
+    private TagParser() {
+    }
+
+    /**
+     * @param stichwort komma-separierte Stichwörter (darf null sein)
+     * @return normalisierte Tag-Namen in Original-Reihenfolge
+     */
+    public static List<String> parse(String stichwort) {
+        if (stichwort == null || stichwort.isBlank()) {
+            return List.of();
+        }
+        return normalize(List.of(stichwort.split(",")));
+    }
+
+    /**
+     * Normalisiert einzelne Tag-Namen (z.B. aus Query-Parametern)
+     */
+    public static List<String> normalize(Collection<String> names) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name == null) continue;
+            String tag = name.trim().toLowerCase(Locale.ROOT);
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+        }
+        return new ArrayList<>(tags);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.mediaverwaltung.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Kanonische Form einer URL (media_item.url_key) und ihr Hash (url_hash)
+ *
+ * Zwei URLs mit gleicher kanonischer Form gelten als dasselbe Item
+ * (Unique-Index auf url_hash, MERGE-Import, Dublettenprüfung):
+ * - Leerzeichen am Anfang/Ende entfernen
+ * - Schema und Host klein schreiben, Standard-Port (:80/:443) entfernen,
+ *   leerer Pfad wird "/"
+ * - Tracking-Parameter entfernen (utm_*, fbclid, gclid, ...)
+ * - YouTube: youtu.be/ID, /shorts/ID, /embed/ID, m.youtube.com usw.
+ *   → https://youtube.com/watch?v=ID (ohne t, list, si, ...)
+ * - Spotify: Share-Parameter si entfernen
+ * Pfad und übrige Parameter bleiben unverändert (z.B. YouTube-IDs sind
+ * case-sensitiv, die Reihenfolge der Parameter kann Bedeutung haben).
+ *
+ * Der Hash hat feste Länge (SHA-256, 64 Hex-Zeichen) und hält den
+ * Unique-Index klein, auch bei URLs mit 1000 Zeichen.
+ */
+public final class UrlNormalizer {
+
+    /**
+     * schema://authority pfad ?query #fragment
+     */
+    private static final Pattern URL = Pattern.compile(
+            "^([A-Za-z][A-Za-z0-9+.-]*)://([^/?#]*)([^?#]*)(?:\\?([^#]*))?(?:#(.*))?$", Pattern.DOTALL);
+
+    private static final Pattern YOUTUBE_PATH_ID = Pattern.compile("^/(?:shorts|embed|live|v)/([A-Za-z0-9_-]+)");
+
+    private static final Pattern YOUTUBE_SHORT_ID = Pattern.compile("^/([A-Za-z0-9_-]+)");
+
+    private static final Set<String> YOUTUBE_HOSTS = Set.of("youtube.com", "www.youtube.com", "m.youtube.com",
+            "music.youtube.com", "youtube-nocookie.com", "www.youtube-nocookie.com");
+
+    private static final Set<String> TRACKING_PARAMS = Set.of("fbclid", "gclid", "dclid", "gbraid", "wbraid",
+            "msclkid", "yclid", "igshid", "mc_cid", "mc_eid", "_ga", "_gl");
+
+    private UrlNormalizer() {
+    }
+
+    /**
+     * @param url beliebige URL (auch ohne Schema)
+     * @return kanonische Form oder null, wenn url null ist
+     */
+    public static String normalize(String url) {
+        if (url == null) {
+            return null;
+        }
+
+        String trimmed = url.trim();
+        Matcher matcher = URL.matcher(trimmed);
+        if (!matcher.matches()) {
+            return trimmed;
+        }
+
+        String scheme = matcher.group(1).toLowerCase(Locale.ROOT);
+        String authority = stripDefaultPort(scheme, matcher.group(2).toLowerCase(Locale.ROOT));
+        String path = matcher.group(3).isEmpty() ? "/" : matcher.group(3);
+        String query = matcher.group(4);
+        String fragment = matcher.group(5);
+
+        String videoId = youtubeVideoId(authority, path, query);
+        if (videoId != null) {
+            return "https://youtube.com/watch?v=" + videoId;
+        }
+
+        boolean spotify = authority.equals("open.spotify.com");
+        StringJoiner params = new StringJoiner("&");
+        if (query != null) {
+            for (String param : query.split("&")) {
+                String name = paramName(param);
+                if (!param.isEmpty() && !isTracking(name) && !(spotify && name.equals("si"))) {
+                    params.add(param);
+                }
+            }
+        }
+
+        StringBuilder canonical = new StringBuilder(scheme).append("://").append(authority).append(path);
+        if (params.length() > 0) {
+            canonical.append('?').append(params);
+        }
+        if (fragment != null) {
+            canonical.append('#').append(fragment);
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * SHA-256 der kanonischen Form als Hex
+     *
+     * @param canonicalUrl Ergebnis von normalize()
+     * @return 64 Hex-Zeichen oder null, wenn canonicalUrl null ist
+     */
+    public static String hash(String canonicalUrl) {
+        if (canonicalUrl == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonicalUrl.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e); // Pflicht-Algorithmus jeder JVM
+        }
+    }
+
+    /**
+     * Kurzform für hash(normalize(url))
+     */
+    public static String hashOf(String url) {
+        return hash(normalize(url));
+    }
+
+    private static String stripDefaultPort(String scheme, String authority) {
+        if (scheme.equals("http") && authority.endsWith(":80")) {
+            return authority.substring(0, authority.length() - 3);
+        }
+        if (scheme.equals("https") && authority.endsWith(":443")) {
+            return authority.substring(0, authority.length() - 4);
+        }
+        return authority;
+    }
+
+    /**
+     * Video-ID einer YouTube-URL, sonst null
+     */
+    private static String youtubeVideoId(String host, String path, String query) {
+        if (host.equals("youtu.be")) {
+            Matcher matcher = YOUTUBE_SHORT_ID.matcher(path);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+        if (!YOUTUBE_HOSTS.contains(host)) {
+            return null;
+        }
+        if (path.equals("/watch") && query != null) {
+            for (String param : query.split("&")) {
+                if (param.startsWith("v=") && param.length() > 2) {
+                    return param.substring(2);
+                }
+            }
+            return null;
+        }
+        Matcher matcher = YOUTUBE_PATH_ID.matcher(path);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String paramName(String param) {
+        int equals = param.indexOf('=');
+        return (equals < 0 ? param : param.substring(0, equals)).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isTracking(String name) {
+        return name.startsWith("utm_") || TRACKING_PARAMS.contains(name);
+    }
+}
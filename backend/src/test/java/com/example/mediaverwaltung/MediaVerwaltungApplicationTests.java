@@ -1,18 +1,69 @@
 package com.example.mediaverwaltung;
 
+import com.example.mediaverwaltung.config.CacheConfig;
+import com.example.mediaverwaltung.dto.BatchItemResult;
+import com.example.mediaverwaltung.dto.CacheStatistics;
+import com.example.mediaverwaltung.dto.ImportJobStatus;
+import com.example.mediaverwaltung.dto.MediaItemBatchPatch;
+import com.example.mediaverwaltung.dto.MediaItemChanges;
+import com.example.mediaverwaltung.dto.MediaItemFilter;
+import com.example.mediaverwaltung.dto.MediaItemPage;
+import com.example.mediaverwaltung.dto.MediaItemSort;
+import com.example.mediaverwaltung.dto.MediaItemVersion;
+import com.example.mediaverwaltung.dto.MediaItemView;
+import com.example.mediaverwaltung.dto.TagMatch;
+import com.example.mediaverwaltung.dto.TagQueryResult;
+import com.example.mediaverwaltung.dto.UrlDuplicate;
 import com.example.mediaverwaltung.model.MediaItem;
 import com.example.mediaverwaltung.repository.MediaItemRepository;
 import com.example.mediaverwaltung.service.MediaItemService;
+import com.example.mediaverwaltung.service.TombstonePurge;
+import com.example.mediaverwaltung.service.UrlHashBackfill;
+import com.example.mediaverwaltung.service.job.ImportJob;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.example.mediaverwaltung.service.importer.ImportFiles;
+import com.example.mediaverwaltung.service.importer.ImportFormat;
+import com.example.mediaverwaltung.service.importer.ImportMode;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 
 /**
  * Integration Tests für MediaVerwaltung
@@ -28,6 +79,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")  // <- DIESE ZEILE HINZUFÜGEN!
+@AutoConfigureObservability(tracing = false)
 class MediaVerwaltungApplicationTests {
     
     @LocalServerPort
@@ -42,6 +94,15 @@ class MediaVerwaltungApplicationTests {
     @Autowired
     private MediaItemRepository repository;
     
+    @Autowired
+    private UrlHashBackfill urlHashBackfill;
+    
+    @Autowired
+    private TombstonePurge tombstonePurge;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
     /**
      * Smoke Test: Prüft, ob Spring Boot Context startet
      */
@@ -189,4 +250,705 @@ class MediaVerwaltungApplicationTests {
         // Cleanup
         service.deleteById(updated.getId());
     }
+    
+    /**
+     * Keyset-Pagination: Alle Seiten zusammen ergeben jedes Item genau einmal
+     */
+    @Test
+    void should_page_through_items_with_cursor() {
+        // Given: 5 Items in eigenem Channel (isoliert von anderen Tests)
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MediaItem item = new MediaItem();
+            item.setUrl("https://page-test.com/" + i);
+            item.setChannel("Paging Channel");
+            item.setMediaType("VIDEO");
+            ids.add(service.save(item).getId());
+        }
+        MediaItemFilter filter = new MediaItemFilter(null, "Paging Channel", null);
+        
+        // When: Seiten à 2 Items absteigend nach id durchblättern
+        List<Long> pagedIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MediaItemPage page = service.findPage(filter, MediaItemSort.ID_DESC, 2, cursor);
+            page.items().forEach(item -> pagedIds.add(item.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+        
+        // Then: 3 Seiten, alle Items in absteigender Reihenfolge
+        assertThat(pages).isEqualTo(3);
+        assertThat(pagedIds).containsExactlyElementsOf(ids.reversed());
+        
+        // When: Nach lastUpdatedAt sortiert (Cursor mit zwei Schlüsseln)
+        List<Long> byUpdated = new ArrayList<>();
+        cursor = null;
+        do {
+            MediaItemPage page = service.findPage(filter, MediaItemSort.LAST_UPDATED_DESC, 2, cursor);
+            page.items().forEach(item -> byUpdated.add(item.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        
+        // Then: Wieder jedes Item genau einmal
+        assertThat(byUpdated).containsExactlyInAnyOrderElementsOf(ids);
+        
+        // Cleanup
+        ids.forEach(service::deleteById);
+    }
+    
+    /**
+     * CSV-Export über den Datenbank-Cursor (inkl. Escaping)
+     */
+    @Test
+    void should_export_items_as_csv() throws Exception {
+        // Given: Item mit Komma und Quote in der Beschreibung
+        MediaItem item = new MediaItem();
+        item.setUrl("https://export-test.com");
+        item.setBeschreibung("Hallo, \"Welt\"");
+        item.setMediaType("VIDEO");
+        MediaItem saved = service.save(item);
+        
+        // When: Export in einen Writer
+        StringWriter writer = new StringWriter();
+        long count = service.exportAllToCSV(writer);
+        
+        // Then: Header + korrekt escapte Zeile
+        String csv = writer.toString();
+        assertThat(count).isEqualTo(service.count());
+        assertThat(csv).startsWith(MediaItemService.CSV_HEADER + "\n");
+        assertThat(csv).contains("https://export-test.com,\"Hallo, \"\"Welt\"\"\",,,false,VIDEO,\n");
+        
+        // Cleanup
+        service.deleteById(saved.getId());
+    }
+    
+    /**
+     * REPLACE-Import aus Stream: Quotes mit Zeilenumbruch, kaputte Zeile
+     */
+    @Test
+    void should_replace_items_from_csv_stream() throws Exception {
+        // Given: Bestehendes Item + CSV im Export-Format
+        MediaItem old = new MediaItem();
+        old.setUrl("https://old-item.com");
+        service.save(old);
+        String csv = MediaItemService.CSV_HEADER + "\n"
+            + "https://a.com,\"Mehrzeilig\nund, mit Komma\",Channel A,00:01:00,true,VIDEO,tag\n"
+            + ",ohne URL,,,,,\n"
+            + "\n"
+            + "https://b.com,Zweites,Channel B,,false,AUDIO,\n"
+            + "HTTPS://B.com,Zweites (doppelt),Channel B,,false,AUDIO,\n";
+        
+        // When: REPLACE-Import
+        ImportResult result = service.importFromCSVReplace(new StringReader(csv));
+        
+        // Then: Nur die neuen Items (doppelte URL: letzte Zeile gewinnt), Fehler mit Zeilennummer
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors().get(0).lineNumber()).isEqualTo(4);
+        assertThat(service.findAll())
+            .extracting(MediaItem::getUrl)
+            .containsExactlyInAnyOrder("https://a.com", "HTTPS://B.com");
+        assertThat(service.findAll())
+            .filteredOn(item -> item.getUrl().equals("https://a.com"))
+            .singleElement()
+            .satisfies(item -> {
+                assertThat(item.getBeschreibung()).isEqualTo("Mehrzeilig\nund, mit Komma");
+                assertThat(item.getGesehen()).isTrue();
+            });
+        
+        // Cleanup
+        service.findAll().forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    /**
+     * POST /api/media/upload: eine Zeile scheitert erst in der Datenbank
+     * (Beschreibung zu lang), die übrigen werden trotzdem übernommen
+     */
+    @Test
+    void should_commit_remaining_rows_when_one_upload_row_fails() {
+        // Given: mittlere Zeile sprengt varchar(1000)
+        String csv = MediaItemService.CSV_HEADER + "\n"
+            + "https://upload-a.com,Eins,,,,,\n"
+            + "https://upload-b.com," + "x".repeat(1001) + ",,,,,\n"
+            + "https://upload-c.com,Drei,,,,,\n";
+        
+        // When: Upload über den Controller
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/media/upload", csv, String.class);
+        
+        // Then: Import erfolgreich, nur die kaputte Zeile fehlt
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(service.findAll())
+            .extracting(MediaItem::getUrl)
+            .containsExactlyInAnyOrder("https://upload-a.com", "https://upload-c.com");
+        
+        // Cleanup
+        service.findAll().forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    /**
+     * REPLACE-Import bricht ab (Quote nicht geschlossen): alter Bestand bleibt
+     */
+    @Test
+    void should_keep_items_when_replace_import_fails() {
+        // Given: Bestehendes Item + CSV mit offenem Quote am Ende
+        MediaItem old = new MediaItem();
+        old.setUrl("https://old-item.com");
+        service.save(old);
+        String csv = MediaItemService.CSV_HEADER + "\n"
+            + "https://a.com,Neu,,,,,\n"
+            + "https://b.com,\"nicht geschlossen,,,,,\n";
+        
+        // When / Then: Import scheitert, media_item unverändert
+        assertThatThrownBy(() -> service.importFromCSVReplace(new StringReader(csv)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.findAll())
+            .extracting(MediaItem::getUrl)
+            .contains("https://old-item.com")
+            .doesNotContain("https://a.com");
+        
+        // Cleanup
+        service.findAll().forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    /**
+     * Volltextsuche (H2: In-Memory-Index) sieht neue, geänderte und gelöschte Items
+     */
+    @Test
+    void should_search_items_after_changes() {
+        // Given: Zwei Items
+        MediaItem spring = new MediaItem();
+        spring.setUrl("https://search-test.com/spring");
+        spring.setBeschreibung("Spring Boot Suchtest");
+        spring = service.save(spring);
+        MediaItem kochen = new MediaItem();
+        kochen.setUrl("https://search-test.com/kochen");
+        kochen.setBeschreibung("Schmoren Suchtest");
+        kochen.setChannel("Spring Kitchen");
+        kochen = service.save(kochen);
+        
+        // When/Then: Präfix + Relevanz (Beschreibung vor Channel)
+        assertThat(service.search("suchtest spr", 0, 10).items())
+            .extracting(MediaItem::getId)
+            .containsExactly(spring.getId(), kochen.getId());
+        
+        // When: Item geändert und gelöscht
+        kochen.setBeschreibung("Backen Suchtest");
+        service.save(kochen);
+        service.deleteById(spring.getId());
+        
+        // Then: Index ist aktuell
+        assertThat(service.search("suchtest", 0, 10).items())
+            .extracting(MediaItem::getBeschreibung)
+            .containsExactly("Backen Suchtest");
+        assertThat(service.search("schmoren", 0, 10).items()).isEmpty();
+        
+        // Cleanup
+        service.deleteById(kochen.getId());
+    }
+    
+    /**
+     * Tag-Abfrage: UND/ODER über media_item_tag, Anzahl pro Tag
+     */
+    @Test
+    void should_query_items_by_tags() {
+        // Given: Drei Items mit Stichwörtern
+        MediaItem a = saveTagged("https://tags-test.com/a", "Java, Spring");
+        MediaItem b = saveTagged("https://tags-test.com/b", "java");
+        MediaItem c = saveTagged("https://tags-test.com/c", "Kochen");
+        
+        // When: UND bzw. ODER
+        TagQueryResult all = service.findByTags(List.of("JAVA", "spring"), TagMatch.ALL, MediaItemSort.ID_ASC, 10, null);
+        TagQueryResult any = service.findByTags(List.of("spring", "kochen", "unbekannt"), TagMatch.ANY, MediaItemSort.ID_ASC, 10, null);
+        
+        // Then: Treffer + Anzahl pro Tag (unbekannter Tag = 0)
+        assertThat(all.page().items()).extracting(MediaItemView::id).containsExactly(a.getId());
+        assertThat(all.tagCounts()).containsExactly(entry("java", 2L), entry("spring", 1L));
+        assertThat(any.page().items()).extracting(MediaItemView::id).containsExactly(a.getId(), c.getId());
+        assertThat(any.tagCounts()).containsEntry("unbekannt", 0L);
+        
+        // When: Stichwort geändert → Tags folgen
+        b.setStichwort("spring");
+        service.save(b);
+        
+        // Then
+        assertThat(service.countTags(100)).containsEntry("java", 1L).containsEntry("spring", 2L);
+        
+        // Cleanup
+        List.of(a, b, c).forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    /**
+     * REPLACE-Import legt Tags an; Export gibt stichwort unverändert zurück
+     */
+    @Test
+    void should_keep_tags_in_csv_round_trip() throws Exception {
+        // Given: CSV mit Stichwörtern (mit Quotes, da Komma)
+        String csv = MediaItemService.CSV_HEADER + "\n"
+            + "https://tags-csv.com/1,Eins,,,false,VIDEO,\"Music, 80s\"\n"
+            + "https://tags-csv.com/2,Zwei,,,false,AUDIO,music\n";
+        
+        // When: Import, dann Export
+        service.importFromCSVReplace(new StringReader(csv));
+        StringWriter exported = new StringWriter();
+        service.exportAllToCSV(exported);
+        
+        // Then: Tags normalisiert, stichwort im Export wie importiert
+        assertThat(service.countTags(100)).containsExactly(entry("music", 2L), entry("80s", 1L));
+        assertThat(exported.toString()).contains("\"Music, 80s\"").contains(",music\n");
+        
+        // When: erneuter REPLACE-Import ohne Tags
+        service.importFromCSVReplace(new StringReader(MediaItemService.CSV_HEADER + "\nhttps://tags-csv.com/3,Drei,,,,,\n"));
+        
+        // Then: alte Zuordnungen weg
+        assertThat(service.countTags(100)).isEmpty();
+        
+        // Cleanup
+        service.findAll().forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    /**
+     * Versionsstand: Löschen eines älteren Items rückt lastModified vor
+     */
+    @Test
+    void should_advance_version_when_deleting_older_item() {
+        // Given: zwei Items, das ältere eine Stunde zurückdatiert
+        MediaItem older = saveTagged("https://version-test.com/alt", null);
+        MediaItem newer = saveTagged("https://version-test.com/neu", null);
+        jdbcTemplate.update("UPDATE media_item SET last_updated_at = ? WHERE id = ?",
+                newer.getLastUpdatedAt().minusHours(1), older.getId());
+        MediaItemVersion before = service.getVersion();
+        
+        // When
+        service.deleteById(older.getId());
+        
+        // Then: Tombstone ist jünger als jedes last_updated_at
+        MediaItemVersion after = service.getVersion();
+        assertThat(after.count()).isEqualTo(before.count() - 1);
+        assertThat(after.lastModified()).isAfterOrEqualTo(newer.getLastUpdatedAt());
+        assertThat(after.lastModified()).isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT deleted_at FROM media_item_tombstone WHERE media_item_id = ?", LocalDateTime.class, older.getId()));
+        
+        // Cleanup
+        service.deleteById(newer.getId());
+    }
+    
+    /**
+     * Query-Cache: Seiten enthalten unveränderliche Views, Aufrufer können den Cache nicht verändern
+     */
+    @Test
+    void should_cache_pages_that_callers_cannot_modify() {
+        // Given: ein Item in eigenem Channel
+        MediaItem item = new MediaItem();
+        item.setUrl("https://page-cache-test.com");
+        item.setBeschreibung("Original");
+        item.setChannel("Page Cache Channel");
+        MediaItem saved = service.save(item);
+        MediaItemFilter filter = new MediaItemFilter(null, "Page Cache Channel", null);
+        MediaItemPage first = service.findPage(filter, MediaItemSort.ID_DESC, 10, null);
+        
+        // When: Aufrufer versucht, Seite bzw. Item zu ändern (ohne zu speichern)
+        assertThatThrownBy(() -> first.items().clear()).isInstanceOf(UnsupportedOperationException.class);
+        saved.setBeschreibung("Lokal geändert");
+        
+        // Then: der nächste Aufruf kommt aus dem Cache, mit dem gespeicherten Stand
+        MediaItemPage second = service.findPage(filter, MediaItemSort.ID_DESC, 10, null);
+        assertThat(second).isSameAs(first);
+        assertThat(second.items()).extracting(MediaItemView::beschreibung).containsExactly("Original");
+        
+        // Cleanup
+        service.deleteById(saved.getId());
+    }
+    
+    /**
+     * Cache: wiederholtes Lesen trifft den Cache, Änderungen verwerfen ihn
+     */
+    @Test
+    void should_cache_reads_and_evict_on_changes() throws Exception {
+        String statsUrl = "http://localhost:" + port + "/api/cache/stats";
+        MediaItem saved = saveTagged("https://cache-test.com", null);
+        long countBefore = service.count();
+        
+        // When: zweimal lesen
+        service.findViewById(saved.getId());
+        service.findViewById(saved.getId());
+        
+        // Then: zweiter Zugriff ist ein Treffer
+        ResponseEntity<Map<String, CacheStatistics>> stats = restTemplate.exchange(statsUrl, HttpMethod.GET, null,
+                new ParameterizedTypeReference<Map<String, CacheStatistics>>() {});
+        assertThat(stats.getBody()).containsKeys(CacheConfig.ITEM_CACHE, CacheConfig.QUERY_CACHE, CacheConfig.STATS_CACHE);
+        assertThat(stats.getBody().get(CacheConfig.ITEM_CACHE).hitCount()).isPositive();
+        
+        // When: Update und neues Item über den Service
+        saved.setBeschreibung("Geändert");
+        service.save(saved);
+        saveTagged("https://cache-test.com/2", null);
+        
+        // Then: kein veralteter Stand
+        assertThat(service.findViewById(saved.getId()).beschreibung()).isEqualTo("Geändert");
+        assertThat(service.count()).isEqualTo(countBefore + 1);
+        
+        // When: Import ersetzt alles
+        service.importFromCSVReplace(MediaItemService.CSV_HEADER + "\nhttps://cache-test.com/3,Drei,,,,,\n");
+        
+        // Then: alte Items auch nicht mehr aus dem Cache
+        assertThatThrownBy(() -> service.findViewById(saved.getId())).isInstanceOf(RuntimeException.class);
+        assertThat(service.count()).isEqualTo(1);
+        
+        // Cleanup
+        service.findAll().forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    /**
+     * Delta-Sync: nur Änderungen seit dem Token, Löschungen als Tombstones,
+     * Reset nach REPLACE-Import
+     */
+    @Test
+    void should_sync_changes_since_token() throws Exception {
+        // Given: Client hat den aktuellen Stand
+        MediaItemChanges initial = service.findChanges(null, MediaItemService.MAX_PAGE_SIZE);
+        while (initial.hasMore()) {
+            initial = service.findChanges(initial.nextToken(), MediaItemService.MAX_PAGE_SIZE);
+        }
+        String token = initial.nextToken();
+        
+        // When: zwei neue Items, eines geändert, eines gelöscht
+        MediaItem kept = saveTagged("https://sync.com/1", null);
+        MediaItem other = saveTagged("https://sync.com/2", null);
+        MediaItem removed = saveTagged("https://sync.com/3", null);
+        kept.setBeschreibung("Geändert");
+        service.save(kept);
+        service.deleteById(removed.getId());
+        
+        // Then: seitenweise nur die Änderungen, Löschung als Tombstone
+        MediaItemChanges first = service.findChanges(token, 1);
+        assertThat(first.reset()).isFalse();
+        assertThat(first.hasMore()).isTrue();
+        assertThat(first.deleted()).containsExactly(removed.getId());
+        MediaItemChanges second = service.findChanges(first.nextToken(), 1);
+        assertThat(second.hasMore()).isFalse();
+        assertThat(second.deleted()).isEmpty();
+        assertThat(List.of(first.items().get(0), second.items().get(0)))
+            .extracting(MediaItem::getId).containsExactly(other.getId(), kept.getId());
+        assertThat(second.items().get(0).getBeschreibung()).isEqualTo("Geändert");
+        assertThat(service.findChanges(second.nextToken(), 1).items()).isEmpty();
+        
+        // When: REPLACE-Import
+        service.importFromCSVReplace(MediaItemService.CSV_HEADER + "\nhttps://sync.com/4,Vier,,,,,\n");
+        
+        // Then: alter Token → Reset, Feed von vorn
+        MediaItemChanges afterReplace = service.findChanges(second.nextToken(), 10);
+        assertThat(afterReplace.reset()).isTrue();
+        assertThat(afterReplace.items()).extracting(MediaItem::getUrl).containsExactly("https://sync.com/4");
+        assertThat(afterReplace.deleted()).isEmpty();
+        
+        // Cleanup
+        service.findAll().forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    /**
+     * Delta-Sync: alte Tombstones werden gelöscht, Tokens davor → Reset
+     */
+    @Test
+    void should_purge_old_tombstones_and_reset_older_tokens() {
+        // Given: Tombstone von vor 40 Tagen, frischer Tombstone, aktueller Token
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(40);
+        jdbcTemplate.update("INSERT INTO media_item_tombstone (media_item_id, deleted_at) VALUES (-10, ?)", longAgo);
+        MediaItem removed = saveTagged("https://purge.com/1", null);
+        service.deleteById(removed.getId());
+        MediaItemChanges current = service.findChanges(null, MediaItemService.MAX_PAGE_SIZE);
+        while (current.hasMore()) {
+            current = service.findChanges(current.nextToken(), MediaItemService.MAX_PAGE_SIZE);
+        }
+        
+        // When: Aufräumen (Aufbewahrung 30 Tage)
+        int purged = tombstonePurge.purge();
+        
+        // Then: nur der alte Tombstone ist weg
+        assertThat(purged).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT media_item_id FROM media_item_tombstone", Long.class))
+            .contains(removed.getId())
+            .doesNotContain(-10L);
+        
+        // Then: Stand von vor 40 Tagen → Reset, aktueller Token nicht
+        assertThat(service.findChanges(longAgo.toString(), 10).reset()).isTrue();
+        assertThat(service.findChanges(current.nextToken(), 10).reset()).isFalse();
+    }
+    
+    /**
+     * Push: Änderung kommt als SSE-Event beim verbundenen Client an
+     */
+    @Test
+    void should_push_changes_via_server_sent_events() throws Exception {
+        // Given: Client verbunden
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/media/events"))
+            .header("Accept", "text/event-stream")
+            .build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        
+        // When: Item anlegen
+        MediaItem saved = saveTagged("https://push-test.com", null);
+        
+        // Then: Event "changes" mit der ID
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> iterator = lines.iterator();
+            String line = iterator.next();
+            while (line.startsWith(":") || line.isEmpty()) {
+                line = iterator.next();
+            }
+            assertThat(line).isEqualTo("event:changes");
+            assertThat(iterator.next()).startsWith("data:").contains("\"saved\":[" + saved.getId() + "]");
+        }
+        
+        // Cleanup
+        service.deleteById(saved.getId());
+    }
+    
+    @Test
+    void should_import_json_as_background_job() throws Exception {
+        // Given: JSON-Array mit einem ungültigen Element (ohne URL)
+        String json = "[{\"url\":\"https://job-test.com/1\",\"channel\":\"JobTest\"},"
+            + "{\"beschreibung\":\"ohne URL\"},"
+            + "{\"url\":\"https://job-test.com/2\",\"channel\":\"JobTest\"}]";
+        HttpClient client = HttpClient.newHttpClient();
+        String jobsUrl = "http://localhost:" + port + "/api/import/jobs";
+        
+        // When: Job starten (APPEND)
+        HttpResponse<String> submitted = client.send(HttpRequest.newBuilder(URI.create(jobsUrl + "?mode=append"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        
+        // Then: 202 + Location, Job läuft bis SUCCEEDED
+        assertThat(submitted.statusCode()).isEqualTo(202);
+        String location = submitted.headers().firstValue("Location").orElseThrow();
+        ImportJobStatus status = null;
+        for (int i = 0; i < 100; i++) {
+            status = restTemplate.getForObject(location, ImportJobStatus.class);
+            if (status.state().isFinished()) break;
+            Thread.sleep(50);
+        }
+        assertThat(status.state()).isEqualTo(ImportJob.State.SUCCEEDED);
+        assertThat(status.read()).isEqualTo(3);
+        assertThat(status.inserted()).isEqualTo(2);
+        assertThat(status.failed()).isEqualTo(1);
+        assertThat(status.errors()).extracting(ImportResult.ImportError::lineNumber).containsExactly(2L);
+        assertThat(repository.findAll()).filteredOn(item -> "JobTest".equals(item.getChannel())).hasSize(2);
+        
+        // Cleanup
+        repository.findAll().stream()
+            .filter(item -> "JobTest".equals(item.getChannel()))
+            .forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    @Test
+    void should_import_gzip_and_zip_files_from_directory() throws Exception {
+        // Given: Verzeichnis mit .csv.gz und .zip (JSON + CSV mit fehlender URL)
+        Path dir = Files.createTempDirectory("import-files");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dir.resolve("a.csv.gz")))) {
+            out.write("url,channel\nhttps://files-test.com/1,FilesTest\n".getBytes(StandardCharsets.UTF_8));
+        }
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(dir.resolve("b.zip")))) {
+            zip.putNextEntry(new ZipEntry("b.json"));
+            zip.write("[{\"url\":\"https://files-test.com/2\",\"channel\":\"FilesTest\"}]".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("c.csv"));
+            zip.write("url,channel\n,FilesTest\nhttps://files-test.com/3,FilesTest\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        
+        // When: APPEND über alle Dateien
+        ImportResult result = service.importFiles(ImportMode.APPEND, ImportFiles.list(dir),
+                UnaryOperator.identity(), progress -> { });
+        
+        // Then
+        assertThat(result.getInserted()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(repository.findAll()).filteredOn(item -> "FilesTest".equals(item.getChannel()))
+            .extracting(MediaItem::getUrl)
+            .containsExactlyInAnyOrder("https://files-test.com/1", "https://files-test.com/2", "https://files-test.com/3");
+        
+        // Cleanup
+        repository.findAll().stream()
+            .filter(item -> "FilesTest".equals(item.getChannel()))
+            .forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    @Test
+    void should_reject_canonical_duplicate_and_backfill_missing_hashes() {
+        // Given: vorhandenes YouTube-Video
+        MediaItem existing = new MediaItem();
+        existing.setUrl("https://youtu.be/dupTest1");
+        existing = service.save(existing);
+        
+        // When: dasselbe Video in anderer Schreibweise anlegen
+        MediaItem duplicate = new MediaItem();
+        duplicate.setUrl("https://www.youtube.com/watch?v=dupTest1&utm_source=feed");
+        ResponseEntity<MediaItem> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/media", duplicate, MediaItem.class);
+        
+        // Then: 409 mit dem vorhandenen Item
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getId()).isEqualTo(existing.getId());
+        
+        // Given: zwei Zeilen ohne Hash (wie nach Migration 008), eine davon Dublette
+        jdbcTemplate.update("INSERT INTO media_item (id, url, gesehen) VALUES (-1, 'https://dup-test.com/neu', false)");
+        jdbcTemplate.update("INSERT INTO media_item (id, url, gesehen) VALUES (-2, 'https://m.youtube.com/watch?v=dupTest1', false)");
+        
+        // When
+        int duplicates = urlHashBackfill.backfill();
+        
+        // Then: neue URL hat ihren Hash, die Dublette bleibt ohne
+        assertThat(duplicates).isEqualTo(1);
+        assertThat(service.findDuplicates(List.of("https://dup-test.com/neu?fbclid=1")))
+            .extracting(UrlDuplicate::existingId)
+            .containsExactly(-1L);
+        assertThat(jdbcTemplate.queryForObject("SELECT url_hash FROM media_item WHERE id = -2", String.class)).isNull();
+        
+        // Cleanup
+        jdbcTemplate.update("DELETE FROM media_item WHERE id < 0");
+        service.deleteById(existing.getId());
+    }
+    
+    @Test
+    void should_create_patch_and_delete_items_in_batch() {
+        // Given: vorhandenes Item, Batch mit neuer, vorhandener, doppelter und fehlender URL
+        MediaItem existing = saveTagged("https://batch-test.com/vorhanden", null);
+        List<MediaItem> items = new ArrayList<>();
+        for (String url : new String[] { "https://batch-test.com/1", "https://BATCH-test.com/vorhanden",
+                "https://batch-test.com/2", "https://batch-test.com/1?utm_source=x", " " }) {
+            MediaItem item = new MediaItem();
+            item.setUrl(url);
+            item.setChannel("BatchTest");
+            items.add(item);
+        }
+        
+        // When: POST /api/media/batch
+        ResponseEntity<Map<Integer, BatchItemResult>> created = restTemplate.exchange(
+                "http://localhost:" + port + "/api/media/batch", HttpMethod.POST,
+                new HttpEntity<>(items), new ParameterizedTypeReference<>() {});
+        
+        // Then: Ergebnis pro Index
+        Map<Integer, BatchItemResult> results = created.getBody();
+        assertThat(results.values()).extracting(BatchItemResult::status).containsExactly(201, 409, 201, 409, 400);
+        assertThat(results.get(1).id()).isEqualTo(existing.getId());
+        List<Long> ids = List.of(results.get(0).id(), results.get(2).id());
+        
+        // When: beide als gesehen markieren + Tag setzen, eine unbekannte ID dazu
+        Map<Long, BatchItemResult> patched = service.patchAll(
+                new MediaItemBatchPatch(List.of(ids.get(0), ids.get(1), -99L), true, null, null, "batchtag"));
+        
+        // Then
+        assertThat(patched.get(-99L).status()).isEqualTo(404);
+        assertThat(repository.findAllById(ids)).allSatisfy(item -> assertThat(item.getGesehen()).isTrue());
+        assertThat(service.findById(ids.get(0)).getGesehen()).isTrue();
+        assertThat(service.countTags(100)).containsEntry("batchtag", 2L);
+        
+        // When: per Filter löschen (nur die beiden Batch-Items haben channel=BatchTest)
+        restTemplate.delete("http://localhost:" + port + "/api/media/batch?channel=BatchTest");
+        
+        // Then: gelöscht, Tag-Zuordnungen weg, Tombstones für /changes angelegt
+        assertThat(repository.findAllById(ids)).isEmpty();
+        assertThat(service.countTags(100)).doesNotContainKey("batchtag");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM media_item_tombstone WHERE media_item_id IN (?, ?)", Long.class, ids.get(0), ids.get(1)))
+            .isEqualTo(2L);
+        assertThat(service.deleteAll(List.of(existing.getId(), ids.get(0))).values())
+            .extracting(BatchItemResult::status).containsExactly(204, 404);
+    }
+    
+    @Test
+    void should_patch_fields_without_touching_others_and_detect_stale_version() {
+        String baseUrl = "http://localhost:" + port + "/api/media/";
+        MediaItem item = saveTagged("https://patch-test.com/video", "alt");
+        item = service.findById(item.getId());
+        long version = item.getVersion();
+        
+        // When: nur gesehen + stichwort per Merge Patch (mit gelesener Version)
+        ResponseEntity<String> patched = mergePatch(baseUrl + item.getId(),
+                "{\"gesehen\":true,\"stichwort\":\"neu\",\"version\":" + version + "}");
+        
+        // Then: andere Felder bleiben, Version +1, Tags neu zugeordnet
+        assertThat(patched.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        MediaItem reloaded = repository.findById(item.getId()).orElseThrow();
+        assertThat(reloaded.getUrl()).isEqualTo("https://patch-test.com/video");
+        assertThat(reloaded.getGesehen()).isTrue();
+        assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+        assertThat(service.countTags(100)).containsEntry("neu", 1L).doesNotContainKey("alt");
+        
+        // When: zweiter Editor mit der alten Version (PATCH und PUT)
+        ResponseEntity<String> stalePatch = mergePatch(baseUrl + item.getId(),
+                "{\"beschreibung\":\"Überschrieben\",\"version\":" + version + "}");
+        item.setBeschreibung("Überschrieben");
+        ResponseEntity<MediaItem> stalePut = restTemplate.exchange(baseUrl + item.getId(), HttpMethod.PUT,
+                new HttpEntity<>(item), MediaItem.class);
+        
+        // Then: beide abgelehnt, nichts überschrieben
+        assertThat(stalePatch.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(stalePut.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(repository.findById(item.getId()).orElseThrow().getBeschreibung()).isNull();
+        
+        // Cleanup
+        service.deleteById(item.getId());
+    }
+    
+    /**
+     * Prometheus-Endpoint: HTTP-Timer, Pool, Caches, Hibernate, Import/Export
+     */
+    @Test
+    void should_expose_metrics_for_prometheus() throws Exception {
+        // Given: ein Request, ein Import, ein Export
+        String baseUrl = "http://localhost:" + port;
+        restTemplate.getForEntity(baseUrl + "/api/media/count", String.class);
+        service.importData(ImportFormat.CSV, ImportMode.MERGE, new ByteArrayInputStream(
+                "url,channel\nhttps://metrics-test.com,MetricsTest\n".getBytes(StandardCharsets.UTF_8)), progress -> { });
+        restTemplate.getForEntity(baseUrl + "/api/media/download", String.class);
+        
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/actuator/prometheus", String.class);
+        
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+            .contains("http_server_requests_seconds_bucket{")
+            .contains("uri=\"/api/media/count\"")
+            .contains("hikaricp_connections_active")
+            .contains("cache_gets_total{")
+            .contains("hibernate_")
+            .contains("mediaverwaltung_import_rows_total{")
+            .contains("mediaverwaltung_export_rows_total")
+            .contains("mediaverwaltung_push_subscribers");
+        
+        // Cleanup
+        repository.findAll().stream()
+            .filter(item -> "MetricsTest".equals(item.getChannel()))
+            .forEach(item -> service.deleteById(item.getId()));
+    }
+    
+    /**
+     * PATCH mit application/merge-patch+json (über java.net.http, da der
+     * Standard-Client von TestRestTemplate kein PATCH kann)
+     */
+    private static ResponseEntity<String> mergePatch(String url, String json) {
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(url))
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(json))
+                    .header("Content-Type", "application/merge-patch+json")
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            return ResponseEntity.status(response.statusCode()).body(response.body());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private MediaItem saveTagged(String url, String stichwort) {
+        MediaItem item = new MediaItem();
+        item.setUrl(url);
+        item.setStichwort(stichwort);
+        return service.save(item);
+    }
 }
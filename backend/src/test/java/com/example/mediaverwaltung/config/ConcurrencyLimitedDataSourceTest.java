@@ -0,0 +1,77 @@
+package com.example.mediaverwaltung.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests für ConcurrencyLimitedDataSource (Permits, Timeout, close)
+ */
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void should_time_out_when_all_permits_are_taken() throws Exception {
+        // Given: 1 Verbindung erlaubt, bereits ausgeliehen
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource dataSource = limited(1);
+        Connection first = dataSource.getConnection();
+
+        // Then: zweite Anfrage wartet und scheitert
+        assertThat(dataSource.getActiveCount()).isEqualTo(1);
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class);
+
+        // When: erste Verbindung zurückgegeben
+        first.close();
+
+        // Then: wieder frei
+        verify(connection).close();
+        assertThat(dataSource.getActiveCount()).isZero();
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void should_release_permit_only_once_on_double_close() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource dataSource = limited(2);
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertThat(dataSource.getActiveCount()).isEqualTo(1);
+    }
+
+    @Test
+    void should_release_permit_when_target_fails() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+        ConcurrencyLimitedDataSource dataSource = limited(1);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("down");
+
+        assertThat(dataSource.getActiveCount()).isZero();
+    }
+
+    private ConcurrencyLimitedDataSource limited(int maxConcurrency) {
+        return new ConcurrencyLimitedDataSource(target, maxConcurrency, Duration.ofMillis(50));
+    }
+}
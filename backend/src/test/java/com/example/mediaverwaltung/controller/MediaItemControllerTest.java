@@ -1,19 +1,54 @@
 package com.example.mediaverwaltung.controller;
 
+import com.example.mediaverwaltung.dto.BatchItemResult;
+import com.example.mediaverwaltung.dto.DurationStats;
+import com.example.mediaverwaltung.dto.MediaItemBatchPatch;
+import com.example.mediaverwaltung.dto.MediaItemFilter;
+import com.example.mediaverwaltung.dto.MediaItemPage;
+import com.example.mediaverwaltung.dto.MediaItemSort;
+import com.example.mediaverwaltung.dto.MediaItemVersion;
+import com.example.mediaverwaltung.dto.MediaItemView;
+import com.example.mediaverwaltung.dto.MediaSearchResult;
+import com.example.mediaverwaltung.dto.MediaStats;
+import com.example.mediaverwaltung.dto.TagMatch;
+import com.example.mediaverwaltung.dto.TagQueryResult;
+import com.example.mediaverwaltung.dto.UrlDuplicate;
 import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.service.ImportExportMetrics;
 import com.example.mediaverwaltung.service.MediaItemService;
+import com.example.mediaverwaltung.service.push.ChangeStream;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,6 +62,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(MediaItemController.class)
 class MediaItemControllerTest {
     
+    private static final MediaItemVersion VERSION = new MediaItemVersion(2, LocalDateTime.of(2025, 10, 10, 12, 0, 0));
+    
     @Autowired
     private MockMvc mockMvc;
     
@@ -36,6 +73,17 @@ class MediaItemControllerTest {
     @MockBean
     private MediaItemService service;
     
+    @MockBean
+    private ChangeStream changeStream;
+    
+    @MockBean
+    private ImportExportMetrics metrics;
+    
+    @BeforeEach
+    void setUp() {
+        when(service.getVersion()).thenReturn(VERSION);
+    }
+    
     @Test
     void should_get_all_media_items() throws Exception {
         // Given: Service gibt 2 Items zurück
@@ -54,11 +102,93 @@ class MediaItemControllerTest {
         verify(service, times(1)).findAll();
     }
     
+    @Test
+    void should_get_page_of_media_items() throws Exception {
+        // Given: Service gibt eine Seite mit Cursor zurück
+        MediaItem item1 = createTestItem(1L, "https://test1.com");
+        MediaItem item2 = createTestItem(2L, "https://test2.com");
+        MediaItemFilter filter = new MediaItemFilter("VIDEO", null, false);
+        when(service.findPage(eq(filter), eq(MediaItemSort.ID_DESC), eq(2), eq(null)))
+            .thenReturn(new MediaItemPage(Arrays.asList(MediaItemView.of(item1), MediaItemView.of(item2)), 2, true, "abc"));
+        
+        // When/Then: GET /api/media/page
+        mockMvc.perform(get("/api/media/page")
+                .param("size", "2")
+                .param("sort", "id,desc")
+                .param("mediaType", "VIDEO")
+                .param("gesehen", "false"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(2)))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.nextCursor").value("abc"));
+    }
+    
+    @Test
+    void should_return_400_for_unsupported_sort() throws Exception {
+        // When/Then: Sortierung nach nicht indizierter Spalte → 400
+        mockMvc.perform(get("/api/media/page").param("sort", "beschreibung,asc"))
+            .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(service);
+    }
+    
+    @Test
+    void should_search_media_items() throws Exception {
+        // Given: Service liefert eine Seite Treffer
+        MediaItem item = createTestItem(1L, "https://test1.com");
+        when(service.search("spring boot", 0, 20))
+            .thenReturn(new MediaSearchResult(List.of(item), 0, 20, false));
+        
+        // When/Then: GET /api/media/search
+        mockMvc.perform(get("/api/media/search").param("q", "spring boot"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(1)))
+            .andExpect(jsonPath("$.items[0].id").value(1))
+            .andExpect(jsonPath("$.hasNext").value(false));
+    }
+    
+    @Test
+    void should_return_400_for_empty_search() throws Exception {
+        // Given: Eingabe ohne Suchbegriff
+        when(service.search(any(), anyInt(), anyInt())).thenThrow(new IllegalArgumentException("Suchbegriff fehlt"));
+        
+        // When/Then
+        mockMvc.perform(get("/api/media/search").param("q", "--"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void should_query_items_by_tags() throws Exception {
+        // Given: Service liefert Treffer + Anzahl pro Tag
+        MediaItem item = createTestItem(1L, "https://test1.com");
+        when(service.findByTags(List.of("java", "spring"), TagMatch.ANY, MediaItemSort.ID_ASC, 50, null))
+            .thenReturn(new TagQueryResult(new MediaItemPage(List.of(MediaItemView.of(item)), 50, false, null),
+                Map.of("java", 3L, "spring", 1L)));
+        
+        // When/Then: GET /api/media/tags/query (ODER)
+        mockMvc.perform(get("/api/media/tags/query")
+                .param("tags", "java,spring")
+                .param("match", "any"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.page.items", hasSize(1)))
+            .andExpect(jsonPath("$.tagCounts.java").value(3))
+            .andExpect(jsonPath("$.tagCounts.spring").value(1));
+    }
+    
+    @Test
+    void should_return_400_for_unknown_tag_match() throws Exception {
+        // When/Then: weder all noch any → 400
+        mockMvc.perform(get("/api/media/tags/query").param("tags", "java").param("match", "xor"))
+            .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(service);
+    }
+    
     @Test
     void should_get_media_item_by_id() throws Exception {
         // Given: Item mit ID 1 existiert
         MediaItem item = createTestItem(1L, "https://test.com");
-        when(service.findById(1L)).thenReturn(item);
+        when(service.findViewById(1L)).thenReturn(MediaItemView.of(item));
         
         // When/Then: GET /api/media/1
         mockMvc.perform(get("/api/media/1"))
@@ -67,13 +197,13 @@ class MediaItemControllerTest {
             .andExpect(jsonPath("$.url").value("https://test.com"))
             .andExpect(jsonPath("$.beschreibung").value("Test Item"));
         
-        verify(service, times(1)).findById(1L);
+        verify(service, times(1)).findViewById(1L);
     }
     
     @Test
     void should_return_404_when_item_not_found() throws Exception {
         // Given: Item mit ID 999 existiert NICHT
-        when(service.findById(999L)).thenThrow(new RuntimeException("Not found"));
+        when(service.findViewById(999L)).thenThrow(new RuntimeException("Not found"));
         
         // When/Then: GET /api/media/999 → 404
         mockMvc.perform(get("/api/media/999"))
@@ -98,14 +228,67 @@ class MediaItemControllerTest {
         verify(service, times(1)).save(any(MediaItem.class));
     }
     
+    @Test
+    void should_return_409_for_existing_url() throws Exception {
+        // Given: URL gibt es schon (Unique-Constraint auf url_hash)
+        when(service.save(any(MediaItem.class))).thenThrow(new DataIntegrityViolationException("uk_media_item_url_hash"));
+        when(service.findByUrl("https://new.com")).thenReturn(Optional.of(createTestItem(3L, "https://new.com")));
+        
+        // When/Then: POST /api/media → 409 mit dem vorhandenen Item
+        mockMvc.perform(post("/api/media")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createTestItem(null, "https://new.com"))))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.id").value(3));
+    }
+    
+    @Test
+    void should_check_urls_for_duplicates() throws Exception {
+        // Given: erste URL gibt es schon (ID 7)
+        when(service.findDuplicates(List.of("https://youtu.be/abc", "https://neu.com"))).thenReturn(List.of(
+            new UrlDuplicate("https://youtu.be/abc", "https://youtube.com/watch?v=abc", 7L),
+            new UrlDuplicate("https://neu.com", "https://neu.com/", null)));
+        
+        // When/Then: GET /api/media/duplicates?url=...&url=...
+        mockMvc.perform(get("/api/media/duplicates")
+                .param("url", "https://youtu.be/abc", "https://neu.com"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].canonicalUrl").value("https://youtube.com/watch?v=abc"))
+            .andExpect(jsonPath("$[0].existingId").value(7))
+            .andExpect(jsonPath("$[1].existingId").doesNotExist());
+    }
+    
+    @Test
+    void should_patch_items_in_batch_and_reject_ids_with_filter() throws Exception {
+        // Given: ID 1 vorhanden, ID 99 nicht
+        MediaItemBatchPatch patch = new MediaItemBatchPatch(List.of(1L, 99L), true, null, null, null);
+        Map<Long, BatchItemResult> results = new LinkedHashMap<>();
+        results.put(1L, BatchItemResult.updated(1L));
+        results.put(99L, BatchItemResult.notFound(99L));
+        when(service.patchAll(patch)).thenReturn(results);
+        
+        // When/Then: PATCH /api/media/batch → Ergebnis pro ID
+        mockMvc.perform(patch("/api/media/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,99],\"gesehen\":true}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$['1'].status").value(200))
+            .andExpect(jsonPath("$['99'].status").value(404));
+        
+        // When/Then: IDs und Filter zugleich → 400, nichts gelöscht
+        mockMvc.perform(delete("/api/media/batch").param("ids", "1,2").param("gesehen", "true"))
+            .andExpect(status().isBadRequest());
+        verify(service, never()).deleteAll(any());
+        verify(service, never()).deleteMatching(any());
+    }
+    
     @Test
     void should_update_media_item() throws Exception {
         // Given: Item mit ID 1 wird geupdatet
         MediaItem updated = createTestItem(1L, "https://updated.com");
         updated.setBeschreibung("Updated!");
         
-        when(service.findById(1L)).thenReturn(updated);
-        when(service.save(any(MediaItem.class))).thenReturn(updated);
+        when(service.update(eq(1L), any(MediaItem.class))).thenReturn(updated);
         
         // When/Then: PUT /api/media/1
         mockMvc.perform(put("/api/media/1")
@@ -115,8 +298,32 @@ class MediaItemControllerTest {
             .andExpect(jsonPath("$.id").value(1))
             .andExpect(jsonPath("$.beschreibung").value("Updated!"));
         
-        verify(service, times(1)).findById(1L);
-        verify(service, times(1)).save(any(MediaItem.class));
+        // Kein zusätzliches findById vor dem Schreiben
+        verify(service, never()).findById(1L);
+        verify(service, times(1)).update(eq(1L), any(MediaItem.class));
+    }
+    
+    @Test
+    void should_patch_single_fields_and_report_stale_version() throws Exception {
+        // When/Then: PATCH mit Merge Patch → 204, nur die gesendeten Felder an den Service
+        mockMvc.perform(patch("/api/media/1")
+                .contentType("application/merge-patch+json")
+                .content("{\"gesehen\":true,\"channel\":null}"))
+            .andExpect(status().isNoContent());
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("gesehen", true);
+        expected.put("channel", null);
+        verify(service).patch(1L, expected);
+        
+        // Given: Version veraltet
+        doThrow(new ObjectOptimisticLockingFailureException(MediaItem.class, 2L))
+            .when(service).patch(eq(2L), any());
+        
+        // When/Then: 409
+        mockMvc.perform(patch("/api/media/2")
+                .contentType("application/merge-patch+json")
+                .content("{\"beschreibung\":\"Neu\",\"version\":3}"))
+            .andExpect(status().isConflict());
     }
     
     @Test
@@ -131,21 +338,227 @@ class MediaItemControllerTest {
         verify(service, times(1)).deleteById(1L);
     }
     
+    @Test
+    void should_return_404_when_deleting_unknown_item() throws Exception {
+        // Given: Item mit ID 999 existiert NICHT
+        doThrow(new RuntimeException("MediaItem nicht gefunden: 999")).when(service).deleteById(999L);
+        
+        // When/Then: DELETE /api/media/999 → 404
+        mockMvc.perform(delete("/api/media/999"))
+            .andExpect(status().isNotFound());
+    }
+    
     @Test
     void should_get_item_count() throws Exception {
-        // Given: Service gibt 5 Items zurück
-        when(service.findAll()).thenReturn(Arrays.asList(
-            createTestItem(1L, "url1"),
-            createTestItem(2L, "url2"),
-            createTestItem(3L, "url3"),
-            createTestItem(4L, "url4"),
-            createTestItem(5L, "url5")
-        ));
+        // Given: 5 Items in der DB (COUNT-Abfrage statt findAll)
+        when(service.count()).thenReturn(5L);
         
         // When/Then: GET /api/media/count
         mockMvc.perform(get("/api/media/count"))
             .andExpect(status().isOk())
             .andExpect(content().string("5"));
+        
+        verify(service, never()).findAll();
+    }
+    
+    @Test
+    void should_get_stats() throws Exception {
+        // Given: Service liefert aggregierte Statistiken
+        MediaStats stats = new MediaStats(5, 2, 3, 2,
+            Map.of("VIDEO", 4L, "AUDIO", 1L),
+            Map.of("Test Channel", 3L),
+            600,
+            300.0);
+        when(service.getStats()).thenReturn(stats);
+        
+        // When/Then: GET /api/media/stats
+        mockMvc.perform(get("/api/media/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(5))
+            .andExpect(jsonPath("$.gesehen").value(2))
+            .andExpect(jsonPath("$.distinctChannels").value(2))
+            .andExpect(jsonPath("$.byMediaType.VIDEO").value(4))
+            .andExpect(jsonPath("$.totalDurationSeconds").value(600))
+            .andExpect(jsonPath("$.avgDurationSeconds").value(300.0));
+        
+        verify(service, never()).findAll();
+    }
+    
+    @Test
+    void should_get_duration_stats_for_filter() throws Exception {
+        // Given: Filter ungesehen, 5 bis 60 Minuten
+        MediaItemFilter filter = new MediaItemFilter(null, null, false).withDauer(300, 3600);
+        when(service.getDurationStats(filter)).thenReturn(new DurationStats(2, 4200, 2100.0, 600, 3600));
+        
+        // When/Then: Dauer als MM:SS und HH:MM:SS
+        mockMvc.perform(get("/api/media/duration")
+                .param("gesehen", "false")
+                .param("dauerMin", "05:00")
+                .param("dauerMax", "1:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(2))
+            .andExpect(jsonPath("$.totalSeconds").value(4200))
+            .andExpect(jsonPath("$.maxSeconds").value(3600));
+    }
+    
+    @Test
+    void should_return_400_for_invalid_duration_filter() throws Exception {
+        mockMvc.perform(get("/api/media/page").param("dauerMin", "lang"))
+            .andExpect(status().isBadRequest());
+        
+        verify(service, never()).findPage(any(), any(), anyInt(), any());
+    }
+    
+    @Test
+    void should_return_304_for_unchanged_list() throws Exception {
+        // Given: erster Abruf liefert den ETag des Bestands
+        when(service.findAll()).thenReturn(List.of(createTestItem(1L, "https://test1.com")));
+        String eTag = mockMvc.perform(get("/api/media"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("Last-Modified"))
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(eTag).startsWith("W/");
+        
+        // When/Then: gleicher Stand → 304 ohne Items zu laden
+        mockMvc.perform(get("/api/media").header("If-None-Match", eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        mockMvc.perform(get("/api/media/stats").header("If-None-Match", eTag))
+            .andExpect(status().isNotModified());
+        verify(service, times(1)).findAll();
+        verify(service, never()).getStats();
+        
+        // When/Then: neuer Stand → 200
+        when(service.getVersion()).thenReturn(new MediaItemVersion(3, VERSION.lastModified()));
+        mockMvc.perform(get("/api/media").header("If-None-Match", eTag))
+            .andExpect(status().isOk());
+    }
+    
+    @Test
+    void should_return_200_for_if_modified_since_after_deleting_older_item() throws Exception {
+        // Given: Client kennt den Stand mit Last-Modified
+        when(service.findAll()).thenReturn(List.of(createTestItem(1L, "https://test1.com")));
+        String lastModified = mockMvc.perform(get("/api/media"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("Last-Modified");
+        mockMvc.perform(get("/api/media").header("If-Modified-Since", lastModified))
+            .andExpect(status().isNotModified());
+        
+        // When: ein älteres Item wird gelöscht (max(last_updated_at) bleibt, Tombstone ist jünger)
+        when(service.getVersion()).thenReturn(VERSION.changedAt(VERSION.lastModified().plusMinutes(5)));
+        
+        // Then: If-Modified-Since allein → 200 mit neuem Last-Modified
+        String newLastModified = mockMvc.perform(get("/api/media").header("If-Modified-Since", lastModified))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("Last-Modified");
+        assertThat(newLastModified).isNotEqualTo(lastModified);
+    }
+    
+    @Test
+    void should_return_304_for_unchanged_item() throws Exception {
+        // Given: Item mit Änderungszeitpunkt
+        MediaItem item = createTestItem(1L, "https://test1.com");
+        item.setLastUpdatedAt(VERSION.lastModified());
+        when(service.findViewById(1L)).thenReturn(MediaItemView.of(item));
+        String eTag = mockMvc.perform(get("/api/media/1"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(eTag).startsWith("\"1-");
+        
+        // When/Then: If-None-Match und If-Modified-Since
+        mockMvc.perform(get("/api/media/1").header("If-None-Match", eTag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/media/1").header("If-Modified-Since", "Sat, 01 Jan 2050 00:00:00 GMT"))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/media/1").header("If-Modified-Since", "Sat, 01 Jan 2000 00:00:00 GMT"))
+            .andExpect(status().isOk());
+    }
+    
+    @Test
+    void should_return_503_when_too_many_event_subscribers() throws Exception {
+        when(changeStream.subscribe()).thenThrow(new IllegalStateException("Zu viele Push-Verbindungen"));
+        
+        mockMvc.perform(get("/api/media/events"))
+            .andExpect(status().isServiceUnavailable());
+    }
+    
+    @Test
+    void should_stream_csv_download() throws Exception {
+        // Given: Service schreibt CSV in den übergebenen Writer
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(0);
+            writer.write("url,beschreibung\nhttps://test.com,Test\n");
+            writer.flush();
+            return 1L;
+        }).when(service).exportAllToCSV(any(Writer.class));
+        
+        // When: GET /api/media/download (asynchron gestreamt)
+        MvcResult result = mockMvc.perform(get("/api/media/download"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        // Then: CSV im Body
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "text/csv; charset=UTF-8"))
+            .andExpect(content().string(containsString("https://test.com,Test")));
+    }
+    
+    @Test
+    void should_stream_gzipped_csv_download() throws Exception {
+        // Given: Service schreibt CSV in den übergebenen Writer
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(0);
+            writer.write("url\nhttps://test.com\n");
+            writer.flush();
+            return 1L;
+        }).when(service).exportAllToCSV(any(Writer.class));
+        
+        // When: GET /api/media/download?gzip=true
+        MvcResult result = mockMvc.perform(get("/api/media/download").param("gzip", "true"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "application/gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+        
+        // Then: Body ist gültiges GZIP mit der CSV
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).contains("https://test.com");
+        }
+    }
+    
+    @Test
+    void should_stream_csv_upload_without_buffering_string() throws Exception {
+        // Given: Service importiert aus Reader
+        ImportResult result = new ImportResult();
+        result.recordInserted(2);
+        when(service.importFromCSVReplace(any(Reader.class))).thenReturn(result);
+        
+        // When/Then: POST /api/media/upload/stream (Raw CSV)
+        mockMvc.perform(post("/api/media/upload/stream")
+                .contentType("text/csv")
+                .content("url\nhttps://a.com\nhttps://b.com\n"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("2 Items importiert")));
+        
+        verify(service, never()).importFromCSVReplace(any(String.class));
+    }
+    
+    @Test
+    void should_stream_multipart_csv_upload() throws Exception {
+        // Given: Service importiert aus Reader
+        ImportResult result = new ImportResult();
+        result.recordInserted(1);
+        when(service.importFromCSVReplace(any(Reader.class))).thenReturn(result);
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "items.csv", "text/csv", "url\nhttps://a.com\n".getBytes(StandardCharsets.UTF_8));
+        
+        // When/Then: POST /api/media/upload/stream (Multipart)
+        mockMvc.perform(multipart("/api/media/upload/stream").file(file))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("1 Items importiert")));
     }
     
     // Helper Method
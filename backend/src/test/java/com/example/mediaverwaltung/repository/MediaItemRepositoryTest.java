@@ -1,16 +1,20 @@
 package com.example.mediaverwaltung.repository;
 
+import com.example.mediaverwaltung.dto.DurationStats;
+import com.example.mediaverwaltung.dto.MediaItemFilter;
 import com.example.mediaverwaltung.model.MediaItem;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 /**
  * Repository Tests für MediaItem
@@ -101,6 +105,81 @@ class MediaItemRepositoryTest {
         assertThat(found).isEmpty();
     }
     
+    @Test
+    void should_aggregate_stats_in_database() {
+        // Given: 3 Items, 2 Channels, 1 gesehen
+        MediaItem video = createTestItem("https://test1.com", "VIDEO");
+        video.setGesehen(true);
+        video.setDauer("00:10:00");
+        repository.save(video);
+        MediaItem audio = createTestItem("https://test2.com", "AUDIO");
+        audio.setDauer("05:00");
+        repository.save(audio);
+        MediaItem text = createTestItem("https://test3.com", "VIDEO");
+        text.setChannel("Other Channel");
+        repository.save(text);
+        
+        // When: Aggregate abfragen
+        MediaItemTotals totals = repository.aggregateTotals();
+        List<GroupCount> byType = repository.countByMediaType();
+        List<GroupCount> byChannel = repository.countByChannel(Limit.of(1));
+        
+        // Then: Zahlen stimmen
+        assertThat(totals.getTotal()).isEqualTo(3);
+        assertThat(totals.getGesehen()).isEqualTo(1);
+        assertThat(totals.getDistinctChannels()).isEqualTo(2);
+        assertThat(byType).extracting(GroupCount::getGroupKey, GroupCount::getItemCount)
+            .containsExactlyInAnyOrder(
+                tuple("VIDEO", 2L),
+                tuple("AUDIO", 1L));
+        assertThat(byChannel).hasSize(1);
+        assertThat(byChannel.get(0).getGroupKey()).isEqualTo("Test Channel");
+        assertThat(totals.getTotalDurationSeconds()).isEqualTo(900);
+        assertThat(totals.getAvgDurationSeconds()).isEqualTo(450.0);
+    }
+    
+    @Test
+    void should_filter_and_aggregate_by_duration() {
+        // Given: 3 Items mit 3:00, 10:00 und 1:00:00, eines ohne Dauer
+        for (String dauer : new String[] {"03:00", "00:10:00", "1:00:00", null}) {
+            MediaItem item = createTestItem("https://dauer.com/" + dauer, "VIDEO");
+            item.setDauer(dauer);
+            repository.save(item);
+        }
+        
+        // When: Bereich 5 bis 60 Minuten
+        MediaItemFilter filter = MediaItemFilter.none().withDauer(300, 3600);
+        List<MediaItem> inRange = repository.findAll(MediaItemSpecifications.matching(filter));
+        DurationStats stats = repository.aggregateDuration(MediaItemSpecifications.matching(filter));
+        DurationStats all = repository.aggregateDuration(MediaItemSpecifications.matching(MediaItemFilter.none()));
+        
+        // Then: Grenzen inklusive, Items ohne Dauer zählen nie mit
+        assertThat(inRange).extracting(MediaItem::getDurationSeconds).containsExactlyInAnyOrder(600, 3600);
+        assertThat(stats.count()).isEqualTo(2);
+        assertThat(stats.totalSeconds()).isEqualTo(4200);
+        assertThat(stats.avgSeconds()).isEqualTo(2100.0);
+        assertThat(stats.minSeconds()).isEqualTo(600);
+        assertThat(stats.maxSeconds()).isEqualTo(3600);
+        assertThat(all.count()).isEqualTo(3);
+        assertThat(all.totalSeconds()).isEqualTo(4380);
+    }
+    
+    @Test
+    void should_update_duration_seconds_when_dauer_changes() {
+        // Given: Item mit 05:00
+        MediaItem item = createTestItem("https://dauer-update.com", "AUDIO");
+        item.setDauer("05:00");
+        MediaItem saved = repository.saveAndFlush(item);
+        assertThat(saved.getDurationSeconds()).isEqualTo(300);
+        
+        // When: Dauer geändert
+        saved.setDauer("01:30");
+        MediaItem updated = repository.saveAndFlush(saved);
+        
+        // Then: Sekunden nachgezogen
+        assertThat(updated.getDurationSeconds()).isEqualTo(90);
+    }
+    
     // Helper Method
     private MediaItem createTestItem(String url, String mediaType) {
         MediaItem item = new MediaItem();
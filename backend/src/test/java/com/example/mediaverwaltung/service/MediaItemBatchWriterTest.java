@@ -0,0 +1,200 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.model.Tag;
+import com.example.mediaverwaltung.repository.GroupCount;
+import com.example.mediaverwaltung.repository.MediaItemRepository;
+import com.example.mediaverwaltung.repository.TagRepository;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests für MediaItemBatchWriter (Chunks, Commits, Fehler pro Zeile)
+ * 
+ * NOT_SUPPORTED = Test läuft ohne eigene Transaktion,
+ * damit der Writer jeden Chunk selbst committet (wie beim echten Import).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ MediaItemBatchWriter.class, TagResolver.class })
+@TestPropertySource(properties = "mediaverwaltung.import.batch-size=3")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MediaItemBatchWriterTest {
+    
+    @Autowired
+    private MediaItemBatchWriter batchWriter;
+    
+    @Autowired
+    private MediaItemRepository repository;
+    
+    @Autowired
+    private TagRepository tagRepository;
+    
+    @Autowired
+    private TagResolver tagResolver;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll(); // einzeln: löscht auch die Tag-Zuordnungen
+        tagRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void should_insert_all_items_in_chunks() {
+        // Given: 7 Items bei Chunk-Größe 3 (→ 3 Chunks)
+        MediaItemBatchWriter.Session batch = batchWriter.open();
+        for (int i = 1; i <= 7; i++) {
+            batch.add(createTestItem("https://batch.com/" + i), i);
+        }
+        
+        // When: Abschließen
+        ImportResult result = batch.finish();
+        
+        // Then: Alle 7 gespeichert
+        assertThat(result.getRead()).isEqualTo(7);
+        assertThat(result.getInserted()).isEqualTo(7);
+        assertThat(result.getFailed()).isZero();
+        assertThat(repository.count()).isEqualTo(7);
+    }
+    
+    @Test
+    void should_skip_only_failing_rows_and_report_line_numbers() {
+        // Given: Zeile 3 ohne URL, Zeile 5 mit zu langer URL (DB-Fehler im Chunk)
+        MediaItemBatchWriter.Session batch = batchWriter.open();
+        batch.add(createTestItem("https://batch.com/1"), 1);
+        batch.add(createTestItem("https://batch.com/2"), 2);
+        batch.add(createTestItem(null), 3);
+        batch.add(createTestItem("https://batch.com/4"), 4);
+        batch.add(createTestItem("https://batch.com/" + "x".repeat(1100)), 5);
+        batch.add(createTestItem("https://batch.com/6"), 6);
+        
+        // When: Abschließen
+        ImportResult result = batch.finish();
+        
+        // Then: Nur die kaputten Zeilen fehlen, Rest des Chunks ist gespeichert
+        assertThat(result.getInserted()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors())
+            .extracting(ImportResult.ImportError::lineNumber)
+            .containsExactly(3L, 5L);
+        assertThat(repository.count()).isEqualTo(4);
+    }
+    
+    @Test
+    void should_reject_existing_and_repeated_urls_before_writing() {
+        // Given: URL aus einem früheren Import, dazu dieselbe URL zweimal im neuen Chunk
+        MediaItemBatchWriter.Session first = batchWriter.open();
+        first.add(createTestItem("https://youtu.be/abc"), 1);
+        first.finish();
+        MediaItemBatchWriter.Session batch = batchWriter.open();
+        batch.add(createTestItem("https://www.youtube.com/watch?v=abc&t=5"), 1);
+        batch.add(createTestItem("https://batch.com/neu?utm_source=x"), 2);
+        batch.add(createTestItem("https://batch.com/neu"), 3);
+        
+        // When: Abschließen
+        ImportResult result = batch.finish();
+        
+        // Then: Nur die neue URL ist gespeichert, Dubletten mit Grund gemeldet
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getErrors())
+            .extracting(ImportResult.ImportError::lineNumber, ImportResult.ImportError::message)
+            .containsExactly(
+                tuple(1L, "URL existiert bereits (ID " + repository.findAll().get(0).getId() + ")"),
+                tuple(3L, "URL doppelt (wie Zeile 2)"));
+        assertThat(repository.count()).isEqualTo(2);
+    }
+    
+    @Test
+    void should_resolve_tags_across_chunks() {
+        // Given: 4 Items (2 Chunks), Tags in verschiedener Schreibweise
+        String[] stichwoerter = { "Java, Spring", "java", "spring,boot", null };
+        MediaItemBatchWriter.Session batch = batchWriter.open();
+        for (int i = 0; i < stichwoerter.length; i++) {
+            MediaItem item = createTestItem("https://batch.com/tag/" + i);
+            item.setStichwort(stichwoerter[i]);
+            batch.add(item, i + 1);
+        }
+        
+        // When: Abschließen
+        batch.finish();
+        
+        // Then: Jeder Tag genau einmal angelegt, Zuordnungen gezählt
+        assertThat(tagRepository.findAll())
+            .extracting(Tag::getName)
+            .containsExactlyInAnyOrder("java", "spring", "boot");
+        assertThat(repository.countByTagNames(List.of("java", "spring", "boot")))
+            .extracting(GroupCount::getGroupKey, GroupCount::getItemCount)
+            .containsExactlyInAnyOrder(tuple("java", 2L), tuple("spring", 2L), tuple("boot", 1L));
+    }
+    
+    @Test
+    void should_reuse_tag_created_by_concurrent_transaction() throws Exception {
+        // Given: Transaktion A hat den neuen Tag angelegt, aber noch nicht committet
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch created = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> first = executor.submit(() -> tx.executeWithoutResult(status -> {
+            tagResolver.resolveTags("parallel");
+            created.countDown();
+            await(commit);
+        }));
+        assertThat(created.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        // When: Transaktion B legt denselben Tag an (wartet auf A), A committet währenddessen
+        Future<Collection<Tag>> second = executor.submit(() -> tx.execute(status -> tagResolver.resolveTags("parallel")));
+        Thread.sleep(200);
+        commit.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        
+        // Then: B scheitert nicht an uk_tag_name, sondern nimmt den Tag von A
+        assertThat(second.get(5, TimeUnit.SECONDS))
+            .extracting(Tag::getName)
+            .containsExactly("parallel");
+        assertThat(tagRepository.findAll()).hasSize(1);
+        executor.shutdown();
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Helper Method
+    private MediaItem createTestItem(String url) {
+        MediaItem item = new MediaItem();
+        item.setUrl(url);
+        item.setBeschreibung("Batch Item");
+        item.setMediaType("VIDEO");
+        return item;
+    }
+}
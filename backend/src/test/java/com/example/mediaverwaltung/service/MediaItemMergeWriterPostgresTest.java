@@ -0,0 +1,183 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.model.Tag;
+import com.example.mediaverwaltung.repository.MediaItemRepository;
+import com.example.mediaverwaltung.repository.TagRepository;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests für den PostgreSQL-Zweig von MediaItemMergeWriter
+ * (INSERT ... ON CONFLICT (url_hash) DO UPDATE ... WHERE)
+ *
+ * Schema wie in Produktion: postgresql-schema.sql, danach ddl-auto=update.
+ * Ohne Docker übersprungen.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ MediaItemMergeWriter.class, MediaItemIdAllocator.class, TagResolver.class })
+@TestPropertySource(properties = {
+    "mediaverwaltung.import.batch-size=3",
+    "spring.datasource.driverClassName=org.postgresql.Driver",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.hibernate.ddl-auto=update",
+    "spring.sql.init.mode=always",
+    "spring.sql.init.schema-locations=file:../database/postgres/postgresql-schema.sql" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MediaItemMergeWriterPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MediaItemMergeWriter mergeWriter;
+
+    @Autowired
+    private MediaItemRepository repository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanup() {
+        // auch die Beispieldaten aus postgresql-schema.sql
+        jdbcTemplate.update("DELETE FROM media_item_tag");
+        jdbcTemplate.update("DELETE FROM media_item");
+        jdbcTemplate.update("DELETE FROM tag");
+    }
+
+    @Test
+    void should_insert_new_items_with_tags_and_leave_unchanged_rows_alone() {
+        // Given: 4 Items (2 Chunks) mit Tags
+        List<MediaItem> items = List.of(
+            tagged(item("https://pg.com/1", "Eins"), "java, spring"),
+            tagged(item("https://pg.com/2", "Zwei"), "java"),
+            item("https://pg.com/3", "Drei"),
+            tagged(item("https://pg.com/4", "Vier"), "boot"));
+
+        // When: zweimal derselbe Import
+        ImportResult first = merge(items);
+        List<LocalDateTime> before = lastUpdated();
+        ImportResult second = merge(List.of(
+            tagged(item("https://pg.com/1", "Eins"), "java, spring"),
+            tagged(item("https://pg.com/2", "Zwei"), "java"),
+            item("https://pg.com/3", "Drei"),
+            tagged(item("https://pg.com/4", "Vier"), "boot")));
+
+        // Then: erst eingefügt, dann nur unverändert, Zeitstempel und Tags bleiben
+        assertThat(first.getInserted()).isEqualTo(4);
+        assertThat(first.getFailed()).isZero();
+        assertThat(second.getInserted()).isZero();
+        assertThat(second.getUpdated()).isZero();
+        assertThat(second.getUnchanged()).isEqualTo(4);
+        assertThat(lastUpdated()).isEqualTo(before);
+        assertThat(tagLinks()).containsExactlyInAnyOrder(
+            tuple("https://pg.com/1", "java"), tuple("https://pg.com/1", "spring"),
+            tuple("https://pg.com/2", "java"), tuple("https://pg.com/4", "boot"));
+    }
+
+    @Test
+    void should_update_changed_rows_and_replace_their_tags() {
+        // Given: gesehenes Item mit Channel und Tag "alt", ein zweites mit Tag "bleibt"
+        MediaItem existing = tagged(item("https://pg.com/video", "Alt"), "alt");
+        existing.setChannel("Kanal");
+        existing.setGesehen(true);
+        merge(List.of(existing, tagged(item("https://pg.com/anderes", "Anderes"), "bleibt")));
+
+        // When: gleiche URL anders geschrieben, ohne Channel, ungesehen, neuer Tag + das zweite unverändert
+        MediaItem changed = tagged(item("HTTPS://PG.com/video", "Neu"), "neu");
+        changed.setGesehen(false);
+        ImportResult result = merge(List.of(changed, tagged(item("https://pg.com/anderes", "Anderes"), "bleibt")));
+
+        // Then: ein Update (Version +1), Channel und gesehen bleiben, Tags folgen stichwort
+        assertThat(result.getInserted()).isZero();
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        MediaItem merged = repository.findAll().stream()
+            .filter(item -> item.getBeschreibung().equals("Neu"))
+            .findFirst().orElseThrow();
+        assertThat(merged.getUrl()).isEqualTo("HTTPS://PG.com/video");
+        assertThat(merged.getChannel()).isEqualTo("Kanal");
+        assertThat(merged.getGesehen()).isTrue();
+        assertThat(merged.getVersion()).isEqualTo(1L);
+        assertThat(tagLinks()).containsExactlyInAnyOrder(
+            tuple("HTTPS://PG.com/video", "neu"), tuple("https://pg.com/anderes", "bleibt"));
+        assertThat(tagRepository.findAll()).extracting(Tag::getName).containsExactlyInAnyOrder("neu", "bleibt");
+    }
+
+    @Test
+    void should_skip_failing_rows_on_postgres() {
+        // Given: Zeile 2 mit zu langer URL (PostgreSQL bricht die ganze Transaktion ab)
+        List<MediaItem> items = List.of(
+            item("https://pg.com/ok/1", "Eins"),
+            item("https://pg.com/" + "x".repeat(1100), "Zu lang"),
+            item("https://pg.com/ok/2", "Zwei"));
+
+        // When
+        ImportResult result = merge(items);
+
+        // Then: Chunk einzeln wiederholt, nur Zeile 2 fehlt
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportResult.ImportError::lineNumber).containsExactly(2L);
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    private ImportResult merge(List<MediaItem> items) {
+        MediaItemMergeWriter.Session session = mergeWriter.open();
+        for (int i = 0; i < items.size(); i++) {
+            session.add(items.get(i), i + 1);
+        }
+        return session.finish();
+    }
+
+    private List<LocalDateTime> lastUpdated() {
+        return jdbcTemplate.queryForList("SELECT last_updated_at FROM media_item ORDER BY id", LocalDateTime.class);
+    }
+
+    private List<Tuple> tagLinks() {
+        return jdbcTemplate.query("SELECT m.url, t.name FROM media_item_tag mt"
+                + " JOIN media_item m ON m.id = mt.media_item_id JOIN tag t ON t.id = mt.tag_id",
+            (rs, rowNum) -> tuple(rs.getString("url"), rs.getString("name")));
+    }
+
+    private static MediaItem tagged(MediaItem item, String stichwort) {
+        item.setStichwort(stichwort);
+        return item;
+    }
+
+    private static MediaItem item(String url, String beschreibung) {
+        MediaItem item = new MediaItem();
+        item.setUrl(url);
+        item.setBeschreibung(beschreibung);
+        item.setMediaType("VIDEO");
+        return item;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import com.example.mediaverwaltung.model.Tag;
+import com.example.mediaverwaltung.repository.MediaItemRepository;
+import com.example.mediaverwaltung.repository.TagRepository;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für MediaItemMergeWriter (Abgleich über url_key, Zähler, Tags)
+ *
+ * NOT_SUPPORTED wie im MediaItemBatchWriterTest: der Writer committet
+ * jeden Chunk selbst.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ MediaItemMergeWriter.class, MediaItemIdAllocator.class, TagResolver.class })
+@TestPropertySource(properties = "mediaverwaltung.import.batch-size=3")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MediaItemMergeWriterTest {
+
+    @Autowired
+    private MediaItemMergeWriter mergeWriter;
+
+    @Autowired
+    private MediaItemRepository repository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+        tagRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void should_report_only_unchanged_rows_when_importing_twice() {
+        // Given: 5 Items (2 Chunks) einmal importiert
+        ImportResult first = merge(items(5));
+        List<LocalDateTime> before = lastUpdated();
+
+        // When: derselbe Import noch einmal
+        ImportResult second = merge(items(5));
+
+        // Then: nichts geschrieben, Zeitstempel (Delta-Sync) unverändert
+        assertThat(first.getInserted()).isEqualTo(5);
+        assertThat(second.getInserted()).isZero();
+        assertThat(second.getUpdated()).isZero();
+        assertThat(second.getUnchanged()).isEqualTo(5);
+        assertThat(repository.count()).isEqualTo(5);
+        assertThat(lastUpdated()).isEqualTo(before);
+    }
+
+    @Test
+    void should_update_changed_columns_and_keep_missing_values() {
+        // Given: gesehenes Item mit Channel und Tag "alt"
+        MediaItem existing = item("https://merge.com/Video", "Alt");
+        existing.setChannel("Kanal");
+        existing.setGesehen(true);
+        existing.setStichwort("alt");
+        merge(List.of(existing));
+
+        // When: gleiche URL (Schema/Host anders geschrieben), ohne Channel, ungesehen, neuer Tag + ein neues Item
+        MediaItem changed = item("HTTPS://Merge.COM/Video", "Neu");
+        changed.setGesehen(false);
+        changed.setStichwort("neu");
+        ImportResult result = merge(List.of(changed, item("https://merge.com/video", "Anderer Pfad")));
+
+        // Then: aktualisiert statt doppelt; Channel und gesehen bleiben, Tags folgen stichwort
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(2);
+        MediaItem merged = repository.findAll().stream()
+            .filter(item -> item.getUrl().equals("HTTPS://Merge.COM/Video"))
+            .findFirst().orElseThrow();
+        assertThat(merged.getBeschreibung()).isEqualTo("Neu");
+        assertThat(merged.getChannel()).isEqualTo("Kanal");
+        assertThat(merged.getGesehen()).isTrue();
+        assertThat(tagRepository.findAll()).extracting(Tag::getName).containsExactly("neu");
+    }
+
+    @Test
+    void should_let_last_row_win_for_duplicate_urls_and_skip_failing_rows() {
+        // Given: URL doppelt im selben Chunk, Zeile 3 mit zu langer URL
+        List<MediaItem> items = List.of(
+            item("https://merge.com/1", "Erste"),
+            item("https://merge.com/1", "Zweite"),
+            item("https://merge.com/" + "x".repeat(1100), "Zu lang"),
+            item("https://merge.com/2", "Andere"));
+
+        // When
+        ImportResult result = merge(items);
+
+        // Then
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ImportResult.ImportError::lineNumber).containsExactly(3L);
+        assertThat(repository.findAll()).extracting(MediaItem::getBeschreibung)
+            .containsExactlyInAnyOrder("Zweite", "Andere");
+    }
+
+    private ImportResult merge(List<MediaItem> items) {
+        MediaItemMergeWriter.Session session = mergeWriter.open();
+        for (int i = 0; i < items.size(); i++) {
+            session.add(items.get(i), i + 1);
+        }
+        return session.finish();
+    }
+
+    private List<LocalDateTime> lastUpdated() {
+        return jdbcTemplate.queryForList("SELECT last_updated_at FROM media_item ORDER BY id", LocalDateTime.class);
+    }
+
+    private static List<MediaItem> items(int count) {
+        return IntStream.rangeClosed(1, count)
+            .mapToObj(i -> {
+                MediaItem item = item("https://merge.com/" + i, "Item " + i);
+                item.setStichwort("tag" + i);
+                return item;
+            })
+            .toList();
+    }
+
+    private static MediaItem item(String url, String beschreibung) {
+        MediaItem item = new MediaItem();
+        item.setUrl(url);
+        item.setBeschreibung(beschreibung);
+        item.setMediaType("VIDEO");
+        return item;
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.mediaverwaltung.service;
 
+import com.example.mediaverwaltung.dto.MediaItemChanges;
 import com.example.mediaverwaltung.model.MediaItem;
 import com.example.mediaverwaltung.repository.MediaItemRepository;
+import com.example.mediaverwaltung.repository.MediaItemTombstoneRepository;
+import com.example.mediaverwaltung.repository.MediaSyncStateRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +20,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -29,6 +36,18 @@ class MediaItemServiceTest {
     @Mock
     private MediaItemRepository repository;
     
+    @Mock
+    private ApplicationEventPublisher events;
+    
+    @Mock
+    private TagResolver tagResolver;
+    
+    @Mock
+    private MediaItemTombstoneRepository tombstoneRepository;
+    
+    @Mock
+    private MediaSyncStateRepository syncStateRepository;
+    
     @InjectMocks
     private MediaItemService service;
     
@@ -86,18 +105,73 @@ class MediaItemServiceTest {
         // Then: Item wurde gespeichert mit ID
         assertThat(result.getId()).isEqualTo(1L);
         verify(repository, times(1)).save(item);
+        verify(events).publishEvent(MediaItemsChangedEvent.saved(1L));
     }
     
     @Test
     void should_delete_item() {
-        // Given: Repository deleteById macht nichts (void)
-        doNothing().when(repository).deleteById(1L);
+        // Given: Item mit ID 1 existiert
+        MediaItem item = createTestItem(1L, "https://test.com");
+        when(repository.findById(1L)).thenReturn(Optional.of(item));
         
         // When: Service löscht Item
         service.deleteById(1L);
         
-        // Then: deleteById wurde aufgerufen
-        verify(repository, times(1)).deleteById(1L);
+        // Then: Item gelöscht, Tombstone und Event
+        verify(repository, times(1)).delete(item);
+        verify(tombstoneRepository).save(argThat(tombstone -> tombstone.getId() == 1L));
+        verify(events).publishEvent(MediaItemsChangedEvent.deleted(1L));
+    }
+    
+    @Test
+    void should_not_write_tombstone_when_deleting_unknown_item() {
+        // Given: Item mit ID 999 existiert NICHT
+        when(repository.findById(999L)).thenReturn(Optional.empty());
+        
+        // When/Then: Exception, weder Tombstone noch Event
+        assertThatThrownBy(() -> service.deleteById(999L))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("nicht gefunden");
+        verify(repository, never()).delete(any(MediaItem.class));
+        verifyNoInteractions(tombstoneRepository, events);
+    }
+    
+    @Test
+    void should_reset_changes_for_token_of_old_generation() {
+        // Given: Token aus Generation 0, inzwischen REPLACE-Import (Generation 1)
+        String oldToken = ChangeToken.start(0).encode();
+        when(syncStateRepository.findGeneration()).thenReturn(Optional.of(1L));
+        when(repository.findChangedAfter(eq(ChangeToken.ORIGIN), eq(0L), any(), any()))
+            .thenReturn(List.of(createTestItem(7L, "https://neu.com")));
+        
+        // When: Änderungen abrufen
+        MediaItemChanges changes = service.findChanges(oldToken, 10);
+        
+        // Then: Reset, Feed von vorn
+        assertThat(changes.reset()).isTrue();
+        assertThat(changes.items()).extracting(MediaItem::getId).containsExactly(7L);
+        assertThat(changes.hasMore()).isFalse();
+    }
+    
+    @Test
+    void should_reset_changes_for_token_before_purged_tombstones() {
+        // Given: Token von vor 40 Tagen, Tombstones bis vor 30 Tagen gelöscht
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(40);
+        String oldToken = new ChangeToken(0, longAgo, 3, longAgo, 5).encode();
+        when(syncStateRepository.findTombstonesPurgedBefore()).thenReturn(Optional.of(longAgo.plusDays(10)));
+        
+        // When: Änderungen abrufen
+        MediaItemChanges changes = service.findChanges(oldToken, 10);
+        
+        // Then: Reset, Feed von vorn
+        assertThat(changes.reset()).isTrue();
+        verify(repository).findChangedAfter(eq(ChangeToken.ORIGIN), eq(0L), any(), any());
+    }
+    
+    @Test
+    void should_reject_invalid_change_token() {
+        assertThatThrownBy(() -> service.findChanges("kein-token", 10))
+            .isInstanceOf(IllegalArgumentException.class);
     }
     
     // Helper Method
@@ -0,0 +1,128 @@
+package com.example.mediaverwaltung.service;
+
+import com.example.mediaverwaltung.util.UrlNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für Migration 008_url_hash.sql und UrlHashBackfill auf PostgreSQL
+ *
+ * Vor jedem Test wird media_item auf den Stand vor 008 zurückgesetzt
+ * (ohne url_hash), dann läuft das echte Migrationsskript.
+ * Ohne Docker übersprungen.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Import(UrlHashBackfill.class)
+@TestPropertySource(properties = {
+    "spring.datasource.driverClassName=org.postgresql.Driver",
+    "spring.sql.init.mode=always",
+    "spring.sql.init.schema-locations=file:../database/postgres/postgresql-schema.sql" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UrlHashBackfillPostgresTest {
+
+    private static final Path MIGRATION = Path.of("../database/postgres/migrations/008_url_hash.sql");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UrlHashBackfill urlHashBackfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void resetToBeforeMigration() {
+        jdbcTemplate.update("DELETE FROM media_item_tag");
+        jdbcTemplate.update("DELETE FROM media_item");
+        jdbcTemplate.execute("ALTER TABLE media_item DROP COLUMN IF EXISTS url_hash");
+    }
+
+    @Test
+    void should_keep_hash_on_oldest_row_when_existing_urls_collide() throws IOException {
+        // Given: dasselbe Video in drei Schreibweisen, dazu eine andere URL
+        insert(1, "https://youtu.be/abc");
+        insert(2, "https://www.youtube.com/watch?v=abc&utm_source=feed");
+        insert(3, "https://example.com/a");
+        insert(4, "https://m.youtube.com/watch?v=abc&t=42");
+
+        // When
+        migrate();
+        int duplicates = urlHashBackfill.backfill();
+
+        // Then: Constraint da, ältestes Item behält den Hash, Dubletten bleiben leer
+        assertThat(duplicates).isEqualTo(2);
+        assertThat(hashOf(1)).isEqualTo(UrlNormalizer.hashOf("https://youtu.be/abc"));
+        assertThat(hashOf(2)).isNull();
+        assertThat(hashOf(3)).isNotNull();
+        assertThat(hashOf(4)).isNull();
+        assertThat(hasConstraint()).isTrue();
+
+        // Zweiter Lauf: nur noch die Dubletten, keine Fehler
+        assertThat(urlHashBackfill.backfill()).isEqualTo(2);
+    }
+
+    @Test
+    void should_dedupe_existing_hashes_and_be_rerunnable() throws IOException {
+        // Given: url_hash schon vorhanden (z.B. per ddl-auto angelegt), ohne Constraint, mit doppeltem Wert
+        insert(1, "https://youtu.be/abc");
+        insert(2, "https://www.youtube.com/watch?v=abc");
+        insert(3, "https://example.com/a");
+        String hash = UrlNormalizer.hashOf("https://youtu.be/abc");
+        jdbcTemplate.execute("ALTER TABLE media_item ADD COLUMN url_hash VARCHAR(64)");
+        jdbcTemplate.update("UPDATE media_item SET url_hash = ? WHERE id IN (1, 2)", hash);
+
+        // When: Migration zweimal
+        migrate();
+        migrate();
+
+        // Then: Hash nur beim ältesten Item, Constraint angelegt
+        assertThat(hashOf(1)).isEqualTo(hash);
+        assertThat(hashOf(2)).isNull();
+        assertThat(hasConstraint()).isTrue();
+
+        // Backfill ergänzt die fehlenden Hashes und meldet die Dublette
+        assertThat(urlHashBackfill.backfill()).isEqualTo(1);
+        assertThat(hashOf(3)).isNotNull();
+    }
+
+    private void migrate() throws IOException {
+        jdbcTemplate.execute(Files.readString(MIGRATION));
+    }
+
+    private void insert(long id, String url) {
+        jdbcTemplate.update("INSERT INTO media_item (id, url) VALUES (?, ?)", id, url);
+    }
+
+    private String hashOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT url_hash FROM media_item WHERE id = ?", String.class, id);
+    }
+
+    private boolean hasConstraint() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_media_item_url_hash')", Boolean.class));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.mediaverwaltung.service.importer;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests für den parallelen CSV-Import (CsvChunker + CsvImporter)
+ *
+ * Maßstab ist immer der sequentielle Import über den Reader: gleiche
+ * Items, gleiche Reihenfolge, gleiche Zeilennummern.
+ */
+class CsvImporterTest {
+
+    private static final String TRICKY_CSV = "\uFEFFurl,beschreibung,channel\r\n"
+        + "https://a.com,\"Hallo, \"\"Welt\"\"\",A\r\n"
+        + "https://b.com,\"Zeile 1\r\nZeile 2\nZeile 3\rZeile 4\",B\n"
+        + "\n"
+        + ",ohne URL,C\r"
+        + "https://c.com,\"\"\"\",\"\"\r\n"
+        + "https://d.com,\"äöü €\"nachgestellt,D\n"
+        + "https://e.com,\"\n\n\",E";
+
+    @Test
+    void should_match_sequential_import_for_any_chunk_size() throws IOException {
+        // Given: Quotes mit Kommas und Zeilenumbrüchen (LF, CRLF, CR), BOM, Leerzeile, Fehlerzeile
+        RecordingSink sequential = new RecordingSink();
+        importer(1, 1024).importData(new StringReader(TRICKY_CSV), sequential);
+
+        // When/Then: jede Stückgröße (auch Grenzen mitten in Quotes, CRLF und UTF-8-Zeichen)
+        for (int chunkSize = 1; chunkSize <= 64; chunkSize++) {
+            RecordingSink parallel = new RecordingSink();
+            CsvImporter importer = importer(4, chunkSize);
+            try {
+                importer.importData(stream(TRICKY_CSV), parallel);
+            } finally {
+                importer.destroy();
+            }
+            assertThat(parallel.records).as("Stückgröße %d", chunkSize).isEqualTo(sequential.records);
+        }
+
+        assertThat(sequential.records).containsExactly(
+            "2 https://a.com|Hallo, \"Welt\"|A",
+            "3 https://b.com|Zeile 1\r\nZeile 2\nZeile 3\rZeile 4|B",
+            "8 Fehler",
+            "9 https://c.com|\"|null",
+            "10 https://d.com|äöü €nachgestellt|D",
+            "11 https://e.com|null|E");
+    }
+
+    @Test
+    void should_keep_order_and_line_numbers_for_large_input() throws IOException {
+        // Given: 20.000 Datensätze, jeder zehnte mit Zeilenumbruch im Quote, jeder hundertste ohne URL
+        StringBuilder csv = new StringBuilder("url,beschreibung\n");
+        long line = 2;
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            if (i % 100 == 99) {
+                csv.append(",kaputt\n");
+                expected.add(line + " Fehler");
+                line++;
+            } else if (i % 10 == 0) {
+                csv.append("https://example.com/").append(i).append(",\"Item\n").append(i).append("\"\n");
+                expected.add(line + " https://example.com/" + i + "|Item\n" + i + "|null");
+                line += 2;
+            } else {
+                csv.append("https://example.com/").append(i).append(",Item ").append(i).append('\n');
+                expected.add(line + " https://example.com/" + i + "|Item " + i + "|null");
+                line++;
+            }
+        }
+        RecordingSink sink = new RecordingSink();
+        CsvImporter importer = importer(4, 4096);
+
+        // When
+        try {
+            importer.importData(stream(csv.toString()), sink);
+        } finally {
+            importer.destroy();
+        }
+
+        // Then
+        assertThat(sink.records).isEqualTo(expected);
+    }
+
+    @Test
+    void should_fail_on_unterminated_quote_after_earlier_records() {
+        // Given: Quote in Zeile 3 wird nie geschlossen
+        RecordingSink sink = new RecordingSink();
+        CsvImporter importer = importer(2, 8);
+
+        // When/Then: gleiche Meldung wie sequentiell, Datensätze davor sind übergeben
+        try {
+            assertThatThrownBy(() -> importer.importData(
+                    stream("url\nhttps://a.com\n\"https://b.com\nhttps://c.com\n"), sink))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Zeile 3");
+        } finally {
+            importer.destroy();
+        }
+        assertThat(sink.records).containsExactly("2 https://a.com|null|null");
+    }
+
+    @Test
+    void should_reject_empty_input() {
+        CsvImporter importer = importer(2, 8);
+        try {
+            assertThatThrownBy(() -> importer.importData(stream(""), new RecordingSink()))
+                .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            importer.destroy();
+        }
+    }
+
+    private static CsvImporter importer(int parallelism, int chunkSize) {
+        return new CsvImporter(parallelism, DataSize.ofBytes(chunkSize));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Zeichnet Zeile + Inhalt bzw. Fehler in Aufrufreihenfolge auf
+     */
+    private static class RecordingSink implements ImportSink {
+
+        final List<String> records = new ArrayList<>();
+
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            records.add(lineNumber + " " + item.getUrl() + "|" + item.getBeschreibung() + "|" + item.getChannel());
+        }
+
+        @Override
+        public void recordFailure(long lineNumber, String message) {
+            records.add(lineNumber + " Fehler");
+        }
+
+        @Override
+        public ImportResult getResult() {
+            return new ImportResult();
+        }
+
+        @Override
+        public ImportResult finish() {
+            return getResult();
+        }
+    }
+}
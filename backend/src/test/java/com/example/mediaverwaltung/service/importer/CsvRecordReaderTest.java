@@ -0,0 +1,89 @@
+package com.example.mediaverwaltung.service.importer;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests für CsvRecordReader (RFC 4180) und MediaItemCsvMapper
+ */
+class CsvRecordReaderTest {
+    
+    @Test
+    void should_read_simple_records() throws IOException {
+        // Given: Zwei einfache Zeilen
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b,c\n1,,3\n"));
+        
+        // When/Then: Felder inkl. leerem Feld
+        assertThat(reader.readRecord()).containsExactly("a", "b", "c");
+        assertThat(reader.readRecord()).containsExactly("1", "", "3");
+        assertThat(reader.readRecord()).isNull();
+    }
+    
+    @Test
+    void should_handle_quotes_commas_and_newlines_in_fields() throws IOException {
+        // Given: Feld mit Komma, verdoppeltem Quote und Zeilenumbruch (CRLF)
+        String csv = "url,beschreibung\r\n"
+            + "https://a.com,\"Hallo, \"\"Welt\"\"\"\r\n"
+            + "https://b.com,\"Zeile 1\r\nZeile 2\"\r\n"
+            + "https://c.com,Ende";
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        
+        // When/Then
+        assertThat(reader.readRecord()).containsExactly("url", "beschreibung");
+        assertThat(reader.readRecord()).containsExactly("https://a.com", "Hallo, \"Welt\"");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        assertThat(reader.readRecord()).containsExactly("https://b.com", "Zeile 1\r\nZeile 2");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+        assertThat(reader.readRecord()).containsExactly("https://c.com", "Ende");
+        assertThat(reader.getRecordLine()).isEqualTo(5);
+        assertThat(reader.readRecord()).isNull();
+    }
+    
+    @Test
+    void should_skip_byte_order_mark() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\uFEFFurl\nhttps://a.com\n"));
+        
+        assertThat(reader.readRecord()).containsExactly("url");
+    }
+    
+    @Test
+    void should_fail_on_unterminated_quote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("url\n\"https://a.com\n"));
+        reader.readRecord();
+        
+        assertThatThrownBy(reader::readRecord)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Zeile 2");
+    }
+    
+    @Test
+    void should_map_columns_by_header_name() {
+        // Given: Altes Import-Format (andere Reihenfolge, Großschreibung)
+        MediaItemCsvMapper mapper = new MediaItemCsvMapper(
+            List.of("URL", "BESCHREIBUNG", "CHANNEL", "DAUER", "STICHWORT", "MEDIA_TYPE"));
+        
+        // When: Datensatz umwandeln
+        MediaItem item = mapper.toItem(List.of("https://a.com", " Titel ", "", "00:03:33", "music", "VIDEO"));
+        
+        // Then: Werte getrimmt, leere Werte null
+        assertThat(item.getUrl()).isEqualTo("https://a.com");
+        assertThat(item.getBeschreibung()).isEqualTo("Titel");
+        assertThat(item.getChannel()).isNull();
+        assertThat(item.getStichwort()).isEqualTo("music");
+        assertThat(item.getMediaType()).isEqualTo("VIDEO");
+        assertThat(item.getGesehen()).isFalse();
+    }
+    
+    @Test
+    void should_reject_header_without_url() {
+        assertThatThrownBy(() -> new MediaItemCsvMapper(List.of("beschreibung", "channel")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.mediaverwaltung.service.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests für ImportFiles (Verzeichnisse, .gz, .zip)
+ */
+class ImportFilesTest {
+
+    private static final String CSV = "url\nhttps://a.com\n";
+    private static final String JSON = "[{\"url\": \"https://b.com\"}]";
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void should_list_importable_files_sorted_and_recursive() throws IOException {
+        // Given: Dateien auf zwei Ebenen, dazu Unbekanntes und Verstecktes
+        Files.writeString(dir.resolve("b.json"), JSON);
+        Files.writeString(dir.resolve("a.csv"), CSV);
+        Files.writeString(dir.resolve("notizen.txt"), "egal");
+        Files.writeString(dir.resolve(".a.csv"), CSV);
+        Path sub = Files.createDirectory(dir.resolve("sub"));
+        Files.write(sub.resolve("c.csv.gz"), gzip(CSV));
+
+        // When/Then
+        assertThat(ImportFiles.list(dir)).containsExactly(
+            dir.resolve("a.csv"), dir.resolve("b.json"), sub.resolve("c.csv.gz"));
+        assertThat(ImportFiles.list(dir.resolve("a.csv"))).containsExactly(dir.resolve("a.csv"));
+        assertThatThrownBy(() -> ImportFiles.list(dir.resolve("fehlt.csv"))).isInstanceOf(NoSuchFileException.class);
+        assertThatThrownBy(() -> ImportFiles.list(dir.resolve("notizen.txt"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_decompress_gzip_while_reading() throws IOException {
+        Path file = Files.write(dir.resolve("dump.json.gz"), gzip(JSON));
+
+        try (InputStream input = ImportFiles.open(file)) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(JSON);
+        }
+        assertThat(ImportFiles.formatOf("dump.json.gz")).isEqualTo(ImportFormat.JSON);
+        assertThat(ImportFiles.formatOf("DUMP.CSV")).isEqualTo(ImportFormat.CSV);
+        assertThat(ImportFiles.formatOf("dump.zip")).isNull();
+    }
+
+    @Test
+    void should_read_zip_entries_in_order_even_if_handler_closes_them() throws IOException {
+        // Given: ZIP mit CSV, gepacktem JSON, Verzeichnis und unbekanntem Eintrag
+        Path zip = dir.resolve("export.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            entry(out, "daten/a.csv", CSV.getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("leer/"));
+            out.closeEntry();
+            entry(out, "readme.md", "# egal".getBytes(StandardCharsets.UTF_8));
+            entry(out, "b.json.gz", gzip(JSON));
+        }
+        List<String> read = new ArrayList<>();
+
+        // When: Handler schließt den Stream (wie die Importer)
+        ImportFiles.read("export.zip", Files.newInputStream(zip), (name, format, data) -> {
+            try (data) {
+                read.add(name + " " + format + " " + new String(data.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        });
+
+        // Then
+        assertThat(read).containsExactly("daten/a.csv CSV " + CSV, "b.json.gz JSON " + JSON);
+    }
+
+    @Test
+    void should_open_file_before_classpath_resource() throws IOException {
+        Path file = Files.writeString(dir.resolve("items.csv"), CSV);
+
+        try (InputStream input = ImportFiles.openFileOrResource(file.toString())) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(CSV);
+        }
+        assertThatThrownBy(() -> ImportFiles.openFileOrResource("gibt/es/nicht.csv"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void entry(ZipOutputStream out, String name, byte[] content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.mediaverwaltung.service.importer;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.mediaverwaltung.model.MediaItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für ImportProgressReporter (Durchreichen, Begrenzung der Zeilen-Warnungen, Zähler)
+ */
+class ImportProgressReporterTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ImportProgressReporter.class);
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void should_pass_through_and_limit_row_warnings() {
+        // Given: höchstens 2 Zeilen-Warnungen pro Intervall
+        ImportProgressReporter reporter = new ImportProgressReporter(Duration.ofHours(1), 2, 0);
+        ImportResult result = new ImportResult();
+        ImportSink sink = reporter.wrap(new CountingSink(result), ImportMode.MERGE, "test.csv");
+
+        // When: 3 gültige und 5 fehlerhafte Zeilen
+        for (int line = 1; line <= 3; line++) {
+            MediaItem item = new MediaItem();
+            item.setUrl("https://example.com/" + line);
+            sink.add(item, line);
+        }
+        for (int line = 4; line <= 8; line++) {
+            sink.recordFailure(line, "URL fehlt");
+        }
+        sink.finish();
+        sink.close();
+
+        // Then: alles beim Ziel angekommen, aber nur 2 Warnungen + Start/Ende
+        assertThat(result.getInserted()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(appender.list).filteredOn(event -> event.getLevel() == Level.WARN)
+            .extracting(ILoggingEvent::getFormattedMessage)
+            .containsExactly(
+                "Import Zeile übersprungen: mode=merge line=4 error=URL fehlt",
+                "Import Zeile übersprungen: mode=merge line=5 error=URL fehlt");
+        assertThat(appender.list).filteredOn(event -> event.getLevel() == Level.INFO)
+            .extracting(ILoggingEvent::getFormattedMessage)
+            .satisfiesExactly(
+                start -> assertThat(start).isEqualTo("Import gestartet: mode=merge source=test.csv"),
+                end -> assertThat(end).startsWith("Import fertig: mode=merge source=test.csv read=8 inserted=3 "
+                    + "updated=0 unchanged=0 failed=5 suppressedWarnings=3 "));
+    }
+
+    @Test
+    void should_report_suppressed_warnings_per_interval_and_in_total() {
+        // Given: Zwischenstand bei jeder Prüfung (alle 1024 Datensätze), 2 Warnungen pro Intervall
+        ImportProgressReporter reporter = new ImportProgressReporter(Duration.ZERO, 2, 0);
+        ImportSink sink = reporter.wrap(new CountingSink(new ImportResult()), ImportMode.APPEND, "feed.json");
+
+        // When: 2 Intervalle mit je 1024 fehlerhaften Zeilen
+        for (int line = 1; line <= 2048; line++) {
+            sink.recordFailure(line, "URL fehlt");
+        }
+        sink.finish();
+
+        // Then: Zwischenstände zählen je Intervall, die End-Zeile über den ganzen Import
+        assertThat(appender.list).filteredOn(event -> event.getLevel() == Level.WARN).hasSize(4);
+        assertThat(appender.list).filteredOn(event -> event.getLevel() == Level.INFO)
+            .extracting(ILoggingEvent::getFormattedMessage)
+            .satisfiesExactly(
+                start -> assertThat(start).startsWith("Import gestartet: "),
+                first -> assertThat(first).contains("read=1024 ").contains("suppressedWarnings=1022 "),
+                second -> assertThat(second).contains("read=2048 ").contains("suppressedWarnings=1022 "),
+                end -> assertThat(end).startsWith("Import fertig: ").contains("suppressedWarnings=2044 "));
+    }
+
+    @Test
+    void should_log_aborted_import_on_close_without_finish() {
+        ImportProgressReporter reporter = new ImportProgressReporter(Duration.ofHours(1), 2, 0);
+        ImportSink sink = reporter.wrap(new CountingSink(new ImportResult()), ImportMode.REPLACE, "upload");
+
+        sink.recordFailure(2, "kaputt");
+        sink.close();
+
+        assertThat(appender.list).last()
+            .extracting(ILoggingEvent::getFormattedMessage)
+            .isEqualTo("Import abgebrochen: mode=replace source=upload read=1 inserted=0 failed=1");
+    }
+
+    /**
+     * Ziel, das nur zählt
+     */
+    private static class CountingSink implements ImportSink {
+
+        private final ImportResult result;
+
+        CountingSink(ImportResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            result.recordRead();
+            result.recordInserted(1);
+        }
+
+        @Override
+        public void recordFailure(long lineNumber, String message) {
+            result.recordRead();
+            result.recordFailure(lineNumber, message);
+        }
+
+        @Override
+        public ImportResult getResult() {
+            return result;
+        }
+
+        @Override
+        public ImportResult finish() {
+            return result;
+        }
+    }
+}
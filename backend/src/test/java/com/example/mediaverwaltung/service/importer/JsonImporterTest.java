@@ -0,0 +1,145 @@
+package com.example.mediaverwaltung.service.importer;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests für JsonImporter (Streaming, fehlerhafte Elemente)
+ */
+class JsonImporterTest {
+    
+    private final JsonImporter importer = new JsonImporter(Jackson2ObjectMapperBuilder.json().build());
+    
+    @Test
+    void should_stream_items_and_skip_invalid_elements() throws IOException {
+        // Given: gültige Items, ein Element mit falschem Typ (verschachtelt), null, unbekanntes Feld
+        String json = """
+            [
+              {"url": "https://a.com", "channel": "A", "gesehen": true},
+              {"url": "https://b.com", "gesehen": {"nested": [1, {"x": 2}]}, "channel": "B"},
+              null,
+              {"url": "https://c.com", "unbekannt": {"egal": [1, 2, 3]}}
+            ]
+            """;
+        RecordingSink sink = new RecordingSink();
+        
+        // When
+        importer.importData(stream(json), sink);
+        
+        // Then: Position = Index im Array, nach dem Fehler geht es weiter
+        assertThat(sink.items).extracting(MediaItem::getUrl).containsExactly("https://a.com", "https://c.com");
+        assertThat(sink.items.get(0).getGesehen()).isTrue();
+        assertThat(sink.positions).containsExactly(1L, 4L);
+        assertThat(sink.failures).containsExactly(2L, 3L);
+    }
+    
+    @Test
+    void should_reject_non_array() {
+        assertThatThrownBy(() -> importer.importData(stream("{\"url\": \"https://a.com\"}"), new RecordingSink()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void should_fail_on_broken_json() {
+        RecordingSink sink = new RecordingSink();
+        
+        assertThatThrownBy(() -> importer.importData(stream("[{\"url\": \"https://a.com\"}, {\"url\": "), sink))
+            .isInstanceOf(IOException.class);
+        assertThat(sink.items).hasSize(1);
+    }
+    
+    @Test
+    void should_stream_large_array_element_by_element() throws IOException {
+        // Given: 100.000 Items, erzeugt während des Lesens (nie als Ganzes im Speicher)
+        int count = 100_000;
+        CountingSink sink = new CountingSink();
+        
+        // When
+        importer.importData(generate(count), sink);
+        
+        // Then
+        assertThat(sink.count).isEqualTo(count);
+        assertThat(sink.lastPosition).isEqualTo(count);
+    }
+    
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * JSON-Array mit count Items, Element für Element erzeugt
+     */
+    private static InputStream generate(int count) {
+        Enumeration<InputStream> parts = new Enumeration<>() {
+            int next = -1;
+            
+            @Override
+            public boolean hasMoreElements() {
+                return next <= count;
+            }
+            
+            @Override
+            public InputStream nextElement() {
+                int i = next++;
+                if (i < 0) return stream("[");
+                if (i == count) return stream("]");
+                return stream((i > 0 ? "," : "") + "{\"url\":\"https://example.com/" + i
+                    + "\",\"beschreibung\":\"Item " + i + "\",\"dauer\":\"12:34\"}");
+            }
+        };
+        return new SequenceInputStream(parts);
+    }
+    
+    private static class RecordingSink implements ImportSink {
+        
+        final List<MediaItem> items = new ArrayList<>();
+        final List<Long> positions = new ArrayList<>();
+        final List<Long> failures = new ArrayList<>();
+        
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            items.add(item);
+            positions.add(lineNumber);
+        }
+        
+        @Override
+        public void recordFailure(long lineNumber, String message) {
+            failures.add(lineNumber);
+        }
+        
+        @Override
+        public ImportResult getResult() {
+            return new ImportResult();
+        }
+        
+        @Override
+        public ImportResult finish() {
+            return getResult();
+        }
+    }
+    
+    private static class CountingSink extends RecordingSink {
+        
+        long count;
+        long lastPosition;
+        
+        @Override
+        public void add(MediaItem item, long lineNumber) {
+            count++;
+            lastPosition = lineNumber;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.mediaverwaltung.service.job;
+
+import com.example.mediaverwaltung.service.ImportExportMetrics;
+import com.example.mediaverwaltung.service.MediaItemService;
+import com.example.mediaverwaltung.service.importer.ImportFormat;
+import com.example.mediaverwaltung.service.importer.ImportMode;
+import com.example.mediaverwaltung.service.importer.ImportResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests für ImportJobService (Zustände, Fortschritt, Abbruch, Obergrenze, Dateisystem)
+ */
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    private static final String CSV = "url\nhttps://a.com\nhttps://b.com\n";
+
+    @Mock
+    private MediaItemService mediaItemService;
+
+    @TempDir
+    private Path spoolDir;
+
+    private final ImportExportMetrics metrics = new ImportExportMetrics(new SimpleMeterRegistry());
+
+    private ImportJobService jobService;
+
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) {
+            jobService.destroy();
+        }
+    }
+
+    @Test
+    void should_run_job_and_report_result() throws Exception {
+        // Given: Import liest den ganzen Stream
+        jobService = new ImportJobService(mediaItemService, metrics, 1, 1, Duration.ofHours(1), spoolDir, false, List.of());
+        when(mediaItemService.importData(eq(ImportFormat.CSV), eq(ImportMode.REPLACE), any(), any()))
+                .thenAnswer(invocation -> {
+                    ImportResult result = new ImportResult();
+                    invocation.<Consumer<ImportResult>>getArgument(3).accept(result);
+                    invocation.<InputStream>getArgument(2).readAllBytes();
+                    result.recordRead();
+                    result.recordRead();
+                    result.recordInserted(2);
+                    return result;
+                });
+
+        // When
+        ImportJob job = jobService.submit(ImportFormat.CSV, ImportMode.REPLACE, stream(CSV));
+        awaitFinished(job);
+
+        // Then: Zähler, Bytes, Spool-Datei gelöscht
+        assertThat(job.getState()).isEqualTo(ImportJob.State.SUCCEEDED);
+        assertThat(job.status().inserted()).isEqualTo(2);
+        assertThat(job.status().bytesRead()).isEqualTo(CSV.length());
+        assertThat(job.status().totalBytes()).isEqualTo(CSV.length());
+        assertThat(job.status().etaSeconds()).isZero();
+        assertThat(jobService.find(job.getId())).contains(job);
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void should_cancel_running_job_on_next_read() throws Exception {
+        // Given: Import wartet, bis der Test abbricht, und liest dann weiter
+        jobService = new ImportJobService(mediaItemService, metrics, 1, 1, Duration.ofHours(1), spoolDir, false, List.of());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(mediaItemService.importData(any(), eq(ImportMode.APPEND), any(), any()))
+                .thenAnswer(invocation -> {
+                    running.countDown();
+                    cancelled.await(5, TimeUnit.SECONDS);
+                    invocation.<InputStream>getArgument(2).read();
+                    return new ImportResult();
+                });
+        ImportJob job = jobService.submit(ImportFormat.CSV, ImportMode.APPEND, stream(CSV));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        jobService.cancel(job.getId());
+        cancelled.countDown();
+        awaitFinished(job);
+
+        // Then: abgebrochen, Caches für bereits geschriebene Chunks verworfen
+        assertThat(job.getState()).isEqualTo(ImportJob.State.CANCELLED);
+        verify(mediaItemService).invalidateAfterPartialImport();
+    }
+
+    @Test
+    void should_reject_when_workers_and_queue_are_full() throws Exception {
+        // Given: 1 Worker, 1 Warteplatz; erster Job blockiert
+        jobService = new ImportJobService(mediaItemService, metrics, 1, 1, Duration.ofHours(1), spoolDir, false, List.of());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mediaItemService.importData(any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    running.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return new ImportResult();
+                });
+        ImportJob first = jobService.submit(ImportFormat.CSV, ImportMode.REPLACE, stream(CSV));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        ImportJob queued = jobService.submit(ImportFormat.CSV, ImportMode.REPLACE, stream(CSV));
+
+        // Then: dritter Job abgelehnt, ohne den Upload zu lesen oder zu spoolen (nur die beiden Spool-Dateien)
+        InputStream third = stream(CSV);
+        assertThatThrownBy(() -> jobService.submit(ImportFormat.CSV, ImportMode.REPLACE, third))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(third.available()).isEqualTo(CSV.length());
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).hasSize(2);
+        }
+
+        // When: wartenden Job abbrechen
+        jobService.cancel(queued.getId());
+
+        // Then: sofort abgebrochen, startet nie
+        assertThat(queued.getState()).isEqualTo(ImportJob.State.CANCELLED);
+        release.countDown();
+        awaitFinished(first);
+        verify(mediaItemService, times(1)).importData(any(), any(), any(), any());
+    }
+
+    @Test
+    void should_import_files_only_below_configured_root() throws Exception {
+        // Given: Wurzelverzeichnis mit einer .gz-Datei, Datei außerhalb
+        Path root = Files.createDirectory(spoolDir.resolve("import"));
+        Path dump = root.resolve("dump.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dump))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+        Path outside = Files.writeString(spoolDir.resolve("outside.csv"), CSV);
+        jobService = new ImportJobService(mediaItemService, metrics, 1, 1, Duration.ofHours(1), spoolDir, false,
+                List.of(root.toString()));
+        when(mediaItemService.importFiles(eq(ImportMode.APPEND), eq(List.of(dump.toRealPath())), any(), any()))
+                .thenAnswer(invocation -> {
+                    UnaryOperator<InputStream> raw = invocation.getArgument(2);
+                    try (InputStream input = raw.apply(Files.newInputStream(dump))) {
+                        input.readAllBytes();
+                    }
+                    return new ImportResult();
+                });
+
+        // Then: außerhalb (auch über ..) und ohne Wurzel abgelehnt
+        assertThatThrownBy(() -> jobService.submitFiles(ImportMode.APPEND, outside))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> jobService.submitFiles(ImportMode.APPEND, Path.of("../outside.csv")))
+                .isInstanceOf(AccessDeniedException.class);
+
+        // When: relativer Pfad innerhalb der Wurzel
+        ImportJob job = jobService.submitFiles(ImportMode.APPEND, Path.of("dump.csv.gz"));
+        awaitFinished(job);
+
+        // Then: Fortschritt in gepackten Bytes, Datei bleibt erhalten
+        assertThat(job.getState()).isEqualTo(ImportJob.State.SUCCEEDED);
+        assertThat(job.status().format()).isEqualTo(ImportFormat.CSV);
+        assertThat(job.status().source()).isEqualTo(dump.toRealPath().toString());
+        assertThat(job.status().bytesRead()).isEqualTo(Files.size(dump));
+        assertThat(dump).exists();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void awaitFinished(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.getState().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getState().isFinished()).as("Job beendet").isTrue();
+    }
+}
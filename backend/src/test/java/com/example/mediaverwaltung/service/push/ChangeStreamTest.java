@@ -0,0 +1,82 @@
+package com.example.mediaverwaltung.service.push;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für ChangeStream (Begrenzung der Verbindungen)
+ */
+class ChangeStreamTest {
+
+    // kurzer Heartbeat: ein getrennter Client fällt beim nächsten Ping auf
+    private final ChangeStream stream = new ChangeStream(5, 100, Duration.ofMillis(50),
+            Duration.ofMillis(20), Duration.ofMinutes(1));
+
+    @AfterEach
+    void cleanup() {
+        stream.destroy();
+    }
+
+    @Test
+    void should_not_exceed_max_subscribers_under_concurrent_subscribes() throws Exception {
+        // Given: 50 gleichzeitige Anmeldungen bei maximal 5 Verbindungen
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        List<Callable<SseEmitter>> subscribes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            subscribes.add(stream::subscribe);
+        }
+
+        // When: alle auf einmal
+        int accepted = 0;
+        for (Future<SseEmitter> result : executor.invokeAll(subscribes)) {
+            try {
+                result.get();
+                accepted++;
+            } catch (Exception e) {
+                assertThat(e).hasCauseInstanceOf(IllegalStateException.class);
+            }
+        }
+        executor.shutdown();
+
+        // Then: genau 5 angenommen
+        assertThat(accepted).isEqualTo(5);
+        assertThat(stream.subscriberCount()).isEqualTo(5);
+    }
+
+    @Test
+    void should_free_slot_when_client_disconnects() {
+        // Given: alle 5 Plätze belegt
+        List<SseEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            emitters.add(stream.subscribe());
+        }
+
+        // When: ein Client trennt (nächster Ping scheitert, Sende-Thread endet)
+        emitters.get(0).complete();
+
+        // Then: Platz wird frei, genau einmal
+        await(() -> stream.subscriberCount() == 4);
+        assertThat(stream.subscribe()).isNotNull();
+        assertThat(stream.subscriberCount()).isEqualTo(5);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.mediaverwaltung.service.push;
+
+import com.example.mediaverwaltung.dto.ChangeNotification;
+import com.example.mediaverwaltung.service.MediaItemsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für ChangeSubscriber (Puffer, Bündeln, Überlauf)
+ */
+class ChangeSubscriberTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(50);
+
+    @Test
+    void should_coalesce_burst_into_one_event() throws Exception {
+        // Given: Client mit Sende-Thread
+        RecordingEmitter emitter = new RecordingEmitter();
+        ChangeSubscriber subscriber = start(emitter, 100);
+
+        // When: Burst aus Änderungen, ein Item danach gelöscht
+        subscriber.offer(MediaItemsChangedEvent.saved(1L));
+        subscriber.offer(MediaItemsChangedEvent.saved(2L));
+        subscriber.offer(MediaItemsChangedEvent.saved(3L));
+        subscriber.offer(MediaItemsChangedEvent.deleted(2L));
+
+        // Then: ein Event, gelöschtes Item nur in deleted
+        ChangeNotification notification = emitter.next();
+        assertThat(notification.bulk()).isFalse();
+        assertThat(notification.saved()).containsExactly(1L, 3L);
+        assertThat(notification.deleted()).containsExactly(2L);
+        assertThat(emitter.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        subscriber.close();
+    }
+
+    @Test
+    void should_replace_ids_with_bulk_on_overflow() throws Exception {
+        // Given: Puffer für 2 IDs
+        RecordingEmitter emitter = new RecordingEmitter();
+        ChangeSubscriber subscriber = start(emitter, 2);
+
+        // When: 3 Änderungen, dann Import
+        assertThat(subscriber.offer(MediaItemsChangedEvent.saved(1L))).isZero();
+        assertThat(subscriber.offer(MediaItemsChangedEvent.saved(2L))).isZero();
+        assertThat(subscriber.offer(MediaItemsChangedEvent.saved(3L))).isEqualTo(3);
+        subscriber.offer(MediaItemsChangedEvent.saved(4L));
+
+        // Then: nur ein bulk-Event
+        ChangeNotification notification = emitter.next();
+        assertThat(notification.bulk()).isTrue();
+        assertThat(notification.saved()).isEmpty();
+
+        // When: danach wieder einzelne Änderung
+        subscriber.offer(MediaItemsChangedEvent.saved(5L));
+
+        // Then: wieder IDs
+        assertThat(emitter.next().saved()).containsExactly(5L);
+        subscriber.close();
+    }
+
+    @Test
+    void should_send_bulk_for_import() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ChangeSubscriber subscriber = start(emitter, 100);
+
+        subscriber.offer(MediaItemsChangedEvent.saved(1L));
+        subscriber.offer(MediaItemsChangedEvent.bulk());
+
+        assertThat(emitter.next()).isEqualTo(ChangeNotification.bulkChange());
+        subscriber.close();
+    }
+
+    private static ChangeSubscriber start(SseEmitter emitter, int maxPendingIds) {
+        ChangeSubscriber subscriber = new ChangeSubscriber(emitter, maxPendingIds);
+        Thread.ofVirtual().start(() -> subscriber.run(WINDOW, Duration.ofMinutes(1)));
+        return subscriber;
+    }
+
+    /**
+     * Emitter, der gesendete Notifications sammelt statt sie zu schreiben
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<ChangeNotification> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            List<Object> data = builder.build().stream().map(part -> part.getData()).toList();
+            data.stream()
+                .filter(ChangeNotification.class::isInstance)
+                .map(ChangeNotification.class::cast)
+                .forEach(sent::add);
+        }
+
+        ChangeNotification next() throws InterruptedException {
+            ChangeNotification notification = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(notification).as("Event erwartet").isNotNull();
+            return notification;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.mediaverwaltung.service.search;
+
+import com.example.mediaverwaltung.model.MediaItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests für InvertedIndex (H2-Suche) und SearchQuery
+ */
+class InvertedIndexTest {
+    
+    @Test
+    void should_rank_beschreibung_before_channel_before_url() {
+        // Given: "java" jeweils in einem anderen Feld
+        InvertedIndex index = new InvertedIndex();
+        index.put(item(1L, "https://java.com/a", "Kochen", "Koch TV"));
+        index.put(item(2L, "https://b.com", "Einführung", "Java Channel"));
+        index.put(item(3L, "https://c.com", "Java lernen", "Schule"));
+        
+        // When/Then: beschreibung > channel > url
+        assertThat(index.search(List.of("java"), 0, 10)).containsExactly(3L, 2L, 1L);
+    }
+    
+    @Test
+    void should_match_prefix_and_require_all_terms() {
+        // Given
+        InvertedIndex index = new InvertedIndex();
+        index.put(item(1L, "https://a.com", "Spring Boot Tutorial", "Dev"));
+        index.put(item(2L, "https://b.com", "Spring Frühling", "Natur"));
+        index.put(item(3L, "https://c.com", "Springen lernen", "Sport"));
+        
+        // When/Then: Präfix, UND-Verknüpfung, exakter Treffer vor Präfix
+        assertThat(index.search(List.of("spring"), 0, 10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.search(List.of("spring", "boo"), 0, 10)).containsExactly(1L);
+        assertThat(index.search(List.of("spring", "xyz"), 0, 10)).isEmpty();
+    }
+    
+    @Test
+    void should_page_through_hits() {
+        // Given: 5 gleich gute Treffer
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(item(id, "https://x.com/" + id, "Video " + id, null));
+        }
+        
+        // When/Then: gleiche Relevanz → nach id
+        assertThat(index.search(List.of("video"), 0, 2)).containsExactly(1L, 2L);
+        assertThat(index.search(List.of("video"), 2, 2)).containsExactly(3L, 4L);
+        assertThat(index.search(List.of("video"), 4, 2)).containsExactly(5L);
+    }
+    
+    @Test
+    void should_forget_updated_and_removed_items() {
+        // Given
+        InvertedIndex index = new InvertedIndex();
+        index.put(item(1L, "https://a.com", "Alter Titel", null));
+        index.put(item(2L, "https://b.com", "Titel zwei", null));
+        
+        // When: Item 1 geändert, Item 2 gelöscht
+        index.put(item(1L, "https://a.com", "Neuer Titel", null));
+        index.remove(2L);
+        
+        // Then
+        assertThat(index.search(List.of("alter"), 0, 10)).isEmpty();
+        assertThat(index.search(List.of("titel"), 0, 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void should_parse_query_like_the_index() {
+        assertThat(SearchQuery.parse("  Spring-Boot, spring! 3").terms()).containsExactly("spring", "boot", "3");
+        assertThat(SearchQuery.parse("spring boo").toTsQuery()).isEqualTo("spring:* & boo:*");
+        assertThatThrownBy(() -> SearchQuery.parse(" ;-) ")).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static MediaItem item(Long id, String url, String beschreibung, String channel) {
+        MediaItem item = new MediaItem();
+        item.setId(id);
+        item.setUrl(url);
+        item.setBeschreibung(beschreibung);
+        item.setChannel(channel);
+        return item;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.mediaverwaltung.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für DurationParser (Formate und Überlauf)
+ */
+class DurationParserTest {
+
+    @Test
+    void should_parse_all_formats() {
+        assertThat(DurationParser.toSeconds("00:03:33")).isEqualTo(213);
+        assertThat(DurationParser.toSeconds(" 45:30 ")).isEqualTo(2730);
+        assertThat(DurationParser.toSeconds("90")).isEqualTo(90);
+        assertThat(DurationParser.toSeconds("abc")).isNull();
+        assertThat(DurationParser.toSeconds("1:2:3:4")).isNull();
+        assertThat(DurationParser.toSeconds("")).isNull();
+    }
+
+    @Test
+    void should_reject_durations_beyond_integer_range() {
+        // 596523:14:07 = Integer.MAX_VALUE Sekunden
+        assertThat(DurationParser.toSeconds("596523:14:07")).isEqualTo(Integer.MAX_VALUE);
+        assertThat(DurationParser.toSeconds("596523:14:08")).isNull();
+        assertThat(DurationParser.toSeconds("999999:59:59")).isNull();
+        assertThat(DurationParser.toSeconds("99999999999999999999")).isNull();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.mediaverwaltung.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für UrlNormalizer (kanonische Form + Hash)
+ */
+class UrlNormalizerTest {
+
+    @Test
+    void should_map_youtube_variants_to_one_watch_url() {
+        String canonical = "https://youtube.com/watch?v=dQw4w9WgXcQ";
+
+        assertThat(UrlNormalizer.normalize("https://www.youtube.com/watch?v=dQw4w9WgXcQ")).isEqualTo(canonical);
+        assertThat(UrlNormalizer.normalize("http://m.youtube.com/watch?feature=share&v=dQw4w9WgXcQ&t=42s")).isEqualTo(canonical);
+        assertThat(UrlNormalizer.normalize("https://youtu.be/dQw4w9WgXcQ?si=abc123")).isEqualTo(canonical);
+        assertThat(UrlNormalizer.normalize("https://www.youtube.com/shorts/dQw4w9WgXcQ")).isEqualTo(canonical);
+        assertThat(UrlNormalizer.normalize(" https://www.youtube-nocookie.com/embed/dQw4w9WgXcQ#t=10 ")).isEqualTo(canonical);
+        // Video-IDs sind case-sensitiv
+        assertThat(UrlNormalizer.normalize("https://youtu.be/DQW4W9WGXCQ")).isNotEqualTo(canonical);
+        // Kanal-Seiten bleiben, wie sie sind
+        assertThat(UrlNormalizer.normalize("https://www.youtube.com/@Kanal/videos"))
+            .isEqualTo("https://www.youtube.com/@Kanal/videos");
+    }
+
+    @Test
+    void should_strip_tracking_parameters_default_ports_and_case_of_host() {
+        assertThat(UrlNormalizer.normalize("HTTPS://Example.COM:443/Artikel?id=7&utm_source=feed&UTM_Medium=rss&fbclid=x"))
+            .isEqualTo("https://example.com/Artikel?id=7");
+        assertThat(UrlNormalizer.normalize("http://example.com:80")).isEqualTo("http://example.com/");
+        assertThat(UrlNormalizer.normalize("http://example.com:8080/#/route")).isEqualTo("http://example.com:8080/#/route");
+        assertThat(UrlNormalizer.normalize("https://open.spotify.com/episode/4rOoJ6Egrf8K2IrywzwOMk?si=1a2b"))
+            .isEqualTo("https://open.spotify.com/episode/4rOoJ6Egrf8K2IrywzwOMk");
+        assertThat(UrlNormalizer.normalize("keine-url")).isEqualTo("keine-url");
+        assertThat(UrlNormalizer.normalize(null)).isNull();
+    }
+
+    @Test
+    void should_hash_canonical_form_with_fixed_length() {
+        assertThat(UrlNormalizer.hashOf("https://youtu.be/dQw4w9WgXcQ"))
+            .isEqualTo(UrlNormalizer.hashOf("https://www.youtube.com/watch?v=dQw4w9WgXcQ&list=PL1"))
+            .hasSize(64);
+        assertThat(UrlNormalizer.hashOf("https://a.com/x")).isNotEqualTo(UrlNormalizer.hashOf("https://a.com/X"));
+        assertThat(UrlNormalizer.hash(null)).isNull();
+    }
+}
@@ -7,7 +7,18 @@
 -- ============================================================================
 
 -- Drop table if exists (for clean re-creation)
+DROP TABLE IF EXISTS MEDIA_ITEM_TAG;
+DROP TABLE IF EXISTS TAG;
 DROP TABLE IF EXISTS MEDIA_ITEM;
+DROP SEQUENCE IF EXISTS MEDIA_ITEM_SEQ;
+
+-- ============================================================================
+-- Sequence: MEDIA_ITEM_SEQ
+-- ============================================================================
+-- Hibernate reserves 50 ids per call (pooled optimizer) -> JDBC batching
+-- ============================================================================
+
+CREATE SEQUENCE MEDIA_ITEM_SEQ START WITH 1 INCREMENT BY 50;
 
 -- ============================================================================
 -- Table: MEDIA_ITEM
@@ -16,8 +27,8 @@ DROP TABLE IF EXISTS MEDIA_ITEM;
 -- ============================================================================
 
 CREATE TABLE MEDIA_ITEM (
-    -- Primary Key (auto-increment)
-    ID BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) NOT NULL,
+    -- Primary Key (from MEDIA_ITEM_SEQ)
+    ID BIGINT DEFAULT NEXT VALUE FOR MEDIA_ITEM_SEQ NOT NULL,
     
     -- Timestamp (auto-set on INSERT, updated via JPA @PreUpdate)
     LAST_UPDATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -34,14 +45,68 @@ CREATE TABLE MEDIA_ITEM (
     -- Optional: Duration (format: HH:MM:SS or MM:SS)
     DAUER CHARACTER VARYING(255),
     
+    -- Optional: Duration in seconds (derived from DAUER, NULL if not parseable)
+    DURATION_SECONDS INTEGER,
+    
     -- Optional: Keywords/Tags (comma-separated for now)
     STICHWORT CHARACTER VARYING(255),
     
     -- Optional: Media type (VIDEO, AUDIO, TEXT)
     MEDIA_TYPE CHARACTER VARYING(255),
     
+    -- Canonical URL (see UrlNormalizer) and its SHA-256, set by the application
+    URL_KEY CHARACTER VARYING(1000),
+    URL_HASH CHARACTER VARYING(64),
+    
+    -- Optimistic locking (JPA @Version), incremented by every UPDATE
+    VERSION BIGINT DEFAULT 0 NOT NULL,
+    
     -- Constraints
-    CONSTRAINT PK_MEDIA_ITEM PRIMARY KEY (ID)
+    CONSTRAINT PK_MEDIA_ITEM PRIMARY KEY (ID),
+    CONSTRAINT UK_MEDIA_ITEM_URL_HASH UNIQUE (URL_HASH)
+);
+
+-- ============================================================================
+-- Tables: TAG + MEDIA_ITEM_TAG (normalized tags, many-to-many)
+-- ============================================================================
+-- Tag names are trimmed and lower-cased; MEDIA_ITEM.STICHWORT keeps the
+-- original comma-separated text (API/CSV format)
+-- ============================================================================
+
+CREATE TABLE TAG (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    NAME CHARACTER VARYING(255) NOT NULL,
+    CONSTRAINT PK_TAG PRIMARY KEY (ID),
+    CONSTRAINT UK_TAG_NAME UNIQUE (NAME)
+);
+
+CREATE TABLE MEDIA_ITEM_TAG (
+    MEDIA_ITEM_ID BIGINT NOT NULL,
+    TAG_ID BIGINT NOT NULL,
+    CONSTRAINT PK_MEDIA_ITEM_TAG PRIMARY KEY (MEDIA_ITEM_ID, TAG_ID),
+    CONSTRAINT FK_MEDIA_ITEM_TAG_ITEM FOREIGN KEY (MEDIA_ITEM_ID) REFERENCES MEDIA_ITEM(ID) ON DELETE CASCADE,
+    CONSTRAINT FK_MEDIA_ITEM_TAG_TAG FOREIGN KEY (TAG_ID) REFERENCES TAG(ID)
+);
+
+-- ============================================================================
+-- Tables: MEDIA_ITEM_TOMBSTONE + MEDIA_SYNC_STATE (delta sync)
+-- ============================================================================
+-- Deleted item ids for /api/media/changes; the generation is increased by
+-- every REPLACE import (clients with older tokens resync from scratch);
+-- tombstones before TOMBSTONES_PURGED_BEFORE have been purged (retention)
+-- ============================================================================
+
+CREATE TABLE MEDIA_ITEM_TOMBSTONE (
+    MEDIA_ITEM_ID BIGINT NOT NULL,
+    DELETED_AT TIMESTAMP NOT NULL,
+    CONSTRAINT PK_MEDIA_ITEM_TOMBSTONE PRIMARY KEY (MEDIA_ITEM_ID)
+);
+
+CREATE TABLE MEDIA_SYNC_STATE (
+    ID BIGINT NOT NULL,
+    GENERATION BIGINT NOT NULL,
+    TOMBSTONES_PURGED_BEFORE TIMESTAMP,
+    CONSTRAINT PK_MEDIA_SYNC_STATE PRIMARY KEY (ID)
 );
 
 -- ============================================================================
@@ -54,17 +119,32 @@ CREATE INDEX IF NOT EXISTS IDX_MEDIA_TYPE ON MEDIA_ITEM(MEDIA_TYPE);
 -- Index on CHANNEL for fast filtering
 CREATE INDEX IF NOT EXISTS IDX_CHANNEL ON MEDIA_ITEM(CHANNEL);
 
+-- Composite index for keyset pagination (ORDER BY LAST_UPDATED_AT, ID)
+CREATE INDEX IF NOT EXISTS IDX_LAST_UPDATED_AT_ID ON MEDIA_ITEM(LAST_UPDATED_AT, ID);
+
+-- Index for duration range filters (dauerMin/dauerMax)
+CREATE INDEX IF NOT EXISTS IDX_DURATION_SECONDS ON MEDIA_ITEM(DURATION_SECONDS);
+
+-- Index for "all items tagged X" (TAG_ID first; PK covers MEDIA_ITEM_ID first)
+CREATE INDEX IF NOT EXISTS IDX_MEDIA_ITEM_TAG_TAG ON MEDIA_ITEM_TAG(TAG_ID, MEDIA_ITEM_ID);
+
+-- Index for the delta sync feed (ORDER BY DELETED_AT, MEDIA_ITEM_ID)
+CREATE INDEX IF NOT EXISTS IDX_TOMBSTONE_DELETED_AT_ID ON MEDIA_ITEM_TOMBSTONE(DELETED_AT, MEDIA_ITEM_ID);
+
 -- ============================================================================
 -- Comments (H2 supports column comments)
 -- ============================================================================
 
 COMMENT ON TABLE MEDIA_ITEM IS 'Stores all media items (videos, audio, text)';
-COMMENT ON COLUMN MEDIA_ITEM.ID IS 'Primary key, auto-increment';
+COMMENT ON COLUMN MEDIA_ITEM.ID IS 'Primary key, from MEDIA_ITEM_SEQ';
 COMMENT ON COLUMN MEDIA_ITEM.LAST_UPDATED_AT IS 'Last modification timestamp';
 COMMENT ON COLUMN MEDIA_ITEM.URL IS 'Source URL (required field)';
 COMMENT ON COLUMN MEDIA_ITEM.BESCHREIBUNG IS 'Description or title';
 COMMENT ON COLUMN MEDIA_ITEM.CHANNEL IS 'Channel or creator name';
 COMMENT ON COLUMN MEDIA_ITEM.DAUER IS 'Duration (e.g. 00:15:30)';
+COMMENT ON COLUMN MEDIA_ITEM.DURATION_SECONDS IS 'Duration in seconds (derived from DAUER)';
+COMMENT ON COLUMN MEDIA_ITEM.URL_KEY IS 'Canonical URL (derived from URL)';
+COMMENT ON COLUMN MEDIA_ITEM.URL_HASH IS 'SHA-256 of URL_KEY (unique, duplicate check)';
 COMMENT ON COLUMN MEDIA_ITEM.STICHWORT IS 'Keywords/Tags';
 COMMENT ON COLUMN MEDIA_ITEM.MEDIA_TYPE IS 'Type: VIDEO, AUDIO, TEXT';
 
@@ -72,11 +152,17 @@ COMMENT ON COLUMN MEDIA_ITEM.MEDIA_TYPE IS 'Type: VIDEO, AUDIO, TEXT';
 -- Sample Data (optional, for testing)
 -- ============================================================================
 
-INSERT INTO MEDIA_ITEM (URL, BESCHREIBUNG, CHANNEL, DAUER, STICHWORT, MEDIA_TYPE) VALUES
-('https://youtube.com/watch?v=dQw4w9WgXcQ', 'Never Gonna Give You Up', 'Rick Astley', '00:03:33', 'music,80s', 'VIDEO'),
-('https://youtube.com/watch?v=9bZkp7q19f0', 'Gangnam Style', 'PSY', '00:04:13', 'kpop,viral', 'VIDEO'),
-('https://spotify.com/episode/example', 'Tech Talk Episode 1', 'TechPodcast', '00:45:00', 'tech,podcast', 'AUDIO'),
-('https://medium.com/@user/ai-article', 'Understanding AI in 2025', 'AI Weekly', NULL, 'ai,tech', 'TEXT');
+-- URL_KEY/URL_HASH are filled on startup (UrlHashBackfill)
+INSERT INTO MEDIA_ITEM (URL, BESCHREIBUNG, CHANNEL, DAUER, DURATION_SECONDS, STICHWORT, MEDIA_TYPE) VALUES
+('https://youtube.com/watch?v=dQw4w9WgXcQ', 'Never Gonna Give You Up', 'Rick Astley', '00:03:33', 213, 'music,80s', 'VIDEO'),
+('https://youtube.com/watch?v=9bZkp7q19f0', 'Gangnam Style', 'PSY', '00:04:13', 253, 'kpop,viral', 'VIDEO'),
+('https://spotify.com/episode/example', 'Tech Talk Episode 1', 'TechPodcast', '00:45:00', 2700, 'tech,podcast', 'AUDIO'),
+('https://medium.com/@user/ai-article', 'Understanding AI in 2025', 'AI Weekly', NULL, NULL, 'ai,tech', 'TEXT');
+
+INSERT INTO TAG (NAME) VALUES ('music'), ('80s'), ('kpop'), ('viral'), ('tech'), ('podcast'), ('ai');
+
+INSERT INTO MEDIA_ITEM_TAG (MEDIA_ITEM_ID, TAG_ID)
+SELECT M.ID, T.ID FROM MEDIA_ITEM M JOIN TAG T ON POSITION(',' || T.NAME || ',' IN ',' || M.STICHWORT || ',') > 0;
 
 -- ============================================================================
 -- End of Schema
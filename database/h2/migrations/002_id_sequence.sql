@@ -0,0 +1,16 @@
+-- ============================================================================
+-- Migration 002: MEDIA_ITEM.ID from pooled sequence (H2)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Replaces the IDENTITY id with MEDIA_ITEM_SEQ (INCREMENT BY 50),
+-- so Hibernate can batch inserts. Run ONCE on existing databases, before
+-- starting the new application version.
+-- ============================================================================
+
+CREATE SEQUENCE IF NOT EXISTS MEDIA_ITEM_SEQ START WITH 1 INCREMENT BY 50;
+
+-- Next NEXT VALUE returns MAX(ID) + 50 -> Hibernate uses MAX(ID)+1 .. MAX(ID)+50
+ALTER SEQUENCE MEDIA_ITEM_SEQ RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 50 FROM MEDIA_ITEM) INCREMENT BY 50;
+
+ALTER TABLE MEDIA_ITEM ALTER COLUMN ID DROP IDENTITY;
+ALTER TABLE MEDIA_ITEM ALTER COLUMN ID SET DEFAULT NEXT VALUE FOR MEDIA_ITEM_SEQ;
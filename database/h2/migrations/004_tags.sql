@@ -0,0 +1,49 @@
+-- ============================================================================
+-- Migration 004: normalized tags (H2)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds TAG + MEDIA_ITEM_TAG (many-to-many) and fills them from the
+-- comma-separated MEDIA_ITEM.STICHWORT. Tag names are trimmed and
+-- lower-cased. STICHWORT itself is kept (API/CSV format unchanged).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS TAG (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    NAME CHARACTER VARYING(255) NOT NULL,
+    CONSTRAINT PK_TAG PRIMARY KEY (ID),
+    CONSTRAINT UK_TAG_NAME UNIQUE (NAME)
+);
+
+CREATE TABLE IF NOT EXISTS MEDIA_ITEM_TAG (
+    MEDIA_ITEM_ID BIGINT NOT NULL,
+    TAG_ID BIGINT NOT NULL,
+    CONSTRAINT PK_MEDIA_ITEM_TAG PRIMARY KEY (MEDIA_ITEM_ID, TAG_ID),
+    CONSTRAINT FK_MEDIA_ITEM_TAG_ITEM FOREIGN KEY (MEDIA_ITEM_ID) REFERENCES MEDIA_ITEM(ID) ON DELETE CASCADE,
+    CONSTRAINT FK_MEDIA_ITEM_TAG_TAG FOREIGN KEY (TAG_ID) REFERENCES TAG(ID)
+);
+
+-- "Alle Items mit Tag X": Index-Lookup über TAG_ID
+CREATE INDEX IF NOT EXISTS IDX_MEDIA_ITEM_TAG_TAG ON MEDIA_ITEM_TAG(TAG_ID, MEDIA_ITEM_ID);
+
+-- STICHWORT zerlegen (rekursiv am Komma)
+CREATE LOCAL TEMPORARY TABLE MEDIA_ITEM_TAG_MIGRATION AS
+WITH RECURSIVE PARTS(MEDIA_ITEM_ID, PART, REST) AS (
+    SELECT ID, CAST(NULL AS CHARACTER VARYING(255)), STICHWORT || ','
+    FROM MEDIA_ITEM WHERE STICHWORT IS NOT NULL
+    UNION ALL
+    SELECT MEDIA_ITEM_ID, SUBSTRING(REST, 1, LOCATE(',', REST) - 1), SUBSTRING(REST, LOCATE(',', REST) + 1)
+    FROM PARTS WHERE REST <> ''
+)
+SELECT DISTINCT MEDIA_ITEM_ID, LOWER(TRIM(PART)) AS NAME
+FROM PARTS WHERE PART IS NOT NULL AND TRIM(PART) <> '';
+
+INSERT INTO TAG (NAME)
+SELECT DISTINCT M.NAME FROM MEDIA_ITEM_TAG_MIGRATION M
+WHERE NOT EXISTS (SELECT 1 FROM TAG T WHERE T.NAME = M.NAME);
+
+INSERT INTO MEDIA_ITEM_TAG (MEDIA_ITEM_ID, TAG_ID)
+SELECT M.MEDIA_ITEM_ID, T.ID FROM MEDIA_ITEM_TAG_MIGRATION M JOIN TAG T ON T.NAME = M.NAME
+WHERE NOT EXISTS (SELECT 1 FROM MEDIA_ITEM_TAG X WHERE X.MEDIA_ITEM_ID = M.MEDIA_ITEM_ID AND X.TAG_ID = T.ID);
+
+DROP TABLE MEDIA_ITEM_TAG_MIGRATION;
@@ -0,0 +1,39 @@
+-- ============================================================================
+-- Migration 005: duration in seconds (H2)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds MEDIA_ITEM.DURATION_SECONDS (derived from DAUER: "HH:MM:SS", "MM:SS"
+-- or "SS") with an index for range filters and SUM/AVG in the database.
+-- Values that are not parseable or exceed INTEGER stay NULL (same rules as
+-- DurationParser).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+ALTER TABLE MEDIA_ITEM ADD COLUMN IF NOT EXISTS DURATION_SECONDS INTEGER;
+
+-- Computed as BIGINT: "999999:59:59" exceeds INTEGER, such values stay NULL.
+
+-- HH:MM:SS
+UPDATE MEDIA_ITEM SET DURATION_SECONDS = CAST((
+      CAST(REGEXP_REPLACE(DAUER, '^\s*(\d{1,6})\s*:\s*(\d{1,6})\s*:\s*(\d{1,6})\s*$', '$1') AS BIGINT) * 3600
+    + CAST(REGEXP_REPLACE(DAUER, '^\s*(\d{1,6})\s*:\s*(\d{1,6})\s*:\s*(\d{1,6})\s*$', '$2') AS BIGINT) * 60
+    + CAST(REGEXP_REPLACE(DAUER, '^\s*(\d{1,6})\s*:\s*(\d{1,6})\s*:\s*(\d{1,6})\s*$', '$3') AS BIGINT)
+    ) AS INTEGER)
+WHERE REGEXP_LIKE(DAUER, '^\s*\d{1,6}\s*:\s*\d{1,6}\s*:\s*\d{1,6}\s*$')
+  AND (
+      CAST(REGEXP_REPLACE(DAUER, '^\s*(\d{1,6})\s*:\s*(\d{1,6})\s*:\s*(\d{1,6})\s*$', '$1') AS BIGINT) * 3600
+    + CAST(REGEXP_REPLACE(DAUER, '^\s*(\d{1,6})\s*:\s*(\d{1,6})\s*:\s*(\d{1,6})\s*$', '$2') AS BIGINT) * 60
+    + CAST(REGEXP_REPLACE(DAUER, '^\s*(\d{1,6})\s*:\s*(\d{1,6})\s*:\s*(\d{1,6})\s*$', '$3') AS BIGINT)
+    ) <= 2147483647;
+
+-- MM:SS (at most 999999 * 60 + 999999, fits INTEGER)
+UPDATE MEDIA_ITEM SET DURATION_SECONDS =
+      CAST(REGEXP_REPLACE(DAUER, '^\s*(\d{1,6})\s*:\s*(\d{1,6})\s*$', '$1') AS INTEGER) * 60
+    + CAST(REGEXP_REPLACE(DAUER, '^\s*(\d{1,6})\s*:\s*(\d{1,6})\s*$', '$2') AS INTEGER)
+WHERE REGEXP_LIKE(DAUER, '^\s*\d{1,6}\s*:\s*\d{1,6}\s*$');
+
+-- SS (at most 9 digits, fits INTEGER)
+UPDATE MEDIA_ITEM SET DURATION_SECONDS = CAST(TRIM(DAUER) AS INTEGER)
+WHERE REGEXP_LIKE(DAUER, '^\s*\d{1,9}\s*$');
+
+CREATE INDEX IF NOT EXISTS IDX_DURATION_SECONDS ON MEDIA_ITEM(DURATION_SECONDS);
@@ -0,0 +1,22 @@
+-- ============================================================================
+-- Migration 006: delta sync (H2)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds MEDIA_ITEM_TOMBSTONE (deleted item ids for /api/media/changes) and
+-- MEDIA_SYNC_STATE (generation, increased by every REPLACE import).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS MEDIA_ITEM_TOMBSTONE (
+    MEDIA_ITEM_ID BIGINT NOT NULL,
+    DELETED_AT TIMESTAMP NOT NULL,
+    CONSTRAINT PK_MEDIA_ITEM_TOMBSTONE PRIMARY KEY (MEDIA_ITEM_ID)
+);
+
+CREATE INDEX IF NOT EXISTS IDX_TOMBSTONE_DELETED_AT_ID ON MEDIA_ITEM_TOMBSTONE(DELETED_AT, MEDIA_ITEM_ID);
+
+CREATE TABLE IF NOT EXISTS MEDIA_SYNC_STATE (
+    ID BIGINT NOT NULL,
+    GENERATION BIGINT NOT NULL,
+    CONSTRAINT PK_MEDIA_SYNC_STATE PRIMARY KEY (ID)
+);
@@ -0,0 +1,30 @@
+-- ============================================================================
+-- Migration 007: normalized, unique URL key (H2)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds MEDIA_ITEM.URL_KEY (URL trimmed, scheme and host lower-case; same
+-- rules as UrlNormalizer) with a unique constraint. MERGE imports match
+-- rows on this key.
+-- If the same URL already exists more than once, only the oldest row (lowest
+-- ID) gets the key; the others keep URL_KEY = NULL and should be merged or
+-- deleted by hand (see the SELECT at the end).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+ALTER TABLE MEDIA_ITEM ADD COLUMN IF NOT EXISTS URL_KEY CHARACTER VARYING(1000);
+
+UPDATE MEDIA_ITEM SET URL_KEY = TRIM(URL);
+
+UPDATE MEDIA_ITEM SET URL_KEY =
+       LOWER(REGEXP_REPLACE(URL_KEY, '^([A-Za-z][A-Za-z0-9+.-]*://[^/?#]*)(.*)$', '$1', 'n'))
+    || REGEXP_REPLACE(URL_KEY, '^([A-Za-z][A-Za-z0-9+.-]*://[^/?#]*)(.*)$', '$2', 'n')
+WHERE REGEXP_LIKE(URL_KEY, '^[A-Za-z][A-Za-z0-9+.-]*://', 'n');
+
+-- Duplicates: keep the key on the oldest row only
+UPDATE MEDIA_ITEM SET URL_KEY = NULL
+WHERE EXISTS (SELECT 1 FROM MEDIA_ITEM OLDER WHERE OLDER.URL_KEY = MEDIA_ITEM.URL_KEY AND OLDER.ID < MEDIA_ITEM.ID);
+
+ALTER TABLE MEDIA_ITEM ADD CONSTRAINT IF NOT EXISTS UK_MEDIA_ITEM_URL_KEY UNIQUE (URL_KEY);
+
+-- Remaining duplicates (URL_KEY = NULL), to be cleaned up by hand
+SELECT ID, URL FROM MEDIA_ITEM WHERE URL_KEY IS NULL ORDER BY URL, ID;
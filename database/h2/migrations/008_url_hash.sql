@@ -0,0 +1,25 @@
+-- ============================================================================
+-- Migration 008: canonical URL hash (H2)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds MEDIA_ITEM.URL_HASH (SHA-256 of the canonical URL, see UrlNormalizer)
+-- and moves the unique constraint from URL_KEY to it: a fixed-size key keeps
+-- duplicate lookups a single index probe, however long the URL.
+-- The canonical form (YouTube variants, tracking parameters, ...) is computed
+-- by the application: on startup UrlHashBackfill fills URL_KEY and URL_HASH
+-- for all rows where URL_HASH is NULL and logs rows that turn out to be
+-- duplicates (they keep URL_HASH = NULL, the oldest row keeps the hash).
+-- Safe to run again: hashes that occur more than once are kept on the
+-- oldest row only (same rule as 007) before the constraint is added.
+-- Run after 007, before starting the new version.
+-- ============================================================================
+
+ALTER TABLE MEDIA_ITEM ADD COLUMN IF NOT EXISTS URL_HASH CHARACTER VARYING(64);
+
+ALTER TABLE MEDIA_ITEM DROP CONSTRAINT IF EXISTS UK_MEDIA_ITEM_URL_KEY;
+
+-- Duplicates: keep the hash on the oldest row only
+UPDATE MEDIA_ITEM SET URL_HASH = NULL
+WHERE EXISTS (SELECT 1 FROM MEDIA_ITEM OLDER WHERE OLDER.URL_HASH = MEDIA_ITEM.URL_HASH AND OLDER.ID < MEDIA_ITEM.ID);
+
+ALTER TABLE MEDIA_ITEM ADD CONSTRAINT IF NOT EXISTS UK_MEDIA_ITEM_URL_HASH UNIQUE (URL_HASH);
@@ -0,0 +1,12 @@
+-- ============================================================================
+-- Migration 009: optimistic locking (H2)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds MEDIA_ITEM.VERSION (JPA @Version). Every UPDATE increments it;
+-- PUT and PATCH /api/media/{id} with a stale version are rejected (409)
+-- instead of silently overwriting a concurrent edit.
+-- Existing rows and rows inserted by the JDBC import writers start at 0.
+-- Run ONCE on existing databases (after 008).
+-- ============================================================================
+
+ALTER TABLE MEDIA_ITEM ADD COLUMN IF NOT EXISTS VERSION BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,11 @@
+-- ============================================================================
+-- Migration 010: tombstone retention (H2)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds MEDIA_SYNC_STATE.TOMBSTONES_PURGED_BEFORE: tombstones older than this
+-- have been purged, change tokens positioned before it get reset=true (full
+-- resync). NULL = nothing purged yet.
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+ALTER TABLE MEDIA_SYNC_STATE ADD COLUMN IF NOT EXISTS TOMBSTONES_PURGED_BEFORE TIMESTAMP;
@@ -0,0 +1,21 @@
+-- ============================================================================
+-- Migration 002: media_item.id from pooled sequence (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Replaces the BIGSERIAL/IDENTITY id with media_item_seq (INCREMENT BY 50),
+-- so Hibernate can batch inserts. Run ONCE on existing databases, before
+-- starting the new application version.
+-- ============================================================================
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS media_item_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE media_item_seq INCREMENT BY 50;
+
+-- Next nextval() returns MAX(id) + 50 -> Hibernate uses MAX(id)+1 .. MAX(id)+50
+SELECT setval('media_item_seq', GREATEST((SELECT MAX(id) FROM media_item), 1));
+
+ALTER TABLE media_item ALTER COLUMN id SET DEFAULT nextval('media_item_seq');
+DROP SEQUENCE IF EXISTS media_item_id_seq;
+
+COMMIT;
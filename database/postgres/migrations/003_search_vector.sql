@@ -0,0 +1,21 @@
+-- ============================================================================
+-- Migration 003: full-text search column + GIN index (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds the generated tsvector column used by /api/media/search
+-- (mediaverwaltung.search.engine=postgres). Run ONCE on existing databases.
+-- Adding a STORED generated column rewrites the table (takes a lock).
+-- H2 needs no migration: it uses the in-memory index.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE media_item ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(beschreibung, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(channel, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(url, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_media_item_search ON media_item USING GIN (search_vector);
+
+COMMIT;
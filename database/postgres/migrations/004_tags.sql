@@ -0,0 +1,45 @@
+-- ============================================================================
+-- Migration 004: normalized tags (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds tag + media_item_tag (many-to-many) and fills them from the
+-- comma-separated media_item.stichwort. Tag names are trimmed and
+-- lower-cased. stichwort itself is kept (API/CSV format unchanged).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tag (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_tag PRIMARY KEY (id),
+    CONSTRAINT uk_tag_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS media_item_tag (
+    media_item_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    CONSTRAINT pk_media_item_tag PRIMARY KEY (media_item_id, tag_id),
+    CONSTRAINT fk_media_item_tag_item FOREIGN KEY (media_item_id) REFERENCES media_item(id) ON DELETE CASCADE,
+    CONSTRAINT fk_media_item_tag_tag FOREIGN KEY (tag_id) REFERENCES tag(id)
+);
+
+-- "All items tagged X": index lookup by tag_id
+CREATE INDEX IF NOT EXISTS idx_media_item_tag_tag ON media_item_tag(tag_id, media_item_id);
+
+-- Split stichwort at commas
+CREATE TEMPORARY TABLE media_item_tag_migration ON COMMIT DROP AS
+SELECT DISTINCT m.id AS media_item_id, lower(trim(part)) AS name
+FROM media_item m, unnest(string_to_array(m.stichwort, ',')) AS part
+WHERE trim(part) <> '';
+
+INSERT INTO tag (name)
+SELECT DISTINCT name FROM media_item_tag_migration
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO media_item_tag (media_item_id, tag_id)
+SELECT mm.media_item_id, t.id FROM media_item_tag_migration mm JOIN tag t ON t.name = mm.name
+ON CONFLICT DO NOTHING;
+
+COMMIT;
@@ -0,0 +1,35 @@
+-- ============================================================================
+-- Migration 005: duration in seconds (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds media_item.duration_seconds (derived from dauer: "HH:MM:SS", "MM:SS"
+-- or "SS") with an index for range filters and SUM/AVG in the database.
+-- Values that are not parseable or exceed INTEGER stay NULL (same rules as
+-- DurationParser).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE media_item ADD COLUMN IF NOT EXISTS duration_seconds INTEGER;
+
+-- Computed as BIGINT: "999999:59:59" exceeds INTEGER, such values stay NULL.
+UPDATE media_item m SET duration_seconds = parsed.seconds::int
+FROM (
+    SELECT id,
+        CASE
+            WHEN p[3] IS NOT NULL THEN p[1]::bigint * 3600 + p[2]::bigint * 60 + p[3]::bigint
+            WHEN p[2] IS NOT NULL THEN p[1]::bigint * 60 + p[2]::bigint
+            ELSE p[1]::bigint
+        END AS seconds
+    FROM (
+        SELECT id, regexp_match(dauer, '^\s*(\d{1,6})\s*(?::\s*(\d{1,6})\s*)?(?::\s*(\d{1,6})\s*)?$') AS p
+        FROM media_item
+    ) matched
+    WHERE matched.p IS NOT NULL
+) parsed
+WHERE parsed.id = m.id AND parsed.seconds <= 2147483647;
+
+CREATE INDEX IF NOT EXISTS idx_duration_seconds ON media_item(duration_seconds);
+
+COMMIT;
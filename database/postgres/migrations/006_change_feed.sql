@@ -0,0 +1,26 @@
+-- ============================================================================
+-- Migration 006: delta sync (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds media_item_tombstone (deleted item ids for /api/media/changes) and
+-- media_sync_state (generation, increased by every REPLACE import).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS media_item_tombstone (
+    media_item_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_media_item_tombstone PRIMARY KEY (media_item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_tombstone_deleted_at_id ON media_item_tombstone(deleted_at, media_item_id);
+
+CREATE TABLE IF NOT EXISTS media_sync_state (
+    id BIGINT NOT NULL,
+    generation BIGINT NOT NULL,
+    CONSTRAINT pk_media_sync_state PRIMARY KEY (id)
+);
+
+COMMIT;
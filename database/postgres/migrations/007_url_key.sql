@@ -0,0 +1,31 @@
+-- ============================================================================
+-- Migration 007: normalized, unique URL key (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds media_item.url_key (url trimmed, scheme and host lower-case; same
+-- rules as UrlNormalizer) with a unique constraint. MERGE imports match
+-- rows on this key (INSERT ... ON CONFLICT (url_key)).
+-- If the same URL already exists more than once, only the oldest row (lowest
+-- id) gets the key; the others keep url_key = NULL and should be merged or
+-- deleted by hand (see the SELECT at the end).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE media_item ADD COLUMN IF NOT EXISTS url_key VARCHAR(1000);
+
+UPDATE media_item SET url_key =
+       lower(coalesce(substring(btrim(url) from '^[A-Za-z][A-Za-z0-9+.-]*://[^/?#]*'), ''))
+    || regexp_replace(btrim(url), '^[A-Za-z][A-Za-z0-9+.-]*://[^/?#]*', '');
+
+-- Duplicates: keep the key on the oldest row only
+UPDATE media_item m SET url_key = NULL
+WHERE EXISTS (SELECT 1 FROM media_item older WHERE older.url_key = m.url_key AND older.id < m.id);
+
+ALTER TABLE media_item ADD CONSTRAINT uk_media_item_url_key UNIQUE (url_key);
+
+COMMIT;
+
+-- Remaining duplicates (url_key = NULL), to be cleaned up by hand
+SELECT id, url FROM media_item WHERE url_key IS NULL ORDER BY url, id;
@@ -0,0 +1,39 @@
+-- ============================================================================
+-- Migration 008: canonical URL hash (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds media_item.url_hash (SHA-256 of the canonical URL, see UrlNormalizer)
+-- and moves the unique constraint from url_key to it: a fixed-size key keeps
+-- duplicate lookups a single index probe and stays far below the b-tree
+-- entry limit (~2.7 kB) that a 1000-character URL can exceed.
+-- (A hash index cannot be UNIQUE in PostgreSQL, hence a b-tree on the hash.)
+-- The canonical form (YouTube variants, tracking parameters, ...) is computed
+-- by the application: on startup UrlHashBackfill fills url_key and url_hash
+-- for all rows where url_hash IS NULL and logs rows that turn out to be
+-- duplicates (they keep url_hash = NULL, the oldest row keeps the hash).
+-- Safe to run again, e.g. after the new version already started once and
+-- ddl-auto=update created the column: hashes that occur more than once are
+-- kept on the oldest row only (same rule as 007), the constraint is only
+-- added when missing.
+-- Run after 007, before starting the new version.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE media_item ADD COLUMN IF NOT EXISTS url_hash VARCHAR(64);
+
+ALTER TABLE media_item DROP CONSTRAINT IF EXISTS uk_media_item_url_key;
+
+-- Duplicates: keep the hash on the oldest row only
+UPDATE media_item m SET url_hash = NULL
+WHERE EXISTS (SELECT 1 FROM media_item older WHERE older.url_hash = m.url_hash AND older.id < m.id);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = 'uk_media_item_url_hash' AND conrelid = 'media_item'::regclass) THEN
+        ALTER TABLE media_item ADD CONSTRAINT uk_media_item_url_hash UNIQUE (url_hash);
+    END IF;
+END $$;
+
+COMMIT;
@@ -0,0 +1,18 @@
+-- ============================================================================
+-- Migration 009: optimistic locking (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds media_item.version (JPA @Version). Every UPDATE increments it;
+-- PUT and PATCH /api/media/{id} with a stale version are rejected (409)
+-- instead of silently overwriting a concurrent edit.
+-- Existing rows and rows inserted by the JDBC import writers start at 0.
+-- (ADD COLUMN with a constant default is metadata-only since PostgreSQL 11,
+-- no table rewrite.)
+-- Run ONCE on existing databases (after 008).
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE media_item ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
@@ -0,0 +1,15 @@
+-- ============================================================================
+-- Migration 010: tombstone retention (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- Adds media_sync_state.tombstones_purged_before: tombstones older than this
+-- have been purged, change tokens positioned before it get reset=true (full
+-- resync). NULL = nothing purged yet.
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE media_sync_state ADD COLUMN IF NOT EXISTS tombstones_purged_before TIMESTAMP;
+
+COMMIT;
@@ -0,0 +1,19 @@
+-- ============================================================================
+-- Migration 011: drop the last_updated_at trigger (PostgreSQL)
+-- ============================================================================
+-- Date: 2026-10-17
+-- The schema used to install update_media_item_modtime, which overwrote
+-- last_updated_at with CURRENT_TIMESTAMP on every UPDATE. The application
+-- sets last_updated_at itself; the trigger broke MERGE imports (tags of
+-- updated items are matched by the import's timestamp) and made the
+-- url_hash backfill touch last_updated_at (delta-sync clients reloaded
+-- everything).
+-- Run ONCE on existing databases, before starting the new version.
+-- ============================================================================
+
+BEGIN;
+
+DROP TRIGGER IF EXISTS update_media_item_modtime ON media_item;
+DROP FUNCTION IF EXISTS update_modified_column();
+
+COMMIT;
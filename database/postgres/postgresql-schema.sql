@@ -7,7 +7,18 @@
 -- ============================================================================
 
 -- Drop table if exists (for clean re-creation)
+DROP TABLE IF EXISTS media_item_tag;
+DROP TABLE IF EXISTS tag;
 DROP TABLE IF EXISTS media_item CASCADE;
+DROP SEQUENCE IF EXISTS media_item_seq;
+
+-- ============================================================================
+-- Sequence: media_item_seq
+-- ============================================================================
+-- Hibernate reserves 50 ids per call (pooled optimizer) -> JDBC batching
+-- ============================================================================
+
+CREATE SEQUENCE media_item_seq START WITH 1 INCREMENT BY 50;
 
 -- ============================================================================
 -- Table: media_item
@@ -16,8 +27,8 @@ DROP TABLE IF EXISTS media_item CASCADE;
 -- ============================================================================
 
 CREATE TABLE media_item (
-    -- Primary Key (auto-increment via BIGSERIAL)
-    id BIGSERIAL NOT NULL,
+    -- Primary Key (from media_item_seq)
+    id BIGINT NOT NULL DEFAULT nextval('media_item_seq'),
     
     -- Timestamp (auto-set on INSERT, PostgreSQL uses TIMESTAMP)
     last_updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -34,14 +45,78 @@ CREATE TABLE media_item (
     -- Optional: Duration (format: HH:MM:SS or MM:SS)
     dauer VARCHAR(255),
     
+    -- Optional: Duration in seconds (derived from dauer, NULL if not parseable)
+    duration_seconds INTEGER,
+    
+    -- Watched flag (user state, never reset by imports)
+    gesehen BOOLEAN NOT NULL DEFAULT FALSE,
+    
     -- Optional: Keywords/Tags (comma-separated for now)
     stichwort VARCHAR(255),
     
     -- Optional: Media type (VIDEO, AUDIO, TEXT)
     media_type VARCHAR(255),
     
+    -- Canonical URL (see UrlNormalizer) and its SHA-256, set by the application
+    url_key VARCHAR(1000),
+    url_hash VARCHAR(64),
+    
+    -- Optimistic locking (JPA @Version), incremented by every UPDATE
+    version BIGINT NOT NULL DEFAULT 0,
+    
+    -- Full-text search (generated): beschreibung (A) > channel (B) > url (C)
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(beschreibung, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(channel, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(url, '')), 'C')
+    ) STORED,
+    
     -- Constraints
-    CONSTRAINT pk_media_item PRIMARY KEY (id)
+    CONSTRAINT pk_media_item PRIMARY KEY (id),
+    CONSTRAINT uk_media_item_url_hash UNIQUE (url_hash)
+);
+
+-- ============================================================================
+-- Tables: tag + media_item_tag (normalized tags, many-to-many)
+-- ============================================================================
+-- Tag names are trimmed and lower-cased; media_item.stichwort keeps the
+-- original comma-separated text (API/CSV format)
+-- ============================================================================
+
+CREATE TABLE tag (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_tag PRIMARY KEY (id),
+    CONSTRAINT uk_tag_name UNIQUE (name)
+);
+
+CREATE TABLE media_item_tag (
+    media_item_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    CONSTRAINT pk_media_item_tag PRIMARY KEY (media_item_id, tag_id),
+    CONSTRAINT fk_media_item_tag_item FOREIGN KEY (media_item_id) REFERENCES media_item(id) ON DELETE CASCADE,
+    CONSTRAINT fk_media_item_tag_tag FOREIGN KEY (tag_id) REFERENCES tag(id)
+);
+
+-- ============================================================================
+-- Tables: media_item_tombstone + media_sync_state (delta sync)
+-- ============================================================================
+-- Deleted item ids for /api/media/changes; the generation is increased by
+-- every REPLACE import (clients with older tokens resync from scratch);
+-- tombstones before tombstones_purged_before have been purged (retention)
+-- ============================================================================
+
+CREATE TABLE media_item_tombstone (
+    media_item_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_media_item_tombstone PRIMARY KEY (media_item_id)
+);
+
+CREATE TABLE media_sync_state (
+    id BIGINT NOT NULL,
+    generation BIGINT NOT NULL,
+    tombstones_purged_before TIMESTAMP,
+    CONSTRAINT pk_media_sync_state PRIMARY KEY (id)
 );
 
 -- ============================================================================
@@ -57,48 +132,58 @@ CREATE INDEX idx_channel ON media_item(channel);
 -- Index on last_updated_at for sorting by date
 CREATE INDEX idx_last_updated_at ON media_item(last_updated_at DESC);
 
+-- Composite index for keyset pagination (ORDER BY last_updated_at, id)
+CREATE INDEX idx_last_updated_at_id ON media_item(last_updated_at, id);
+
+-- GIN index for full-text search (/api/media/search)
+CREATE INDEX idx_media_item_search ON media_item USING GIN (search_vector);
+
+-- Index for duration range filters (dauerMin/dauerMax)
+CREATE INDEX idx_duration_seconds ON media_item(duration_seconds);
+
+-- Index for "all items tagged X" (tag_id first; PK covers media_item_id first)
+CREATE INDEX idx_media_item_tag_tag ON media_item_tag(tag_id, media_item_id);
+
+-- Index for the delta sync feed (ORDER BY deleted_at, media_item_id)
+CREATE INDEX idx_tombstone_deleted_at_id ON media_item_tombstone(deleted_at, media_item_id);
+
 -- ============================================================================
 -- Comments (PostgreSQL supports table and column comments)
 -- ============================================================================
 
 COMMENT ON TABLE media_item IS 'Stores all media items (videos, audio, text)';
-COMMENT ON COLUMN media_item.id IS 'Primary key, auto-increment';
+COMMENT ON COLUMN media_item.id IS 'Primary key, from media_item_seq';
 COMMENT ON COLUMN media_item.last_updated_at IS 'Last modification timestamp';
 COMMENT ON COLUMN media_item.url IS 'Source URL (required field)';
 COMMENT ON COLUMN media_item.beschreibung IS 'Description or title';
 COMMENT ON COLUMN media_item.channel IS 'Channel or creator name';
 COMMENT ON COLUMN media_item.dauer IS 'Duration (e.g. 00:15:30)';
+COMMENT ON COLUMN media_item.duration_seconds IS 'Duration in seconds (derived from dauer)';
+COMMENT ON COLUMN media_item.url_key IS 'Canonical URL (derived from url)';
+COMMENT ON COLUMN media_item.url_hash IS 'SHA-256 of url_key (unique, duplicate check)';
 COMMENT ON COLUMN media_item.stichwort IS 'Keywords/Tags';
 COMMENT ON COLUMN media_item.media_type IS 'Type: VIDEO, AUDIO, TEXT';
+COMMENT ON COLUMN media_item.search_vector IS 'Full-text search vector (generated)';
 
 -- ============================================================================
 -- Sample Data (optional, for testing)
 -- ============================================================================
 
-INSERT INTO media_item (url, beschreibung, channel, dauer, stichwort, media_type) VALUES
-('https://youtube.com/watch?v=dQw4w9WgXcQ', 'Never Gonna Give You Up', 'Rick Astley', '00:03:33', 'music,80s', 'VIDEO'),
-('https://youtube.com/watch?v=9bZkp7q19f0', 'Gangnam Style', 'PSY', '00:04:13', 'kpop,viral', 'VIDEO'),
-('https://spotify.com/episode/example', 'Tech Talk Episode 1', 'TechPodcast', '00:45:00', 'tech,podcast', 'AUDIO'),
-('https://medium.com/@user/ai-article', 'Understanding AI in 2025', 'AI Weekly', NULL, 'ai,tech', 'TEXT');
+-- url_key/url_hash are filled on startup (UrlHashBackfill)
+INSERT INTO media_item (url, beschreibung, channel, dauer, duration_seconds, stichwort, media_type) VALUES
+('https://youtube.com/watch?v=dQw4w9WgXcQ', 'Never Gonna Give You Up', 'Rick Astley', '00:03:33', 213, 'music,80s', 'VIDEO'),
+('https://youtube.com/watch?v=9bZkp7q19f0', 'Gangnam Style', 'PSY', '00:04:13', 253, 'kpop,viral', 'VIDEO'),
+('https://spotify.com/episode/example', 'Tech Talk Episode 1', 'TechPodcast', '00:45:00', 2700, 'tech,podcast', 'AUDIO'),
+('https://medium.com/@user/ai-article', 'Understanding AI in 2025', 'AI Weekly', NULL, NULL, 'ai,tech', 'TEXT');
 
--- ============================================================================
--- Additional PostgreSQL-specific features (optional)
--- ============================================================================
+INSERT INTO tag (name) VALUES ('music'), ('80s'), ('kpop'), ('viral'), ('tech'), ('podcast'), ('ai');
 
--- Create a function to auto-update last_updated_at on UPDATE
-CREATE OR REPLACE FUNCTION update_modified_column()
-RETURNS TRIGGER AS $$
-BEGIN
-    NEW.last_updated_at = CURRENT_TIMESTAMP;
-    RETURN NEW;
-END;
-$$ LANGUAGE plpgsql;
+INSERT INTO media_item_tag (media_item_id, tag_id)
+SELECT m.id, t.id FROM media_item m JOIN tag t ON position(',' || t.name || ',' in ',' || m.stichwort || ',') > 0;
 
--- Create trigger to auto-update timestamp
-CREATE TRIGGER update_media_item_modtime
-    BEFORE UPDATE ON media_item
-    FOR EACH ROW
-    EXECUTE FUNCTION update_modified_column();
+-- last_updated_at is set by the application (JPA and JDBC imports), not by
+-- a trigger: MERGE imports and the url_hash backfill rely on keeping it
+-- (see migration 011_drop_modtime_trigger.sql)
 
 -- ============================================================================
 -- End of Schema
@@ -24,6 +24,13 @@ const API = {
     // Media Endpoints
     MEDIA: `${API_BASE_URL}/api/media`,
     MEDIA_COUNT: `${API_BASE_URL}/api/media/count`,
+    MEDIA_PAGE: `${API_BASE_URL}/api/media/page`,
+    MEDIA_STATS: `${API_BASE_URL}/api/media/stats`,
+    MEDIA_SEARCH: `${API_BASE_URL}/api/media/search`,
+    MEDIA_EVENTS: `${API_BASE_URL}/api/media/events`,
+    
+    // Import-Jobs (asynchron, mit Fortschritt)
+    IMPORT_JOBS: `${API_BASE_URL}/api/import/jobs`,
     
     // Weitere Endpoints hier hinzufügen...
     // IMPORT: `${API_BASE_URL}/api/import`,